@@ -0,0 +1,53 @@
+package edu.union.adt.graph.bench;
+import java.io.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.StronglyConnectedComponents;
+
+/**
+ * Time to find the strongly connected components of a graph and build
+ * its condensation, on graphs of up to millions of vertices.  The
+ * "chain" shape is one long cycle, the deepest search there is.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class ComponentsBenchmark
+{
+    @Param({"HASH", "CSR"})
+    public GraphKind kind;
+
+    @Param({"random", "powerlaw", "grid", "chain"})
+    public String shape;
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private Graph<Integer> graph;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        int n = SyntheticGraphs.vertices(shape, size);
+        int[] edges = SyntheticGraphs.edges(shape, size, 18);
+        graph = kind.build(n, edges);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        GraphKind.release(graph);
+    }
+
+    @Benchmark
+    public StronglyConnectedComponents<Integer> components()
+    {
+        return StronglyConnectedComponents.of(graph);
+    }
+}
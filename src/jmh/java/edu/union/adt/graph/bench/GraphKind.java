@@ -0,0 +1,136 @@
+package edu.union.adt.graph.bench;
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.GraphIO;
+import edu.union.adt.graph.OffHeapGraph;
+
+/**
+ * The Graph implementations the benchmarks compare: everything
+ * GraphFactory can make, plus graphs opened with GraphIO.openMapped.
+ */
+public enum GraphKind
+{
+    HASH(true),
+    CONCURRENT(true),
+    PERSISTENT(true),
+    OFF_HEAP(true),
+    CACHING(true),
+    WEIGHTED(true),
+    DAG(true),
+    UNDIRECTED(true),
+    CSR(false),
+    MAPPED(false);
+
+    private final boolean mutable;
+
+    GraphKind(boolean mutable)
+    {
+        this.mutable = mutable;
+    }
+
+    /**
+     * @return true iff graphs of this kind can be changed.
+     */
+    public boolean mutable()
+    {
+        return mutable;
+    }
+
+    /**
+     * Makes an empty graph of this kind, which must be mutable.
+     */
+    public Graph<Integer> create()
+    {
+        switch (this) {
+        case HASH:
+            return GraphFactory.<Integer>createGraph();
+        case CONCURRENT:
+            return GraphFactory.<Integer>createConcurrentGraph();
+        case PERSISTENT:
+            return GraphFactory.<Integer>createPersistentGraph();
+        case OFF_HEAP:
+            return GraphFactory.<Integer>createOffHeapGraph();
+        case CACHING:
+            return GraphFactory.cache(GraphFactory.<Integer>createGraph(), 64);
+        case WEIGHTED:
+            return GraphFactory.<Integer>createWeightedGraph();
+        case DAG:
+            return GraphFactory.<Integer>createDagGraph();
+        case UNDIRECTED:
+            return GraphFactory.<Integer>createUndirectedGraph();
+        default:
+            throw new UnsupportedOperationException(this + " graphs are read-only");
+        }
+    }
+
+    /**
+     * Adapts a synthetic edge list to graphs of this kind.  A DAG
+     * refuses edges that would close a cycle, so for DAG every edge
+     * goes from the lower vertex id to the higher one, and loops are
+     * dropped; the edges of every other kind are returned as they are.
+     *
+     * @param edges the edges, as pairs of vertices
+     * @return edges that a graph of this kind accepts, as pairs of
+     * vertices
+     */
+    public int[] edges(int[] edges)
+    {
+        if (this != DAG) {
+            return edges;
+        }
+        int[] forward = new int[edges.length];
+        int count = 0;
+        for (int i = 0; i < edges.length; i += 2) {
+            int from = edges[i];
+            int to = edges[i + 1];
+            if (from != to) {
+                forward[count++] = Math.min(from, to);
+                forward[count++] = Math.max(from, to);
+            }
+        }
+        return Arrays.copyOf(forward, count);
+    }
+
+    /**
+     * Makes a graph of this kind with vertices 0 to n - 1 and the
+     * given edges, which must already suit this kind (see edges).
+     *
+     * @param n the number of vertices
+     * @param edges the edges, as pairs of vertices
+     */
+    public Graph<Integer> build(int n, int[] edges) throws IOException
+    {
+        Graph<Integer> graph = mutable ? create() : GraphFactory.<Integer>createGraph();
+        for (int v = 0; v < n; v++) {
+            graph.addVertex(v);
+        }
+        for (int i = 0; i < edges.length; i += 2) {
+            graph.addEdge(edges[i], edges[i + 1]);
+        }
+        switch (this) {
+        case CSR:
+            return GraphFactory.freeze(graph);
+        case MAPPED:
+            Path file = Files.createTempFile("graph", ".bin");
+            file.toFile().deleteOnExit();
+            GraphIO.write(graph, file);
+            return GraphIO.<Integer>openMapped(file);
+        default:
+            return graph;
+        }
+    }
+
+    /**
+     * Frees what a graph of this kind holds outside the heap.
+     */
+    public static void release(Graph<Integer> graph)
+    {
+        if (graph instanceof OffHeapGraph) {
+            ((OffHeapGraph<Integer>) graph).close();
+        }
+    }
+}
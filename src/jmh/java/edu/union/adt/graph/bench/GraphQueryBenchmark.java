@@ -0,0 +1,130 @@
+package edu.union.adt.graph.bench;
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.union.adt.graph.Graph;
+
+/**
+ * Throughput of the Graph methods that only read, on every kind of
+ * graph, for each shape and size.  Each call uses the next of a fixed
+ * list of random vertex pairs; half the pairs are edges of the graph,
+ * so hasEdge answers both ways.  Vertices are boxed in advance, so any
+ * allocation the GC profiler reports comes from the graph.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GraphQueryBenchmark
+{
+    private static final int QUERIES = 1024;
+
+    @Param({"HASH", "CONCURRENT", "PERSISTENT", "OFF_HEAP", "CACHING", "WEIGHTED", "DAG", "UNDIRECTED",
+            "CSR", "MAPPED"})
+    public GraphKind kind;
+
+    @Param({"random", "powerlaw", "grid"})
+    public String shape;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private Graph<Integer> graph;
+    private Integer[] from = new Integer[QUERIES];
+    private Integer[] to = new Integer[QUERIES];
+
+    /**
+     * Which query a thread asks next.
+     */
+    @State(Scope.Thread)
+    public static class Cursor
+    {
+        int next;
+
+        int advance()
+        {
+            next = (next + 1) & (QUERIES - 1);
+            return next;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        int n = SyntheticGraphs.vertices(shape, size);
+        int[] edges = kind.edges(SyntheticGraphs.edges(shape, size, 18));
+        graph = kind.build(n, edges);
+        Random random = new Random(18);
+        for (int i = 0; i < QUERIES; i++) {
+            if (i % 2 == 0) {
+                int e = 2 * random.nextInt(edges.length / 2);
+                from[i] = edges[e];
+                to[i] = edges[e + 1];
+            }
+            else {
+                from[i] = random.nextInt(n);
+                to[i] = random.nextInt(n);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown()
+    {
+        GraphKind.release(graph);
+    }
+
+    @Benchmark
+    public boolean hasEdge(Cursor cursor)
+    {
+        int i = cursor.advance();
+        return graph.hasEdge(from[i], to[i]);
+    }
+
+    @Benchmark
+    public int degree(Cursor cursor)
+    {
+        return graph.degree(from[cursor.advance()]);
+    }
+
+    @Benchmark
+    public void adjacentTo(Cursor cursor, Blackhole blackhole)
+    {
+        for (Integer v : graph.adjacentTo(from[cursor.advance()])) {
+            blackhole.consume(v);
+        }
+    }
+
+    @Benchmark
+    public int numEdges()
+    {
+        return graph.numEdges();
+    }
+
+    @Benchmark
+    public boolean hasPath(Cursor cursor)
+    {
+        int i = cursor.advance();
+        return graph.hasPath(from[i], to[i]);
+    }
+
+    @Benchmark
+    public int pathLength(Cursor cursor)
+    {
+        int i = cursor.advance();
+        return graph.pathLength(from[i], to[i]);
+    }
+
+    @Benchmark
+    public Iterable<Integer> getPath(Cursor cursor)
+    {
+        int i = cursor.advance();
+        return graph.getPath(from[i], to[i]);
+    }
+}
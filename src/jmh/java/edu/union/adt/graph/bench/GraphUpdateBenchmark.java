@@ -0,0 +1,125 @@
+package edu.union.adt.graph.bench;
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import edu.union.adt.graph.Graph;
+
+/**
+ * Throughput of the Graph methods that change a graph, on every kind
+ * of graph that can be changed, for each shape and size.
+ *
+ * addEdge builds the whole graph from empty.  Its score counts whole
+ * builds; the secondary "edges" score alongside it counts addEdge
+ * calls.  removeVertex removes REMOVALS random vertices from a freshly
+ * built graph; the build is not timed.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class GraphUpdateBenchmark
+{
+    private static final int REMOVALS = 100;
+
+    @Param({"HASH", "CONCURRENT", "PERSISTENT", "OFF_HEAP", "CACHING", "WEIGHTED", "DAG", "UNDIRECTED"})
+    public GraphKind kind;
+
+    @Param({"random", "powerlaw", "grid"})
+    public String shape;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private int n;
+    private int[] edges;
+    private Integer[] boxed;
+    private Integer[] removals = new Integer[REMOVALS];
+    private Graph<Integer> graph;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        n = SyntheticGraphs.vertices(shape, size);
+        edges = kind.edges(SyntheticGraphs.edges(shape, size, 18));
+        boxed = new Integer[n];
+        for (int v = 0; v < n; v++) {
+            boxed[v] = v;
+        }
+        Random random = new Random(18);
+        for (int i = 0; i < REMOVALS; i++) {
+            removals[i] = boxed[random.nextInt(n)];
+        }
+    }
+
+    /**
+     * The graph removeVertex works on, rebuilt before every call.
+     */
+    @State(Scope.Thread)
+    public static class Built
+    {
+        Graph<Integer> graph;
+
+        @Setup(Level.Invocation)
+        public void build(GraphUpdateBenchmark benchmark) throws IOException
+        {
+            graph = benchmark.kind.build(benchmark.n, benchmark.edges);
+        }
+
+        @TearDown(Level.Invocation)
+        public void release()
+        {
+            GraphKind.release(graph);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void release()
+    {
+        if (graph != null) {
+            GraphKind.release(graph);
+            graph = null;
+        }
+    }
+
+    @Benchmark
+    public Graph<Integer> addEdge(OpsPerEdge ops)
+    {
+        graph = kind.create();
+        for (int i = 0; i < edges.length; i += 2) {
+            graph.addEdge(boxed[edges[i]], boxed[edges[i + 1]]);
+        }
+        ops.edges += edges.length / 2;
+        return graph;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REMOVALS)
+    public Graph<Integer> removeVertex(Built built)
+    {
+        for (Integer v : removals) {
+            built.graph.removeVertex(v);
+        }
+        return built.graph;
+    }
+
+    /**
+     * Counts the addEdge calls addEdge makes, as a secondary score.
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class OpsPerEdge
+    {
+        public long edges;
+
+        @Setup(Level.Iteration)
+        public void reset()
+        {
+            edges = 0;
+        }
+    }
+}
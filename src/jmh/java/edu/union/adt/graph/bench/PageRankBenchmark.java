@@ -0,0 +1,49 @@
+package edu.union.adt.graph.bench;
+import java.io.*;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.PageRank;
+import edu.union.adt.graph.RankResult;
+
+/**
+ * Time for one PageRank run of a fixed number of iterations, on the
+ * common ForkJoinPool, for each shape and size.  The graph is frozen
+ * once, outside the timing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class PageRankBenchmark
+{
+    private static final int ITERATIONS = 20;
+
+    @Param({"random", "powerlaw", "grid"})
+    public String shape;
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private PageRank<Integer> pageRank;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException
+    {
+        int n = SyntheticGraphs.vertices(shape, size);
+        int[] edges = SyntheticGraphs.edges(shape, size, 18);
+        pageRank = new PageRank<Integer>(GraphFactory.freeze(GraphKind.HASH.build(n, edges)));
+        pageRank.setTolerance(0);
+        pageRank.setMaxIterations(ITERATIONS);
+    }
+
+    @Benchmark
+    public RankResult<Integer> pageRank()
+    {
+        return pageRank.run();
+    }
+}
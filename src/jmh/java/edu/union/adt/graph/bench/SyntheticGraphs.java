@@ -0,0 +1,129 @@
+package edu.union.adt.graph.bench;
+import java.util.*;
+
+/**
+ * Edge lists for the benchmarks, in four shapes, over the vertices 0
+ * to n - 1.  The edges are returned as one array of pairs: edge i
+ * goes from edges[2 * i] to edges[2 * i + 1].  The same shape, size
+ * and seed always give the same edges.
+ */
+public final class SyntheticGraphs
+{
+    /**
+     * How many edges leave each vertex, on average, in the random and
+     * power-law shapes.
+     */
+    public static final int EDGES_PER_VERTEX = 4;
+
+    private SyntheticGraphs()
+    {
+    }
+
+    /**
+     * @param shape "random", "powerlaw", "grid" or "chain"
+     * @param n the number of vertices; a grid uses the largest square
+     * number of vertices no greater than n
+     * @param seed the seed for the random choices
+     * @return the edges, as pairs of vertices
+     */
+    public static int[] edges(String shape, int n, long seed)
+    {
+        switch (shape) {
+        case "random":
+            return random(n, seed);
+        case "powerlaw":
+            return powerLaw(n, seed);
+        case "grid":
+            return grid(n);
+        case "chain":
+            return chain(n);
+        default:
+            throw new IllegalArgumentException("unknown shape " + shape);
+        }
+    }
+
+    /**
+     * @return the number of vertices a graph of the given shape and
+     * size has.
+     */
+    public static int vertices(String shape, int n)
+    {
+        if (shape.equals("grid")) {
+            int side = (int) Math.sqrt(n);
+            return side * side;
+        }
+        return n;
+    }
+
+    //Each edge joins two vertices chosen uniformly at random
+    private static int[] random(int n, long seed)
+    {
+        Random random = new Random(seed);
+        int[] edges = new int[2 * EDGES_PER_VERTEX * n];
+        for (int i = 0; i < edges.length; i++) {
+            edges[i] = random.nextInt(n);
+        }
+        return edges;
+    }
+
+    //Preferential attachment: each new vertex has edges to earlier
+    //vertices chosen in proportion to their degree, which gives a few
+    //vertices very high in-degree
+    private static int[] powerLaw(int n, long seed)
+    {
+        Random random = new Random(seed);
+        int[] edges = new int[2 * EDGES_PER_VERTEX * n];
+        int count = 0;
+        for (int v = 1; v < n; v++) {
+            for (int j = 0; j < EDGES_PER_VERTEX; j++) {
+                // an endpoint of an earlier edge, or (for the first
+                // edges, or one time in EDGES_PER_VERTEX) any earlier
+                // vertex, so that every vertex can gain edges
+                int target = count == 0 || random.nextInt(EDGES_PER_VERTEX) == 0
+                    ? random.nextInt(v)
+                    : edges[random.nextInt(count)];
+                edges[count++] = v;
+                edges[count++] = target;
+            }
+        }
+        return Arrays.copyOf(edges, count);
+    }
+
+    //A square grid with edges both ways between neighbors
+    private static int[] grid(int n)
+    {
+        int side = (int) Math.sqrt(n);
+        int[] edges = new int[8 * side * side];
+        int count = 0;
+        for (int row = 0; row < side; row++) {
+            for (int column = 0; column < side; column++) {
+                int v = row * side + column;
+                if (column + 1 < side) {
+                    edges[count++] = v;
+                    edges[count++] = v + 1;
+                    edges[count++] = v + 1;
+                    edges[count++] = v;
+                }
+                if (row + 1 < side) {
+                    edges[count++] = v;
+                    edges[count++] = v + side;
+                    edges[count++] = v + side;
+                    edges[count++] = v;
+                }
+            }
+        }
+        return Arrays.copyOf(edges, count);
+    }
+
+    //One cycle through every vertex, the deepest graph a depth-first
+    //search can meet
+    private static int[] chain(int n)
+    {
+        int[] edges = new int[2 * n];
+        for (int v = 0; v < n; v++) {
+            edges[2 * v] = v;
+            edges[2 * v + 1] = (v + 1) % n;
+        }
+        return edges;
+    }
+}
@@ -0,0 +1,172 @@
+package edu.union.adt.graph;
+import java.util.*;
+
+/**
+ * The A* search behind Graph.aStar.  Graphs that number their
+ * vertices (HashGraph, CsrGraph and HashWeightedGraph) are searched
+ * by DijkstraSearch over their ids, with the heuristic as its
+ * estimate; the estimate of each vertex is asked for once per search.
+ * Any other graph is searched through the Graph methods alone, with a
+ * PriorityQueue and hash maps.
+ */
+final class AStarSearch
+{
+    private AStarSearch()
+    {
+    }
+
+    /**
+     * Finds a cheapest path between two vertices of a graph, where the
+     * cost of a path is the sum of its weights on a WeightedGraph and
+     * its number of edges on any other graph.
+     */
+    @SuppressWarnings("unchecked")
+    static <V> PathResult<V> search(Graph<V> graph, V from, V to,
+                                    Heuristic<? super V> heuristic)
+    {
+        if (from == null || to == null || heuristic == null) {
+            throw new IllegalArgumentException();
+        }
+        if (graph instanceof HashGraph) {
+            final HashGraph<V> hash = (HashGraph<V>) graph;
+            return search(hash.indexed(), hash.idOf(from), hash.idOf(to), to, heuristic,
+                          new VertexLookup<V>() {
+                              public V vertex(int id)
+                              {
+                                  return hash.vertex(id);
+                              }
+                          });
+        }
+        if (graph instanceof CsrGraph) {
+            final CsrGraph<V> csr = (CsrGraph<V>) graph;
+            return search(csr.indexed(), csr.idOf(from), csr.idOf(to), to, heuristic,
+                          new VertexLookup<V>() {
+                              public V vertex(int id)
+                              {
+                                  return csr.vertex(id);
+                              }
+                          });
+        }
+        if (graph instanceof HashWeightedGraph) {
+            final HashWeightedGraph<V> weighted = (HashWeightedGraph<V>) graph;
+            return search(weighted.indexed(), weighted.idOf(from), weighted.idOf(to), to,
+                          heuristic, new VertexLookup<V>() {
+                              public V vertex(int id)
+                              {
+                                  return weighted.vertex(id);
+                              }
+                          });
+        }
+        return searchGraph(graph, from, to, heuristic);
+    }
+
+    private interface VertexLookup<V>
+    {
+        V vertex(int id);
+    }
+
+    private static <V> PathResult<V> search(IndexedGraph graph, int from, int to,
+                                            final V toVertex,
+                                            final Heuristic<? super V> heuristic,
+                                            final VertexLookup<V> lookup)
+    {
+        ArrayList<V> path = new ArrayList<>();
+        if (from < 0 || to < 0) {
+            return new PathResult<V>(path, Double.POSITIVE_INFINITY, 0);
+        }
+        DijkstraSearch search = DijkstraSearch.forThread();
+        double cost = search.search(graph, from, to, new DijkstraSearch.Estimate() {
+            public double of(int id)
+            {
+                return heuristic.estimate(lookup.vertex(id), toVertex);
+            }
+        });
+        if (cost < 0) {
+            return new PathResult<V>(path, Double.POSITIVE_INFINITY, search.expanded());
+        }
+        if (from != to) {
+            for (int id : search.path()) {
+                path.add(lookup.vertex(id));
+            }
+        }
+        return new PathResult<V>(path, cost, search.expanded());
+    }
+
+    /**
+     * A vertex waiting in the queue, with the key it was queued with.
+     * A vertex whose distance improves is queued again, and stale
+     * entries are skipped when they come out.
+     */
+    private static final class Entry<V>
+    {
+        final V vertex;
+        final double distance;
+        final double key;
+
+        Entry(V vertex, double distance, double key)
+        {
+            this.vertex = vertex;
+            this.distance = distance;
+            this.key = key;
+        }
+    }
+
+    private static <V> PathResult<V> searchGraph(Graph<V> graph, V from, V to,
+                                                 Heuristic<? super V> heuristic)
+    {
+        ArrayList<V> path = new ArrayList<>();
+        if (!graph.contains(from) || !graph.contains(to)) {
+            return new PathResult<V>(path, Double.POSITIVE_INFINITY, 0);
+        }
+        WeightedGraph<V> weighted =
+            graph instanceof WeightedGraph ? (WeightedGraph<V>) graph : null;
+        HashMap<V, Double> distance = new HashMap<>();
+        HashMap<V, Double> remaining = new HashMap<>();
+        HashMap<V, V> parent = new HashMap<>();
+        PriorityQueue<Entry<V>> queue = new PriorityQueue<>(11, new Comparator<Entry<V>>() {
+            public int compare(Entry<V> a, Entry<V> b)
+            {
+                return Double.compare(a.key, b.key);
+            }
+        });
+        distance.put(from, 0.0);
+        remaining.put(from, heuristic.estimate(from, to));
+        queue.add(new Entry<V>(from, 0, remaining.get(from)));
+        int expanded = 0;
+        while (!queue.isEmpty()) {
+            Entry<V> entry = queue.poll();
+            V v = entry.vertex;
+            double d = entry.distance;
+            if (d > distance.get(v)) {
+                continue;
+            }
+            expanded++;
+            if (v.equals(to)) {
+                if (!from.equals(to)) {
+                    for (V u = to; ; u = parent.get(u)) {
+                        path.add(u);
+                        if (u.equals(from)) {
+                            break;
+                        }
+                    }
+                    Collections.reverse(path);
+                }
+                return new PathResult<V>(path, d, expanded);
+            }
+            for (V w : graph.adjacentTo(v)) {
+                double through = d + (weighted == null ? 1 : weighted.weight(v, w));
+                Double known = distance.get(w);
+                if (known != null && through >= known) {
+                    continue;
+                }
+                if (known == null) {
+                    remaining.put(w, heuristic.estimate(w, to));
+                }
+                distance.put(w, through);
+                parent.put(w, v);
+                queue.add(new Entry<V>(w, through, through + remaining.get(w)));
+            }
+        }
+        return new PathResult<V>(path, Double.POSITIVE_INFINITY, expanded);
+    }
+}
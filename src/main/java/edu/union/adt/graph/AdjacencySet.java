@@ -0,0 +1,248 @@
+package edu.union.adt.graph;
+import java.util.*;
+
+/**
+ * The set of vertices adjacent to one vertex.  The elements are kept
+ * in an array, in the order they were added.  While the set is small,
+ * lookups just scan the array.  Once it grows past a threshold, an
+ * open-addressing hash index (linear probing) of the array positions
+ * is built, so add, contains and remove take constant time no matter
+ * how many elements there are.
+ *
+ * Removing an element moves the last element into its position, so
+ * iteration order is always the same for the same sequence of calls.
+ */
+final class AdjacencySet<E> extends AbstractSet<E>
+{
+    private static final Object[] EMPTY = new Object[0];
+
+    private final int threshold;
+    private Object[] elements = EMPTY;
+    private int size;
+
+    // position + 1 of each element, 0 for an empty slot; null until
+    // the set grows past the threshold
+    private int[] index;
+
+    /**
+     * Create an empty set.
+     *
+     * @param threshold the size above which a hash index is kept
+     */
+    AdjacencySet(int threshold)
+    {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Makes room for at least 'capacity' elements.
+     */
+    void ensureCapacity(int capacity)
+    {
+        if (capacity > elements.length) {
+            elements = Arrays.copyOf(elements, capacity);
+        }
+        if (capacity > threshold) {
+            if (index == null || index.length < 2 * capacity) {
+                rebuildIndex(capacity);
+            }
+        }
+    }
+
+    /**
+     * @return the element at position i, from 0 to size() - 1.
+     */
+    @SuppressWarnings("unchecked")
+    E get(int i)
+    {
+        return (E) elements[i];
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    @Override
+    public boolean contains(Object o)
+    {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public boolean add(E e)
+    {
+        if (indexOf(e) >= 0) {
+            return false;
+        }
+        append(e);
+        return true;
+    }
+
+    /**
+     * Adds an element that the caller knows is not in the set,
+     * without looking for it first.
+     */
+    void append(E e)
+    {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(4, size * 2));
+        }
+        elements[size++] = e;
+        if (index != null && 2 * size > index.length) {
+            rebuildIndex(size);
+        }
+        else if (index != null) {
+            insert(size - 1);
+        }
+        else if (size > threshold) {
+            rebuildIndex(size);
+        }
+    }
+
+    @Override
+    public boolean remove(Object o)
+    {
+        int i = indexOf(o);
+        if (i < 0) {
+            return false;
+        }
+        removeAt(i);
+        return true;
+    }
+
+    @Override
+    public void clear()
+    {
+        elements = EMPTY;
+        size = 0;
+        index = null;
+    }
+
+    @Override
+    public Iterator<E> iterator()
+    {
+        return new Iterator<E>() {
+            private int next = 0;
+            private int last = -1;
+
+            public boolean hasNext()
+            {
+                return next < size;
+            }
+
+            public E next()
+            {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                last = next++;
+                return get(last);
+            }
+
+            public void remove()
+            {
+                if (last < 0) {
+                    throw new IllegalStateException();
+                }
+                removeAt(last);
+                // the last element moved into the removed position
+                next = last;
+                last = -1;
+            }
+        };
+    }
+
+    private static int hash(Object o)
+    {
+        int h = o.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    //Returns the position of o in the array, or -1
+    private int indexOf(Object o)
+    {
+        if (o == null) {
+            return -1;
+        }
+        if (index == null) {
+            for (int i = 0; i < size; i++) {
+                if (o.equals(elements[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int mask = index.length - 1;
+        for (int slot = hash(o) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+            int i = index[slot] - 1;
+            if (o.equals(elements[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    //Returns the index slot that refers to position i
+    private int slotOf(int i)
+    {
+        int mask = index.length - 1;
+        int slot = hash(elements[i]) & mask;
+        while (index[slot] != i + 1) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void insert(int i)
+    {
+        int mask = index.length - 1;
+        int slot = hash(elements[i]) & mask;
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index[slot] = i + 1;
+    }
+
+    private void rebuildIndex(int capacity)
+    {
+        int length = Integer.highestOneBit(Math.max(capacity, 2) * 2 - 1) * 2;
+        index = new int[length];
+        for (int i = 0; i < size; i++) {
+            insert(i);
+        }
+    }
+
+    private void removeAt(int i)
+    {
+        int last = size - 1;
+        if (index != null) {
+            deleteSlot(slotOf(i));
+            if (i != last) {
+                index[slotOf(last)] = i + 1;
+            }
+        }
+        elements[i] = elements[last];
+        elements[last] = null;
+        size = last;
+    }
+
+    //Removes an index entry, shifting back later entries of its probe run
+    private void deleteSlot(int slot)
+    {
+        int mask = index.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (index[next] != 0) {
+            int home = hash(elements[index[next] - 1]) & mask;
+            // move the entry back unless its home lies in (hole, next]
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                index[hole] = index[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        index[hole] = 0;
+    }
+}
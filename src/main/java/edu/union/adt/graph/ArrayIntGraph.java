@@ -0,0 +1,478 @@
+package edu.union.adt.graph;
+import java.util.*;
+
+/**
+ * An IntGraph that keeps the adjacency list of each vertex in a
+ * growable int[] array, indexed directly by the vertex.  Adding and
+ * removing edges allocate nothing once the arrays have grown large
+ * enough, and searches reuse per-thread scratch arrays (see
+ * BreadthFirstSearch).
+ *
+ * Memory use is proportional to the largest vertex in the graph, so
+ * this class is meant for graphs whose vertices are (roughly) dense
+ * ids starting at 0.
+ */
+public class ArrayIntGraph implements IntGraph
+{
+    private static final int[] NO_EDGES = new int[0];
+
+    private int[][] adjacency;
+    private int[] degrees;
+    private boolean[] present;
+    private int numVertices;
+    private int numEdges;
+
+    private final IndexedGraph indexed = new IndexedGraph() {
+        public int idLimit()
+        {
+            return present.length;
+        }
+
+        public boolean isVertex(int id)
+        {
+            return present[id];
+        }
+
+        public int degree(int id)
+        {
+            return degrees[id];
+        }
+
+        public int neighbor(int id, int index)
+        {
+            return adjacency[id][index];
+        }
+
+        public boolean hasPredecessors()
+        {
+            return false;
+        }
+
+        public int inDegree(int id)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        public int predecessor(int id, int index)
+        {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    /**
+     * Create an empty graph.
+     */
+    public ArrayIntGraph()
+    {
+        this(16);
+    }
+
+    /**
+     * Create an empty graph with room for vertices 0 to
+     * expectedVertices - 1 before any array needs to grow.
+     *
+     * @param expectedVertices the number of vertices to make room for
+     */
+    public ArrayIntGraph(int expectedVertices)
+    {
+        int capacity = Math.max(expectedVertices, 1);
+        adjacency = new int[capacity][];
+        degrees = new int[capacity];
+        present = new boolean[capacity];
+    }
+
+    private static void check(int vertex)
+    {
+        if (vertex < 0) {
+            throw new IllegalArgumentException("negative vertex: " + vertex);
+        }
+    }
+
+    private void ensureCapacity(int vertex)
+    {
+        if (vertex < present.length) {
+            return;
+        }
+        int capacity = Math.max(present.length * 2, vertex + 1);
+        adjacency = Arrays.copyOf(adjacency, capacity);
+        degrees = Arrays.copyOf(degrees, capacity);
+        present = Arrays.copyOf(present, capacity);
+    }
+
+    //Returns the position of 'to' in the adjacency list of 'from', or -1
+    private int indexOf(int from, int to)
+    {
+        int[] edges = adjacency[from];
+        for (int i = 0; i < degrees[from]; i++) {
+            if (edges[i] == to) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the number of vertices in the graph.
+     */
+    @Override
+    public int numVertices()
+    {
+        return numVertices;
+    }
+
+    /**
+     * @return the number of edges in the graph.
+     */
+    @Override
+    public int numEdges()
+    {
+        return numEdges;
+    }
+
+    /**
+     * Gets the number of vertices connected by edges from a given
+     * vertex.  If the given vertex is not in the graph, throws a
+     * RuntimeException.
+     *
+     * @param vertex the vertex whose degree we want.
+     * @return the degree of vertex 'vertex'
+     */
+    @Override
+    public int degree(int vertex)
+    {
+        if (!contains(vertex)) {
+            throw new RuntimeException();
+        }
+        return degrees[vertex];
+    }
+
+    /**
+     * Adds a directed edge between two vertices.  If there is already an edge
+     * between the given vertices, does nothing.  If either (or both)
+     * of the given vertices does not exist, it is added to the
+     * graph before the edge is created between them.
+     *
+     * @param from the source vertex for the added edge
+     * @param to the destination vertex for the added edge
+     */
+    @Override
+    public void addEdge(int from, int to)
+    {
+        addVertex(from);
+        addVertex(to);
+        if (indexOf(from, to) >= 0) {
+            return;
+        }
+        int[] edges = adjacency[from];
+        int degree = degrees[from];
+        if (degree == edges.length) {
+            edges = Arrays.copyOf(edges, Math.max(4, degree * 2));
+            adjacency[from] = edges;
+        }
+        edges[degree] = to;
+        degrees[from] = degree + 1;
+        numEdges++;
+    }
+
+    /**
+     * Adds a batch of edges, for loaders that have already parsed
+     * them.  Unlike calling addEdge once per edge, this counts the new
+     * edges of each vertex first, so its adjacency array is allocated
+     * once, and drops duplicates with a stamp per destination instead
+     * of scanning the array.
+     *
+     * @param sources the source vertex of each edge
+     * @param targets the destination vertex of each edge
+     * @param count the number of edges
+     */
+    void addEdges(int[] sources, int[] targets, int count)
+    {
+        for (int i = 0; i < count; i++) {
+            addVertex(sources[i]);
+            addVertex(targets[i]);
+        }
+
+        // group the destinations by source, keeping their order
+        int n = present.length;
+        int[] start = new int[n + 1];
+        for (int i = 0; i < count; i++) {
+            start[sources[i] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            start[v + 1] += start[v];
+        }
+        int[] grouped = new int[count];
+        int[] fill = Arrays.copyOf(start, n);
+        for (int i = 0; i < count; i++) {
+            grouped[fill[sources[i]]++] = targets[i];
+        }
+
+        // seen[d] == s + 1 once the edge (s, d) is in the graph
+        int[] seen = fill;
+        Arrays.fill(seen, 0);
+        for (int s = 0; s < n; s++) {
+            if (start[s] == start[s + 1]) {
+                continue;
+            }
+            int[] edges = adjacency[s];
+            int degree = degrees[s];
+            for (int i = 0; i < degree; i++) {
+                seen[edges[i]] = s + 1;
+            }
+            int room = degree + start[s + 1] - start[s];
+            if (edges.length < room) {
+                edges = Arrays.copyOf(edges, room);
+                adjacency[s] = edges;
+            }
+            for (int j = start[s]; j < start[s + 1]; j++) {
+                int d = grouped[j];
+                if (seen[d] != s + 1) {
+                    seen[d] = s + 1;
+                    edges[degree++] = d;
+                }
+            }
+            numEdges += degree - degrees[s];
+            degrees[s] = degree;
+        }
+    }
+
+    /**
+     * Adds a vertex to the graph.  If the vertex already exists in
+     * the graph, does nothing.
+     *
+     * @param vertex the vertex to add
+     */
+    @Override
+    public void addVertex(int vertex)
+    {
+        check(vertex);
+        ensureCapacity(vertex);
+        if (!present[vertex]) {
+            present[vertex] = true;
+            if (adjacency[vertex] == null) {
+                adjacency[vertex] = NO_EDGES;
+            }
+            numVertices++;
+        }
+    }
+
+    /**
+     * @return a cursor over the vertices of the graph, in increasing
+     * order.
+     */
+    @Override
+    public IntCursor getVertices()
+    {
+        return new IntCursor() {
+            private int next = advance(0);
+
+            private int advance(int from)
+            {
+                while (from < present.length && !present[from]) {
+                    from++;
+                }
+                return from;
+            }
+
+            public boolean hasNext()
+            {
+                return next < present.length;
+            }
+
+            public int next()
+            {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int vertex = next;
+                next = advance(next + 1);
+                return vertex;
+            }
+        };
+    }
+
+    /**
+     * Gets the vertices adjacent to a given vertex.
+     *
+     * @param from the source vertex
+     * @return a cursor over the destinations of the edges for which
+     * 'from' is the source vertex.  If 'from' is not a vertex in the
+     * graph, returns an empty cursor.
+     */
+    @Override
+    public IntCursor adjacentTo(final int from)
+    {
+        final int[] edges = contains(from) ? adjacency[from] : NO_EDGES;
+        final int degree = contains(from) ? degrees[from] : 0;
+        return new IntCursor() {
+            private int next = 0;
+
+            public boolean hasNext()
+            {
+                return next < degree;
+            }
+
+            public int next()
+            {
+                if (next >= degree) {
+                    throw new NoSuchElementException();
+                }
+                return edges[next++];
+            }
+        };
+    }
+
+    /**
+     * Gets one of the vertices adjacent to a given vertex, without
+     * creating a cursor.
+     *
+     * @param from the source vertex
+     * @param index the position of the neighbor, from 0 to degree(from) - 1
+     * @return the destination of the index'th edge leaving 'from'
+     */
+    @Override
+    public int neighbor(int from, int index)
+    {
+        if (index < 0 || index >= degree(from)) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        return adjacency[from][index];
+    }
+
+    /**
+     * Tells whether or not a vertex is in the graph.
+     *
+     * @param vertex a vertex
+     * @return true iff 'vertex' is a vertex in the graph.
+     */
+    @Override
+    public boolean contains(int vertex)
+    {
+        check(vertex);
+        return vertex < present.length && present[vertex];
+    }
+
+    /**
+     * Tells whether an edge exists in the graph.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return true iff there is an edge from the source vertex to the
+     * destination vertex in the graph.
+     */
+    @Override
+    public boolean hasEdge(int from, int to)
+    {
+        check(to);
+        return contains(from) && indexOf(from, to) >= 0;
+    }
+
+    /**
+     * Tells whether the graph is empty.
+     *
+     * @return true iff the graph has no vertices and no edges.
+     */
+    @Override
+    public boolean isEmpty()
+    {
+        return numVertices == 0;
+    }
+
+    /**
+     * Removes a vertex from the graph, along with any edges connecting
+     * from it or to it.  Finding the edges that lead to the vertex
+     * takes time proportional to the size of the graph.
+     *
+     * @param toRemove the vertex to remove.
+     */
+    @Override
+    public void removeVertex(int toRemove)
+    {
+        if (!contains(toRemove)) {
+            return;
+        }
+        numEdges -= degrees[toRemove];
+        degrees[toRemove] = 0;
+        present[toRemove] = false;
+        numVertices--;
+        for (int v = 0; v < present.length; v++) {
+            if (present[v]) {
+                removeEdge(v, toRemove);
+            }
+        }
+    }
+
+    /**
+     * Removes an edge from the graph.  If the edge is not in the
+     * graph, does nothing.  The last edge leaving 'from' takes the
+     * place of the removed one.
+     */
+    @Override
+    public void removeEdge(int from, int to)
+    {
+        if (!hasEdge(from, to)) {
+            return;
+        }
+        int i = indexOf(from, to);
+        int last = --degrees[from];
+        adjacency[from][i] = adjacency[from][last];
+        numEdges--;
+    }
+
+    /**
+     * Tells whether there is a path connecting two given vertices.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return true iff there is a path from 'from' to 'to' in the graph.
+     */
+    @Override
+    public boolean hasPath(int from, int to)
+    {
+        return search(from, to) >= 0;
+    }
+
+    /**
+     * Gets the length of the shortest path connecting two given
+     * vertices.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return the length of the shortest path from 'from' to 'to' in
+     * the graph.  If there is no path, returns Integer.MAX_VALUE
+     */
+    @Override
+    public int pathLength(int from, int to)
+    {
+        int length = search(from, to);
+        return length < 0 ? Integer.MAX_VALUE : length;
+    }
+
+    /**
+     * Returns the vertices along the shortest path connecting two
+     * given vertices, including 'from' and 'to'.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return the vertices along the shortest path from 'from' to
+     * 'to'.  If there is no path, or if from = to, returns an empty
+     * array.
+     */
+    @Override
+    public int[] getPath(int from, int to)
+    {
+        if (search(from, to) <= 0) {
+            return NO_EDGES;
+        }
+        return BreadthFirstSearch.forThread().path();
+    }
+
+    //Returns the length of the shortest path, or -1 if there is none
+    private int search(int from, int to)
+    {
+        if (!contains(from) || !contains(to)) {
+            return -1;
+        }
+        return BreadthFirstSearch.forThread().search(indexed, from, to, false);
+    }
+}
@@ -0,0 +1,308 @@
+package edu.union.adt.graph;
+import java.util.*;
+
+/**
+ * The breadth-first search behind hasPath, pathLength and getPath.  A
+ * single search answers all three questions: it stops as soon as the
+ * destination is reached, and leaves enough behind to rebuild the
+ * path.
+ *
+ * Each thread has its own instance (see forThread), whose arrays are
+ * reused from one search to the next: a queue, a parent and a
+ * distance per vertex id, and a visited mark that is a generation
+ * stamp rather than a boolean, so it never has to be cleared.  Apart
+ * from growing those arrays, a search allocates nothing; only path()
+ * allocates its result.
+ */
+final class BreadthFirstSearch
+{
+    private static final ThreadLocal<BreadthFirstSearch> SCRATCH =
+        new ThreadLocal<BreadthFirstSearch>() {
+            @Override
+            protected BreadthFirstSearch initialValue()
+            {
+                return new BreadthFirstSearch();
+            }
+        };
+
+    private int[] mark = new int[0];
+    private int[] parent = mark;
+    private int[] distance = mark;
+    private int[] queue = mark;
+    private int[] backQueue = mark;
+    private int[] wanted = mark;
+
+    // forward-visited vertices are marked 'stamp', backward-visited
+    // ones 'stamp + 1'
+    private int stamp;
+
+    private int source;
+    private int target;
+    private int length = -1;
+    private int meetForward;
+    private int meetBackward;
+
+    private BreadthFirstSearch()
+    {
+    }
+
+    /**
+     * @return the calling thread's search.
+     */
+    static BreadthFirstSearch forThread()
+    {
+        return SCRATCH.get();
+    }
+
+    private void reset(int capacity)
+    {
+        if (mark.length < capacity) {
+            int size = Math.max(capacity, mark.length + (mark.length >> 1));
+            mark = new int[size];
+            parent = new int[size];
+            distance = new int[size];
+            queue = new int[size];
+            backQueue = new int[size];
+            wanted = new int[size];
+            stamp = 0;
+        }
+        if (stamp >= Integer.MAX_VALUE - 3) {
+            Arrays.fill(mark, 0);
+            Arrays.fill(wanted, 0);
+            stamp = 0;
+        }
+        stamp += 2;
+    }
+
+    /**
+     * Searches for a shortest path between two vertices.
+     *
+     * @param graph the graph to search
+     * @param from the id of the source vertex
+     * @param to the id of the destination vertex
+     * @param bidirectional whether to search from both ends at once;
+     * ignored if the graph does not support predecessors
+     * @return the length of the shortest path, or -1 if there is none
+     */
+    int search(IndexedGraph graph, int from, int to, boolean bidirectional)
+    {
+        source = from;
+        target = to;
+        meetForward = to;
+        meetBackward = -1;
+        if (from == to) {
+            length = 0;
+        }
+        else {
+            reset(graph.idLimit());
+            if (bidirectional && graph.hasPredecessors()) {
+                length = searchBothWays(graph);
+            }
+            else {
+                length = searchForward(graph);
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Finds the distances from one source to several destinations with
+     * a single search, which stops as soon as every destination has
+     * been reached.
+     *
+     * @param graph the graph to search
+     * @param from the id of the source vertex
+     * @param targets holds the ids of the destinations
+     * @param offset the position of the first destination in 'targets'
+     * @param count the number of destinations
+     * @param lengths filled, from position 'offset' on, with the length
+     * of the shortest path to each destination, or -1 if there is none
+     */
+    void searchAll(IndexedGraph graph, int from, int[] targets, int offset,
+                   int count, int[] lengths)
+    {
+        length = -1;
+        reset(graph.idLimit());
+        int visited = stamp;
+        int remaining = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int t = targets[i];
+            if (t != from && wanted[t] != visited) {
+                wanted[t] = visited;
+                remaining++;
+            }
+        }
+
+        mark[from] = visited;
+        distance[from] = 0;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = from;
+        while (head < tail && remaining > 0) {
+            int v = queue[head++];
+            int d = distance[v] + 1;
+            int degree = graph.degree(v);
+            for (int i = 0; i < degree && remaining > 0; i++) {
+                int w = graph.neighbor(v, i);
+                if (mark[w] == visited) {
+                    continue;
+                }
+                mark[w] = visited;
+                distance[w] = d;
+                if (wanted[w] == visited) {
+                    remaining--;
+                }
+                queue[tail++] = w;
+            }
+        }
+
+        for (int i = offset; i < offset + count; i++) {
+            int t = targets[i];
+            lengths[i] = mark[t] == visited ? distance[t] : -1;
+        }
+    }
+
+    /**
+     * @return the ids along the path found by the last search on this
+     * thread, from source to destination, or null if it found none.
+     */
+    int[] path()
+    {
+        if (length < 0) {
+            return null;
+        }
+        int[] path = new int[length + 1];
+        int i = length;
+        if (meetBackward >= 0) {
+            i = distance[meetForward] + 1;
+            for (int v = meetBackward; ; v = parent[v]) {
+                path[i++] = v;
+                if (v == target) {
+                    break;
+                }
+            }
+            i = distance[meetForward];
+        }
+        for (int v = meetForward; ; v = parent[v]) {
+            path[i--] = v;
+            if (v == source) {
+                break;
+            }
+        }
+        return path;
+    }
+
+    private int searchForward(IndexedGraph graph)
+    {
+        int visited = stamp;
+        mark[source] = visited;
+        parent[source] = source;
+        distance[source] = 0;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int v = queue[head++];
+            int d = distance[v] + 1;
+            int degree = graph.degree(v);
+            for (int i = 0; i < degree; i++) {
+                int w = graph.neighbor(v, i);
+                if (mark[w] == visited) {
+                    continue;
+                }
+                mark[w] = visited;
+                parent[w] = v;
+                distance[w] = d;
+                if (w == target) {
+                    return d;
+                }
+                queue[tail++] = w;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Grows the smaller of the forward and backward frontiers one full
+     * level at a time.  After the first level that touches a vertex
+     * seen by the other side, the best meeting edge found in that
+     * level lies on a shortest path.
+     */
+    private int searchBothWays(IndexedGraph graph)
+    {
+        int forward = stamp;
+        int backward = stamp + 1;
+        mark[source] = forward;
+        parent[source] = source;
+        distance[source] = 0;
+        mark[target] = backward;
+        parent[target] = target;
+        distance[target] = 0;
+        int head = 0;
+        int tail = 0;
+        int backHead = 0;
+        int backTail = 0;
+        queue[tail++] = source;
+        backQueue[backTail++] = target;
+
+        while (head < tail && backHead < backTail) {
+            int best = Integer.MAX_VALUE;
+            if (tail - head <= backTail - backHead) {
+                int end = tail;
+                while (head < end) {
+                    int v = queue[head++];
+                    int d = distance[v] + 1;
+                    int degree = graph.degree(v);
+                    for (int i = 0; i < degree; i++) {
+                        int w = graph.neighbor(v, i);
+                        if (mark[w] == forward) {
+                            continue;
+                        }
+                        if (mark[w] == backward) {
+                            if (d + distance[w] < best) {
+                                best = d + distance[w];
+                                meetForward = v;
+                                meetBackward = w;
+                            }
+                            continue;
+                        }
+                        mark[w] = forward;
+                        parent[w] = v;
+                        distance[w] = d;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+            else {
+                int end = backTail;
+                while (backHead < end) {
+                    int v = backQueue[backHead++];
+                    int d = distance[v] + 1;
+                    int degree = graph.inDegree(v);
+                    for (int i = 0; i < degree; i++) {
+                        int w = graph.predecessor(v, i);
+                        if (mark[w] == backward) {
+                            continue;
+                        }
+                        if (mark[w] == forward) {
+                            if (d + distance[w] < best) {
+                                best = d + distance[w];
+                                meetForward = w;
+                                meetBackward = v;
+                            }
+                            continue;
+                        }
+                        mark[w] = backward;
+                        parent[w] = v;
+                        distance[w] = d;
+                        backQueue[backTail++] = w;
+                    }
+                }
+            }
+            if (best != Integer.MAX_VALUE) {
+                return best;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,289 @@
+package edu.union.adt.graph;
+import java.util.*;
+import java.io.IOException;
+
+/**
+ * A graph that remembers the answers to its path queries.  It wraps
+ * another graph and passes every call through to it, except that
+ * hasPath, pathLength and getPath are answered from cached
+ * breadth-first search trees: the first query from a source vertex
+ * searches the whole graph from that vertex, and later queries from
+ * the same source, to any destination, just look up the tree.
+ *
+ * At most a fixed number of trees are kept; when a new one is needed,
+ * the least recently used tree is evicted.  Every call to a mutating
+ * method bumps the graph's version, and trees built for an older
+ * version are dropped the next time they are looked up.  Changes must
+ * therefore be made through this graph, not directly on the wrapped
+ * graph.
+ *
+ * Paths come from a forward breadth-first search that visits
+ * neighbors in adjacentTo order, so they are the same paths a
+ * HashGraph searching forward would return.  This class is not
+ * thread-safe.
+ */
+public class CachingGraph<V> implements Graph<V>
+{
+    private final Graph<V> graph;
+    private final int maxSources;
+    private final LinkedHashMap<V, Tree<V>> trees;
+    private long version;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Wrap a graph in a cache.
+     *
+     * @param graph the graph to pass calls through to
+     * @param maxSources the most search trees to keep at once
+     */
+    public CachingGraph(Graph<V> graph, int maxSources)
+    {
+        if (graph == null || maxSources < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.graph = graph;
+        this.maxSources = maxSources;
+        this.trees = new LinkedHashMap<V, Tree<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<V, Tree<V>> eldest)
+            {
+                if (size() > CachingGraph.this.maxSources) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * The breadth-first search tree from one source, for one version
+     * of the graph.  Vertices are numbered in the order the search
+     * reached them; the source is number 0.
+     */
+    private static final class Tree<V>
+    {
+        final long version;
+        final HashMap<V, Integer> index = new HashMap<>();
+        final ArrayList<V> order = new ArrayList<>();
+        int[] parent;
+        int[] distance;
+
+        Tree(Graph<V> graph, V source, long version)
+        {
+            this.version = version;
+            int capacity = Math.max(graph.numVertices(), 1);
+            parent = new int[capacity];
+            distance = new int[capacity];
+            index.put(source, 0);
+            order.add(source);
+
+            for (int head = 0; head < order.size(); head++) {
+                int d = distance[head] + 1;
+                for (V w : graph.adjacentTo(order.get(head))) {
+                    if (index.containsKey(w)) {
+                        continue;
+                    }
+                    int i = order.size();
+                    index.put(w, i);
+                    order.add(w);
+                    parent[i] = head;
+                    distance[i] = d;
+                }
+            }
+        }
+    }
+
+    //Returns the search tree from 'from', which must be in the graph
+    private Tree<V> treeFrom(V from)
+    {
+        Tree<V> tree = trees.get(from);
+        if (tree != null && tree.version == version) {
+            hits++;
+            return tree;
+        }
+        misses++;
+        tree = new Tree<V>(graph, from, version);
+        trees.put(from, tree);
+        return tree;
+    }
+
+    //Returns the position of 'to' in 'tree', or -1 if it was not reached
+    private static <V> int position(Tree<V> tree, V to)
+    {
+        Integer i = tree == null ? null : tree.index.get(to);
+        return i == null ? -1 : i;
+    }
+
+    //Returns the search tree from 'from', or null if either vertex is
+    //not in the graph
+    private Tree<V> lookup(V from, V to)
+    {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException();
+        }
+        if (!graph.contains(from) || !graph.contains(to)) {
+            return null;
+        }
+        return treeFrom(from);
+    }
+
+    /**
+     * @return the version of the graph, which increases every time a
+     * mutating method is called.
+     */
+    public long version()
+    {
+        return version;
+    }
+
+    /**
+     * @return the number of path queries answered from a cached tree.
+     */
+    public long hits()
+    {
+        return hits;
+    }
+
+    /**
+     * @return the number of path queries that had to build a tree.
+     */
+    public long misses()
+    {
+        return misses;
+    }
+
+    /**
+     * @return the number of trees evicted to stay within the limit.
+     */
+    public long evictions()
+    {
+        return evictions;
+    }
+
+    @Override
+    public int numVertices()
+    {
+        return graph.numVertices();
+    }
+
+    @Override
+    public int numEdges()
+    {
+        return graph.numEdges();
+    }
+
+    @Override
+    public int degree(V vertex)
+    {
+        return graph.degree(vertex);
+    }
+
+    @Override
+    public void addEdge(V from, V to)
+    {
+        graph.addEdge(from, to);
+        version++;
+    }
+
+    @Override
+    public void addVertex(V vertex)
+    {
+        graph.addVertex(vertex);
+        version++;
+    }
+
+    @Override
+    public Iterable<V> getVertices()
+    {
+        return graph.getVertices();
+    }
+
+    @Override
+    public Iterable<V> adjacentTo(V from)
+    {
+        return graph.adjacentTo(from);
+    }
+
+    @Override
+    public boolean contains(V vertex)
+    {
+        return graph.contains(vertex);
+    }
+
+    @Override
+    public boolean hasEdge(V from, V to)
+    {
+        return graph.hasEdge(from, to);
+    }
+
+    @Override
+    public String toString()
+    {
+        return graph.toString();
+    }
+
+    @Override
+    public void writeTo(Appendable out) throws IOException
+    {
+        graph.writeTo(out);
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return graph.isEmpty();
+    }
+
+    @Override
+    public void removeVertex(V toRemove)
+    {
+        graph.removeVertex(toRemove);
+        version++;
+    }
+
+    @Override
+    public void removeEdge(V from, V to)
+    {
+        graph.removeEdge(from, to);
+        version++;
+    }
+
+    @Override
+    public boolean hasPath(V from, V to)
+    {
+        return position(lookup(from, to), to) >= 0;
+    }
+
+    @Override
+    public int pathLength(V from, V to)
+    {
+        Tree<V> tree = lookup(from, to);
+        int i = position(tree, to);
+        return i < 0 ? Integer.MAX_VALUE : tree.distance[i];
+    }
+
+    @Override
+    public Iterable<V> getPath(V from, V to)
+    {
+        Tree<V> tree = lookup(from, to);
+        int i = position(tree, to);
+        if (i <= 0) {
+            return new ArrayList<V>();
+        }
+        V[] path = newArray(tree.distance[i] + 1);
+        for (int p = path.length - 1; p >= 0; p--) {
+            path[p] = tree.order.get(i);
+            i = tree.parent[i];
+        }
+        return new ArrayList<V>(Arrays.asList(path));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V[] newArray(int length)
+    {
+        return (V[]) new Object[length];
+    }
+}
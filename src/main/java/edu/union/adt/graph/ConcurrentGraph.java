@@ -0,0 +1,679 @@
+package edu.union.adt.graph;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * A graph that many threads can read and change at once.  The
+ * vertices are kept in a ConcurrentHashMap, and each vertex keeps the
+ * vertices it has edges to, and the vertices that have edges to it,
+ * in copy-on-write arrays: a change replaces the array, so readers
+ * never lock and never see an array in the middle of a change.
+ *
+ * Each vertex also serves as the lock for changes to its own edges.
+ * Adding or removing an edge locks just its two endpoints, always in
+ * the same order, so changes to unrelated parts of the graph run in
+ * parallel.  Reads (contains, hasEdge, adjacentTo, degree and the path
+ * queries) take no locks at all.
+ *
+ * Reads are weakly consistent, like the iterators of the
+ * java.util.concurrent collections: adjacentTo returns the edges as
+ * they were at one moment, and a path query sees each vertex's edges
+ * as they were when it reached that vertex.  While removeVertex is
+ * running, other threads may still see some of the edges into or out
+ * of the vertex being removed.
+ *
+ * Copying the arrays makes addEdge and removeEdge take time
+ * proportional to the degrees of the two endpoints, so this graph
+ * suits workloads that read far more often than they write.
+ *
+ * Each vertex also has a small int id, so that path queries can run
+ * on the shared BreadthFirstSearch (see IndexedGraph); the ids of
+ * removed vertices are reused.
+ */
+public class ConcurrentGraph<V> implements Graph<V>
+{
+    private static final Node<?>[] NO_NODES = new Node<?>[0];
+
+    private final ConcurrentHashMap<V, Node<V>> nodes = new ConcurrentHashMap<>();
+    private final AtomicInteger edgeCount = new AtomicInteger();
+    // gives each node the number that orders its lock
+    private final AtomicLong serials = new AtomicLong();
+
+    // vertex ids; ids of removed vertices are reused
+    private final Object idLock = new Object();
+    private int[] freeIds = new int[0];
+    private int freeCount;
+    private volatile int idLimit;
+
+    /**
+     * Create an empty graph.
+     */
+    public ConcurrentGraph()
+    {
+    }
+
+    /**
+     * A vertex of the graph and its edges.  The arrays are only
+     * replaced, never written, and only while holding the node's lock;
+     * 'removed' is set, also under the lock, when the vertex leaves
+     * the graph, after which no edges may be added to it.
+     */
+    private static final class Node<V>
+    {
+        final V value;
+        final long serial;
+        final int id;
+        volatile Node<V>[] out;
+        volatile Node<V>[] in;
+        volatile boolean removed;
+
+        @SuppressWarnings("unchecked")
+        Node(V value, long serial, int id)
+        {
+            this.value = value;
+            this.serial = serial;
+            this.id = id;
+            this.out = (Node<V>[]) NO_NODES;
+            this.in = (Node<V>[]) NO_NODES;
+        }
+    }
+
+    /**
+     * A read-only list of the vertices held by an array of nodes.
+     */
+    private static final class NodeList<V> extends AbstractList<V> implements RandomAccess
+    {
+        private final Node<V>[] nodes;
+
+        NodeList(Node<V>[] nodes)
+        {
+            this.nodes = nodes;
+        }
+
+        @Override
+        public V get(int index)
+        {
+            return nodes[index].value;
+        }
+
+        @Override
+        public int size()
+        {
+            return nodes.length;
+        }
+    }
+
+    private static <V> int indexOf(Node<V>[] array, Node<V> node)
+    {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] == node) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static <V> Node<V>[] with(Node<V>[] array, Node<V> node)
+    {
+        Node<V>[] copy = Arrays.copyOf(array, array.length + 1);
+        copy[array.length] = node;
+        return copy;
+    }
+
+    private static <V> Node<V>[] without(Node<V>[] array, int index)
+    {
+        Node<V>[] copy = Arrays.copyOf(array, array.length - 1);
+        System.arraycopy(array, index + 1, copy, index, array.length - index - 1);
+        return copy;
+    }
+
+    /**
+     * The IndexedGraph a path query searches.  A vertex's out-array is
+     * read once, when the search asks for its degree, so the search
+     * walks one consistent set of its edges even while they change.
+     * The search may meet a removed node whose id has been reused; the
+     * first node it meets under an id is the one it uses for that id,
+     * and a node whose id was taken after the search began is reported
+     * as the vertex being expanded, which the search has already
+     * visited.  Each thread reuses one of these, like BreadthFirstSearch.
+     */
+    private static final class Search implements IndexedGraph
+    {
+        private static final ThreadLocal<Search> SCRATCH = new ThreadLocal<Search>() {
+            @Override
+            protected Search initialValue()
+            {
+                return new Search();
+            }
+        };
+
+        private int limit;
+        // nodes[id] is the node met under 'id' iff stamps[id] == stamp
+        private int stamp;
+        private int[] stamps = new int[0];
+        private Node<?>[] nodes = new Node<?>[0];
+        private int[] met = new int[0];
+        private int metCount;
+        private int expanding = -1;
+        private Node<?>[] edges;
+
+        static Search forThread()
+        {
+            return SCRATCH.get();
+        }
+
+        //Prepares for a search from 'source' over ids below 'limit'
+        void begin(Node<?> source, int limit)
+        {
+            this.limit = limit;
+            if (stamps.length < limit) {
+                int size = Math.max(limit, stamps.length + (stamps.length >> 1));
+                stamps = Arrays.copyOf(stamps, size);
+                nodes = Arrays.copyOf(nodes, size);
+                met = Arrays.copyOf(met, size);
+            }
+            if (++stamp == 0) {
+                Arrays.fill(stamps, 0);
+                stamp = 1;
+            }
+            meet(source);
+        }
+
+        //Forgets the nodes met, so this thread does not keep them alive
+        void end()
+        {
+            for (int i = 0; i < metCount; i++) {
+                nodes[met[i]] = null;
+            }
+            metCount = 0;
+            expanding = -1;
+            edges = null;
+        }
+
+        private void meet(Node<?> node)
+        {
+            stamps[node.id] = stamp;
+            nodes[node.id] = node;
+            met[metCount++] = node.id;
+        }
+
+        //Returns the node the search met under 'id'
+        Node<?> node(int id)
+        {
+            return stamps[id] == stamp ? nodes[id] : null;
+        }
+
+        public int idLimit()
+        {
+            return limit;
+        }
+
+        public boolean isVertex(int id)
+        {
+            return node(id) != null;
+        }
+
+        public int degree(int id)
+        {
+            expanding = id;
+            edges = nodes[id].out;
+            return edges.length;
+        }
+
+        public int neighbor(int id, int index)
+        {
+            Node<?> next = edges[index];
+            if (next.id >= limit) {
+                return id;
+            }
+            if (stamps[next.id] != stamp) {
+                meet(next);
+            }
+            return next.id;
+        }
+
+        public boolean hasPredecessors()
+        {
+            return false;
+        }
+
+        public int inDegree(int id)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        public int predecessor(int id, int index)
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private int takeId()
+    {
+        synchronized (idLock) {
+            return freeCount > 0 ? freeIds[--freeCount] : idLimit++;
+        }
+    }
+
+    private void releaseId(int id)
+    {
+        synchronized (idLock) {
+            if (freeCount == freeIds.length) {
+                freeIds = Arrays.copyOf(freeIds, Math.max(8, freeCount * 2));
+            }
+            freeIds[freeCount++] = id;
+        }
+    }
+
+    //Returns the node for a vertex, or null if it is not in the graph
+    private Node<V> find(V vertex)
+    {
+        if (vertex == null) {
+            throw new IllegalArgumentException();
+        }
+        Node<V> node = nodes.get(vertex);
+        return node == null || node.removed ? null : node;
+    }
+
+    //Returns the node for a vertex, adding the vertex if it is missing
+    private Node<V> nodeFor(V vertex)
+    {
+        if (vertex == null) {
+            throw new IllegalArgumentException();
+        }
+        while (true) {
+            Node<V> node = nodes.get(vertex);
+            if (node == null) {
+                Node<V> created = new Node<V>(vertex, serials.getAndIncrement(), takeId());
+                node = nodes.putIfAbsent(vertex, created);
+                if (node == null) {
+                    return created;
+                }
+                releaseId(created.id);
+            }
+            if (!node.removed) {
+                return node;
+            }
+            // a removeVertex is finishing with this node; help it out
+            nodes.remove(vertex, node);
+        }
+    }
+
+    /**
+     * Removes the edge (from, to), if there is one, while holding the
+     * locks of both nodes.  Locks are always taken in the order of the
+     * nodes' serial numbers, so two threads never wait for each other.
+     */
+    private void unlink(Node<V> from, Node<V> to)
+    {
+        Node<V> first = from.serial <= to.serial ? from : to;
+        Node<V> second = first == from ? to : from;
+        synchronized (first) {
+            synchronized (second) {
+                int i = indexOf(from.out, to);
+                if (i >= 0) {
+                    from.out = without(from.out, i);
+                    to.in = without(to.in, indexOf(to.in, from));
+                    edgeCount.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of vertices in the graph.
+     */
+    @Override
+    public int numVertices()
+    {
+        return nodes.size();
+    }
+
+    /**
+     * @return the number of edges in the graph.
+     */
+    @Override
+    public int numEdges()
+    {
+        return edgeCount.get();
+    }
+
+    /**
+     * Gets the number of vertices connected by edges from a given
+     * vertex.  If the given vertex is not in the graph, throws a
+     * RuntimeException.
+     *
+     * @param vertex the vertex whose degree we want.
+     * @return the degree of vertex 'vertex'
+     */
+    @Override
+    public int degree(V vertex)
+    {
+        Node<V> node = find(vertex);
+        if (node == null) {
+            throw new RuntimeException();
+        }
+        return node.out.length;
+    }
+
+    /**
+     * Gets the number of vertices that have an edge to a given
+     * vertex.  If the given vertex is not in the graph, throws a
+     * RuntimeException.
+     *
+     * @param vertex the vertex whose in-degree we want.
+     * @return the number of edges for which 'vertex' is the destination
+     */
+    public int inDegree(V vertex)
+    {
+        Node<V> node = find(vertex);
+        if (node == null) {
+            throw new RuntimeException();
+        }
+        return node.in.length;
+    }
+
+    /**
+     * Adds a directed edge between two vertices.  If there is already
+     * an edge between the given vertices, does nothing.  If either
+     * (or both) of the given vertices does not exist, it is added to
+     * the graph before the edge is created between them.
+     *
+     * @param from the source vertex for the added edge
+     * @param to the destination vertex for the added edge
+     */
+    @Override
+    public void addEdge(V from, V to)
+    {
+        while (true) {
+            Node<V> source = nodeFor(from);
+            Node<V> dest = nodeFor(to);
+            Node<V> first = source.serial <= dest.serial ? source : dest;
+            Node<V> second = first == source ? dest : source;
+            synchronized (first) {
+                synchronized (second) {
+                    if (source.removed || dest.removed) {
+                        // removed since it was looked up; add it again
+                        continue;
+                    }
+                    if (indexOf(source.out, dest) < 0) {
+                        source.out = with(source.out, dest);
+                        dest.in = with(dest.in, source);
+                        edgeCount.incrementAndGet();
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a vertex to the graph.  If the vertex already exists in
+     * the graph, does nothing.  If the vertex does not exist, it is
+     * added to the graph, with no edges connected to it.
+     *
+     * @param vertex the vertex to add
+     */
+    @Override
+    public void addVertex(V vertex)
+    {
+        nodeFor(vertex);
+    }
+
+    /**
+     * @return an iterable collection for the set of vertices of the
+     * graph, copied when this method is called.
+     */
+    @Override
+    public Iterable<V> getVertices()
+    {
+        return new ArrayList<V>(nodes.keySet());
+    }
+
+    /**
+     * Gets the vertices adjacent to a given vertex, as they were when
+     * this method was called.  Later changes to the graph do not
+     * affect the returned collection.
+     *
+     * @param from the source vertex
+     * @return an iterable collection for the set of vertices that are
+     * the destinations of edges for which 'from' is the source
+     * vertex.  If 'from' is not a vertex in the graph, returns an
+     * empty iterator.
+     */
+    @Override
+    public Iterable<V> adjacentTo(V from)
+    {
+        Node<V> node = find(from);
+        if (node == null) {
+            return Collections.<V>emptyList();
+        }
+        return new NodeList<V>(node.out);
+    }
+
+    /**
+     * Gets the vertices that have an edge to a given vertex, as they
+     * were when this method was called.
+     *
+     * @param to the destination vertex
+     * @return an iterable collection for the set of vertices that are
+     * the sources of edges for which 'to' is the destination vertex.
+     * If 'to' is not a vertex in the graph, returns an empty iterator.
+     */
+    public Iterable<V> predecessors(V to)
+    {
+        Node<V> node = find(to);
+        if (node == null) {
+            return Collections.<V>emptyList();
+        }
+        return new NodeList<V>(node.in);
+    }
+
+    /**
+     * Tells whether or not a vertex is in the graph.
+     *
+     * @param vertex a vertex
+     * @return true iff 'vertex' is a vertex in the graph.
+     */
+    @Override
+    public boolean contains(V vertex)
+    {
+        return find(vertex) != null;
+    }
+
+    /**
+     * Tells whether an edge exists in the graph.  Only the shorter of
+     * the source's out-edges and the destination's in-edges is
+     * searched.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     *
+     * @return true iff there is an edge from the source vertex to the
+     * destination vertex in the graph.  If either of the given
+     * vertices are not vertices in the graph, then there is no edge
+     * between them.
+     */
+    @Override
+    public boolean hasEdge(V from, V to)
+    {
+        Node<V> source = find(from);
+        Node<V> dest = find(to);
+        if (source == null || dest == null) {
+            return false;
+        }
+        Node<V>[] out = source.out;
+        Node<V>[] in = dest.in;
+        return out.length <= in.length ? indexOf(out, dest) >= 0 : indexOf(in, source) >= 0;
+    }
+
+    /**
+     * Gives a string representation of the graph, one line per
+     * vertex, in the format described by HashGraph.toString.
+     *
+     * @return the string representation of the graph
+     */
+    @Override
+    public String toString()
+    {
+        return GraphExport.toString(this);
+    }
+
+    /**
+     * Tells whether the graph is empty.
+     *
+     * @return true iff the graph is empty. A graph is empty if it has
+     * no vertices and no edges.
+     */
+    @Override
+    public boolean isEmpty()
+    {
+        return nodes.isEmpty();
+    }
+
+    /**
+     * Removes a vertex from the graph.  Also removes any edges
+     * connecting from the edge or to the edge.
+     *
+     * <p>Postconditions:
+     *
+     * <p>If toRemove was in the graph:
+     * <ul>
+     * <li>numVertices = numVertices' - 1
+     * <li>toRemove is no longer a vertex in the graph
+     * <li>for all vertices v: toRemove is not in adjacentTo(v)
+     * </ul>
+     *
+     * @param toRemove the vertex to remove.
+     */
+    @Override
+    public void removeVertex(V toRemove)
+    {
+        Node<V> node = find(toRemove);
+        if (node == null) {
+            return;
+        }
+        synchronized (node) {
+            if (node.removed) {
+                return;
+            }
+            node.removed = true;
+            nodes.remove(toRemove, node);
+        }
+        // no edges can be added to the node now, so this empties it
+        for (Node<V> next : node.out) {
+            unlink(node, next);
+        }
+        for (Node<V> previous : node.in) {
+            unlink(previous, node);
+        }
+        releaseId(node.id);
+    }
+
+    /**
+     * Removes an edge from the graph.
+     *
+     * <p>Postcondition: If from and to were in the graph and (from,
+     * to) was an edge in the graph, then numEdges = numEdges' - 1
+     */
+    @Override
+    public void removeEdge(V from, V to)
+    {
+        Node<V> source = find(from);
+        Node<V> dest = find(to);
+        if (source != null && dest != null) {
+            unlink(source, dest);
+        }
+    }
+
+    /**
+     * Tells whether there is a path connecting two given vertices.  A
+     * path exists from vertex A to vertex B iff A and B are in the
+     * graph and there is a sequence of edges leading from A to B; in
+     * particular, if A is in the graph there is a path from A to A.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return true iff there is a path from 'from' to 'to' in the graph.
+     */
+    @Override
+    public boolean hasPath(V from, V to)
+    {
+        return search(from, to, null) >= 0;
+    }
+
+    /**
+     * Gets the length of the shortest path connecting two given
+     * vertices.  The length of a path is the number of edges in the
+     * path; the path from a vertex to itself has length 0.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return the length of the shortest path from 'from' to 'to' in
+     * the graph.  If there is no path, returns Integer.MAX_VALUE
+     */
+    @Override
+    public int pathLength(V from, V to)
+    {
+        int length = search(from, to, null);
+        return length < 0 ? Integer.MAX_VALUE : length;
+    }
+
+    /**
+     * Returns the vertices along the shortest path connecting two
+     * given vertices, including the source and destination.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return an Iterable collection of vertices along the shortest
+     * path from 'from' to 'to'.  If there is no path, or if from =
+     * to, returns an empty Iterable collection of vertices.
+     */
+    @Override
+    public Iterable<V> getPath(V from, V to)
+    {
+        ArrayList<V> path = new ArrayList<>();
+        if (search(from, to, path) <= 0) {
+            path.clear();
+        }
+        return path;
+    }
+
+    /**
+     * Runs a breadth-first search from 'from' to 'to' over each
+     * vertex's edges as they are when the search reaches it.
+     *
+     * @param path if not null, the vertices of the shortest path,
+     * including both ends, are added to it
+     * @return the length of the shortest path, or -1 if there is none
+     */
+    @SuppressWarnings("unchecked")
+    private int search(V from, V to, List<V> path)
+    {
+        Node<V> source = find(from);
+        Node<V> target = find(to);
+        if (source == null || target == null) {
+            return -1;
+        }
+        Search view = Search.forThread();
+        view.begin(source, idLimit);
+        try {
+            BreadthFirstSearch search = BreadthFirstSearch.forThread();
+            int length = search.search(view, source.id, target.id, false);
+            if (length < 0 || view.node(target.id) != target) {
+                // no path, or the target was removed and its id reused
+                return -1;
+            }
+            if (path != null) {
+                for (int id : search.path()) {
+                    path.add(((Node<V>) view.node(id)).value);
+                }
+            }
+            return length;
+        }
+        finally {
+            view.end();
+        }
+    }
+}
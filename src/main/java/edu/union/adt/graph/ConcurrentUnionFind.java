@@ -0,0 +1,150 @@
+package edu.union.adt.graph;
+import java.util.concurrent.atomic.*;
+
+/**
+ * A disjoint-set (union-find) structure over the ints 0 to
+ * capacity - 1, which any number of threads can use at once without
+ * locks.  Each set is a tree of parent links, kept in an
+ * AtomicIntegerArray; union links one root under another with a
+ * single compareAndSet, and retries if another thread got there first.
+ *
+ * Roots are linked by a fixed pseudo-random priority of each element,
+ * the lower under the higher, which keeps the trees shallow without
+ * storing ranks, and find halves the path it walks (every element it
+ * passes is pointed at its grandparent).  Together they make each
+ * operation take nearly constant time (Jayanti and Tarjan, "A
+ * Randomized Concurrent Algorithm for Disjoint Set Union", 2016).
+ */
+public final class ConcurrentUnionFind
+{
+    private final AtomicIntegerArray parent;
+    private final AtomicInteger sets;
+
+    /**
+     * Create a structure in which every element is in a set of its
+     * own.
+     *
+     * @param capacity the number of elements
+     */
+    public ConcurrentUnionFind(int capacity)
+    {
+        if (capacity < 0) {
+            throw new IllegalArgumentException();
+        }
+        parent = new AtomicIntegerArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            parent.set(i, i);
+        }
+        sets = new AtomicInteger(capacity);
+    }
+
+    /**
+     * Create a structure with the same sets as another, and more
+     * elements, each in a set of its own.  The other structure must
+     * not change while it is being copied.
+     */
+    ConcurrentUnionFind(ConcurrentUnionFind other, int capacity)
+    {
+        int old = other.capacity();
+        parent = new AtomicIntegerArray(Math.max(capacity, old));
+        for (int i = 0; i < parent.length(); i++) {
+            parent.set(i, i < old ? other.parent.get(i) : i);
+        }
+        sets = new AtomicInteger(other.sets() + parent.length() - old);
+    }
+
+    //A fixed, distinct pseudo-random priority for each element
+    private static int priority(int x)
+    {
+        int h = x * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return the number of elements.
+     */
+    public int capacity()
+    {
+        return parent.length();
+    }
+
+    /**
+     * @return the number of disjoint sets.
+     */
+    public int sets()
+    {
+        return sets.get();
+    }
+
+    /**
+     * Finds the representative of an element's set.  The
+     * representative can change when another thread joins the set to
+     * another.
+     *
+     * @param x an element
+     * @return the root of the tree 'x' is in
+     */
+    public int find(int x)
+    {
+        while (true) {
+            int p = parent.get(x);
+            if (p == x) {
+                return x;
+            }
+            int grandparent = parent.get(p);
+            if (grandparent != p) {
+                parent.compareAndSet(x, p, grandparent);
+            }
+            x = grandparent;
+        }
+    }
+
+    /**
+     * Joins the sets of two elements.
+     *
+     * @param a an element
+     * @param b an element
+     * @return true iff the two were in different sets
+     */
+    public boolean union(int a, int b)
+    {
+        while (true) {
+            a = find(a);
+            b = find(b);
+            if (a == b) {
+                return false;
+            }
+            if (priority(a) > priority(b)) {
+                int swap = a;
+                a = b;
+                b = swap;
+            }
+            if (parent.compareAndSet(a, a, b)) {
+                sets.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Tells whether two elements are in the same set.
+     *
+     * @param a an element
+     * @param b an element
+     * @return true iff 'a' and 'b' are in the same set
+     */
+    public boolean connected(int a, int b)
+    {
+        while (true) {
+            a = find(a);
+            b = find(b);
+            if (a == b) {
+                return true;
+            }
+            // a is still a root, so the two were apart when b was found
+            if (parent.get(a) == a) {
+                return false;
+            }
+        }
+    }
+}
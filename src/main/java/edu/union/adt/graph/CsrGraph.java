@@ -0,0 +1,611 @@
+package edu.union.adt.graph;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * A read-only graph stored in compressed sparse row (CSR) form.  Each
+ * vertex is mapped to a dense int id, and the edges are kept in two
+ * arrays: the destinations of the edges leaving vertex i are
+ * targets[offsets[i]] .. targets[offsets[i + 1] - 1].  Traversals are
+ * therefore linear scans over int arrays.  Each vertex's destinations
+ * are sorted by id, so hasEdge is a binary search; as a result,
+ * adjacentTo lists them in the order getVertices lists the vertices,
+ * rather than in the source graph's order.
+ *
+ * The edges into each vertex are stored the same way, in a second
+ * pair of arrays that is only built the first time a search needs
+ * them.
+ *
+ * A CsrGraph is built once from another graph (see
+ * GraphFactory.freeze) and cannot be changed afterwards.  All the
+ * mutating methods throw an UnsupportedOperationException.  It can
+ * safely be read by many threads at once.
+ */
+public class CsrGraph<V> implements Graph<V>
+{
+    private final Object[] vertices;
+    private final HashMap<V, Integer> ids;
+    private final int[] offsets;
+    private final int[] targets;
+
+    // the edges into vertex i come from sources[inOffsets[i]] ..
+    // sources[inOffsets[i + 1] - 1]; null until first needed
+    private int[] inOffsets;
+    private int[] sources;
+
+    private final IndexedGraph indexed = new IndexedGraph() {
+        public int idLimit()
+        {
+            return vertices.length;
+        }
+
+        public boolean isVertex(int id)
+        {
+            return true;
+        }
+
+        public int degree(int id)
+        {
+            return offsets[id + 1] - offsets[id];
+        }
+
+        public int neighbor(int id, int index)
+        {
+            return targets[offsets[id] + index];
+        }
+
+        public boolean hasPredecessors()
+        {
+            buildPredecessors();
+            return true;
+        }
+
+        public int inDegree(int id)
+        {
+            return inOffsets[id + 1] - inOffsets[id];
+        }
+
+        public int predecessor(int id, int index)
+        {
+            return sources[inOffsets[id] + index];
+        }
+    };
+
+    /**
+     * Create a snapshot of the given graph.  Later changes to 'source'
+     * are not reflected in the snapshot.
+     *
+     * @param source the graph to copy
+     */
+    public CsrGraph(Graph<V> source)
+    {
+        int n = source.numVertices();
+        vertices = new Object[n];
+        ids = new HashMap<>(n * 4 / 3 + 1);
+
+        int id = 0;
+        for (V vertex : source.getVertices()) {
+            vertices[id] = vertex;
+            ids.put(vertex, id);
+            id++;
+        }
+
+        offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] = offsets[i] + source.degree(vertex(i));
+        }
+
+        targets = new int[offsets[n]];
+        for (int i = 0; i < n; i++) {
+            int next = offsets[i];
+            for (V to : source.adjacentTo(vertex(i))) {
+                targets[next++] = ids.get(to);
+            }
+        }
+        sortRows();
+    }
+
+    //Sorts the destinations of each vertex by id, for hasEdge
+    private void sortRows()
+    {
+        for (int i = 0; i < vertices.length; i++) {
+            Arrays.sort(targets, offsets[i], offsets[i + 1]);
+        }
+    }
+
+    /**
+     * Create a graph directly from its arrays, which the graph takes
+     * over: the edges leaving vertices[i] go to the vertices whose
+     * indexes are targets[offsets[i]] .. targets[offsets[i + 1] - 1].
+     * The vertices must be distinct and the targets of each vertex
+     * distinct.
+     */
+    CsrGraph(Object[] vertices, int[] offsets, int[] targets)
+    {
+        int n = vertices.length;
+        this.vertices = vertices;
+        this.offsets = offsets;
+        this.targets = targets;
+        ids = new HashMap<>(n * 4 / 3 + 1);
+        for (int id = 0; id < n; id++) {
+            ids.put(vertex(id), id);
+        }
+        sortRows();
+    }
+
+    //Builds the in-edge arrays, if they have not been built yet.  Searches
+    //call this (through hasPredecessors) before they read the arrays;
+    //parallel code calls it before handing the graph to other threads.
+    synchronized void buildPredecessors()
+    {
+        if (sources != null) {
+            return;
+        }
+        int n = vertices.length;
+        int[] in = new int[n + 1];
+        for (int target : targets) {
+            in[target + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            in[i + 1] += in[i];
+        }
+        int[] from = new int[targets.length];
+        int[] fill = Arrays.copyOf(in, n);
+        for (int v = 0; v < n; v++) {
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                from[fill[targets[e]]++] = v;
+            }
+        }
+        inOffsets = in;
+        sources = from;
+    }
+
+    @SuppressWarnings("unchecked")
+    V vertex(int id)
+    {
+        return (V) vertices[id];
+    }
+
+    //Returns the dense id of a vertex, or -1 if it is not in the graph
+    int idOf(V vertex)
+    {
+        if (vertex == null) {
+            throw new IllegalArgumentException();
+        }
+        Integer id = ids.get(vertex);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * A CsrGraph never changes, so it is its own snapshot.
+     *
+     * @return this graph
+     */
+    @Override
+    public CsrGraph<V> snapshot()
+    {
+        return this;
+    }
+
+    /**
+     * @return the number of vertices in the graph.
+     */
+    @Override
+    public int numVertices()
+    {
+        return vertices.length;
+    }
+
+    /**
+     * @return the number of edges in the graph.
+     */
+    @Override
+    public int numEdges()
+    {
+        return targets.length;
+    }
+
+    /**
+     * Gets the number of vertices connected by edges from a given
+     * vertex.  If the given vertex is not in the graph, throws a
+     * RuntimeException.
+     *
+     * @param vertex the vertex whose degree we want.
+     * @return the degree of vertex 'vertex'
+     */
+    @Override
+    public int degree(V vertex)
+    {
+        int id = idOf(vertex);
+        if (id < 0) {
+            throw new RuntimeException();
+        }
+        return offsets[id + 1] - offsets[id];
+    }
+
+    /**
+     * Not supported: a CsrGraph cannot be changed.
+     */
+    @Override
+    public void addEdge(V from, V to)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Not supported: a CsrGraph cannot be changed.
+     */
+    @Override
+    public void addVertex(V vertex)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @return an iterable collection for the set of vertices of
+     * the graph.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterable<V> getVertices()
+    {
+        return Collections.unmodifiableList(Arrays.asList((V[]) vertices));
+    }
+
+    /**
+     * Gets the vertices adjacent to a given vertex.  A vertex y is
+     * "adjacent to" vertex x if there is an edge (x, y) in the graph.
+     *
+     * @param from the source vertex
+     * @return an iterable collection for the set of vertices that are
+     * the destinations of edges for which 'from' is the source
+     * vertex.  If 'from' is not a vertex in the graph, returns an
+     * empty iterator.
+     */
+    @Override
+    public Iterable<V> adjacentTo(V from)
+    {
+        int id = idOf(from);
+        if (id < 0) {
+            return Collections.<V>emptyList();
+        }
+        final int start = offsets[id];
+        final int end = offsets[id + 1];
+        return new Iterable<V>() {
+            public Iterator<V> iterator()
+            {
+                return new Iterator<V>() {
+                    private int next = start;
+
+                    public boolean hasNext()
+                    {
+                        return next < end;
+                    }
+
+                    public V next()
+                    {
+                        if (next >= end) {
+                            throw new NoSuchElementException();
+                        }
+                        return vertex(targets[next++]);
+                    }
+                };
+            }
+
+            @Override
+            public Spliterator<V> spliterator()
+            {
+                return new TargetSpliterator(start, end);
+            }
+        };
+    }
+
+    /**
+     * Splits a range of the targets array, as vertices, for parallel
+     * streams over adjacentTo.
+     */
+    private final class TargetSpliterator extends RangeSpliterator<V>
+    {
+        TargetSpliterator(int from, int to)
+        {
+            super(from, to, Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+        }
+
+        @Override
+        V get(int index)
+        {
+            return vertex(targets[index]);
+        }
+
+        @Override
+        RangeSpliterator<V> slice(int from, int to)
+        {
+            return new TargetSpliterator(from, to);
+        }
+    }
+
+    /**
+     * Streams the edges of the graph.  A parallel stream splits the
+     * targets array itself in half, so each part has the same number
+     * of edges however they are spread among the vertices.
+     *
+     * @return a stream of the edges of the graph
+     */
+    @Override
+    public Stream<Map.Entry<V, V>> edges()
+    {
+        return StreamSupport.stream(new EdgeSpliterator(0, 0, targets.length), false);
+    }
+
+    /**
+     * The edges at positions next .. end - 1 of the targets array,
+     * where 'source' is the vertex the edge at 'next' leaves.
+     */
+    private final class EdgeSpliterator implements Spliterator<Map.Entry<V, V>>
+    {
+        private int source;
+        private int next;
+        private final int end;
+
+        EdgeSpliterator(int source, int next, int end)
+        {
+            this.source = source;
+            this.next = next;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Map.Entry<V, V>> action)
+        {
+            if (next >= end) {
+                return false;
+            }
+            while (offsets[source + 1] <= next) {
+                source++;
+            }
+            action.accept(new AbstractMap.SimpleImmutableEntry<V, V>(
+                              vertex(source), vertex(targets[next++])));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Map.Entry<V, V>> action)
+        {
+            while (next < end) {
+                while (offsets[source + 1] <= next) {
+                    source++;
+                }
+                V from = vertex(source);
+                int last = Math.min(end, offsets[source + 1]);
+                for (; next < last; next++) {
+                    action.accept(new AbstractMap.SimpleImmutableEntry<V, V>(
+                                      from, vertex(targets[next])));
+                }
+            }
+        }
+
+        @Override
+        public Spliterator<Map.Entry<V, V>> trySplit()
+        {
+            int middle = (next + end) >>> 1;
+            if (middle <= next) {
+                return null;
+            }
+            EdgeSpliterator prefix = new EdgeSpliterator(source, next, middle);
+            // the last vertex whose edges start at or before 'middle'
+            int low = source;
+            int high = vertices.length - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (offsets[mid] <= middle) {
+                    low = mid;
+                }
+                else {
+                    high = mid - 1;
+                }
+            }
+            source = low;
+            next = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize()
+        {
+            return end - next;
+        }
+
+        @Override
+        public int characteristics()
+        {
+            return SIZED | SUBSIZED | ORDERED | DISTINCT | NONNULL | IMMUTABLE;
+        }
+    }
+
+    /**
+     * Tells whether or not a vertex is in the graph.
+     *
+     * @param vertex a vertex
+     * @return true iff 'vertex' is a vertex in the graph.
+     */
+    @Override
+    public boolean contains(V vertex)
+    {
+        return idOf(vertex) >= 0;
+    }
+
+    /**
+     * Tells whether an edge exists in the graph.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     *
+     * @return true iff there is an edge from the source vertex to the
+     * destination vertex in the graph.
+     */
+    @Override
+    public boolean hasEdge(V from, V to)
+    {
+        int f = idOf(from);
+        int t = idOf(to);
+        if (f < 0 || t < 0) {
+            return false;
+        }
+        return Arrays.binarySearch(targets, offsets[f], offsets[f + 1], t) >= 0;
+    }
+
+    /**
+     * Gives a string representation of the graph, in the format
+     * described by Graph.toString.
+     *
+     * @return the string representation of the graph
+     */
+    @Override
+    public String toString()
+    {
+        return GraphExport.toString(this);
+    }
+
+    /**
+     * Tells whether the graph is empty.
+     *
+     * @return true iff the graph is empty.
+     */
+    @Override
+    public boolean isEmpty()
+    {
+        return vertices.length == 0;
+    }
+
+    /**
+     * Not supported: a CsrGraph cannot be changed.
+     */
+    @Override
+    public void removeVertex(V toRemove)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Not supported: a CsrGraph cannot be changed.
+     */
+    @Override
+    public void removeEdge(V from, V to)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Tells whether there is a path connecting two given vertices.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return true iff there is a path from 'from' to 'to' in the graph.
+     */
+    @Override
+    public boolean hasPath(V from, V to)
+    {
+        return pathLength(from, to) != Integer.MAX_VALUE;
+    }
+
+    /**
+     * Gets the length of the shortest path connecting two given
+     * vertices.  The length of a path is the number of edges in the
+     * path.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return the length of the shortest path from 'from' to 'to' in
+     * the graph.  If there is no path, returns Integer.MAX_VALUE
+     */
+    @Override
+    public int pathLength(V from, V to)
+    {
+        int length = search(from, to);
+        return length < 0 ? Integer.MAX_VALUE : length;
+    }
+
+    /**
+     * Returns the vertices along the shortest path connecting two
+     * given vertices, in the same form as HashGraph.getPath.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return an Iterable collection of vertices along the shortest
+     * path from 'from' to 'to'.  If there is no path from 'from' to
+     * 'to', or if from = to, returns an empty Iterable collection.
+     */
+    @Override
+    public Iterable<V> getPath(V from, V to)
+    {
+        if (search(from, to) <= 0) {
+            return new ArrayList<V>();
+        }
+        int[] ids = BreadthFirstSearch.forThread().path();
+        ArrayList<V> path = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            path.add(vertex(id));
+        }
+        return path;
+    }
+
+    /**
+     * Finds the length of the shortest path from a source vertex to
+     * every vertex it can reach, searching in parallel on the common
+     * ForkJoinPool.
+     *
+     * @param source the source vertex
+     * @return a map from each vertex reachable from 'source' (including
+     * 'source' itself) to its distance from 'source'.  If 'source' is
+     * not in the graph, returns an empty map.
+     */
+    public Map<V, Integer> distancesFrom(V source)
+    {
+        return distancesFrom(source, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Finds the length of the shortest path from a source vertex to
+     * every vertex it can reach, searching in parallel on the given
+     * pool.  See ParallelBreadthFirstSearch.
+     *
+     * @param source the source vertex
+     * @param pool the pool whose threads run the search
+     * @return a map from each vertex reachable from 'source' to its
+     * distance from 'source'.
+     */
+    public Map<V, Integer> distancesFrom(V source, ForkJoinPool pool)
+    {
+        HashMap<V, Integer> distances = new HashMap<>();
+        int id = idOf(source);
+        if (id < 0) {
+            return distances;
+        }
+        int[] d = ParallelBreadthFirstSearch.distances(indexed, id, pool);
+        for (int v = 0; v < d.length; v++) {
+            if (d[v] >= 0) {
+                distances.put(vertex(v), d[v]);
+            }
+        }
+        return distances;
+    }
+
+    //Returns the length of the shortest path, or -1 if there is none
+    private int search(V from, V to)
+    {
+        int f = idOf(from);
+        int t = idOf(to);
+        if (f < 0 || t < 0) {
+            return -1;
+        }
+        return BreadthFirstSearch.forThread().search(indexed, f, t, false);
+    }
+
+    //Returns the view searches use to walk the graph by vertex id
+    IndexedGraph indexed()
+    {
+        return indexed;
+    }
+}
@@ -0,0 +1,456 @@
+package edu.union.adt.graph;
+import java.util.*;
+import java.io.IOException;
+
+/**
+ * A directed acyclic graph, which refuses edges that would create a
+ * cycle and keeps a topological order of its vertices up to date as
+ * it changes.
+ *
+ * The order is maintained with the algorithm of Pearce and Kelly.
+ * Each vertex has a position, and every edge goes from a lower
+ * position to a higher one.  An edge that already agrees with the
+ * positions is added at once.  Otherwise only the vertices between
+ * its two ends in the order are searched: forward from the
+ * destination, for the source (which would close a cycle), and
+ * backward from the source; the two sets found then swap positions
+ * among themselves.  Nothing outside that region is touched, so the
+ * cost of a check depends on how far out of order the edge is, not on
+ * the size of the graph.
+ *
+ * The positions also answer hasPath, pathLength and getPath at once
+ * when the destination comes before the source, since no path can go
+ * backward through the order.  The vertices and edges are kept in a
+ * HashGraph.  This class is not thread-safe.
+ */
+public class DagGraph<V> implements Graph<V>
+{
+    private final HashGraph<V> graph = new HashGraph<V>();
+    private final IndexedGraph indexed = graph.indexed();
+
+    // the position of each vertex id in the order
+    private int[] ord = new int[16];
+    // the vertex id at each position, or -1 where a removed vertex was;
+    // positions head .. tail - 1 are in use
+    private int[] order = new int[16];
+    private int head = 8;
+    private int tail = 8;
+
+    // scratch space for reordering
+    private int[] mark = new int[16];
+    private int stamp;
+    private int[] stack = new int[16];
+    private int[] forward = new int[16];
+    private int[] backward = new int[16];
+    private int[] positions = new int[16];
+    private long[] keys = new long[16];
+    private long visited;
+
+    /**
+     * Create an empty graph.
+     */
+    public DagGraph()
+    {
+    }
+
+    /**
+     * Create a graph with the same vertices and edges as another.
+     *
+     * @param source the graph to copy
+     * @throws IllegalArgumentException if 'source' has a cycle
+     */
+    public DagGraph(Graph<V> source)
+    {
+        for (V vertex : source.getVertices()) {
+            graph.addVertex(vertex);
+        }
+        for (V vertex : source.getVertices()) {
+            for (V next : source.adjacentTo(vertex)) {
+                graph.addEdge(vertex, next);
+            }
+        }
+        sortAll();
+    }
+
+    //Orders every vertex from scratch with Kahn's algorithm
+    private void sortAll()
+    {
+        int n = indexed.idLimit();
+        grow(n);
+        int[] remaining = new int[n];
+        int[] ready = new int[n];
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            if (indexed.isVertex(v)) {
+                remaining[v] = indexed.inDegree(v);
+                if (remaining[v] == 0) {
+                    ready[count++] = v;
+                }
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            int v = ready[i];
+            for (int e = 0; e < indexed.degree(v); e++) {
+                int w = indexed.neighbor(v, e);
+                if (--remaining[w] == 0) {
+                    ready[count++] = w;
+                }
+            }
+        }
+        if (count < graph.numVertices()) {
+            throw new IllegalArgumentException("The graph has a cycle");
+        }
+        order = new int[Math.max(16, 2 * count + 16)];
+        Arrays.fill(order, -1);
+        head = (order.length - count) / 2;
+        tail = head;
+        for (int i = 0; i < count; i++) {
+            ord[ready[i]] = tail;
+            order[tail++] = ready[i];
+        }
+    }
+
+    //Makes room for vertex ids below 'limit'
+    private void grow(int limit)
+    {
+        if (ord.length < limit) {
+            int size = Math.max(limit, 2 * ord.length);
+            ord = Arrays.copyOf(ord, size);
+            mark = Arrays.copyOf(mark, size);
+            stack = Arrays.copyOf(stack, size);
+            forward = Arrays.copyOf(forward, size);
+            backward = Arrays.copyOf(backward, size);
+            positions = Arrays.copyOf(positions, size);
+            keys = Arrays.copyOf(keys, size);
+        }
+    }
+
+    //Copies the order into a new array with room at both ends and
+    //without the positions of removed vertices
+    private void layout()
+    {
+        int n = graph.numVertices();
+        int[] packed = new int[Math.max(16, 2 * n + 16)];
+        Arrays.fill(packed, -1);
+        int position = (packed.length - n) / 2;
+        int first = position;
+        for (int p = head; p < tail; p++) {
+            int v = order[p];
+            if (v >= 0) {
+                ord[v] = position;
+                packed[position++] = v;
+            }
+        }
+        order = packed;
+        head = first;
+        tail = position;
+    }
+
+    //Adds a vertex that is not in the graph, first or last in the order
+    private int place(V vertex, boolean first)
+    {
+        graph.addVertex(vertex);
+        int id = graph.idOf(vertex);
+        grow(id + 1);
+        if (first ? head == 0 : tail == order.length) {
+            layout();
+        }
+        ord[id] = first ? --head : tail++;
+        order[ord[id]] = id;
+        return id;
+    }
+
+    /**
+     * Adds a directed edge between two vertices, unless it would
+     * create a cycle.  If there is already an edge between the given
+     * vertices, does nothing.  If either (or both) of the given
+     * vertices does not exist, it is added to the graph before the
+     * edge is created between them.
+     *
+     * @param from the source vertex for the added edge
+     * @param to the destination vertex for the added edge
+     * @return true iff the edge is in the graph afterwards; false if
+     * it would have created a cycle, in which case the graph is
+     * unchanged
+     */
+    public boolean tryAddEdge(V from, V to)
+    {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException();
+        }
+        if (from.equals(to)) {
+            return false;
+        }
+        int x = graph.idOf(from);
+        int y = graph.idOf(to);
+        if (x >= 0 && y >= 0 && ord[x] > ord[y] && !reorder(x, y)) {
+            return false;
+        }
+        if (x < 0) {
+            // a new vertex has no edges, so it can go anywhere before 'to'
+            place(from, true);
+        }
+        if (y < 0) {
+            place(to, false);
+        }
+        graph.addEdge(from, to);
+        return true;
+    }
+
+    /**
+     * Adds a directed edge between two vertices.  If there is already
+     * an edge between the given vertices, does nothing.  If either
+     * (or both) of the given vertices does not exist, it is added to
+     * the graph before the edge is created between them.
+     *
+     * @param from the source vertex for the added edge
+     * @param to the destination vertex for the added edge
+     * @throws IllegalArgumentException if the edge would create a
+     * cycle; the graph is then unchanged
+     */
+    @Override
+    public void addEdge(V from, V to)
+    {
+        if (!tryAddEdge(from, to)) {
+            throw new IllegalArgumentException("Edge " + from + " -> " + to
+                                               + " would create a cycle");
+        }
+    }
+
+    //Makes room in the order for an edge x -> y, where y comes before x.
+    //Returns false, changing nothing, if y has a path to x.
+    private boolean reorder(int x, int y)
+    {
+        int lower = ord[y];
+        int upper = ord[x];
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(mark, 0);
+            stamp = 1;
+        }
+
+        // the vertices y reaches without going past x in the order
+        int forwardCount = 0;
+        int depth = 0;
+        mark[y] = stamp;
+        stack[depth++] = y;
+        while (depth > 0) {
+            int v = stack[--depth];
+            forward[forwardCount++] = v;
+            int degree = indexed.degree(v);
+            for (int i = 0; i < degree; i++) {
+                int w = indexed.neighbor(v, i);
+                if (w == x) {
+                    visited += forwardCount;
+                    return false;
+                }
+                if (mark[w] != stamp && ord[w] < upper) {
+                    mark[w] = stamp;
+                    stack[depth++] = w;
+                }
+            }
+        }
+
+        // the vertices that reach x without going before y in the order
+        int backwardCount = 0;
+        mark[x] = stamp;
+        stack[depth++] = x;
+        while (depth > 0) {
+            int v = stack[--depth];
+            backward[backwardCount++] = v;
+            int degree = indexed.inDegree(v);
+            for (int i = 0; i < degree; i++) {
+                int u = indexed.predecessor(v, i);
+                if (mark[u] != stamp && ord[u] > lower) {
+                    mark[u] = stamp;
+                    stack[depth++] = u;
+                }
+            }
+        }
+        visited += forwardCount + backwardCount;
+
+        // the backward set goes first, then the forward set, each in
+        // its old order, into the positions the two sets held
+        sortByOrder(backward, backwardCount);
+        sortByOrder(forward, forwardCount);
+        for (int i = 0; i < backwardCount; i++) {
+            positions[i] = ord[backward[i]];
+        }
+        for (int i = 0; i < forwardCount; i++) {
+            positions[backwardCount + i] = ord[forward[i]];
+        }
+        Arrays.sort(positions, 0, forwardCount + backwardCount);
+        for (int i = 0; i < backwardCount; i++) {
+            ord[backward[i]] = positions[i];
+            order[positions[i]] = backward[i];
+        }
+        for (int i = 0; i < forwardCount; i++) {
+            ord[forward[i]] = positions[backwardCount + i];
+            order[positions[backwardCount + i]] = forward[i];
+        }
+        return true;
+    }
+
+    //Sorts the first 'count' vertex ids by their position in the order
+    private void sortByOrder(int[] ids, int count)
+    {
+        for (int i = 0; i < count; i++) {
+            keys[i] = (long) ord[ids[i]] << 32 | ids[i];
+        }
+        Arrays.sort(keys, 0, count);
+        for (int i = 0; i < count; i++) {
+            ids[i] = (int) keys[i];
+        }
+    }
+
+    /**
+     * Gets the vertices in a topological order: every edge goes from a
+     * vertex to one later in the list.  The order is kept up to date
+     * as the graph changes, so this only copies it.
+     *
+     * @return the vertices, in topological order
+     */
+    public List<V> topologicalOrder()
+    {
+        ArrayList<V> list = new ArrayList<>(graph.numVertices());
+        for (int p = head; p < tail; p++) {
+            if (order[p] >= 0) {
+                list.add(graph.vertex(order[p]));
+            }
+        }
+        return list;
+    }
+
+    /**
+     * @return the number of vertices the cycle checks of out-of-order
+     * edges have visited so far, a measure of the work addEdge has
+     * done beyond adding edges.
+     */
+    public long visited()
+    {
+        return visited;
+    }
+
+    @Override
+    public int numVertices()
+    {
+        return graph.numVertices();
+    }
+
+    @Override
+    public int numEdges()
+    {
+        return graph.numEdges();
+    }
+
+    @Override
+    public int degree(V vertex)
+    {
+        return graph.degree(vertex);
+    }
+
+    @Override
+    public void addVertex(V vertex)
+    {
+        if (vertex == null) {
+            throw new IllegalArgumentException();
+        }
+        if (graph.idOf(vertex) < 0) {
+            place(vertex, false);
+        }
+    }
+
+    @Override
+    public Iterable<V> getVertices()
+    {
+        return graph.getVertices();
+    }
+
+    @Override
+    public Iterable<V> adjacentTo(V from)
+    {
+        return graph.adjacentTo(from);
+    }
+
+    @Override
+    public boolean contains(V vertex)
+    {
+        return graph.contains(vertex);
+    }
+
+    @Override
+    public boolean hasEdge(V from, V to)
+    {
+        return graph.hasEdge(from, to);
+    }
+
+    @Override
+    public String toString()
+    {
+        return GraphExport.toString(this);
+    }
+
+    @Override
+    public void writeTo(Appendable out) throws IOException
+    {
+        graph.writeTo(out);
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return graph.isEmpty();
+    }
+
+    @Override
+    public void removeVertex(V toRemove)
+    {
+        if (toRemove == null) {
+            throw new IllegalArgumentException();
+        }
+        int id = graph.idOf(toRemove);
+        if (id < 0) {
+            return;
+        }
+        order[ord[id]] = -1;
+        graph.removeVertex(toRemove);
+        if (tail - head > 2 * graph.numVertices() + 16) {
+            layout();
+        }
+    }
+
+    @Override
+    public void removeEdge(V from, V to)
+    {
+        graph.removeEdge(from, to);
+    }
+
+    //Tells whether 'to' comes before 'from' in the order, in which case
+    //there is no path from 'from' to 'to'
+    private boolean outOfOrder(V from, V to)
+    {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException();
+        }
+        int x = graph.idOf(from);
+        int y = graph.idOf(to);
+        return x >= 0 && y >= 0 && ord[y] < ord[x];
+    }
+
+    @Override
+    public boolean hasPath(V from, V to)
+    {
+        return !outOfOrder(from, to) && graph.hasPath(from, to);
+    }
+
+    @Override
+    public int pathLength(V from, V to)
+    {
+        return outOfOrder(from, to) ? Integer.MAX_VALUE : graph.pathLength(from, to);
+    }
+
+    @Override
+    public Iterable<V> getPath(V from, V to)
+    {
+        return outOfOrder(from, to) ? new ArrayList<V>() : graph.getPath(from, to);
+    }
+}
@@ -0,0 +1,191 @@
+package edu.union.adt.graph;
+import java.util.*;
+
+/**
+ * Dijkstra's algorithm, behind WeightedGraph.pathCost and
+ * getCheapestPath, and A* (Dijkstra steered by an estimate of the
+ * cost left), behind Graph.aStar.  The vertices waiting to be settled
+ * are kept in an IndexedHeap, so a vertex whose distance improves has
+ * its key lowered in place: a vertex is never in the queue twice, and
+ * no object is allocated per edge relaxed.
+ *
+ * Like BreadthFirstSearch, each thread has its own instance (see
+ * forThread) whose arrays are reused from one search to the next,
+ * with a generation stamp marking the vertices the current search
+ * has reached.
+ */
+final class DijkstraSearch
+{
+    private static final ThreadLocal<DijkstraSearch> SCRATCH =
+        new ThreadLocal<DijkstraSearch>() {
+            @Override
+            protected DijkstraSearch initialValue()
+            {
+                return new DijkstraSearch();
+            }
+        };
+
+    private final IndexedHeap heap = new IndexedHeap();
+    private int[] mark = new int[0];
+    private int[] parent = mark;
+    private double[] distance = new double[0];
+    private double[] remaining = distance;
+    private int stamp;
+
+    private int source;
+    private int target;
+    private double cost = -1;
+    private int hops;
+    private int expanded;
+
+    private DijkstraSearch()
+    {
+    }
+
+    /**
+     * @return the calling thread's search.
+     */
+    static DijkstraSearch forThread()
+    {
+        return SCRATCH.get();
+    }
+
+    private void reset(int capacity)
+    {
+        heap.reset(capacity);
+        if (mark.length < capacity) {
+            int size = Math.max(capacity, mark.length + (mark.length >> 1));
+            mark = new int[size];
+            parent = new int[size];
+            distance = new double[size];
+            remaining = new double[size];
+            stamp = 0;
+        }
+        if (stamp == Integer.MAX_VALUE) {
+            Arrays.fill(mark, 0);
+            stamp = 0;
+        }
+        stamp++;
+    }
+
+    /**
+     * A lower bound on the cost of getting from a vertex to the
+     * destination of the current search, for A*.
+     */
+    interface Estimate
+    {
+        double of(int id);
+    }
+
+    /**
+     * Searches for a cheapest path between two vertices.  The search
+     * stops as soon as the destination is settled.
+     *
+     * @param graph the graph to search; its weights must not be
+     * negative
+     * @param from the id of the source vertex
+     * @param to the id of the destination vertex
+     * @return the cost of the cheapest path, or -1 if there is none
+     */
+    double search(WeightedIndexedGraph graph, int from, int to)
+    {
+        return search(graph, from, to, null);
+    }
+
+    /**
+     * Searches for a cheapest path between two vertices with A*: the
+     * vertices are settled in order of their distance plus the
+     * estimate of their remaining cost, so a good estimate steers the
+     * search toward the destination.  If the estimate never exceeds
+     * the true remaining cost, the path found is a cheapest one; a
+     * vertex reached more cheaply after it was settled is queued
+     * again, so the estimate need not be consistent.
+     *
+     * @param graph the graph to search; if it is not a
+     * WeightedIndexedGraph, every edge weighs 1
+     * @param from the id of the source vertex
+     * @param to the id of the destination vertex
+     * @param estimate the remaining cost of each vertex, or null for
+     * plain Dijkstra
+     * @return the cost of the cheapest path, or -1 if there is none
+     */
+    double search(IndexedGraph graph, int from, int to, Estimate estimate)
+    {
+        WeightedIndexedGraph weighted =
+            graph instanceof WeightedIndexedGraph ? (WeightedIndexedGraph) graph : null;
+        source = from;
+        target = to;
+        cost = -1;
+        expanded = 0;
+        reset(graph.idLimit());
+        int reached = stamp;
+        mark[from] = reached;
+        distance[from] = 0;
+        remaining[from] = estimate == null ? 0 : estimate.of(from);
+        parent[from] = from;
+        heap.offer(from, remaining[from]);
+        while (!heap.isEmpty()) {
+            int v = heap.poll();
+            expanded++;
+            double d = distance[v];
+            if (v == to) {
+                cost = d;
+                break;
+            }
+            int degree = graph.degree(v);
+            for (int i = 0; i < degree; i++) {
+                int w = graph.neighbor(v, i);
+                double through = d + (weighted == null ? 1 : weighted.weight(v, i));
+                if (mark[w] != reached) {
+                    mark[w] = reached;
+                    remaining[w] = estimate == null ? 0 : estimate.of(w);
+                }
+                else if (through >= distance[w]) {
+                    continue;
+                }
+                distance[w] = through;
+                parent[w] = v;
+                heap.offer(w, through + remaining[w]);
+            }
+        }
+        hops = -1;
+        if (cost >= 0) {
+            hops = 0;
+            for (int v = to; v != from; v = parent[v]) {
+                hops++;
+            }
+        }
+        return cost;
+    }
+
+    /**
+     * @return the number of vertices the last search expanded, that
+     * is, took off the heap and looked at the edges of (counting a
+     * vertex again each time it is queued again).
+     */
+    int expanded()
+    {
+        return expanded;
+    }
+
+    /**
+     * @return the ids of the vertices along the path the last search
+     * found, from the source to the destination; null if it found
+     * none.
+     */
+    int[] path()
+    {
+        if (cost < 0) {
+            return null;
+        }
+        int[] path = new int[hops + 1];
+        int i = hops;
+        for (int v = target; ; v = parent[v]) {
+            path[i--] = v;
+            if (v == source) {
+                break;
+            }
+        }
+        return path;
+    }
+}
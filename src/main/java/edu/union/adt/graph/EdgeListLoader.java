@@ -0,0 +1,647 @@
+package edu.union.adt.graph;
+import java.util.*;
+import java.util.concurrent.*;
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+/**
+ * Loads graphs from edge-list text files: one edge per line, written
+ * as a source vertex and a destination vertex separated by spaces or
+ * tabs.  Anything after the second vertex on a line (a weight, say)
+ * is ignored, as are blank lines and lines starting with '#' or '%'.
+ * Lines may end with "\n" or "\r\n".
+ *
+ * The file is memory-mapped and cut into chunks at line boundaries,
+ * and the chunks are parsed in parallel straight from the mapped
+ * bytes.  The edges are then gathered, in file order, and handed to
+ * the graph's bulk-loading path.  No String is made per line: integer
+ * vertices are parsed from their digits, and each chunk of a file of
+ * String vertices numbers the names it sees in a hash table over the
+ * raw bytes, so a name is decoded once per chunk it appears in.
+ *
+ * Malformed lines (a single vertex, or an integer vertex that is not
+ * a number) make the load fail with an IOException giving the byte
+ * offset of the line.
+ */
+public final class EdgeListLoader
+{
+    // the size range of the pieces the file is cut into
+    private static final long MIN_CHUNK = 1 << 20;
+    private static final long MAX_CHUNK = 1 << 28;
+    // how far to look at a time for the end of a line
+    private static final int WINDOW = 1 << 16;
+
+    private EdgeListLoader()
+    {
+    }
+
+    /**
+     * Loads a graph whose vertices are integers, parsing on the common
+     * ForkJoinPool.
+     *
+     * @param file the edge list
+     * @return a new graph holding the file's edges
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static HashGraph<Integer> loadIntegers(Path file) throws IOException
+    {
+        return loadIntegers(file, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Loads a graph whose vertices are integers.
+     *
+     * @param file the edge list
+     * @param pool the pool whose threads parse the file
+     * @return a new graph holding the file's edges
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static HashGraph<Integer> loadIntegers(Path file, ForkJoinPool pool) throws IOException
+    {
+        Edges edges = concatenate(parse(file, true, pool));
+        int[] values = number(edges);
+        Integer[] vertices = new Integer[values.length];
+        for (int i = 0; i < vertices.length; i++) {
+            vertices[i] = values[i];
+        }
+        HashGraph<Integer> graph = new HashGraph<>();
+        graph.addEdges(vertices, edges.sources, edges.targets, edges.count);
+        return graph;
+    }
+
+    /**
+     * Loads a graph whose vertices are strings, parsing on the common
+     * ForkJoinPool.
+     *
+     * @param file the edge list, in UTF-8
+     * @return a new graph holding the file's edges
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static HashGraph<String> loadStrings(Path file) throws IOException
+    {
+        return loadStrings(file, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Loads a graph whose vertices are strings.  Each vertex name is
+     * a single String object shared by all of its edges.
+     *
+     * @param file the edge list, in UTF-8
+     * @param pool the pool whose threads parse the file
+     * @return a new graph holding the file's edges
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static HashGraph<String> loadStrings(Path file, ForkJoinPool pool) throws IOException
+    {
+        Chunk[] chunks = parse(file, false, pool);
+        HashMap<String, Integer> ids = new HashMap<>();
+        ArrayList<String> names = new ArrayList<>();
+        for (Chunk chunk : chunks) {
+            StringChunk c = (StringChunk) chunk;
+            int[] global = new int[c.symbols];
+            for (int s = 0; s < c.symbols; s++) {
+                String name = new String(c.arena, c.starts[s], c.lengths[s], StandardCharsets.UTF_8);
+                Integer id = ids.get(name);
+                if (id == null) {
+                    id = names.size();
+                    ids.put(name, id);
+                    names.add(name);
+                }
+                global[s] = id;
+            }
+            c.translation = global;
+        }
+        Edges edges = concatenate(chunks);
+        HashGraph<String> graph = new HashGraph<>();
+        graph.addEdges(names.toArray(new String[names.size()]), edges.sources, edges.targets,
+                       edges.count);
+        return graph;
+    }
+
+    /**
+     * Loads a compact graph whose vertices are non-negative ints,
+     * parsing on the common ForkJoinPool.
+     *
+     * @param file the edge list
+     * @return a new ArrayIntGraph holding the file's edges
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static IntGraph loadIntGraph(Path file) throws IOException
+    {
+        return loadIntGraph(file, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Loads a compact graph whose vertices are non-negative ints.  If
+     * a vertex is negative, throws an IllegalArgumentException.
+     *
+     * @param file the edge list
+     * @param pool the pool whose threads parse the file
+     * @return a new ArrayIntGraph holding the file's edges
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public static IntGraph loadIntGraph(Path file, ForkJoinPool pool) throws IOException
+    {
+        Edges edges = concatenate(parse(file, true, pool));
+        ArrayIntGraph graph = new ArrayIntGraph(edges.count == 0 ? 0 : edges.max + 1);
+        graph.addEdges(edges.sources, edges.targets, edges.count);
+        return graph;
+    }
+
+    /**
+     * The edges of the whole file, in file order, and the smallest and
+     * largest vertex among them.
+     */
+    private static final class Edges
+    {
+        final int[] sources;
+        final int[] targets;
+        final int count;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+
+        Edges(int count)
+        {
+            this.sources = new int[count];
+            this.targets = new int[count];
+            this.count = count;
+        }
+    }
+
+    /**
+     * Gathers the chunks' edges, in order.  A chunk with a translation
+     * has its vertex numbers replaced by the translated ones.
+     */
+    private static Edges concatenate(Chunk[] chunks)
+    {
+        int total = 0;
+        for (Chunk chunk : chunks) {
+            total += chunk.count;
+        }
+        Edges edges = new Edges(total);
+        int at = 0;
+        for (Chunk chunk : chunks) {
+            int[] global = chunk.translation;
+            if (global == null) {
+                System.arraycopy(chunk.sources, 0, edges.sources, at, chunk.count);
+                System.arraycopy(chunk.targets, 0, edges.targets, at, chunk.count);
+                edges.min = Math.min(edges.min, chunk.min);
+                edges.max = Math.max(edges.max, chunk.max);
+                at += chunk.count;
+            }
+            else {
+                for (int i = 0; i < chunk.count; i++) {
+                    edges.sources[at] = global[chunk.sources[i]];
+                    edges.targets[at] = global[chunk.targets[i]];
+                    at++;
+                }
+            }
+            chunk.sources = null;
+            chunk.targets = null;
+        }
+        return edges;
+    }
+
+    /**
+     * Numbers the distinct vertices of integer edges in the order they
+     * first appear, and replaces each vertex by its number.  When the
+     * vertices are small non-negative ints, as they usually are, the
+     * numbers are kept in an array indexed by vertex; otherwise in a
+     * hash table.
+     *
+     * @return the vertex with each number
+     */
+    private static int[] number(Edges edges)
+    {
+        int[] values = new int[16];
+        int size = 0;
+        int[][] ends = { edges.sources, edges.targets };
+        if (edges.count > 0 && edges.min >= 0 && edges.max / 8 <= edges.count) {
+            int[] ids = new int[edges.max + 1];
+            Arrays.fill(ids, -1);
+            for (int i = 0; i < edges.count; i++) {
+                for (int[] end : ends) {
+                    int v = end[i];
+                    int id = ids[v];
+                    if (id < 0) {
+                        if (size == values.length) {
+                            values = Arrays.copyOf(values, size * 2);
+                        }
+                        values[size] = v;
+                        id = ids[v] = size++;
+                    }
+                    end[i] = id;
+                }
+            }
+            return Arrays.copyOf(values, size);
+        }
+        IntSymbols symbols = new IntSymbols();
+        for (int i = 0; i < edges.count; i++) {
+            edges.sources[i] = symbols.idOf(edges.sources[i]);
+            edges.targets[i] = symbols.idOf(edges.targets[i]);
+        }
+        values = new int[symbols.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = symbols.value(i);
+        }
+        return values;
+    }
+
+    /**
+     * Maps the file, cuts it into chunks and parses them on the pool.
+     */
+    private static Chunk[] parse(Path file, final boolean integers, ForkJoinPool pool)
+        throws IOException
+    {
+        if (file == null || pool == null) {
+            throw new IllegalArgumentException();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long[] bounds = split(channel, size, pool.getParallelism());
+            final Chunk[] chunks = new Chunk[bounds.length - 1];
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (int i = 0; i < chunks.length; i++) {
+                MappedByteBuffer bytes =
+                    channel.map(FileChannel.MapMode.READ_ONLY, bounds[i], bounds[i + 1] - bounds[i]);
+                final Chunk chunk = integers ? new IntChunk(bytes, bounds[i])
+                                             : new StringChunk(bytes, bounds[i]);
+                chunks[i] = chunk;
+                tasks.add(ForkJoinTask.adapt(new Callable<Void>() {
+                    public Void call() throws IOException
+                    {
+                        chunk.run();
+                        return null;
+                    }
+                }));
+            }
+            try {
+                pool.invoke(new RecursiveAction() {
+                    @Override
+                    protected void compute()
+                    {
+                        invokeAll(tasks);
+                    }
+                });
+            }
+            catch (RuntimeException e) {
+                // the pool wraps a chunk's IOException, maybe more than once
+                for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                    if (cause instanceof IOException) {
+                        throw (IOException) cause;
+                    }
+                }
+                throw e;
+            }
+            return chunks;
+        }
+    }
+
+    /**
+     * Picks where the chunks start: roughly equal pieces, each moved
+     * forward to the start of a line.
+     *
+     * @return the chunk boundaries, from 0 to 'size'
+     */
+    private static long[] split(FileChannel channel, long size, int parallelism) throws IOException
+    {
+        long length = Math.min(MAX_CHUNK, Math.max(MIN_CHUNK, size / (4L * parallelism)));
+        ArrayList<Long> bounds = new ArrayList<>();
+        bounds.add(0L);
+        long at = 0;
+        while (size - at > length) {
+            at = lineAfter(channel, at + length, size);
+            if (at >= size) {
+                break;
+            }
+            bounds.add(at);
+        }
+        bounds.add(size);
+        long[] result = new long[bounds.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = bounds.get(i);
+        }
+        return result;
+    }
+
+    //Returns the position just past the first '\n' at or after 'from'
+    private static long lineAfter(FileChannel channel, long from, long size) throws IOException
+    {
+        for (long at = from; at < size; at += WINDOW) {
+            int span = (int) Math.min(WINDOW, size - at);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, at, span);
+            for (int i = 0; i < span; i++) {
+                if (window.get(i) == '\n') {
+                    return at + i + 1;
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * One piece of the file, made of whole lines, and the edges parsed
+     * from it.
+     */
+    private abstract static class Chunk
+    {
+        final ByteBuffer bytes;
+        final long offset;
+        // the position of the next byte to read
+        int pos;
+
+        int[] sources = new int[1024];
+        int[] targets = new int[1024];
+        int count;
+        // the smallest and largest vertex, for integer vertices
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        // each of this chunk's vertex numbers as a global one, for
+        // chunks that number their own vertices
+        int[] translation;
+
+        Chunk(ByteBuffer bytes, long offset)
+        {
+            this.bytes = bytes;
+            this.offset = offset;
+        }
+
+        /**
+         * Reads the vertex starting at 'pos', leaving 'pos' just past
+         * it.
+         *
+         * @param line the position of the start of the line, for
+         * error messages
+         * @return the vertex, or the chunk's number for it
+         */
+        abstract int vertex(int line) throws IOException;
+
+        static boolean isBlank(byte b)
+        {
+            return b == ' ' || b == '\t';
+        }
+
+        static boolean isEnd(byte b)
+        {
+            return b == '\n' || b == '\r';
+        }
+
+        IOException malformed(int line)
+        {
+            return new IOException("malformed edge at byte " + (offset + line));
+        }
+
+        void run() throws IOException
+        {
+            int limit = bytes.limit();
+            while (pos < limit) {
+                int line = pos;
+                while (pos < limit && isBlank(bytes.get(pos))) {
+                    pos++;
+                }
+                if (pos == limit) {
+                    break;
+                }
+                byte first = bytes.get(pos);
+                if (first != '#' && first != '%' && !isEnd(first)) {
+                    int from = vertex(line);
+                    while (pos < limit && isBlank(bytes.get(pos))) {
+                        pos++;
+                    }
+                    if (pos == limit || isEnd(bytes.get(pos))) {
+                        throw malformed(line);
+                    }
+                    int to = vertex(line);
+                    if (count == sources.length) {
+                        sources = Arrays.copyOf(sources, count * 2);
+                        targets = Arrays.copyOf(targets, count * 2);
+                    }
+                    sources[count] = from;
+                    targets[count] = to;
+                    count++;
+                }
+                while (pos < limit && bytes.get(pos) != '\n') {
+                    pos++;
+                }
+                pos++;
+            }
+        }
+    }
+
+    /**
+     * A chunk of an edge list whose vertices are integers, which are
+     * kept as they are.
+     */
+    private static final class IntChunk extends Chunk
+    {
+        IntChunk(ByteBuffer bytes, long offset)
+        {
+            super(bytes, offset);
+        }
+
+        @Override
+        int vertex(int line) throws IOException
+        {
+            int limit = bytes.limit();
+            boolean negative = bytes.get(pos) == '-';
+            if (negative) {
+                pos++;
+            }
+            long value = 0;
+            int digits = 0;
+            while (pos < limit) {
+                int d = bytes.get(pos) - '0';
+                if (d < 0 || d > 9) {
+                    break;
+                }
+                value = value * 10 + d;
+                if (value > 1L + Integer.MAX_VALUE) {
+                    throw malformed(line);
+                }
+                digits++;
+                pos++;
+            }
+            if (negative) {
+                value = -value;
+            }
+            if (digits == 0 || value > Integer.MAX_VALUE
+                || (pos < limit && !isBlank(bytes.get(pos)) && !isEnd(bytes.get(pos)))) {
+                throw malformed(line);
+            }
+            int vertex = (int) value;
+            min = Math.min(min, vertex);
+            max = Math.max(max, vertex);
+            return vertex;
+        }
+    }
+
+    /**
+     * A chunk of an edge list whose vertices are strings.  The chunk
+     * numbers its vertices in the order it first sees them, and copies
+     * the bytes of each distinct vertex once into 'arena'.
+     */
+    private static final class StringChunk extends Chunk
+    {
+        byte[] arena = new byte[1 << 12];
+        int arenaSize;
+        int[] starts = new int[64];
+        int[] lengths = new int[64];
+        int[] hashes = new int[64];
+        int symbols;
+        // vertex number + 1 for each slot, 0 for an empty slot
+        int[] slots = new int[128];
+
+        StringChunk(ByteBuffer bytes, long offset)
+        {
+            super(bytes, offset);
+        }
+
+        @Override
+        int vertex(int line)
+        {
+            int limit = bytes.limit();
+            int start = pos;
+            int hash = 0;
+            while (pos < limit) {
+                byte b = bytes.get(pos);
+                if (isBlank(b) || isEnd(b)) {
+                    break;
+                }
+                hash = 31 * hash + b;
+                pos++;
+            }
+            int length = pos - start;
+            hash ^= hash >>> 16;
+            int mask = slots.length - 1;
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                int s = slots[slot] - 1;
+                if (s < 0) {
+                    s = add(start, length, hash);
+                    slots[slot] = s + 1;
+                    if (2 * symbols > slots.length) {
+                        rehash();
+                    }
+                    return s;
+                }
+                if (hashes[s] == hash && same(s, start, length)) {
+                    return s;
+                }
+            }
+        }
+
+        //Returns true iff vertex s has the bytes at start .. start + length - 1
+        private boolean same(int s, int start, int length)
+        {
+            if (lengths[s] != length) {
+                return false;
+            }
+            int at = starts[s];
+            for (int i = 0; i < length; i++) {
+                if (arena[at + i] != bytes.get(start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int add(int start, int length, int hash)
+        {
+            if (symbols == starts.length) {
+                starts = Arrays.copyOf(starts, symbols * 2);
+                lengths = Arrays.copyOf(lengths, symbols * 2);
+                hashes = Arrays.copyOf(hashes, symbols * 2);
+            }
+            if (arenaSize + length > arena.length) {
+                arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaSize + length));
+            }
+            for (int i = 0; i < length; i++) {
+                arena[arenaSize + i] = bytes.get(start + i);
+            }
+            starts[symbols] = arenaSize;
+            lengths[symbols] = length;
+            hashes[symbols] = hash;
+            arenaSize += length;
+            return symbols++;
+        }
+
+        private void rehash()
+        {
+            slots = new int[slots.length * 2];
+            int mask = slots.length - 1;
+            for (int s = 0; s < symbols; s++) {
+                int slot = hashes[s] & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = s + 1;
+            }
+        }
+    }
+
+    /**
+     * Numbers distinct ints in the order they are first seen, with an
+     * open-addressing hash table.
+     */
+    private static final class IntSymbols
+    {
+        private int[] values = new int[64];
+        private int size;
+        // position + 1 of each value, 0 for an empty slot
+        private int[] slots = new int[128];
+
+        int size()
+        {
+            return size;
+        }
+
+        int value(int id)
+        {
+            return values[id];
+        }
+
+        //Returns the number of 'value', numbering it if it is new
+        int idOf(int value)
+        {
+            int mask = slots.length - 1;
+            for (int slot = hash(value) & mask; ; slot = (slot + 1) & mask) {
+                int id = slots[slot] - 1;
+                if (id < 0) {
+                    if (size == values.length) {
+                        values = Arrays.copyOf(values, size * 2);
+                    }
+                    values[size] = value;
+                    slots[slot] = ++size;
+                    if (2 * size > slots.length) {
+                        rehash();
+                    }
+                    return size - 1;
+                }
+                if (values[id] == value) {
+                    return id;
+                }
+            }
+        }
+
+        private static int hash(int value)
+        {
+            int h = value * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        private void rehash()
+        {
+            slots = new int[slots.length * 2];
+            int mask = slots.length - 1;
+            for (int id = 0; id < size; id++) {
+                int slot = hash(values[id]) & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = id + 1;
+            }
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package edu.union.adt.graph;
 import java.util.*;
+import java.io.IOException;
+import java.util.function.*;
+import java.util.stream.*;
 
 /**
  * A graph that establishes connections (edges) between objects of
  * (parameterized) type V (vertices).  The edges are directed.  An
  * undirected edge between u and v can be simulated by two edges: (u,
- * v) and (v, u).
+ * v) and (v, u), or stored once in an UndirectedGraph, whose every
+ * edge goes both ways.
  *
  * The API is based on one from
  *     http://introcs.cs.princeton.edu/java/home/
@@ -225,6 +229,101 @@ public interface Graph<V>
    */
   public Iterable<V> getPath(V from, V to);
 
+  /**
+   * Streams the vertices of the graph, in getVertices order, without
+   * copying them.  The stream is sequential; call parallel() on it to
+   * spread the work across cores, which splits the vertices as well as
+   * getVertices' spliterator allows.  The graph must not change while
+   * the stream is in use.
+   *
+   * @return a stream of the vertices of the graph
+   */
+  public default Stream<V> vertices()
+  {
+    return StreamSupport.stream(getVertices().spliterator(), false);
+  }
+
+  /**
+   * Streams the edges of the graph, as (source, destination) pairs,
+   * vertex by vertex in getVertices order and then in adjacentTo
+   * order.  Like vertices(), the stream is sequential, can be made
+   * parallel, and must not outlive changes to the graph.  By default a
+   * parallel stream divides the work by source vertex; CsrGraph
+   * divides it by edge, so vertices of very high degree do not keep
+   * one core busy while the others wait.
+   *
+   * @return a stream of the edges of the graph
+   */
+  public default Stream<Map.Entry<V, V>> edges()
+  {
+    return vertices().flatMap(new Function<V, Stream<Map.Entry<V, V>>>() {
+      public Stream<Map.Entry<V, V>> apply(final V from)
+      {
+        return StreamSupport.stream(adjacentTo(from).spliterator(), false)
+          .map(new Function<V, Map.Entry<V, V>>() {
+            public Map.Entry<V, V> apply(V to)
+            {
+              return new AbstractMap.SimpleImmutableEntry<V, V>(from, to);
+            }
+          });
+      }
+    });
+  }
 
+  /**
+   * Takes a read-only copy of the graph as it is now.  Later changes
+   * to this graph do not affect the copy, and the copy cannot be
+   * changed.  By default the copy is a CsrGraph holding every vertex
+   * and edge; graphs that can share structure with their snapshots,
+   * such as PersistentGraph, do it in constant time.
+   *
+   * @return an immutable graph with the same vertices and edges
+   */
+  public default Graph<V> snapshot()
+  {
+    return new CsrGraph<V>(this);
+  }
 
+  /**
+   * Writes the string representation of the graph, in the format
+   * described by toString, to 'out' as it goes, without building the
+   * whole string first.  Every toString in this package is built on
+   * this, so the two always agree.  The graph must not change while it
+   * is being written.
+   *
+   * @param out where to write; for large graphs, a buffered Writer
+   * @throws IOException if 'out' throws one
+   */
+  public default void writeTo(Appendable out) throws IOException
+  {
+    for (V vertex : getVertices()) {
+      out.append(String.valueOf(vertex)).append(':');
+      String separator = " ";
+      for (V next : adjacentTo(vertex)) {
+        out.append(separator).append(String.valueOf(next));
+        separator = ", ";
+      }
+      out.append('\n');
+    }
+  }
+
+  /**
+   * Finds a cheapest path between two vertices with an A* search,
+   * which uses a heuristic estimate of the cost left to expand fewer
+   * vertices than a blind search.  The cost of a path is the sum of
+   * its weights on a WeightedGraph, and its number of edges on any
+   * other graph; with an admissible heuristic the path found is a
+   * cheapest one.
+   *
+   * @param from the source vertex
+   * @param to the destination vertex
+   * @param heuristic the estimate of the cost from any vertex to 'to'
+   * @return the path, which iterates as getPath's result does (empty
+   * if there is no path or if from = to), along with its cost and the
+   * number of vertices the search expanded
+   */
+  public default PathResult<V> aStar(V from, V to, Heuristic<? super V> heuristic)
+  {
+    return AStarSearch.search(this, from, to, heuristic);
+  }
 }
@@ -0,0 +1,153 @@
+package edu.union.adt.graph;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes graphs out as text, streaming each vertex and edge to the
+ * output as it is reached, so that exporting takes time linear in the
+ * size of the graph and never holds the whole text in memory.
+ *
+ * Three formats are offered: the one described by Graph.toString
+ * (see Graph.writeTo), Graphviz DOT, and a plain edge list that
+ * EdgeListLoader can read back.  Vertices are written with their
+ * toString.  The graph must not change while it is being written; to
+ * export a graph other threads are changing, export a snapshot of it.
+ *
+ * The methods that take an OutputStream write UTF-8 and flush the
+ * stream, but do not close it.
+ */
+public final class GraphExport
+{
+    private GraphExport()
+    {
+    }
+
+    /**
+     * Writes a graph in Graphviz DOT format: a digraph with one line
+     * per edge, and one line for each vertex no edge leaves.  Vertex
+     * names are always quoted, so any vertex can be written.
+     *
+     * @param graph the graph to write
+     * @param out where to write
+     * @throws IOException if 'out' throws one
+     */
+    public static <V> void writeDot(Graph<V> graph, Appendable out) throws IOException
+    {
+        if (graph == null || out == null) {
+            throw new IllegalArgumentException();
+        }
+        out.append("digraph {\n");
+        for (V vertex : graph.getVertices()) {
+            boolean any = false;
+            for (V next : graph.adjacentTo(vertex)) {
+                out.append("  ");
+                appendQuoted(out, vertex);
+                out.append(" -> ");
+                appendQuoted(out, next);
+                out.append(";\n");
+                any = true;
+            }
+            if (!any) {
+                out.append("  ");
+                appendQuoted(out, vertex);
+                out.append(";\n");
+            }
+        }
+        out.append("}\n");
+    }
+
+    /**
+     * Writes a graph in DOT format to a stream, as UTF-8.
+     *
+     * @param graph the graph to write
+     * @param out the stream to write to; it is flushed but not closed
+     * @throws IOException if writing to 'out' fails
+     */
+    public static <V> void writeDot(Graph<V> graph, OutputStream out) throws IOException
+    {
+        Writer writer = writer(out);
+        writeDot(graph, writer);
+        writer.flush();
+    }
+
+    /**
+     * Writes a graph as a list of edges, one "source destination" line
+     * per edge.  Vertices with no edges are not written, and vertex
+     * names containing white space cannot be read back.
+     *
+     * @param graph the graph to write
+     * @param out where to write
+     * @throws IOException if 'out' throws one
+     */
+    public static <V> void writeEdgeList(Graph<V> graph, Appendable out) throws IOException
+    {
+        if (graph == null || out == null) {
+            throw new IllegalArgumentException();
+        }
+        for (V vertex : graph.getVertices()) {
+            String name = String.valueOf(vertex);
+            for (V next : graph.adjacentTo(vertex)) {
+                out.append(name).append(' ').append(String.valueOf(next)).append('\n');
+            }
+        }
+    }
+
+    /**
+     * Writes a graph as a list of edges to a stream, as UTF-8.
+     *
+     * @param graph the graph to write
+     * @param out the stream to write to; it is flushed but not closed
+     * @throws IOException if writing to 'out' fails
+     */
+    public static <V> void writeEdgeList(Graph<V> graph, OutputStream out) throws IOException
+    {
+        Writer writer = writer(out);
+        writeEdgeList(graph, writer);
+        writer.flush();
+    }
+
+    /**
+     * Builds the string representation of a graph with its writeTo;
+     * the toString of every graph in this package calls this.
+     */
+    static String toString(Graph<?> graph)
+    {
+        StringBuilder builder = new StringBuilder();
+        try {
+            graph.writeTo(builder);
+        }
+        catch (IOException e) {
+            // a StringBuilder never throws one
+            throw new UncheckedIOException(e);
+        }
+        return builder.toString();
+    }
+
+    private static Writer writer(OutputStream out)
+    {
+        if (out == null) {
+            throw new IllegalArgumentException();
+        }
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    //Writes a vertex as a DOT string, escaping quotes, backslashes and
+    //line breaks
+    private static void appendQuoted(Appendable out, Object vertex) throws IOException
+    {
+        String name = String.valueOf(vertex);
+        out.append('"');
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '\n') {
+                out.append("\\n");
+                continue;
+            }
+            if (c == '"' || c == '\\') {
+                out.append('\\');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+}
@@ -8,4 +8,110 @@ public class GraphFactory{
       return new HashGraph<V>();
   }
 
+  /**
+   * Creates an empty graph that many threads can read and change at
+   * once.  Reads never wait for writers.
+   *
+   * @return a new, empty ConcurrentGraph
+   */
+  public static <V> ConcurrentGraph<V> createConcurrentGraph()
+  {
+      return new ConcurrentGraph<V>();
+  }
+
+  /**
+   * Creates an empty graph whose snapshots take constant time: each
+   * snapshot is an immutable view of one version of the graph, which
+   * the graph can keep changing independently of.
+   *
+   * @return a new, empty PersistentGraph
+   */
+  public static <V> PersistentGraph<V> createPersistentGraph()
+  {
+      return new PersistentGraph<V>();
+  }
+
+  /**
+   * Creates an empty graph that keeps its edges outside the Java
+   * heap.  Close it to free that memory.
+   *
+   * @return a new, empty OffHeapGraph
+   */
+  public static <V> OffHeapGraph<V> createOffHeapGraph()
+  {
+      return new OffHeapGraph<V>();
+  }
+
+  /**
+   * Creates an empty graph whose edges have weights, and which can
+   * find cheapest paths.
+   *
+   * @return a new, empty WeightedGraph
+   */
+  public static <V> WeightedGraph<V> createWeightedGraph()
+  {
+      return new HashWeightedGraph<V>();
+  }
+
+  /**
+   * Creates an empty graph that refuses edges that would create a
+   * cycle, and keeps a topological order of its vertices up to date.
+   *
+   * @return a new, empty DagGraph
+   */
+  public static <V> DagGraph<V> createDagGraph()
+  {
+      return new DagGraph<V>();
+  }
+
+  /**
+   * Creates an empty graph whose edges are undirected, each stored
+   * once.
+   *
+   * @return a new, empty UndirectedGraph
+   */
+  public static <V> UndirectedGraph<V> createUndirectedGraph()
+  {
+      return new UndirectedGraph<V>();
+  }
+
+  /**
+   * Creates an empty graph whose vertices are non-negative ints.
+   *
+   * @return a new, empty IntGraph
+   */
+  public static IntGraph createIntGraph()
+  {
+      return new ArrayIntGraph();
+  }
+
+  /**
+   * Makes a read-only, compact copy of a graph.  The copy answers
+   * queries faster than a mutable graph, but cannot be changed.
+   *
+   * @param graph the graph to copy
+   * @return a read-only snapshot of 'graph'
+   */
+  public static <V> CsrGraph<V> freeze(Graph<V> graph)
+  {
+      if (graph instanceof CsrGraph){
+        return (CsrGraph<V>) graph;
+      }
+      return new CsrGraph<V>(graph);
+  }
+
+  /**
+   * Wraps a graph so that its path queries are answered from a cache
+   * of search trees.  All later changes must go through the returned
+   * graph.
+   *
+   * @param graph the graph to wrap
+   * @param maxSources the most source vertices to cache searches for
+   * @return a caching view of 'graph'
+   */
+  public static <V> CachingGraph<V> cache(Graph<V> graph, int maxSources)
+  {
+      return new CachingGraph<V>(graph, maxSources);
+  }
+
 }
@@ -0,0 +1,362 @@
+package edu.union.adt.graph;
+import java.util.*;
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.zip.CRC32;
+
+/**
+ * Saves graphs in a compact binary format, and opens saved graphs by
+ * memory-mapping them, so that a large graph can be reopened without
+ * being rebuilt.  The vertices must be all Integers or all Strings.
+ *
+ * <p>Format version 1, all numbers little-endian:
+ *
+ * <PRE>
+ * header (64 bytes)
+ *   0  int   magic "GRPH" (0x48505247)
+ *   4  int   format version (1)
+ *   8  int   vertex kind (1 = Integer, 2 = String)
+ *  12  int   number of vertices, n
+ *  16  int   number of edges
+ *  20  int   capacity of the lookup table, a power of two
+ *  24  int   offset of the vertex table
+ *  28  int   offset of the vertex name bytes (String vertices only)
+ *  32  int   offset of the adjacency index
+ *  36  int   offset of the adjacency lists
+ *  40  int   offset of the lookup table
+ *  44  int   length of the file
+ *  48  long  CRC-32 of every byte after the header
+ *  56        reserved, 0
+ * vertex table
+ *   Integer: int[n], the vertex with each id
+ *   String:  int[n + 1], where the UTF-8 name of vertex i is bytes
+ *            [t[i], t[i + 1]) of the name bytes
+ * adjacency index
+ *   int[n + 1], the start of each vertex's list in the adjacency lists
+ * adjacency lists
+ *   for each vertex: its degree, then the ids of its adjacent vertices
+ *   in increasing order, each as the difference from the one before
+ *   (the first from 0), all as unsigned LEB128 varints
+ * lookup table
+ *   int[capacity], open addressing with linear probing: id + 1 of the
+ *   vertex in each slot, or 0.  A vertex's first slot is mix(h) &amp;
+ *   (capacity - 1), where h is the Integer's value or the String's
+ *   hashCode, and mix(h) = (h * 0x9E3779B9) ^ ((h * 0x9E3779B9) &gt;&gt;&gt; 16)
+ * </PRE>
+ *
+ * Each section starts at a multiple of 4 bytes.  The whole file is
+ * mapped as one buffer, so it must be smaller than 2GB.
+ */
+public final class GraphIO
+{
+    static final int MAGIC = 0x48505247;
+    static final int VERSION = 1;
+    static final int INTEGERS = 1;
+    static final int STRINGS = 2;
+    static final int HEADER_SIZE = 64;
+
+    private GraphIO()
+    {
+    }
+
+    /**
+     * Saves a graph to a file, replacing the file if it exists.
+     *
+     * @param graph the graph to save; its vertices must be all
+     * Integers or all Strings
+     * @param file the file to write
+     * @throws IOException if the file cannot be written, or the graph
+     * is too large for the format
+     */
+    public static <V> void write(Graph<V> graph, Path file) throws IOException
+    {
+        if (graph == null || file == null) {
+            throw new IllegalArgumentException();
+        }
+        ArrayList<V> vertices = new ArrayList<>();
+        HashMap<V, Integer> ids = new HashMap<>();
+        int kind = 0;
+        for (V v : graph.getVertices()) {
+            int k = v instanceof Integer ? INTEGERS : v instanceof String ? STRINGS : -1;
+            if (k < 0 || (kind != 0 && k != kind)) {
+                throw new IllegalArgumentException("vertices must be all Integers or all Strings");
+            }
+            kind = k;
+            ids.put(v, vertices.size());
+            vertices.add(v);
+        }
+        if (kind == 0) {
+            kind = INTEGERS;
+        }
+        int n = vertices.size();
+
+        ByteSink out = new ByteSink(HEADER_SIZE + 16 * n);
+        out.position(HEADER_SIZE);
+
+        int vertexTable = out.size();
+        int vertexData = 0;
+        if (kind == INTEGERS) {
+            for (V v : vertices) {
+                out.putInt((Integer) v);
+            }
+        }
+        else {
+            byte[][] names = new byte[n][];
+            int at = 0;
+            for (int i = 0; i < n; i++) {
+                names[i] = ((String) vertices.get(i)).getBytes(StandardCharsets.UTF_8);
+                out.putInt(at);
+                at += names[i].length;
+            }
+            out.putInt(at);
+            vertexData = out.size();
+            for (byte[] name : names) {
+                out.put(name);
+            }
+            out.align();
+        }
+
+        // the lists go in a sink of their own while the index is filled
+        int[] index = new int[n + 1];
+        ByteSink lists = new ByteSink(4 * n + 16);
+        int edges = 0;
+        int[] adjacent = new int[16];
+        for (int i = 0; i < n; i++) {
+            index[i] = lists.size();
+            int degree = 0;
+            for (V w : graph.adjacentTo(vertices.get(i))) {
+                if (degree == adjacent.length) {
+                    adjacent = Arrays.copyOf(adjacent, degree * 2);
+                }
+                adjacent[degree++] = ids.get(w);
+            }
+            Arrays.sort(adjacent, 0, degree);
+            lists.putVarint(degree);
+            int previous = 0;
+            for (int j = 0; j < degree; j++) {
+                lists.putVarint(adjacent[j] - previous);
+                previous = adjacent[j];
+            }
+            edges += degree;
+        }
+        index[n] = lists.size();
+        lists.align();
+
+        int adjacencyIndex = out.size();
+        for (int offset : index) {
+            out.putInt(offset);
+        }
+        int adjacencyData = out.size();
+        out.put(lists.bytes(), 0, lists.size());
+
+        int capacity = Integer.highestOneBit(Math.max(2 * n, 2) - 1) * 2;
+        int[] slots = new int[capacity];
+        for (int i = 0; i < n; i++) {
+            int slot = mix(vertices.get(i).hashCode()) & (capacity - 1);
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            slots[slot] = i + 1;
+        }
+        int lookup = out.size();
+        for (int slot : slots) {
+            out.putInt(slot);
+        }
+        int length = out.size();
+
+        CRC32 crc = new CRC32();
+        crc.update(out.bytes(), HEADER_SIZE, length - HEADER_SIZE);
+        out.position(0);
+        out.putInt(MAGIC);
+        out.putInt(VERSION);
+        out.putInt(kind);
+        out.putInt(n);
+        out.putInt(edges);
+        out.putInt(capacity);
+        out.putInt(vertexTable);
+        out.putInt(vertexData);
+        out.putInt(adjacencyIndex);
+        out.putInt(adjacencyData);
+        out.putInt(lookup);
+        out.putInt(length);
+        out.putLong(crc.getValue());
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                                                    StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(out.bytes(), 0, length);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Opens a saved graph by memory-mapping it.  Only the header is
+     * checked; see openMapped(Path, boolean) to check the whole file.
+     *
+     * @param file a file written by write
+     * @return a read-only graph that reads the mapped file directly.
+     * V must be Integer or String, as in the saved graph.
+     * @throws IOException if the file cannot be read or is not a
+     * saved graph
+     */
+    public static <V> MappedGraph<V> openMapped(Path file) throws IOException
+    {
+        return openMapped(file, false);
+    }
+
+    /**
+     * Opens a saved graph by memory-mapping it, optionally checking
+     * the checksum of the whole file first.  Checking reads every
+     * byte of the file; not checking makes opening take constant
+     * time.
+     *
+     * @param file a file written by write
+     * @param verify whether to check the checksum
+     * @return a read-only graph that reads the mapped file directly
+     * @throws IOException if the file cannot be read, is not a saved
+     * graph, or fails the check
+     */
+    public static <V> MappedGraph<V> openMapped(Path file, boolean verify) throws IOException
+    {
+        if (file == null) {
+            throw new IllegalArgumentException();
+        }
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException(file + " is not a saved graph");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        }
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException(file + " is not a saved graph");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException(file + " has unknown format version " + buffer.getInt(4));
+        }
+        if (buffer.getInt(44) != buffer.capacity()) {
+            throw new IOException(file + " is truncated");
+        }
+        if (verify) {
+            CRC32 crc = new CRC32();
+            ByteBuffer body = buffer.duplicate();
+            body.position(HEADER_SIZE);
+            crc.update(body);
+            if (crc.getValue() != buffer.getLong(48)) {
+                throw new IOException(file + " fails its checksum");
+            }
+        }
+        return new MappedGraph<V>(buffer);
+    }
+
+    //Spreads the bits of a hash code, as the lookup table expects
+    static int mix(int hash)
+    {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * A growable little-endian byte array.
+     */
+    private static final class ByteSink
+    {
+        private byte[] bytes;
+        private int position;
+        private int size;
+
+        ByteSink(int capacity)
+        {
+            bytes = new byte[Math.max(capacity, 16)];
+        }
+
+        byte[] bytes()
+        {
+            return bytes;
+        }
+
+        int size()
+        {
+            return size;
+        }
+
+        void position(int at)
+        {
+            position = at;
+            size = Math.max(size, at);
+        }
+
+        private void room(int more) throws IOException
+        {
+            long needed = (long) position + more;
+            if (needed > Integer.MAX_VALUE - 8) {
+                throw new IOException("graph is too large for the format");
+            }
+            if (needed > bytes.length) {
+                bytes = Arrays.copyOf(bytes, (int) Math.min(Integer.MAX_VALUE - 8,
+                                                            Math.max(needed, 2L * bytes.length)));
+            }
+        }
+
+        private void advance(int count)
+        {
+            position += count;
+            size = Math.max(size, position);
+        }
+
+        void putInt(int value) throws IOException
+        {
+            room(4);
+            bytes[position] = (byte) value;
+            bytes[position + 1] = (byte) (value >>> 8);
+            bytes[position + 2] = (byte) (value >>> 16);
+            bytes[position + 3] = (byte) (value >>> 24);
+            advance(4);
+        }
+
+        void putLong(long value) throws IOException
+        {
+            putInt((int) value);
+            putInt((int) (value >>> 32));
+        }
+
+        void putVarint(int value) throws IOException
+        {
+            room(5);
+            while ((value & ~0x7F) != 0) {
+                bytes[position] = (byte) ((value & 0x7F) | 0x80);
+                advance(1);
+                value >>>= 7;
+            }
+            bytes[position] = (byte) value;
+            advance(1);
+        }
+
+        void put(byte[] source) throws IOException
+        {
+            put(source, 0, source.length);
+        }
+
+        void put(byte[] source, int from, int count) throws IOException
+        {
+            room(count);
+            System.arraycopy(source, from, bytes, position, count);
+            advance(count);
+        }
+
+        //Pads with zeros to a multiple of 4 bytes
+        void align() throws IOException
+        {
+            int pad = -position & 3;
+            room(pad);
+            advance(pad);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package edu.union.adt.graph;
 import java.util.*;
+import java.util.concurrent.*;
 import java.io.*;
 import java.lang.*;
 
@@ -21,18 +22,274 @@ import java.lang.*;
  */
 public class HashGraph<V> implements Graph<V>
 {
-    private HashMap <V, ArrayList<V>> graph;
+    /**
+     * The default degree above which a vertex's adjacent vertices are
+     * hashed instead of scanned.
+     */
+    public static final int DEFAULT_HASH_THRESHOLD = 16;
+
+    private HashMap <V, Vertex<V>> graph;
+    private final int hashThreshold;
+    private final boolean indexPredecessors;
+    private int edgeCount;
+    private SearchStrategy searchStrategy = SearchStrategy.FORWARD;
+    private ReachabilityIndex reachability;
+
+    // vertex records by id; ids of removed vertices are reused
+    private ArrayList<Vertex<V>> byId = new ArrayList<>();
+    private int[] freeIds = new int[0];
+    private int freeCount;
+
+    private final IndexedGraph indexed = new IndexedGraph() {
+        public int idLimit()
+        {
+            return byId.size();
+        }
+
+        public boolean isVertex(int id)
+        {
+            return byId.get(id) != null;
+        }
+
+        public int degree(int id)
+        {
+            return byId.get(id).out.size();
+        }
+
+        public int neighbor(int id, int index)
+        {
+            return byId.get(id).out.get(index).id;
+        }
+
+        public boolean hasPredecessors()
+        {
+            return indexPredecessors;
+        }
+
+        public int inDegree(int id)
+        {
+            return byId.get(id).in.size();
+        }
+
+        public int predecessor(int id, int index)
+        {
+            return byId.get(id).in.get(index).id;
+        }
+    };
+
     /**
      * Create an empty graph.
      */
     public HashGraph()
     {
+        this(DEFAULT_HASH_THRESHOLD);
+    }
+
+    /**
+     * Create an empty graph.  The vertices adjacent to a vertex are
+     * kept in a compact array; once there are more than
+     * 'hashThreshold' of them, they are also indexed by a hash table,
+     * so that addEdge, hasEdge and removeEdge do not slow down on
+     * vertices of very high degree.
+     *
+     * @param hashThreshold the degree above which adjacent vertices
+     * are hashed
+     */
+    public HashGraph(int hashThreshold)
+    {
+        this(hashThreshold, true);
+    }
+
+    /**
+     * Create an empty graph, choosing whether to keep an index of the
+     * edges leading into each vertex.  The index costs about as much
+     * memory as the edges themselves, but without it removeVertex and
+     * predecessors must look at every vertex in the graph.
+     *
+     * @param hashThreshold the degree above which adjacent vertices
+     * are hashed
+     * @param indexPredecessors whether to index the edges into each
+     * vertex
+     */
+    public HashGraph(int hashThreshold, boolean indexPredecessors)
+    {
+        if (hashThreshold < 0){
+          throw new IllegalArgumentException();
+        }
         graph = new HashMap <>();
+        this.hashThreshold = hashThreshold;
+        this.indexPredecessors = indexPredecessors;
     }
 
-    //Returns the edges connected to a certain vertex
-    public ArrayList<V> getEdges(V vertex){
-      return (ArrayList<V>) graph.get(vertex);
+    /**
+     * A vertex of the graph, together with the vertices it has edges
+     * to and, if predecessors are indexed, the vertices that have
+     * edges to it.  Each vertex also has a small int id, unique among
+     * the vertices currently in the graph, which searches use to
+     * index their arrays.  Vertex records are compared by identity.
+     */
+    private static final class Vertex<V>
+    {
+        final V value;
+        final int id;
+        final AdjacencySet<Vertex<V>> out;
+        final AdjacencySet<Vertex<V>> in;
+
+        Vertex(V value, int id, int hashThreshold, boolean indexPredecessors)
+        {
+            this.value = value;
+            this.id = id;
+            this.out = new AdjacencySet<>(hashThreshold);
+            this.in = indexPredecessors ? new AdjacencySet<Vertex<V>>(hashThreshold) : null;
+        }
+    }
+
+    /**
+     * A read-only view of a set of vertex records as the vertices
+     * they hold.
+     */
+    private final class VertexView extends AbstractSet<V>
+    {
+        private final AdjacencySet<Vertex<V>> vertices;
+
+        VertexView(AdjacencySet<Vertex<V>> vertices)
+        {
+            this.vertices = vertices;
+        }
+
+        @Override
+        public int size()
+        {
+            return vertices.size();
+        }
+
+        @Override
+        public boolean contains(Object o)
+        {
+            Vertex<V> vertex = graph.get(o);
+            return vertex != null && vertices.contains(vertex);
+        }
+
+        @Override
+        public Iterator<V> iterator()
+        {
+            return new Iterator<V>() {
+                private int next = 0;
+
+                public boolean hasNext()
+                {
+                    return next < vertices.size();
+                }
+
+                public V next()
+                {
+                    if (next >= vertices.size()){
+                      throw new NoSuchElementException();
+                    }
+                    return vertices.get(next++).value;
+                }
+            };
+        }
+
+        @Override
+        public Spliterator<V> spliterator()
+        {
+            return new ViewSpliterator(vertices, 0, vertices.size());
+        }
+    }
+
+    /**
+     * Splits a VertexView by index, for parallel streams.
+     */
+    private final class ViewSpliterator extends RangeSpliterator<V>
+    {
+        private final AdjacencySet<Vertex<V>> vertices;
+
+        ViewSpliterator(AdjacencySet<Vertex<V>> vertices, int from, int to)
+        {
+            super(from, to, Spliterator.DISTINCT | Spliterator.NONNULL);
+            this.vertices = vertices;
+        }
+
+        @Override
+        V get(int index)
+        {
+            return vertices.get(index).value;
+        }
+
+        @Override
+        RangeSpliterator<V> slice(int from, int to)
+        {
+            return new ViewSpliterator(vertices, from, to);
+        }
+    }
+
+    //Returns the record for a vertex, adding the vertex if it is missing
+    private Vertex<V> vertexFor(V vertex){
+      Vertex<V> v = graph.get(vertex);
+      if (v == null){
+        if (freeCount > 0){
+          v = new Vertex<>(vertex, freeIds[--freeCount], hashThreshold, indexPredecessors);
+          byId.set(v.id, v);
+        }
+        else{
+          v = new Vertex<>(vertex, byId.size(), hashThreshold, indexPredecessors);
+          byId.add(v);
+        }
+        graph.put(vertex, v);
+        if (reachability != null){
+          reachability.invalidate();
+        }
+      }
+      return v;
+    }
+
+    //Makes a removed vertex's id available to the next added vertex
+    private void releaseId(Vertex<V> removed){
+      byId.set(removed.id, null);
+      if (freeCount == freeIds.length){
+        freeIds = Arrays.copyOf(freeIds, Math.max(8, freeCount * 2));
+      }
+      freeIds[freeCount++] = removed.id;
+    }
+
+    //Returns the view searches use to walk the graph by vertex id
+    IndexedGraph indexed(){
+      return indexed;
+    }
+
+    //Returns the id of a vertex, or -1 if it is not in the graph
+    int idOf(V vertex){
+      if (vertex.equals(null)){
+        throw new IllegalArgumentException();
+      }
+      Vertex<V> v = graph.get(vertex);
+      return v == null ? -1 : v.id;
+    }
+
+    //Returns the vertex with the given id
+    V vertex(int id){
+      return byId.get(id).value;
+    }
+
+    /**
+     * Gets the destinations of the edges leaving a vertex.
+     *
+     * This used to return the ArrayList the graph kept its edges in,
+     * so changing the list changed the graph.  The edges are now kept
+     * in an adjacency set, and this returns a read-only view of it:
+     * changing it throws an UnsupportedOperationException.
+     *
+     * @param vertex the source vertex
+     * @return a read-only view of the destinations of the edges
+     * leaving 'vertex', or null if it is not in the graph
+     * @deprecated use adjacentTo, and addEdge and removeEdge to change
+     * the edges
+     */
+    @Deprecated
+    public Set<V> getEdges(V vertex){
+      Vertex<V> v = graph.get(vertex);
+      return v == null ? null : new VertexView(v.out);
     }
 
     /**
@@ -50,11 +307,7 @@ public class HashGraph<V> implements Graph<V>
      @Override
     public int numEdges()
     {
-        int count = 0;
-        for (ArrayList<V> value : graph.values()){
-            count = count + value.size();
-        }
-        return count;
+        return edgeCount;
 
     }
 
@@ -69,16 +322,9 @@ public class HashGraph<V> implements Graph<V>
      @Override
     public int degree(V vertex)
     {
-      if (contains(vertex)){
-        Iterator graphIterator = graph.entrySet().iterator();
-        Map.Entry graphElement = (Map.Entry) graphIterator.next();
-        V vert = (V)graphElement.getKey();
-        while (graphIterator.hasNext() && vert != vertex){
-            graphElement = (Map.Entry) graphIterator.next();
-            vert = (V)graphElement.getKey();
-        }
-        ArrayList<V> edges = graph.get(vert);
-        return edges.size();
+      Vertex<V> v = graph.get(vertex);
+      if (v != null){
+        return v.out.size();
       }
       else{
         throw new RuntimeException();
@@ -103,31 +349,165 @@ public class HashGraph<V> implements Graph<V>
         throw new IllegalArgumentException();
       }
 
-      if (contains(from)){
-
-	       ArrayList <V> edges = getEdges(from);
-
-    	   if (!edges.contains(to)){
-    		    edges.add(to);
-            graph.put(from, edges);
-    	   }
-	     }
-
-    	if (!contains(from)){
-    	   ArrayList <V> newEdge = new ArrayList<>();
-    	   newEdge.add(to);
-    	   graph.put(from, newEdge);
-    	}
+      Vertex<V> source = vertexFor(from);
+      Vertex<V> dest = vertexFor(to);
+      if (source.out.add(dest)){
+        if (dest.in != null){
+          dest.in.add(source);
+        }
+        edgeCount++;
+        if (reachability != null){
+          reachability.edgeAdded(source.id, dest.id);
+        }
+      }
+    }
 
-    	if (!contains(to)){
-    	   ArrayList<V> e = new ArrayList<>();
-    	   graph.put(to, e);
-    	}
+    /**
+     * Adds many directed edges at once.  The result is the same as
+     * calling addEdge for each edge in turn, including the order in
+     * which adjacentTo returns them (though predecessors may come in
+     * a different order), but much faster for large batches:
+     *
+     * <ul>
+     * <li>each endpoint is looked up once, and a source that repeats
+     * the previous edge's source is not looked up at all;
+     * <li>the edges are grouped by source with a counting sort, and
+     * every adjacency array is grown once, to its final size;
+     * <li>duplicate edges from a vertex that had no edges before are
+     * dropped by marking destinations in an array instead of
+     * searching the vertex's adjacent vertices.
+     * </ul>
+     *
+     * If an edge, or either of its vertices, is null, throws an
+     * IllegalArgumentException and leaves the graph unchanged: every
+     * edge is checked before any vertex is added.
+     *
+     * @param edges the edges to add; each key is a source vertex and
+     * each value a destination vertex
+     */
+    @SuppressWarnings("unchecked")
+    public void addEdges(Iterable<? extends Map.Entry<? extends V, ? extends V>> edges){
+      if (edges == null){
+        throw new IllegalArgumentException();
+      }
+      // collect the endpoints before changing anything, since 'edges'
+      // may only be iterable once
+      int capacity = edges instanceof Collection ? ((Collection<?>) edges).size() : 16;
+      Object[] ends = new Object[2 * Math.max(capacity, 1)];
+      int count = 0;
+      for (Map.Entry<? extends V, ? extends V> edge : edges){
+        if (edge == null || edge.getKey() == null || edge.getValue() == null){
+          throw new IllegalArgumentException();
+        }
+        if (2 * count == ends.length){
+          ends = Arrays.copyOf(ends, 2 * ends.length);
+        }
+        ends[2 * count] = edge.getKey();
+        ends[2 * count + 1] = edge.getValue();
+        count++;
+      }
 
+      int[] sources = new int[count];
+      int[] targets = new int[count];
+      Object lastFrom = null;
+      Vertex<V> lastSource = null;
+      for (int i = 0; i < count; i++){
+        Object from = ends[2 * i];
+        Vertex<V> source = from == lastFrom ? lastSource : vertexFor((V) from);
+        lastFrom = from;
+        lastSource = source;
+        sources[i] = source.id;
+        targets[i] = vertexFor((V) ends[2 * i + 1]).id;
+      }
+      addEdgesById(sources, targets, count);
+    }
 
+    /**
+     * Adds a batch of edges whose endpoints are given as positions in
+     * an array of vertices, for loaders that have already collected
+     * the distinct vertices.  The vertices are added in array order.
+     * 'sources' and 'targets' are overwritten.
+     *
+     * @param vertices the distinct vertices the edges connect
+     * @param sources the position in 'vertices' of each edge's source
+     * @param targets the position in 'vertices' of each edge's destination
+     * @param count the number of edges
+     */
+    void addEdges(V[] vertices, int[] sources, int[] targets, int count){
+      int[] ids = new int[vertices.length];
+      for (int i = 0; i < vertices.length; i++){
+        ids[i] = vertexFor(vertices[i]).id;
+      }
+      for (int i = 0; i < count; i++){
+        sources[i] = ids[sources[i]];
+        targets[i] = ids[targets[i]];
+      }
+      addEdgesById(sources, targets, count);
+    }
 
+    //Adds the edges (sources[i], targets[i]) between existing vertex ids
+    private void addEdgesById(int[] sources, int[] targets, int count){
+      // group the destinations by source, keeping their order
+      int n = byId.size();
+      int[] start = new int[n + 1];
+      int[] inCount = new int[n];
+      for (int i = 0; i < count; i++){
+        start[sources[i] + 1]++;
+        inCount[targets[i]]++;
+      }
+      for (int id = 0; id < n; id++){
+        start[id + 1] += start[id];
+      }
+      int[] grouped = new int[count];
+      int[] fill = Arrays.copyOf(start, n);
+      for (int i = 0; i < count; i++){
+        grouped[fill[sources[i]]++] = targets[i];
+      }
 
+      for (int id = 0; id < n; id++){
+        Vertex<V> v = byId.get(id);
+        int out = start[id + 1] - start[id];
+        if (out > 0){
+          v.out.ensureCapacity(v.out.size() + out);
+        }
+        if (inCount[id] > 0 && v.in != null){
+          v.in.ensureCapacity(v.in.size() + inCount[id]);
+        }
+      }
 
+      // seen[d] == s + 1 once the edge (s, d) has been added
+      int[] seen = inCount;
+      Arrays.fill(seen, 0);
+      int added = 0;
+      for (int s = 0; s < n; s++){
+        if (start[s] == start[s + 1]){
+          continue;
+        }
+        Vertex<V> source = byId.get(s);
+        boolean fresh = source.out.size() == 0;
+        for (int j = start[s]; j < start[s + 1]; j++){
+          int d = grouped[j];
+          Vertex<V> dest = byId.get(d);
+          if (fresh){
+            if (seen[d] == s + 1){
+              continue;
+            }
+            seen[d] = s + 1;
+            source.out.append(dest);
+          }
+          else if (!source.out.add(dest)){
+            continue;
+          }
+          if (dest.in != null){
+            dest.in.append(source);
+          }
+          added++;
+        }
+      }
+      edgeCount += added;
+      if (added > 0 && reachability != null){
+        reachability.invalidate();
+      }
     }
 
     /**
@@ -143,23 +523,18 @@ public class HashGraph<V> implements Graph<V>
         if (vertex.equals(null)){
           throw new IllegalArgumentException();
         }
-        ArrayList <V> edges = new ArrayList<>();
-	      graph.put(vertex, edges);
+        vertexFor(vertex);
 
     }
 
     /**
-     * @return an iterable collection for the set of vertices of
-     * the graph.
+     * @return a read-only view of the set of vertices of the graph,
+     * which follows later changes to the graph.  The graph must not
+     * change while the view is being iterated.
      */
     public Iterable<V> getVertices()
     {
-        ArrayList <V> vertices = new ArrayList<>();
-        for (V vertex : graph.keySet()){
-		        vertices.add(vertex);
-	      }
-    	Iterable <V> v = vertices;
-    	return v;
+        return Collections.unmodifiableSet(graph.keySet());
     }
 
     /**
@@ -181,16 +556,11 @@ public class HashGraph<V> implements Graph<V>
       if (from.equals(null)){
         throw new IllegalArgumentException();
       }
-       Iterator graphIterator = graph.entrySet().iterator();
-    	 Map.Entry graphElement = (Map.Entry) graphIterator.next();
-    	 V vert = (V)graphElement.getKey();
-    	 while (graphIterator.hasNext() && vert != from){
-      		graphElement = (Map.Entry) graphIterator.next();
-      		vert = (V)graphElement.getKey();
-    	 }
-    	 ArrayList <V> edges = graph.get(vert);
-    	 //Iterable <V> e = edges;
-    	 return edges;
+      Vertex<V> v = graph.get(from);
+      if (v == null){
+        return Collections.<V>emptySet();
+      }
+      return new VertexView(v.out);
     }
 
     /**
@@ -236,20 +606,9 @@ public class HashGraph<V> implements Graph<V>
       if (from.equals(null) || to.equals(null)){
         throw new IllegalArgumentException();
       }
-        if (!contains(from)){
-            return false;
-        }
-        else{
-            Iterator graphIterator = graph.entrySet().iterator();
-            Map.Entry graphElement = (Map.Entry) graphIterator.next();
-            V vert = (V) graphElement.getKey();
-            while (graphIterator.hasNext() && vert != from){
-                graphElement = (Map.Entry) graphIterator.next();
-                vert = (V)graphElement.getKey();
-            }
-	    ArrayList <V> edges = graph.get(vert);
-	    return edges.contains(to);
-	    }
+        Vertex<V> source = graph.get(from);
+        Vertex<V> dest = graph.get(to);
+        return source != null && dest != null && source.out.contains(dest);
     }
 
     /**
@@ -280,35 +639,15 @@ public class HashGraph<V> implements Graph<V>
      * C:*A,*B
      * </PRE>
      *
+     * The text is built by writeTo, in time linear in the size of the
+     * graph.
+     *
      * @return the string representation of the graph
      */
-     @Override
+    @Override
     public String toString()
     {
-        String builder = new String();
-    	for (V vertex : graph.keySet()){
-    		String strVertex = vertex.toString();
-    		builder = builder + strVertex + ": ";
-    		ArrayList <V> edges = graph.get(vertex);
-    		int degree = edges.size();
-    		int i = 0;
-    		if (degree > 0){
-    			while (i < degree -1){
-    				String strEdge = edges.get(i).toString();
-    				builder = builder + strEdge + ", ";
-    				i++;
-    			}
-    		String strEdge = edges.get(i).toString();
-    		builder = builder + strEdge + "\n";
-
-    		}
-    		else{
-    			strVertex = vertex.toString();
-    			builder = builder + strVertex + ": \n";
-    		}
-
-    	}
-        	return builder;
+        return GraphExport.toString(this);
     }
 
   /**
@@ -325,9 +664,23 @@ public class HashGraph<V> implements Graph<V>
 	else if (o.getClass() != this.getClass()){
 	   return false;
 	}
-	HashGraph otherGraph = (HashGraph)o;
-	return otherGraph.graph.equals(this.graph);
+	HashGraph<?> otherGraph = (HashGraph<?>)o;
+	return otherGraph.adjacencyMap().equals(this.adjacencyMap());
+
+  }
+
+  @Override
+  public int hashCode(){
+    return adjacencyMap().hashCode();
+  }
 
+  //Maps each vertex to the set of vertices adjacent to it
+  private Map<V, Set<V>> adjacencyMap(){
+    HashMap<V, Set<V>> map = new HashMap<>();
+    for (Vertex<V> v : graph.values()){
+      map.put(v.value, new VertexView(v.out));
+    }
+    return map;
   }
 
     /**
@@ -349,14 +702,31 @@ public class HashGraph<V> implements Graph<V>
       if (toRemove.equals(null)){
         throw new IllegalArgumentException();
       }
-      if(contains(toRemove)){
-        graph.remove(toRemove);
+      Vertex<V> removed = graph.remove(toRemove);
+      if (removed == null){
+        return;
+      }
+      releaseId(removed);
+      if (reachability != null){
+        reachability.invalidate();
       }
-      for (V vertex : graph.keySet()){
-        if (graph.get(vertex).contains(toRemove)){
-          ArrayList<V> edges = graph.get(vertex);
-          edges.remove(toRemove);
-          graph.put(vertex, edges);
+      edgeCount -= removed.out.size();
+      if (removed.in != null){
+        for (Vertex<V> next : removed.out){
+          next.in.remove(removed);
+        }
+        for (Vertex<V> previous : removed.in){
+          if (previous != removed){
+            previous.out.remove(removed);
+            edgeCount--;
+          }
+        }
+      }
+      else{
+        for (Vertex<V> v : graph.values()){
+          if (v.out.remove(removed)){
+            edgeCount--;
+          }
         }
       }
     }
@@ -371,18 +741,124 @@ public class HashGraph<V> implements Graph<V>
       if (from.equals(null) || to.equals(null)){
         throw new IllegalArgumentException();
       }
-      if (hasEdge(from, to)){
-       ArrayList<V> edges = (ArrayList<V>)getEdges(from);
-       int i = 1;
-       V vertex = edges.get(0);
-       while (i < edges.size() && !vertex.equals(to)){
-         i++;
-         vertex = edges.get(i);
-       }
-       edges.remove(vertex);
-       graph.put(from, edges);
-     }
+      Vertex<V> source = graph.get(from);
+      Vertex<V> dest = graph.get(to);
+      if (source != null && dest != null && source.out.remove(dest)){
+        if (dest.in != null){
+          dest.in.remove(source);
+        }
+        edgeCount--;
+        if (reachability != null){
+          reachability.invalidate();
+        }
+      }
+
+    }
+
+    /**
+     * @return the strategy hasPath, pathLength and getPath use to
+     * search the graph.
+     */
+    public SearchStrategy getSearchStrategy(){
+      return searchStrategy;
+    }
+
+    /**
+     * Sets the strategy hasPath, pathLength and getPath use to search
+     * the graph.  Bidirectional search needs the in-edge index, so a
+     * graph created without it always searches forward.
+     *
+     * @param strategy how to search for paths
+     */
+    public void setSearchStrategy(SearchStrategy strategy){
+      if (strategy == null){
+        throw new IllegalArgumentException();
+      }
+      searchStrategy = strategy;
+    }
+
+    /**
+     * Turns the reachability index on or off.  While it is on, hasPath
+     * answers from the index in constant time instead of searching the
+     * graph; the index is rebuilt by the first hasPath call after a
+     * change that may affect reachability.  If the index would need
+     * more memory than its budget (see ReachabilityIndex.setMaxBytes),
+     * hasPath searches the graph for the queries it cannot answer.
+     * pathLength and getPath still search the graph.
+     *
+     * @param indexed whether to keep a reachability index
+     */
+    public void setReachabilityIndexed(boolean indexed){
+      if (!indexed){
+        reachability = null;
+      }
+      else if (reachability == null){
+        reachability = new ReachabilityIndex(this.indexed);
+      }
+    }
+
+    /**
+     * @return the reachability index, which reports its build time
+     * and memory use, or null if the graph is not keeping one.
+     */
+    public ReachabilityIndex getReachabilityIndex(){
+      return reachability;
+    }
 
+    /**
+     * Gets the vertices that have an edge to a given vertex.  A vertex
+     * x is a predecessor of y if there is an edge (x, y) in the
+     * graph.  If predecessors are indexed this takes constant time;
+     * otherwise every vertex in the graph is checked.
+     *
+     * @param to the destination vertex
+     * @return an iterable collection for the set of vertices that are
+     * the sources of edges for which 'to' is the destination vertex.
+     * If 'to' is not a vertex in the graph, returns an empty iterator.
+     */
+    public Iterable<V> predecessors(V to){
+      if (to.equals(null)){
+        throw new IllegalArgumentException();
+      }
+      Vertex<V> dest = graph.get(to);
+      if (dest == null){
+        return Collections.<V>emptySet();
+      }
+      if (dest.in != null){
+        return new VertexView(dest.in);
+      }
+      ArrayList<V> previous = new ArrayList<>();
+      for (Vertex<V> v : graph.values()){
+        if (v.out.contains(dest)){
+          previous.add(v.value);
+        }
+      }
+      return previous;
+    }
+
+    /**
+     * Gets the number of vertices that have an edge to a given
+     * vertex.  If the given vertex is not in the graph, throws a
+     * RuntimeException.
+     *
+     * @param vertex the vertex whose in-degree we want.
+     * @return the number of edges for which 'vertex' is the destination
+     */
+    public int inDegree(V vertex){
+      Vertex<V> v = graph.get(vertex);
+      if (v == null){
+        throw new RuntimeException();
+      }
+      if (v.in != null){
+        return v.in.size();
+      }
+      int count = 0;
+      for (Vertex<V> previous : graph.values()){
+        if (previous.out.contains(v)){
+          count++;
+        }
+      }
+      return count;
     }
 
     /**
@@ -404,48 +880,33 @@ public class HashGraph<V> implements Graph<V>
      * @return true iff there is a path from 'from' to 'to' in the graph.
      */
     public boolean hasPath(V from, V to){
-      if (from.equals(null) || to.equals(null)){
-        throw new IllegalArgumentException();
-      }
-      if (!contains(from) || !contains(to)){
-        return false;
-      }
-      if (from.equals(to)){
-        return true;
-      }
-
-      Set <V> visited = new HashSet<>();
-      Queue<V> queue = new LinkedList<>();
-      queue.add(from);
-
-      while (!queue.isEmpty()){
-        V vertex = queue.poll();
-        ArrayList<V> neighbors = graph.get(vertex);
-        int i = 0;
-        V neighbor;
-        while (i < neighbors.size()){
-
-          neighbor = neighbors.get(i);
-
-          if (visited.contains(neighbor)){
-            i++;
-            continue;
-          }
-
-          if (neighbor.equals(to)){
-            return true;
-          }
-
-          queue.add(neighbor);
-          i++;
+      return hasPath(from, to, searchStrategy);
+    }
 
+    /**
+     * Tells whether there is a path connecting two given vertices,
+     * searching with the given strategy instead of the graph's.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @param strategy how to search for the path
+     * @return true iff there is a path from 'from' to 'to' in the graph.
+     */
+    public boolean hasPath(V from, V to, SearchStrategy strategy){
+      if (reachability != null){
+        if (from.equals(null) || to.equals(null) || strategy == null){
+          throw new IllegalArgumentException();
+        }
+        Vertex<V> source = graph.get(from);
+        Vertex<V> target = graph.get(to);
+        if (source == null || target == null){
+          return false;
+        }
+        if (reachability.decides(source.id, target.id)){
+          return reachability.reaches(source.id, target.id);
         }
-
-        visited.add(vertex);
       }
-
-      return false;
-
+      return search(from, to, strategy) >= 0;
     }
 
     /**
@@ -465,56 +926,23 @@ public class HashGraph<V> implements Graph<V>
      * the graph.  If there is no path, returns Integer.MAX_VALUE
      */
     public int pathLength(V from, V to) {
+      return pathLength(from, to, searchStrategy);
+    }
 
-      if (from.equals(null) || to.equals(null)){
-        throw new IllegalArgumentException();
-      }
-
-      HashMap <V, Integer> distances = new HashMap<>();
-      if (!hasPath(from, to)){
-        return Integer.MAX_VALUE;
-      }
-
-      if (from.equals(to)){
-        return 0;
-      }
-
-      distances.put(from, 0);
-
-      Queue<V> queue = new LinkedList<>();
-      queue.add(from);
-
-      while (!queue.isEmpty()){
-
-        V curr_ver = queue.poll();
-        ArrayList<V> neighbors = graph.get(curr_ver);
-        int i = 0;
-        V neighbor;
-        int current_dist = distances.get(curr_ver);
-
-        while (i < neighbors.size()){
-
-          neighbor = neighbors.get(i);
-
-          if (distances.containsKey(neighbor)){
-            i++;
-            continue;
-          }
-
-          if(neighbor.equals(to)){
-            return distances.get(curr_ver) + 1;
-          }
-
-          i++;
-          distances.put(neighbor, current_dist+ 1);
-          queue.add(neighbor);
-
-        }
-
-      }
-
-      return Integer.MAX_VALUE;
-
+    /**
+     * Gets the length of the shortest path connecting two given
+     * vertices, searching with the given strategy instead of the
+     * graph's.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @param strategy how to search for the path
+     * @return the length of the shortest path from 'from' to 'to' in
+     * the graph.  If there is no path, returns Integer.MAX_VALUE
+     */
+    public int pathLength(V from, V to, SearchStrategy strategy){
+      int length = search(from, to, strategy);
+      return length < 0 ? Integer.MAX_VALUE : length;
     }
 
     /**
@@ -537,65 +965,93 @@ public class HashGraph<V> implements Graph<V>
      * returns an empty Iterable collection of vertices.
      */
     public Iterable<V> getPath(V from, V to){
-      HashMap<V, V> previous = new HashMap<>();
-      previous.put(from, from);
+      return getPath(from, to, searchStrategy);
+    }
 
-      if (!hasPath(from, to)){
-        return new LinkedList<V>();
+    /**
+     * Returns the vertices along the shortest path connecting two
+     * given vertices, searching with the given strategy instead of
+     * the graph's.  When there are several shortest paths, the two
+     * strategies may return different ones.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @param strategy how to search for the path
+     * @return an Iterable collection of vertices along the shortest
+     * path from 'from' to 'to', as described by getPath(V, V).
+     */
+    public Iterable<V> getPath(V from, V to, SearchStrategy strategy){
+      if (search(from, to, strategy) <= 0){
+        return new ArrayList<V>();
       }
-
-      if (from.equals(to)){
-        return new LinkedList<V>();
+      int[] ids = BreadthFirstSearch.forThread().path();
+      ArrayList<V> path = new ArrayList<>(ids.length);
+      for (int id : ids){
+        path.add(byId.get(id).value);
       }
+      return path;
+    }
 
-      Queue<V> queue = new LinkedList<>();
-      queue.add(from);
-
-      while (!queue.isEmpty()){
-
-        V curr_ver = queue.poll();
-        ArrayList<V> neighbors = graph.get(curr_ver);
-        int i = 0;
-        V neighbor;
-
-        while (i < neighbors.size()){
-
-          neighbor = neighbors.get(i);
-
-          if (previous.containsKey(neighbor)){
-            i++;
-            continue;
-          }
-
-          previous.put(neighbor, curr_ver);
-
-          if (neighbor.equals(to)) {
-            return reconstructPath(neighbor, from, previous);
-          }
-
-          i++;
-
-          queue.add(neighbor);
-
+    /**
+     * Finds the length of the shortest path from a source vertex to
+     * every vertex it can reach, searching in parallel on the given
+     * pool (see ParallelBreadthFirstSearch).  The graph must not be
+     * changed while the search runs.
+     *
+     * @param source the source vertex
+     * @param pool the pool whose threads run the search
+     * @return a map from each vertex reachable from 'source'
+     * (including 'source' itself) to its distance from 'source'.  If
+     * 'source' is not in the graph, returns an empty map.
+     */
+    public Map<V, Integer> distancesFrom(V source, ForkJoinPool pool){
+      if (source.equals(null) || pool == null){
+        throw new IllegalArgumentException();
+      }
+      HashMap<V, Integer> distances = new HashMap<>();
+      Vertex<V> v = graph.get(source);
+      if (v == null){
+        return distances;
+      }
+      int[] d = ParallelBreadthFirstSearch.distances(indexed, v.id, pool);
+      for (int id = 0; id < d.length; id++){
+        if (d[id] >= 0){
+          distances.put(byId.get(id).value, d[id]);
         }
       }
-      return new LinkedList<V>();
+      return distances;
     }
 
     /**
-    * Moves backwards from To vertex to produce the shortest path
-    * @param To vertex
-    * @return reconstructed path
-    */
-    private Iterable<V> reconstructPath(V last, V from, HashMap<V, V> previous){
-      LinkedList<V> ret = new LinkedList<>();
-      ret.addFirst(last);
-      while (!last.equals(from)){
-        V prev = previous.get(last);
-        ret.addFirst(prev);
-        last = prev;
+     * Finds the length of the shortest path from a source vertex to
+     * every vertex it can reach, searching in parallel on the common
+     * ForkJoinPool.
+     *
+     * @param source the source vertex
+     * @return a map from each vertex reachable from 'source' to its
+     * distance from 'source'.
+     */
+    public Map<V, Integer> distancesFrom(V source){
+      return distancesFrom(source, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Runs one breadth-first search from 'from' to 'to' on the calling
+     * thread's search state, which getPath then reads the path from.
+     *
+     * @return the length of the shortest path, or -1 if there is none
+     */
+    private int search(V from, V to, SearchStrategy strategy){
+      if (from.equals(null) || to.equals(null) || strategy == null){
+        throw new IllegalArgumentException();
+      }
+      Vertex<V> source = graph.get(from);
+      Vertex<V> target = graph.get(to);
+      if (source == null || target == null){
+        return -1;
       }
-      return ret;
+      return BreadthFirstSearch.forThread().search(indexed, source.id, target.id,
+                                                   strategy == SearchStrategy.BIDIRECTIONAL);
     }
 
   }
@@ -0,0 +1,766 @@
+package edu.union.adt.graph;
+import java.util.*;
+
+/**
+ * A WeightedGraph that maps each vertex to a dense int id with a
+ * HashMap, and keeps each vertex's edges in parallel primitive
+ * arrays: the ids of the destinations in an int[] and the weights in
+ * a double[] at the same positions.  The edges into each vertex are
+ * kept in an int[] as well, so that removing a vertex only touches
+ * its neighbors.
+ *
+ * While a vertex has few edges out, adding, weighing and removing
+ * one of them scans its out-list.  Once it has more than
+ * HASH_THRESHOLD, the positions of its edges are also kept in an
+ * open-addressing hash table keyed by destination id, as HashGraph's
+ * adjacency sets do, so finding an edge takes constant time however
+ * high the degree.  Removing an edge still scans the destination's
+ * in-list.  Cheapest paths are found by DijkstraSearch, which reads
+ * the arrays directly.  The ids of removed vertices are reused.
+ */
+public class HashWeightedGraph<V> implements WeightedGraph<V>
+{
+    private static final int[] NO_IDS = new int[0];
+    private static final double[] NO_WEIGHTS = new double[0];
+
+    /**
+     * The out-degree above which a vertex's edges are hashed instead
+     * of scanned.
+     */
+    public static final int HASH_THRESHOLD = 16;
+
+    private final HashMap<V, Integer> ids = new HashMap<>();
+    private Object[] vertices = new Object[16];
+    private int limit;
+
+    // removed ids, to be reused
+    private int[] free = new int[16];
+    private int freeCount;
+
+    private int[][] targets = new int[16][];
+    private double[][] weights = new double[16][];
+    private int[] degrees = new int[16];
+    private int[][] sources = new int[16][];
+    private int[] inDegrees = new int[16];
+    // for each vertex with more than HASH_THRESHOLD edges out, the
+    // out-list position + 1 of each edge, by destination id (linear
+    // probing, 0 for an empty slot); null for the others
+    private int[][] outIndex = new int[16][];
+
+    private int edges;
+
+    private final WeightedIndexedGraph indexed = new WeightedIndexedGraph() {
+        public int idLimit()
+        {
+            return limit;
+        }
+
+        public boolean isVertex(int id)
+        {
+            return vertices[id] != null;
+        }
+
+        public int degree(int id)
+        {
+            return degrees[id];
+        }
+
+        public int neighbor(int id, int index)
+        {
+            return targets[id][index];
+        }
+
+        public double weight(int id, int index)
+        {
+            return weights[id][index];
+        }
+
+        public boolean hasPredecessors()
+        {
+            return true;
+        }
+
+        public int inDegree(int id)
+        {
+            return inDegrees[id];
+        }
+
+        public int predecessor(int id, int index)
+        {
+            return sources[id][index];
+        }
+    };
+
+    private static void check(double weight)
+    {
+        if (!(weight >= 0)) {
+            throw new IllegalArgumentException("weight must not be negative or NaN: " + weight);
+        }
+    }
+
+    //Returns the view searches use to walk the graph by vertex id
+    WeightedIndexedGraph indexed()
+    {
+        return indexed;
+    }
+
+    //Returns the id of a vertex, or -1 if it is not in the graph
+    int idOf(V vertex)
+    {
+        if (vertex == null) {
+            throw new IllegalArgumentException();
+        }
+        Integer id = ids.get(vertex);
+        return id == null ? -1 : id;
+    }
+
+    @SuppressWarnings("unchecked")
+    V vertex(int id)
+    {
+        return (V) vertices[id];
+    }
+
+    //Returns the id of a vertex, adding it first if need be
+    private int add(V vertex)
+    {
+        int id = idOf(vertex);
+        if (id >= 0) {
+            return id;
+        }
+        if (freeCount > 0) {
+            id = free[--freeCount];
+        }
+        else {
+            id = limit++;
+            if (id == vertices.length) {
+                int capacity = 2 * id;
+                vertices = Arrays.copyOf(vertices, capacity);
+                targets = Arrays.copyOf(targets, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+                degrees = Arrays.copyOf(degrees, capacity);
+                sources = Arrays.copyOf(sources, capacity);
+                inDegrees = Arrays.copyOf(inDegrees, capacity);
+                outIndex = Arrays.copyOf(outIndex, capacity);
+            }
+        }
+        vertices[id] = vertex;
+        targets[id] = NO_IDS;
+        weights[id] = NO_WEIGHTS;
+        sources[id] = NO_IDS;
+        ids.put(vertex, id);
+        return id;
+    }
+
+    //Returns the position of 'value' among the first 'count' of 'list', or -1
+    private static int indexOf(int[] list, int count, int value)
+    {
+        for (int i = 0; i < count; i++) {
+            if (list[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int slot(int id, int mask)
+    {
+        int h = id * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    //Returns the position of the edge in the out-list of 'source', or -1
+    private int edgeIndex(int source, int dest)
+    {
+        int[] index = outIndex[source];
+        if (index == null) {
+            return indexOf(targets[source], degrees[source], dest);
+        }
+        int[] list = targets[source];
+        int mask = index.length - 1;
+        for (int s = slot(dest, mask); index[s] != 0; s = (s + 1) & mask) {
+            if (list[index[s] - 1] == dest) {
+                return index[s] - 1;
+            }
+        }
+        return -1;
+    }
+
+    //Adds position i of the out-list of 'source' to its hash index
+    private void insert(int source, int i)
+    {
+        int[] index = outIndex[source];
+        int mask = index.length - 1;
+        int s = slot(targets[source][i], mask);
+        while (index[s] != 0) {
+            s = (s + 1) & mask;
+        }
+        index[s] = i + 1;
+    }
+
+    //Hashes the out-list of 'source' into a table with room for 'capacity' edges
+    private void rebuildIndex(int source, int capacity)
+    {
+        outIndex[source] = new int[Integer.highestOneBit(Math.max(capacity, 2) * 2 - 1) * 2];
+        for (int i = 0; i < degrees[source]; i++) {
+            insert(source, i);
+        }
+    }
+
+    //Returns the slot of the hash index of 'source' that refers to position i
+    private int slotOf(int source, int i)
+    {
+        int[] index = outIndex[source];
+        int mask = index.length - 1;
+        int s = slot(targets[source][i], mask);
+        while (index[s] != i + 1) {
+            s = (s + 1) & mask;
+        }
+        return s;
+    }
+
+    //Empties a slot of the hash index of 'source', shifting back later
+    //entries of its probe run
+    private void deleteSlot(int source, int hole)
+    {
+        int[] index = outIndex[source];
+        int[] list = targets[source];
+        int mask = index.length - 1;
+        int next = (hole + 1) & mask;
+        while (index[next] != 0) {
+            int home = slot(list[index[next] - 1], mask);
+            // move the entry back unless its home lies in (hole, next]
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                index[hole] = index[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        index[hole] = 0;
+    }
+
+    //Removes 'source' from the in-list of 'dest'
+    private void removeSource(int dest, int source)
+    {
+        int[] list = sources[dest];
+        int last = --inDegrees[dest];
+        list[indexOf(list, last + 1, source)] = list[last];
+    }
+
+    //Removes the index'th edge leaving 'source', moving the last into its place
+    private void removeTarget(int source, int index)
+    {
+        int last = degrees[source] - 1;
+        if (outIndex[source] != null) {
+            deleteSlot(source, slotOf(source, index));
+            if (index != last) {
+                outIndex[source][slotOf(source, last)] = index + 1;
+            }
+        }
+        degrees[source] = last;
+        targets[source][index] = targets[source][last];
+        weights[source][index] = weights[source][last];
+    }
+
+    /**
+     * @return the number of vertices in the graph.
+     */
+    @Override
+    public int numVertices()
+    {
+        return ids.size();
+    }
+
+    /**
+     * @return the number of edges in the graph.
+     */
+    @Override
+    public int numEdges()
+    {
+        return edges;
+    }
+
+    /**
+     * Gets the number of vertices connected by edges from a given
+     * vertex.  If the given vertex is not in the graph, throws a
+     * RuntimeException.
+     *
+     * @param vertex the vertex whose degree we want.
+     * @return the degree of vertex 'vertex'
+     */
+    @Override
+    public int degree(V vertex)
+    {
+        int id = idOf(vertex);
+        if (id < 0) {
+            throw new RuntimeException();
+        }
+        return degrees[id];
+    }
+
+    /**
+     * Adds a directed edge of weight 1 between two vertices.  If there
+     * is already an edge between the given vertices, does nothing; in
+     * particular its weight is left alone.
+     *
+     * @param from the source vertex for the added edge
+     * @param to the destination vertex for the added edge
+     */
+    @Override
+    public void addEdge(V from, V to)
+    {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException();
+        }
+        int source = add(from);
+        int dest = add(to);
+        if (edgeIndex(source, dest) < 0) {
+            append(source, dest, 1);
+        }
+    }
+
+    /**
+     * Adds a directed edge with a given weight between two vertices.
+     * If there is already an edge between the given vertices, its
+     * weight is changed to 'weight'.  If either (or both) of the given
+     * vertices does not exist, it is added to the graph before the
+     * edge is created between them.
+     *
+     * @param from the source vertex for the added edge
+     * @param to the destination vertex for the added edge
+     * @param weight the cost of the edge; must not be negative or NaN
+     */
+    @Override
+    public void addEdge(V from, V to, double weight)
+    {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException();
+        }
+        check(weight);
+        int source = add(from);
+        int dest = add(to);
+        int index = edgeIndex(source, dest);
+        if (index >= 0) {
+            weights[source][index] = weight;
+        }
+        else {
+            append(source, dest, weight);
+        }
+    }
+
+    private void append(int source, int dest, double weight)
+    {
+        int degree = degrees[source];
+        if (degree == targets[source].length) {
+            int capacity = Math.max(4, 2 * degree);
+            targets[source] = Arrays.copyOf(targets[source], capacity);
+            weights[source] = Arrays.copyOf(weights[source], capacity);
+        }
+        targets[source][degree] = dest;
+        weights[source][degree] = weight;
+        degrees[source] = degree + 1;
+        if (outIndex[source] != null && 2 * (degree + 1) <= outIndex[source].length) {
+            insert(source, degree);
+        }
+        else if (degree + 1 > HASH_THRESHOLD) {
+            rebuildIndex(source, degree + 1);
+        }
+
+        int inDegree = inDegrees[dest];
+        if (inDegree == sources[dest].length) {
+            sources[dest] = Arrays.copyOf(sources[dest], Math.max(4, 2 * inDegree));
+        }
+        sources[dest][inDegree] = source;
+        inDegrees[dest] = inDegree + 1;
+        edges++;
+    }
+
+    /**
+     * Adds a vertex to the graph.  If the vertex already exists in
+     * the graph, does nothing.
+     *
+     * @param vertex the vertex to add
+     */
+    @Override
+    public void addVertex(V vertex)
+    {
+        add(vertex);
+    }
+
+    /**
+     * @return an iterable collection for the set of vertices of the
+     * graph.
+     */
+    @Override
+    public Iterable<V> getVertices()
+    {
+        return Collections.unmodifiableSet(ids.keySet());
+    }
+
+    /**
+     * Gets the vertices adjacent to a given vertex, as a read-only view
+     * that follows later changes to the vertex's edges.  The view of a
+     * vertex that is removed is empty from then on.  The graph must
+     * not change while the view is being iterated.
+     *
+     * @param from the source vertex
+     * @return an iterable collection for the set of vertices that are
+     * the destinations of edges for which 'from' is the source
+     * vertex.  If 'from' is not a vertex in the graph, returns an
+     * empty iterator.
+     */
+    @Override
+    public Iterable<V> adjacentTo(V from)
+    {
+        int id = idOf(from);
+        if (id < 0) {
+            return Collections.<V>emptySet();
+        }
+        return new AdjacentView(vertex(id), id);
+    }
+
+    /**
+     * The vertices adjacent to one vertex, read from its out-list.
+     */
+    private final class AdjacentView extends AbstractSet<V>
+    {
+        private final V from;
+        private final int id;
+
+        AdjacentView(V from, int id)
+        {
+            this.from = from;
+            this.id = id;
+        }
+
+        //Tells whether the vertex is still in the graph under the same id
+        private boolean live()
+        {
+            return id < limit && vertices[id] == from;
+        }
+
+        @Override
+        public int size()
+        {
+            return live() ? degrees[id] : 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o)
+        {
+            int dest = o == null ? -1 : idOf((V) o);
+            return dest >= 0 && live() && edgeIndex(id, dest) >= 0;
+        }
+
+        @Override
+        public Iterator<V> iterator()
+        {
+            return new Iterator<V>() {
+                private int next;
+
+                public boolean hasNext()
+                {
+                    return next < size();
+                }
+
+                public V next()
+                {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return vertex(targets[id][next++]);
+                }
+            };
+        }
+
+        @Override
+        public Spliterator<V> spliterator()
+        {
+            return new TargetSpliterator(targets[id], 0, size());
+        }
+    }
+
+    /**
+     * Splits a range of one vertex's out-list, for parallel streams.
+     */
+    private final class TargetSpliterator extends RangeSpliterator<V>
+    {
+        private final int[] list;
+
+        TargetSpliterator(int[] list, int from, int to)
+        {
+            super(from, to, Spliterator.DISTINCT | Spliterator.NONNULL);
+            this.list = list;
+        }
+
+        @Override
+        V get(int index)
+        {
+            return vertex(list[index]);
+        }
+
+        @Override
+        RangeSpliterator<V> slice(int from, int to)
+        {
+            return new TargetSpliterator(list, from, to);
+        }
+    }
+
+    /**
+     * Tells whether or not a vertex is in the graph.
+     *
+     * @param vertex a vertex
+     * @return true iff 'vertex' is a vertex in the graph.
+     */
+    @Override
+    public boolean contains(V vertex)
+    {
+        return idOf(vertex) >= 0;
+    }
+
+    /**
+     * Tells whether an edge exists in the graph.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     *
+     * @return true iff there is an edge from the source vertex to the
+     * destination vertex in the graph.  If either of the given
+     * vertices are not vertices in the graph, then there is no edge
+     * between them.
+     */
+    @Override
+    public boolean hasEdge(V from, V to)
+    {
+        int source = idOf(from);
+        int dest = idOf(to);
+        return source >= 0 && dest >= 0 && edgeIndex(source, dest) >= 0;
+    }
+
+    /**
+     * Gets the weight of an edge.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return the weight of the edge from 'from' to 'to', or
+     * Double.POSITIVE_INFINITY if there is no such edge
+     */
+    @Override
+    public double weight(V from, V to)
+    {
+        int source = idOf(from);
+        int dest = idOf(to);
+        int index = source >= 0 && dest >= 0 ? edgeIndex(source, dest) : -1;
+        return index < 0 ? Double.POSITIVE_INFINITY : weights[source][index];
+    }
+
+    /**
+     * Gives a string representation of the graph, one line per
+     * vertex, in the format described by Graph.toString.  Weights are
+     * not shown.
+     *
+     * @return the string representation of the graph
+     */
+    @Override
+    public String toString()
+    {
+        return GraphExport.toString(this);
+    }
+
+    /**
+     * Tells whether the graph is empty.
+     *
+     * @return true iff the graph is empty. A graph is empty if it has
+     * no vertices and no edges.
+     */
+    @Override
+    public boolean isEmpty()
+    {
+        return ids.isEmpty();
+    }
+
+    /**
+     * Removes a vertex from the graph.  Also removes any edges
+     * connecting from the edge or to the edge.
+     *
+     * @param toRemove the vertex to remove.
+     */
+    @Override
+    public void removeVertex(V toRemove)
+    {
+        int id = idOf(toRemove);
+        if (id < 0) {
+            return;
+        }
+        boolean loop = false;
+        for (int i = 0; i < degrees[id]; i++) {
+            int w = targets[id][i];
+            if (w == id) {
+                loop = true;
+            }
+            else {
+                removeSource(w, id);
+            }
+        }
+        for (int i = 0; i < inDegrees[id]; i++) {
+            int u = sources[id][i];
+            if (u != id) {
+                removeTarget(u, edgeIndex(u, id));
+            }
+        }
+        edges -= degrees[id] + inDegrees[id] - (loop ? 1 : 0);
+        vertices[id] = null;
+        targets[id] = null;
+        weights[id] = null;
+        sources[id] = null;
+        outIndex[id] = null;
+        degrees[id] = 0;
+        inDegrees[id] = 0;
+        ids.remove(toRemove);
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, 2 * freeCount);
+        }
+        free[freeCount++] = id;
+    }
+
+    /**
+     * Removes an edge from the graph.  If there is no such edge, does
+     * nothing.
+     *
+     * @param from the source vertex of the edge
+     * @param to the destination vertex of the edge
+     */
+    @Override
+    public void removeEdge(V from, V to)
+    {
+        int source = idOf(from);
+        int dest = idOf(to);
+        int index = source >= 0 && dest >= 0 ? edgeIndex(source, dest) : -1;
+        if (index < 0) {
+            return;
+        }
+        removeTarget(source, index);
+        removeSource(dest, source);
+        edges--;
+    }
+
+    /**
+     * Tells whether there is a path connecting two given vertices.  A
+     * path exists from vertex A to vertex B iff A and B are in the
+     * graph and there is a sequence of edges leading from A to B; in
+     * particular, if A is in the graph there is a path from A to A.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return true iff there is a path from 'from' to 'to' in the graph.
+     */
+    @Override
+    public boolean hasPath(V from, V to)
+    {
+        return search(from, to) >= 0;
+    }
+
+    /**
+     * Gets the length of the shortest path connecting two given
+     * vertices, counting edges and ignoring their weights.  The path
+     * from a vertex to itself has length 0.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return the length of the shortest path from 'from' to 'to' in
+     * the graph.  If there is no path, returns Integer.MAX_VALUE
+     */
+    @Override
+    public int pathLength(V from, V to)
+    {
+        int length = search(from, to);
+        return length < 0 ? Integer.MAX_VALUE : length;
+    }
+
+    /**
+     * Returns the vertices along the path with the fewest edges
+     * connecting two given vertices, including the source and
+     * destination.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return an Iterable collection of vertices along the shortest
+     * path from 'from' to 'to'.  If there is no path, or if from =
+     * to, returns an empty Iterable collection of vertices.
+     */
+    @Override
+    public Iterable<V> getPath(V from, V to)
+    {
+        if (search(from, to) <= 0) {
+            return new ArrayList<V>();
+        }
+        return vertices(BreadthFirstSearch.forThread().path());
+    }
+
+    /**
+     * Gets the cost of the cheapest path connecting two given vertices:
+     * the least sum of the weights of the edges of a path from one to
+     * the other.  The path from a vertex to itself costs 0.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return the cost of the cheapest path from 'from' to 'to' in the
+     * graph.  If there is no path, returns Double.POSITIVE_INFINITY
+     */
+    @Override
+    public double pathCost(V from, V to)
+    {
+        double cost = cheapest(from, to);
+        return cost < 0 ? Double.POSITIVE_INFINITY : cost;
+    }
+
+    /**
+     * Returns the vertices along the cheapest path connecting two given
+     * vertices, in the same form as getPath.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return an Iterable collection of vertices along the cheapest
+     * path from 'from' to 'to', including both.  If there is no path,
+     * or if from = to, returns an empty Iterable collection.
+     */
+    @Override
+    public Iterable<V> getCheapestPath(V from, V to)
+    {
+        if (cheapest(from, to) < 0 || from.equals(to)) {
+            return new ArrayList<V>();
+        }
+        return vertices(DijkstraSearch.forThread().path());
+    }
+
+    private ArrayList<V> vertices(int[] path)
+    {
+        ArrayList<V> list = new ArrayList<>(path.length);
+        for (int id : path) {
+            list.add(vertex(id));
+        }
+        return list;
+    }
+
+    //Returns the length of the shortest path, or -1 if there is none
+    private int search(V from, V to)
+    {
+        int f = idOf(from);
+        int t = idOf(to);
+        if (f < 0 || t < 0) {
+            return -1;
+        }
+        return BreadthFirstSearch.forThread().search(indexed, f, t, false);
+    }
+
+    //Returns the cost of the cheapest path, or -1 if there is none
+    private double cheapest(V from, V to)
+    {
+        int f = idOf(from);
+        int t = idOf(to);
+        if (f < 0 || t < 0) {
+            return -1;
+        }
+        return DijkstraSearch.forThread().search(indexed, f, t);
+    }
+}
@@ -0,0 +1,25 @@
+package edu.union.adt.graph;
+
+/**
+ * An estimate of the cost of getting from one vertex to another, which
+ * steers an A* search (see Graph.aStar) toward its destination.  On a
+ * spatial graph, for example, the straight-line distance between two
+ * points is a good heuristic.
+ *
+ * For A* to find a cheapest path, the heuristic must be admissible:
+ * it must never be more than the true cost of the cheapest path, which
+ * is the number of edges on an unweighted graph and the sum of the
+ * weights on a WeightedGraph.  The closer it is to the true cost, the
+ * fewer vertices the search expands; a heuristic that is always 0
+ * expands as many as Dijkstra's algorithm.
+ */
+public interface Heuristic<V>
+{
+  /**
+   * @param vertex a vertex the search has reached
+   * @param target the destination of the search
+   * @return a lower bound on the cost of a path from 'vertex' to
+   * 'target'; never negative or NaN
+   */
+  public double estimate(V vertex, V target);
+}
@@ -0,0 +1,49 @@
+package edu.union.adt.graph;
+
+/**
+ * A view of a graph whose vertices are numbered with dense int ids, so
+ * that searches can keep their state in int arrays indexed by id
+ * instead of in hash maps.  Every graph implementation in this
+ * package can present itself this way.
+ *
+ * Ids are between 0 and idLimit() - 1.  Some ids in that range may be
+ * unused (for example, after a vertex is removed); unused ids never
+ * appear as neighbors.
+ */
+interface IndexedGraph
+{
+  /**
+   * @return one more than the largest id in use.
+   */
+  int idLimit();
+
+  /**
+   * @return true iff 'id' is the id of a vertex in the graph.
+   */
+  boolean isVertex(int id);
+
+  /**
+   * @return the number of edges leaving vertex 'id'.
+   */
+  int degree(int id);
+
+  /**
+   * @return the destination of the index'th edge leaving vertex 'id'.
+   */
+  int neighbor(int id, int index);
+
+  /**
+   * @return true iff inDegree and predecessor are supported.
+   */
+  boolean hasPredecessors();
+
+  /**
+   * @return the number of edges into vertex 'id'.
+   */
+  int inDegree(int id);
+
+  /**
+   * @return the source of the index'th edge into vertex 'id'.
+   */
+  int predecessor(int id, int index);
+}
@@ -0,0 +1,138 @@
+package edu.union.adt.graph;
+import java.util.*;
+
+/**
+ * A binary min-heap of int ids with double keys, which knows where
+ * each id is in the heap, so that an id's key can be lowered in
+ * place.  Each id is in the heap at most once, and nothing is
+ * allocated per operation: the heap, the keys and the positions are
+ * all int or double arrays indexed by id, grown only by reset.
+ */
+final class IndexedHeap
+{
+    private int[] heap = new int[0];
+    private double[] keys = new double[0];
+
+    // 1 + the position of each id in the heap, or 0 if it is not there
+    private int[] positions = new int[0];
+    private int size;
+
+    /**
+     * Empties the heap and makes room for ids 0 to capacity - 1.
+     */
+    void reset(int capacity)
+    {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = 0;
+        }
+        size = 0;
+        if (positions.length < capacity) {
+            int grown = Math.max(capacity, positions.length + (positions.length >> 1));
+            heap = new int[grown];
+            keys = new double[grown];
+            positions = new int[grown];
+        }
+    }
+
+    boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    int size()
+    {
+        return size;
+    }
+
+    boolean contains(int id)
+    {
+        return positions[id] != 0;
+    }
+
+    /**
+     * @return the key of an id in the heap.
+     */
+    double key(int id)
+    {
+        return keys[id];
+    }
+
+    /**
+     * Adds an id to the heap, or lowers its key if it is already there
+     * with a larger one.
+     *
+     * @return true iff the id was added or its key lowered
+     */
+    boolean offer(int id, double key)
+    {
+        int position = positions[id] - 1;
+        if (position < 0) {
+            position = size++;
+            heap[position] = id;
+        }
+        else if (key >= keys[id]) {
+            return false;
+        }
+        keys[id] = key;
+        siftUp(position, id);
+        return true;
+    }
+
+    /**
+     * Removes the id with the smallest key.
+     *
+     * @return the id
+     */
+    int poll()
+    {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int first = heap[0];
+        positions[first] = 0;
+        int last = heap[--size];
+        if (size > 0) {
+            siftDown(0, last);
+        }
+        return first;
+    }
+
+    private void siftUp(int position, int id)
+    {
+        double key = keys[id];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            int above = heap[parent];
+            if (keys[above] <= key) {
+                break;
+            }
+            heap[position] = above;
+            positions[above] = position + 1;
+            position = parent;
+        }
+        heap[position] = id;
+        positions[id] = position + 1;
+    }
+
+    private void siftDown(int position, int id)
+    {
+        double key = keys[id];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int below = heap[child];
+            if (child + 1 < size && keys[heap[child + 1]] < keys[below]) {
+                child++;
+                below = heap[child];
+            }
+            if (key <= keys[below]) {
+                break;
+            }
+            heap[position] = below;
+            positions[below] = position + 1;
+            position = child;
+        }
+        heap[position] = id;
+        positions[id] = position + 1;
+    }
+}
@@ -0,0 +1,21 @@
+package edu.union.adt.graph;
+
+/**
+ * An iterator over primitive int values.  Unlike an
+ * Iterator&lt;Integer&gt;, a cursor never boxes the values it returns.
+ */
+public interface IntCursor
+{
+  /**
+   * @return true iff there are more values to return.
+   */
+  public boolean hasNext();
+
+  /**
+   * Returns the next value.  If there are no more values, throws a
+   * java.util.NoSuchElementException.
+   *
+   * @return the next value
+   */
+  public int next();
+}
@@ -0,0 +1,151 @@
+package edu.union.adt.graph;
+
+/**
+ * A graph whose vertices are non-negative ints.  It offers the same
+ * operations as Graph, but takes and returns primitive ints so that
+ * no vertex is ever boxed.  The edges are directed.
+ *
+ * Every method that takes a vertex throws an IllegalArgumentException
+ * if the vertex is negative.
+ */
+public interface IntGraph
+{
+  /**
+   * @return the number of vertices in the graph.
+   */
+  public int numVertices();
+
+  /**
+   * @return the number of edges in the graph.
+   */
+  public int numEdges();
+
+  /**
+   * Gets the number of vertices connected by edges from a given
+   * vertex.  If the given vertex is not in the graph, throws a
+   * RuntimeException.
+   *
+   * @param vertex the vertex whose degree we want.
+   * @return the degree of vertex 'vertex'
+   */
+  public int degree(int vertex);
+
+  /**
+   * Adds a directed edge between two vertices.  If there is already an edge
+   * between the given vertices, does nothing.  If either (or both)
+   * of the given vertices does not exist, it is added to the
+   * graph before the edge is created between them.
+   *
+   * @param from the source vertex for the added edge
+   * @param to the destination vertex for the added edge
+   */
+  public void addEdge(int from, int to);
+
+  /**
+   * Adds a vertex to the graph.  If the vertex already exists in
+   * the graph, does nothing.
+   *
+   * @param vertex the vertex to add
+   */
+  public void addVertex(int vertex);
+
+  /**
+   * @return a cursor over the vertices of the graph.
+   */
+  public IntCursor getVertices();
+
+  /**
+   * Gets the vertices adjacent to a given vertex.  A vertex y is
+   * "adjacent to" vertex x if there is an edge (x, y) in the graph.
+   *
+   * @param from the source vertex
+   * @return a cursor over the destinations of the edges for which
+   * 'from' is the source vertex.  If 'from' is not a vertex in the
+   * graph, returns an empty cursor.
+   */
+  public IntCursor adjacentTo(int from);
+
+  /**
+   * Gets one of the vertices adjacent to a given vertex, without
+   * creating a cursor.  The neighbors of 'from' are numbered 0 to
+   * degree(from) - 1, in the same order adjacentTo returns them.
+   *
+   * @param from the source vertex
+   * @param index the position of the neighbor, from 0 to degree(from) - 1
+   * @return the destination of the index'th edge leaving 'from'
+   */
+  public int neighbor(int from, int index);
+
+  /**
+   * Tells whether or not a vertex is in the graph.
+   *
+   * @param vertex a vertex
+   * @return true iff 'vertex' is a vertex in the graph.
+   */
+  public boolean contains(int vertex);
+
+  /**
+   * Tells whether an edge exists in the graph.
+   *
+   * @param from the source vertex
+   * @param to the destination vertex
+   * @return true iff there is an edge from the source vertex to the
+   * destination vertex in the graph.
+   */
+  public boolean hasEdge(int from, int to);
+
+  /**
+   * Tells whether the graph is empty.
+   *
+   * @return true iff the graph has no vertices and no edges.
+   */
+  public boolean isEmpty();
+
+  /**
+   * Removes a vertex from the graph, along with any edges connecting
+   * from it or to it.
+   *
+   * @param toRemove the vertex to remove.
+   */
+  public void removeVertex(int toRemove);
+
+  /**
+   * Removes an edge from the graph.  If the edge is not in the
+   * graph, does nothing.
+   */
+  public void removeEdge(int from, int to);
+
+  /**
+   * Tells whether there is a path connecting two given vertices.  If
+   * vertex A is in the graph, there is a path from A to A.
+   *
+   * @param from the source vertex
+   * @param to the destination vertex
+   * @return true iff there is a path from 'from' to 'to' in the graph.
+   */
+  public boolean hasPath(int from, int to);
+
+  /**
+   * Gets the length of the shortest path connecting two given
+   * vertices.  The length of a path is the number of edges in the
+   * path.
+   *
+   * @param from the source vertex
+   * @param to the destination vertex
+   * @return the length of the shortest path from 'from' to 'to' in
+   * the graph.  If there is no path, returns Integer.MAX_VALUE
+   */
+  public int pathLength(int from, int to);
+
+  /**
+   * Returns the vertices along the shortest path connecting two
+   * given vertices, including 'from' and 'to'.
+   *
+   * @param from the source vertex
+   * @param to the destination vertex
+   * @return the vertices along the shortest path from 'from' to
+   * 'to'.  If there is no path, or if from = to, returns an empty
+   * array.
+   */
+  public int[] getPath(int from, int to);
+}
@@ -0,0 +1,482 @@
+package edu.union.adt.graph;
+import java.util.*;
+import java.nio.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A read-only graph that works directly on a memory-mapped file
+ * written by GraphIO.write; see GraphIO for the format.  Nothing is
+ * read into the heap when the graph is opened: vertices are looked up
+ * in the file's hash table, adjacency lists are decoded from their
+ * varints as they are walked, and searches keep only their usual
+ * per-thread int arrays.
+ *
+ * Vertices are numbered in the order the saved graph listed them, and
+ * adjacentTo returns the adjacent vertices in that order, which need
+ * not be the order of the saved graph; so getPath may return a
+ * different shortest path than the saved graph did.  All the mutating
+ * methods throw an UnsupportedOperationException.  Like any read-only
+ * graph here, it can safely be read by many threads at once.
+ */
+public class MappedGraph<V> implements Graph<V>
+{
+    private final ByteBuffer buffer;
+    private final boolean strings;
+    private final int n;
+    private final int edges;
+    private final int capacity;
+    private final int vertexTable;
+    private final int vertexData;
+    private final int adjacencyIndex;
+    private final int adjacencyData;
+    private final int lookup;
+
+    MappedGraph(ByteBuffer buffer)
+    {
+        this.buffer = buffer;
+        this.strings = buffer.getInt(8) == GraphIO.STRINGS;
+        this.n = buffer.getInt(12);
+        this.edges = buffer.getInt(16);
+        this.capacity = buffer.getInt(20);
+        this.vertexTable = buffer.getInt(24);
+        this.vertexData = buffer.getInt(28);
+        this.adjacencyIndex = buffer.getInt(32);
+        this.adjacencyData = buffer.getInt(36);
+        this.lookup = buffer.getInt(40);
+    }
+
+    /**
+     * An adjacency list being decoded.  'next' is the id of the
+     * adjacent vertex at 'index', decoded from the varint ending just
+     * before 'position'.
+     */
+    private final class Cursor
+    {
+        int degree;
+        int index = -1;
+        int next;
+        int position;
+
+        Cursor(int id)
+        {
+            position = adjacencyData + buffer.getInt(adjacencyIndex + 4 * id);
+            degree = readVarint();
+        }
+
+        //Moves to the next adjacent vertex; returns false at the end
+        boolean advance()
+        {
+            if (index + 1 >= degree) {
+                return false;
+            }
+            next += readVarint();
+            index++;
+            return true;
+        }
+
+        private int readVarint()
+        {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = buffer.get(position++);
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+    }
+
+    /**
+     * The view a search walks.  Searches ask for each vertex's
+     * neighbors in order, so it keeps a cursor on the list it read
+     * last and decodes the next neighbor from where it left off.  One
+     * instance serves one search on one thread.
+     */
+    private final class Indexed implements IndexedGraph
+    {
+        private Cursor cursor;
+        private int cursorId = -1;
+
+        public int idLimit()
+        {
+            return n;
+        }
+
+        public boolean isVertex(int id)
+        {
+            return id >= 0 && id < n;
+        }
+
+        private Cursor cursor(int id)
+        {
+            if (id != cursorId) {
+                cursor = new Cursor(id);
+                cursorId = id;
+            }
+            return cursor;
+        }
+
+        public int degree(int id)
+        {
+            return cursor(id).degree;
+        }
+
+        public int neighbor(int id, int index)
+        {
+            Cursor c = cursor(id);
+            if (index <= c.index) {
+                c = cursor = new Cursor(id);
+            }
+            while (c.index < index) {
+                c.advance();
+            }
+            return c.next;
+        }
+
+        public boolean hasPredecessors()
+        {
+            return false;
+        }
+
+        public int inDegree(int id)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        public int predecessor(int id, int index)
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    //Returns the vertex with the given id
+    @SuppressWarnings("unchecked")
+    private V vertex(int id)
+    {
+        if (!strings) {
+            return (V) Integer.valueOf(buffer.getInt(vertexTable + 4 * id));
+        }
+        int start = buffer.getInt(vertexTable + 4 * id);
+        int end = buffer.getInt(vertexTable + 4 * id + 4);
+        byte[] name = new byte[end - start];
+        for (int i = 0; i < name.length; i++) {
+            name[i] = buffer.get(vertexData + start + i);
+        }
+        return (V) new String(name, StandardCharsets.UTF_8);
+    }
+
+    //Returns true iff vertex 'id' is 'value', whose UTF-8 bytes (for
+    //String vertices) are 'name'
+    private boolean isVertex(int id, Object value, byte[] name)
+    {
+        if (!strings) {
+            return value instanceof Integer && buffer.getInt(vertexTable + 4 * id) == (Integer) value;
+        }
+        int start = buffer.getInt(vertexTable + 4 * id);
+        int end = buffer.getInt(vertexTable + 4 * id + 4);
+        if (end - start != name.length) {
+            return false;
+        }
+        for (int i = 0; i < name.length; i++) {
+            if (buffer.get(vertexData + start + i) != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //Returns the id of a vertex, or -1 if it is not in the graph
+    private int idOf(V vertex)
+    {
+        if (vertex == null) {
+            throw new IllegalArgumentException();
+        }
+        if (strings != vertex instanceof String) {
+            return -1;
+        }
+        byte[] name = strings ? ((String) vertex).getBytes(StandardCharsets.UTF_8) : null;
+        int mask = capacity - 1;
+        for (int slot = GraphIO.mix(vertex.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            int id = buffer.getInt(lookup + 4 * slot) - 1;
+            if (id < 0) {
+                return -1;
+            }
+            if (isVertex(id, vertex, name)) {
+                return id;
+            }
+        }
+    }
+
+    /**
+     * @return the number of vertices in the graph.
+     */
+    @Override
+    public int numVertices()
+    {
+        return n;
+    }
+
+    /**
+     * @return the number of edges in the graph.
+     */
+    @Override
+    public int numEdges()
+    {
+        return edges;
+    }
+
+    /**
+     * Gets the number of vertices connected by edges from a given
+     * vertex.  If the given vertex is not in the graph, throws a
+     * RuntimeException.
+     *
+     * @param vertex the vertex whose degree we want.
+     * @return the degree of vertex 'vertex'
+     */
+    @Override
+    public int degree(V vertex)
+    {
+        int id = idOf(vertex);
+        if (id < 0) {
+            throw new RuntimeException();
+        }
+        return new Cursor(id).degree;
+    }
+
+    @Override
+    public void addEdge(V from, V to)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addVertex(V vertex)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * @return an iterable collection for the set of vertices of the
+     * graph, in id order.
+     */
+    @Override
+    public Iterable<V> getVertices()
+    {
+        return new AbstractList<V>() {
+            @Override
+            public V get(int index)
+            {
+                if (index < 0 || index >= n) {
+                    throw new IndexOutOfBoundsException();
+                }
+                return vertex(index);
+            }
+
+            @Override
+            public int size()
+            {
+                return n;
+            }
+        };
+    }
+
+    /**
+     * Gets the vertices adjacent to a given vertex, decoding them from
+     * the file as they are iterated.
+     *
+     * @param from the source vertex
+     * @return an iterable collection for the set of vertices that are
+     * the destinations of edges for which 'from' is the source
+     * vertex.  If 'from' is not a vertex in the graph, returns an
+     * empty iterator.
+     */
+    @Override
+    public Iterable<V> adjacentTo(V from)
+    {
+        final int id = idOf(from);
+        if (id < 0) {
+            return Collections.<V>emptySet();
+        }
+        return new Iterable<V>() {
+            public Iterator<V> iterator()
+            {
+                final Cursor cursor = new Cursor(id);
+                return new Iterator<V>() {
+                    public boolean hasNext()
+                    {
+                        return cursor.index + 1 < cursor.degree;
+                    }
+
+                    public V next()
+                    {
+                        if (!cursor.advance()) {
+                            throw new NoSuchElementException();
+                        }
+                        return vertex(cursor.next);
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Tells whether or not a vertex is in the graph.
+     *
+     * @param vertex a vertex
+     * @return true iff 'vertex' is a vertex in the graph.
+     */
+    @Override
+    public boolean contains(V vertex)
+    {
+        return idOf(vertex) >= 0;
+    }
+
+    /**
+     * Tells whether an edge exists in the graph.  The adjacency list
+     * is sorted, so the search stops at the first larger id.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     *
+     * @return true iff there is an edge from the source vertex to the
+     * destination vertex in the graph.  If either of the given
+     * vertices are not vertices in the graph, then there is no edge
+     * between them.
+     */
+    @Override
+    public boolean hasEdge(V from, V to)
+    {
+        int source = idOf(from);
+        int dest = idOf(to);
+        if (source < 0 || dest < 0) {
+            return false;
+        }
+        Cursor cursor = new Cursor(source);
+        while (cursor.advance()) {
+            if (cursor.next >= dest) {
+                return cursor.next == dest;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gives a string representation of the graph, one line per
+     * vertex, in the format described by Graph.toString.
+     *
+     * @return the string representation of the graph
+     */
+    @Override
+    public String toString()
+    {
+        return GraphExport.toString(this);
+    }
+
+    /**
+     * Tells whether the graph is empty.
+     *
+     * @return true iff the graph is empty. A graph is empty if it has
+     * no vertices and no edges.
+     */
+    @Override
+    public boolean isEmpty()
+    {
+        return n == 0;
+    }
+
+    @Override
+    public void removeVertex(V toRemove)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void removeEdge(V from, V to)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * A MappedGraph never changes, so it is its own snapshot.
+     *
+     * @return this graph
+     */
+    @Override
+    public MappedGraph<V> snapshot()
+    {
+        return this;
+    }
+
+    /**
+     * Tells whether there is a path connecting two given vertices.  A
+     * path exists from vertex A to vertex B iff A and B are in the
+     * graph and there is a sequence of edges leading from A to B; in
+     * particular, if A is in the graph there is a path from A to A.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return true iff there is a path from 'from' to 'to' in the graph.
+     */
+    @Override
+    public boolean hasPath(V from, V to)
+    {
+        return search(from, to) >= 0;
+    }
+
+    /**
+     * Gets the length of the shortest path connecting two given
+     * vertices.  The length of a path is the number of edges in the
+     * path; the path from a vertex to itself has length 0.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return the length of the shortest path from 'from' to 'to' in
+     * the graph.  If there is no path, returns Integer.MAX_VALUE
+     */
+    @Override
+    public int pathLength(V from, V to)
+    {
+        int length = search(from, to);
+        return length < 0 ? Integer.MAX_VALUE : length;
+    }
+
+    /**
+     * Returns the vertices along the shortest path connecting two
+     * given vertices, including the source and destination.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return an Iterable collection of vertices along the shortest
+     * path from 'from' to 'to'.  If there is no path, or if from =
+     * to, returns an empty Iterable collection of vertices.
+     */
+    @Override
+    public Iterable<V> getPath(V from, V to)
+    {
+        ArrayList<V> path = new ArrayList<>();
+        if (search(from, to) <= 0) {
+            return path;
+        }
+        for (int id : BreadthFirstSearch.forThread().path()) {
+            path.add(vertex(id));
+        }
+        return path;
+    }
+
+    /**
+     * Runs one breadth-first search from 'from' to 'to' on the calling
+     * thread's search state.
+     *
+     * @return the length of the shortest path, or -1 if there is none
+     */
+    private int search(V from, V to)
+    {
+        int source = idOf(from);
+        int target = idOf(to);
+        if (source < 0 || target < 0) {
+            return -1;
+        }
+        return BreadthFirstSearch.forThread().search(new Indexed(), source, target, false);
+    }
+}
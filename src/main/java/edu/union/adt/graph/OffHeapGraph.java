@@ -0,0 +1,577 @@
+package edu.union.adt.graph;
+import java.util.*;
+
+/**
+ * A graph whose edges are stored outside the Java heap, for graphs
+ * too large to keep in HashGraph without a huge heap and long
+ * garbage-collection pauses.  Only the mapping between vertices and
+ * their int ids is kept on the heap; the per-vertex records and the
+ * adjacency lists live in direct ByteBuffers, which the garbage
+ * collector never scans or copies.
+ *
+ * Each vertex has a list of the vertices it has edges to and a list
+ * of the vertices with edges to it.  A list is a block of 4, 8, 16...
+ * ints; when it fills up it moves to a block twice as large, and the
+ * old block is kept on a free list for its size and reused.  So
+ * adding an edge takes amortized constant time plus a scan of the
+ * shorter of the two lists it joins, as do hasEdge and removeEdge.
+ *
+ * An OffHeapGraph holds memory until it is closed, and must not be
+ * used after close() is called.  Like HashGraph, it is not safe to
+ * change while other threads use it.
+ */
+public class OffHeapGraph<V> implements Graph<V>, AutoCloseable
+{
+    // the record of vertex i is ints RECORD * i .. RECORD * i + 5 of
+    // records: the block, size and capacity of its out-list, then of
+    // its in-list.  A removed vertex has OUT_SIZE -1, and OUT_BLOCK
+    // holds the next unused id, or -1.
+    private static final int RECORD = 6;
+    private static final int OUT = 0;
+    private static final int IN = 3;
+    private static final int OUT_BLOCK = 0;
+    private static final int OUT_SIZE = 1;
+    private static final int BLOCK = 0;
+    private static final int SIZE = 1;
+    private static final int CAPACITY = 2;
+
+    private final HashMap<V, Integer> ids = new HashMap<>();
+    private final ArrayList<V> vertices = new ArrayList<>();
+
+    private OffHeapInts records = new OffHeapInts();
+    private int freeId = -1;
+
+    // block b is ints 4 * b .. 4 * b + capacity - 1 of lists;
+    // freeBlocks[k] is the first unused block of 4 << k ints, or -1,
+    // and the first int of an unused block is the next one
+    private OffHeapInts lists = new OffHeapInts();
+    private long top;
+    private final int[] freeBlocks = new int[30];
+
+    private int edges;
+
+    private final IndexedGraph indexed = new IndexedGraph() {
+        public int idLimit()
+        {
+            return vertices.size();
+        }
+
+        public boolean isVertex(int id)
+        {
+            return records.get(RECORD * (long) id + OUT_SIZE) >= 0;
+        }
+
+        public int degree(int id)
+        {
+            return size(id, OUT);
+        }
+
+        public int neighbor(int id, int index)
+        {
+            return get(id, OUT, index);
+        }
+
+        public boolean hasPredecessors()
+        {
+            return true;
+        }
+
+        public int inDegree(int id)
+        {
+            return size(id, IN);
+        }
+
+        public int predecessor(int id, int index)
+        {
+            return get(id, IN, index);
+        }
+    };
+
+    /**
+     * Creates an empty graph.
+     */
+    public OffHeapGraph()
+    {
+        Arrays.fill(freeBlocks, -1);
+    }
+
+    private int size(int id, int list)
+    {
+        return records.get(RECORD * (long) id + list + SIZE);
+    }
+
+    private int get(int id, int list, int index)
+    {
+        return lists.get(4L * records.get(RECORD * (long) id + list + BLOCK) + index);
+    }
+
+    //Returns the position of 'value' in a list, or -1
+    private int indexOf(int id, int list, int value)
+    {
+        long record = RECORD * (long) id + list;
+        long start = 4L * records.get(record + BLOCK);
+        int size = records.get(record + SIZE);
+        for (int i = 0; i < size; i++) {
+            if (lists.get(start + i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void append(int id, int list, int value)
+    {
+        long record = RECORD * (long) id + list;
+        int size = records.get(record + SIZE);
+        int capacity = records.get(record + CAPACITY);
+        if (size == capacity) {
+            int grown = capacity == 0 ? 4 : 2 * capacity;
+            int block = allocate(grown);
+            if (capacity > 0) {
+                int old = records.get(record + BLOCK);
+                lists.copy(4L * old, 4L * block, size);
+                release(old, capacity);
+            }
+            records.set(record + BLOCK, block);
+            records.set(record + CAPACITY, grown);
+        }
+        lists.set(4L * records.get(record + BLOCK) + size, value);
+        records.set(record + SIZE, size + 1);
+    }
+
+    //Removes the index'th value of a list, moving the last one into its place
+    private void removeAt(int id, int list, int index)
+    {
+        long record = RECORD * (long) id + list;
+        long start = 4L * records.get(record + BLOCK);
+        int last = records.get(record + SIZE) - 1;
+        lists.set(start + index, lists.get(start + last));
+        records.set(record + SIZE, last);
+    }
+
+    private void remove(int id, int list, int value)
+    {
+        removeAt(id, list, indexOf(id, list, value));
+    }
+
+    //Returns a block of 'capacity' ints, a power of two from 4 up
+    private int allocate(int capacity)
+    {
+        int k = Integer.numberOfTrailingZeros(capacity) - 2;
+        int block = freeBlocks[k];
+        if (block >= 0) {
+            freeBlocks[k] = lists.get(4L * block);
+            return block;
+        }
+        if ((top + capacity) / 4 > Integer.MAX_VALUE) {
+            throw new IllegalStateException("graph is too large");
+        }
+        block = (int) (top / 4);
+        top += capacity;
+        lists.ensureCapacity(top);
+        return block;
+    }
+
+    private void release(int block, int capacity)
+    {
+        int k = Integer.numberOfTrailingZeros(capacity) - 2;
+        lists.set(4L * block, freeBlocks[k]);
+        freeBlocks[k] = block;
+    }
+
+    //Returns the id of a vertex, or -1 if it is not in the graph
+    private int idOf(V vertex)
+    {
+        if (vertex == null) {
+            throw new IllegalArgumentException();
+        }
+        checkOpen();
+        Integer id = ids.get(vertex);
+        return id == null ? -1 : id;
+    }
+
+    private void checkOpen()
+    {
+        if (records == null) {
+            throw new IllegalStateException("graph is closed");
+        }
+    }
+
+    //Returns the id of a vertex, adding it first if need be
+    private int add(V vertex)
+    {
+        int id = idOf(vertex);
+        if (id >= 0) {
+            return id;
+        }
+        if (freeId >= 0) {
+            id = freeId;
+            freeId = records.get(RECORD * (long) id + OUT_BLOCK);
+            vertices.set(id, vertex);
+        }
+        else {
+            id = vertices.size();
+            records.ensureCapacity(RECORD * (id + 1L));
+            vertices.add(vertex);
+        }
+        for (int i = 0; i < RECORD; i++) {
+            records.set(RECORD * (long) id + i, 0);
+        }
+        ids.put(vertex, id);
+        return id;
+    }
+
+    /**
+     * @return the number of vertices in the graph.
+     */
+    @Override
+    public int numVertices()
+    {
+        return ids.size();
+    }
+
+    /**
+     * @return the number of edges in the graph.
+     */
+    @Override
+    public int numEdges()
+    {
+        return edges;
+    }
+
+    /**
+     * Gets the number of vertices connected by edges from a given
+     * vertex.  If the given vertex is not in the graph, throws a
+     * RuntimeException.
+     *
+     * @param vertex the vertex whose degree we want.
+     * @return the degree of vertex 'vertex'
+     */
+    @Override
+    public int degree(V vertex)
+    {
+        int id = idOf(vertex);
+        if (id < 0) {
+            throw new RuntimeException();
+        }
+        return size(id, OUT);
+    }
+
+    /**
+     * Adds a directed edge between two vertices.  If there is already
+     * an edge between the given vertices, does nothing.  If either (or
+     * both) of the given vertices does not exist, it is added to the
+     * graph before the edge is created between them.
+     *
+     * @param from the source vertex for the added edge
+     * @param to the destination vertex for the added edge
+     */
+    @Override
+    public void addEdge(V from, V to)
+    {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException();
+        }
+        int source = add(from);
+        int dest = add(to);
+        if (hasEdge(source, dest)) {
+            return;
+        }
+        append(source, OUT, dest);
+        append(dest, IN, source);
+        edges++;
+    }
+
+    /**
+     * Adds a vertex to the graph.  If the vertex already exists in
+     * the graph, does nothing.
+     *
+     * @param vertex the vertex to add
+     */
+    @Override
+    public void addVertex(V vertex)
+    {
+        add(vertex);
+    }
+
+    /**
+     * @return an iterable collection for the set of vertices of the
+     * graph.
+     */
+    @Override
+    public Iterable<V> getVertices()
+    {
+        checkOpen();
+        return Collections.unmodifiableSet(ids.keySet());
+    }
+
+    /**
+     * Gets the vertices adjacent to a given vertex.  The vertices are
+     * read from the graph as they are iterated, so the graph must not
+     * change while the iteration is going on.
+     *
+     * @param from the source vertex
+     * @return an iterable collection for the set of vertices that are
+     * the destinations of edges for which 'from' is the source
+     * vertex.  If 'from' is not a vertex in the graph, returns an
+     * empty iterator.
+     */
+    @Override
+    public Iterable<V> adjacentTo(V from)
+    {
+        final int id = idOf(from);
+        if (id < 0) {
+            return Collections.<V>emptySet();
+        }
+        return new Iterable<V>() {
+            public Iterator<V> iterator()
+            {
+                return new Iterator<V>() {
+                    private int index;
+
+                    public boolean hasNext()
+                    {
+                        return index < size(id, OUT);
+                    }
+
+                    public V next()
+                    {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        return vertices.get(get(id, OUT, index++));
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * Tells whether or not a vertex is in the graph.
+     *
+     * @param vertex a vertex
+     * @return true iff 'vertex' is a vertex in the graph.
+     */
+    @Override
+    public boolean contains(V vertex)
+    {
+        return idOf(vertex) >= 0;
+    }
+
+    /**
+     * Tells whether an edge exists in the graph.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     *
+     * @return true iff there is an edge from the source vertex to the
+     * destination vertex in the graph.  If either of the given
+     * vertices are not vertices in the graph, then there is no edge
+     * between them.
+     */
+    @Override
+    public boolean hasEdge(V from, V to)
+    {
+        int source = idOf(from);
+        int dest = idOf(to);
+        return source >= 0 && dest >= 0 && hasEdge(source, dest);
+    }
+
+    //Scans whichever of the two lists the edge would be in is shorter
+    private boolean hasEdge(int source, int dest)
+    {
+        if (size(source, OUT) <= size(dest, IN)) {
+            return indexOf(source, OUT, dest) >= 0;
+        }
+        return indexOf(dest, IN, source) >= 0;
+    }
+
+    /**
+     * Gives a string representation of the graph, one line per
+     * vertex, in the format described by Graph.toString.
+     *
+     * @return the string representation of the graph
+     */
+    @Override
+    public String toString()
+    {
+        return GraphExport.toString(this);
+    }
+
+    /**
+     * Tells whether the graph is empty.
+     *
+     * @return true iff the graph is empty. A graph is empty if it has
+     * no vertices and no edges.
+     */
+    @Override
+    public boolean isEmpty()
+    {
+        return ids.isEmpty();
+    }
+
+    /**
+     * Removes a vertex from the graph.  Also removes any edges
+     * connecting from the edge or to the edge.  Its id and its lists'
+     * blocks are reused by later additions.
+     *
+     * @param toRemove the vertex to remove.
+     */
+    @Override
+    public void removeVertex(V toRemove)
+    {
+        int id = idOf(toRemove);
+        if (id < 0) {
+            return;
+        }
+        int out = size(id, OUT);
+        for (int i = 0; i < out; i++) {
+            int w = get(id, OUT, i);
+            if (w != id) {
+                remove(w, IN, id);
+            }
+        }
+        int in = size(id, IN);
+        for (int i = 0; i < in; i++) {
+            int u = get(id, IN, i);
+            if (u != id) {
+                remove(u, OUT, id);
+            }
+        }
+        edges -= out + in - (indexOf(id, OUT, id) >= 0 ? 1 : 0);
+        for (int list : new int[] {OUT, IN}) {
+            long record = RECORD * (long) id + list;
+            int capacity = records.get(record + CAPACITY);
+            if (capacity > 0) {
+                release(records.get(record + BLOCK), capacity);
+            }
+        }
+        records.set(RECORD * (long) id + OUT_BLOCK, freeId);
+        records.set(RECORD * (long) id + OUT_SIZE, -1);
+        freeId = id;
+        vertices.set(id, null);
+        ids.remove(toRemove);
+    }
+
+    /**
+     * Removes an edge from the graph.  If there is no such edge, does
+     * nothing.
+     *
+     * @param from the source vertex of the edge
+     * @param to the destination vertex of the edge
+     */
+    @Override
+    public void removeEdge(V from, V to)
+    {
+        int source = idOf(from);
+        int dest = idOf(to);
+        if (source < 0 || dest < 0) {
+            return;
+        }
+        int index = indexOf(source, OUT, dest);
+        if (index < 0) {
+            return;
+        }
+        removeAt(source, OUT, index);
+        remove(dest, IN, source);
+        edges--;
+    }
+
+    /**
+     * Tells whether there is a path connecting two given vertices.  A
+     * path exists from vertex A to vertex B iff A and B are in the
+     * graph and there is a sequence of edges leading from A to B; in
+     * particular, if A is in the graph there is a path from A to A.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return true iff there is a path from 'from' to 'to' in the graph.
+     */
+    @Override
+    public boolean hasPath(V from, V to)
+    {
+        return search(from, to) >= 0;
+    }
+
+    /**
+     * Gets the length of the shortest path connecting two given
+     * vertices.  The length of a path is the number of edges in the
+     * path; the path from a vertex to itself has length 0.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return the length of the shortest path from 'from' to 'to' in
+     * the graph.  If there is no path, returns Integer.MAX_VALUE
+     */
+    @Override
+    public int pathLength(V from, V to)
+    {
+        int length = search(from, to);
+        return length < 0 ? Integer.MAX_VALUE : length;
+    }
+
+    /**
+     * Returns the vertices along the shortest path connecting two
+     * given vertices, including the source and destination.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return an Iterable collection of vertices along the shortest
+     * path from 'from' to 'to'.  If there is no path, or if from =
+     * to, returns an empty Iterable collection of vertices.
+     */
+    @Override
+    public Iterable<V> getPath(V from, V to)
+    {
+        if (search(from, to) <= 0) {
+            return new ArrayList<V>();
+        }
+        int[] ids = BreadthFirstSearch.forThread().path();
+        ArrayList<V> path = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            path.add(vertices.get(id));
+        }
+        return path;
+    }
+
+    /**
+     * @return the number of bytes of memory the graph holds outside
+     * the heap.
+     */
+    public long offHeapBytes()
+    {
+        return records == null ? 0 : records.bytes() + lists.bytes();
+    }
+
+    /**
+     * Frees the memory the graph holds outside the heap.  The graph
+     * must not be used afterwards; most methods throw an
+     * IllegalStateException if it is.  Closing a closed graph does
+     * nothing.
+     */
+    @Override
+    public void close()
+    {
+        if (records == null) {
+            return;
+        }
+        records.close();
+        lists.close();
+        records = null;
+        lists = null;
+        ids.clear();
+        vertices.clear();
+        edges = 0;
+    }
+
+    //Returns the length of the shortest path, or -1 if there is none
+    private int search(V from, V to)
+    {
+        int f = idOf(from);
+        int t = idOf(to);
+        if (f < 0 || t < 0) {
+            return -1;
+        }
+        return BreadthFirstSearch.forThread().search(indexed, f, t, false);
+    }
+}
@@ -0,0 +1,133 @@
+package edu.union.adt.graph;
+import java.lang.reflect.*;
+import java.nio.*;
+import java.util.*;
+
+/**
+ * A growable array of ints kept outside the Java heap, in direct
+ * ByteBuffers of up to 64MB each, so that it can hold more than 2^31 ints
+ * and the garbage collector never scans or copies it.  Pages are
+ * allocated as the array grows and are zeroed when allocated.
+ *
+ * close() frees the pages at once where the JVM allows it, and
+ * otherwise leaves them to be freed when the buffers are collected.
+ * The array must not be used after it is closed.
+ */
+final class OffHeapInts
+{
+    private static final int PAGE_SHIFT = 24;
+    private static final int PAGE_INTS = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_INTS - 1;
+
+    private ByteBuffer[] pages = new ByteBuffer[0];
+    private long capacity;
+
+    /**
+     * Makes sure indexes 0 to 'size' - 1 can be used.  Only the last
+     * page may be smaller than 64MB; it is replaced by a copy twice as
+     * large when it fills up, so small arrays stay small.
+     */
+    void ensureCapacity(long size)
+    {
+        if (pages == null) {
+            throw new IllegalStateException("closed");
+        }
+        while (capacity < size) {
+            int last = pages.length - 1;
+            long start = (long) last << PAGE_SHIFT;
+            if (last >= 0 && pages[last].capacity() < PAGE_INTS * 4) {
+                int ints = (int) Math.min(PAGE_INTS, Math.max(2L * (capacity - start), size - start));
+                ByteBuffer page = allocate(ints);
+                ByteBuffer old = pages[last].duplicate();
+                old.clear();
+                page.put(old);
+                page.clear();
+                free(pages[last]);
+                pages[last] = page;
+                capacity = start + ints;
+            }
+            else {
+                start += PAGE_INTS;
+                int ints = (int) Math.min(PAGE_INTS, Math.max(1024, size - start));
+                pages = Arrays.copyOf(pages, last + 2);
+                pages[last + 1] = allocate(ints);
+                capacity = start + ints;
+            }
+        }
+    }
+
+    private static ByteBuffer allocate(int ints)
+    {
+        return ByteBuffer.allocateDirect(ints * 4).order(ByteOrder.nativeOrder());
+    }
+
+    int get(long index)
+    {
+        return pages[(int) (index >>> PAGE_SHIFT)].getInt(((int) index & PAGE_MASK) << 2);
+    }
+
+    void set(long index, int value)
+    {
+        pages[(int) (index >>> PAGE_SHIFT)].putInt(((int) index & PAGE_MASK) << 2, value);
+    }
+
+    /**
+     * Copies 'count' ints from 'from' to a place that does not overlap
+     * them.
+     */
+    void copy(long from, long to, int count)
+    {
+        for (int i = 0; i < count; i++) {
+            set(to + i, get(from + i));
+        }
+    }
+
+    /**
+     * @return the number of bytes allocated outside the heap.
+     */
+    long bytes()
+    {
+        return capacity * 4;
+    }
+
+    void close()
+    {
+        ByteBuffer[] old = pages;
+        pages = null;
+        capacity = 0;
+        if (old != null) {
+            for (ByteBuffer page : old) {
+                free(page);
+            }
+        }
+    }
+
+    //Frees a direct buffer now if the JVM lets us: through
+    //Unsafe.invokeCleaner from Java 9 on, or the buffer's Cleaner on
+    //Java 8.  If neither works the buffer is freed when it is collected.
+    private static void free(ByteBuffer buffer)
+    {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            invokeCleaner.invoke(field.get(null), buffer);
+            return;
+        }
+        catch (ReflectiveOperationException | RuntimeException e) {
+            // not Java 9 or later
+        }
+        try {
+            Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+            cleanerMethod.setAccessible(true);
+            Object cleaner = cleanerMethod.invoke(buffer);
+            if (cleaner != null) {
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            }
+        }
+        catch (ReflectiveOperationException | RuntimeException e) {
+            // left to the garbage collector
+        }
+    }
+}
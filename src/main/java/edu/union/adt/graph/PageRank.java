@@ -0,0 +1,315 @@
+package edu.union.adt.graph;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * PageRank, and personalized PageRank, over a read-only snapshot of a
+ * graph.  The graph is frozen into a CsrGraph (see GraphFactory.freeze)
+ * when the PageRank is made, so later changes to it are not seen, and
+ * one PageRank can be run many times with different settings or
+ * preferences.
+ *
+ * Each iteration is pull-based: every vertex sums what its
+ * predecessors send it, read from the CsrGraph's in-edge arrays, so no
+ * two threads ever write the same rank and no locks or atomic updates
+ * are needed.  The vertices are split into ranges across the threads
+ * of a ForkJoinPool.  The ranks of one iteration are read from one
+ * double[] while the next iteration's are written to another, and the
+ * two swap roles.  The rank of a vertex with no edges out is spread
+ * over the graph as the random jump is: evenly, or by the preference.
+ * The iterations stop when the ranks change by less than the tolerance
+ * in total, or after the maximum number of iterations.
+ */
+public final class PageRank<V>
+{
+    /**
+     * The default probability of following an edge rather than
+     * jumping.
+     */
+    public static final double DEFAULT_DAMPING = 0.85;
+
+    /**
+     * The default bound on the total change in rank, summed over all
+     * vertices, below which the ranks have converged.
+     */
+    public static final double DEFAULT_TOLERANCE = 1e-9;
+
+    /**
+     * The default limit on the number of iterations.
+     */
+    public static final int DEFAULT_MAX_ITERATIONS = 100;
+
+    // the most vertices one task handles without splitting
+    private static final int GRAIN = 2048;
+
+    private final CsrGraph<V> graph;
+    private final IndexedGraph indexed;
+    private final int n;
+    private double damping = DEFAULT_DAMPING;
+    private double tolerance = DEFAULT_TOLERANCE;
+    private int maxIterations = DEFAULT_MAX_ITERATIONS;
+
+    /**
+     * Prepare to rank the vertices of a graph as it is now.
+     *
+     * @param graph the graph to rank
+     */
+    public PageRank(Graph<V> graph)
+    {
+        if (graph == null) {
+            throw new IllegalArgumentException();
+        }
+        this.graph = GraphFactory.freeze(graph);
+        this.indexed = this.graph.indexed();
+        // the pull reads the in-edge arrays from many threads, so they
+        // are built here, once, before any thread starts
+        this.graph.buildPredecessors();
+        this.n = indexed.idLimit();
+    }
+
+    /**
+     * @param damping the probability of following an edge rather than
+     * jumping, from 0 (inclusive) to 1 (exclusive)
+     */
+    public void setDamping(double damping)
+    {
+        if (!(damping >= 0 && damping < 1)) {
+            throw new IllegalArgumentException();
+        }
+        this.damping = damping;
+    }
+
+    /**
+     * @param tolerance the total change in rank below which the ranks
+     * have converged
+     */
+    public void setTolerance(double tolerance)
+    {
+        if (!(tolerance >= 0)) {
+            throw new IllegalArgumentException();
+        }
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * @param maxIterations the most iterations to run; at least 1
+     */
+    public void setMaxIterations(int maxIterations)
+    {
+        if (maxIterations < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Ranks the vertices on the common ForkJoinPool.
+     *
+     * @return the ranks
+     */
+    public RankResult<V> run()
+    {
+        return run(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Ranks the vertices, jumping to every vertex with the same
+     * probability.
+     *
+     * @param pool the pool whose threads run the iterations
+     * @return the ranks
+     */
+    public RankResult<V> run(ForkJoinPool pool)
+    {
+        return iterate(null, pool);
+    }
+
+    /**
+     * Ranks the vertices by how likely they are to be reached from one
+     * vertex, on the common ForkJoinPool.
+     *
+     * @param source the vertex every jump goes to
+     * @return the ranks
+     */
+    public RankResult<V> personalized(V source)
+    {
+        return personalized(Collections.singletonMap(source, 1.0), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Ranks the vertices with personalized PageRank: every jump goes
+     * to one of the preferred vertices, chosen in proportion to its
+     * weight.
+     *
+     * @param preference a weight for each preferred vertex; the weights
+     * must not be negative, and at least one must be positive
+     * @param pool the pool whose threads run the iterations
+     * @return the ranks
+     * @throws IllegalArgumentException if a preferred vertex is not
+     * in the graph, or the weights are not as described
+     */
+    public RankResult<V> personalized(Map<V, Double> preference, ForkJoinPool pool)
+    {
+        if (preference == null) {
+            throw new IllegalArgumentException();
+        }
+        double[] jump = new double[n];
+        double total = 0;
+        for (Map.Entry<V, Double> entry : preference.entrySet()) {
+            int id = graph.idOf(entry.getKey());
+            Double weight = entry.getValue();
+            if (id < 0 || weight == null || !(weight >= 0) || weight.isInfinite()) {
+                throw new IllegalArgumentException("Bad preference " + entry);
+            }
+            jump[id] += weight;
+            total += weight;
+        }
+        if (!(total > 0)) {
+            throw new IllegalArgumentException("No positive preference");
+        }
+        for (int id = 0; id < n; id++) {
+            jump[id] /= total;
+        }
+        return iterate(jump, pool);
+    }
+
+    //Runs the iterations; 'jump' is where jumps go, or null for everywhere
+    private RankResult<V> iterate(double[] jump, ForkJoinPool pool)
+    {
+        if (pool == null) {
+            throw new IllegalArgumentException();
+        }
+        Iteration iteration = new Iteration(jump);
+        long[] nanos = new long[Math.min(maxIterations, 64)];
+        double[] residuals = new double[nanos.length];
+        int count = 0;
+        boolean converged = n == 0;
+        while (!converged && count < maxIterations) {
+            long start = System.nanoTime();
+            double residual = iteration.step(pool);
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, 2 * count);
+                residuals = Arrays.copyOf(residuals, 2 * count);
+            }
+            nanos[count] = System.nanoTime() - start;
+            residuals[count++] = residual;
+            converged = residual < tolerance;
+        }
+        return new RankResult<V>(graph, iteration.rank, converged,
+                                 Arrays.copyOf(nanos, count), Arrays.copyOf(residuals, count));
+    }
+
+    /**
+     * The state of one run: the current ranks, and what each vertex
+     * sends along each of its edges, with the arrays the next
+     * iteration writes into.
+     */
+    private final class Iteration
+    {
+        private final double[] jump;
+        private double[] rank = new double[n];
+        private double[] next = new double[n];
+        // rank / out-degree of each vertex, or 0 if it has no edges out
+        private double[] share = new double[n];
+        private double[] nextShare = new double[n];
+        // the total rank of the vertices with no edges out
+        private double dangling;
+
+        private final DoubleAdder residual = new DoubleAdder();
+        private final DoubleAdder nextDangling = new DoubleAdder();
+
+        Iteration(double[] jump)
+        {
+            this.jump = jump;
+            for (int v = 0; v < n; v++) {
+                rank[v] = jump == null ? 1.0 / n : jump[v];
+                int degree = indexed.degree(v);
+                if (degree == 0) {
+                    dangling += rank[v];
+                }
+                else {
+                    share[v] = rank[v] / degree;
+                }
+            }
+        }
+
+        //Computes the next ranks, swaps them in and returns the total change
+        double step(ForkJoinPool pool)
+        {
+            residual.reset();
+            nextDangling.reset();
+            pool.invoke(new Pull(this, 0, n, (1 - damping) + damping * dangling));
+            double[] swap = rank;
+            rank = next;
+            next = swap;
+            swap = share;
+            share = nextShare;
+            nextShare = swap;
+            dangling = nextDangling.sum();
+            return residual.sum();
+        }
+    }
+
+    /**
+     * Computes the next rank of the vertices lo .. hi - 1.
+     */
+    private final class Pull extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final Iteration iteration;
+        private final int lo;
+        private final int hi;
+        // the rank every vertex gets from jumps and dangling vertices,
+        // scaled by its share of the jumps
+        private final double base;
+
+        Pull(Iteration iteration, int lo, int hi, double base)
+        {
+            this.iteration = iteration;
+            this.lo = lo;
+            this.hi = hi;
+            this.base = base;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Pull(iteration, lo, mid, base),
+                          new Pull(iteration, mid, hi, base));
+                return;
+            }
+            double[] jump = iteration.jump;
+            double[] rank = iteration.rank;
+            double[] next = iteration.next;
+            double[] share = iteration.share;
+            double[] nextShare = iteration.nextShare;
+            double uniform = 1.0 / n;
+            double change = 0;
+            double dangling = 0;
+            for (int v = lo; v < hi; v++) {
+                double sum = 0;
+                int inDegree = indexed.inDegree(v);
+                for (int i = 0; i < inDegree; i++) {
+                    sum += share[indexed.predecessor(v, i)];
+                }
+                double x = base * (jump == null ? uniform : jump[v]) + damping * sum;
+                change += Math.abs(x - rank[v]);
+                next[v] = x;
+                int degree = indexed.degree(v);
+                if (degree == 0) {
+                    nextShare[v] = 0;
+                    dangling += x;
+                }
+                else {
+                    nextShare[v] = x / degree;
+                }
+            }
+            iteration.residual.add(change);
+            iteration.nextDangling.add(dangling);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package edu.union.adt.graph;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * A level-synchronous breadth-first search that finds the distance
+ * from one source to every vertex, spreading each level across the
+ * threads of a ForkJoinPool.
+ *
+ * The search is direction-optimizing (Beamer, Asanovic and Patterson,
+ * "Direction-Optimizing Breadth-First Search", 2012).  While the
+ * frontier is small, each level is expanded top-down: every frontier
+ * vertex claims its unvisited neighbors.  When the edges leaving the
+ * frontier outnumber a fraction of the edges left to explore, it
+ * switches to bottom-up: every unvisited vertex looks through its
+ * predecessors for one in the frontier, and stops at the first one it
+ * finds.  It switches back once the frontier shrinks again.  Bottom-up
+ * steps need the graph's predecessors; without them every level is
+ * top-down.
+ */
+final class ParallelBreadthFirstSearch
+{
+    // switch to bottom-up when frontier edges > unexplored edges / ALPHA
+    private static final int ALPHA = 14;
+    // switch back to top-down when frontier vertices < vertices / BETA
+    private static final int BETA = 24;
+    // the most vertices one task handles without splitting
+    private static final int GRAIN = 2048;
+
+    private final IndexedGraph graph;
+    private final int n;
+    private final int[] distance;
+    private final AtomicLongArray visited;
+
+    // the frontier for the next level, filled by top-down steps
+    private int[] next;
+    private final AtomicInteger nextSize = new AtomicInteger();
+    private final LongAdder found = new LongAdder();
+    private final LongAdder foundEdges = new LongAdder();
+
+    private ParallelBreadthFirstSearch(IndexedGraph graph)
+    {
+        this.graph = graph;
+        this.n = graph.idLimit();
+        this.distance = new int[n];
+        this.visited = new AtomicLongArray((n + 63) >>> 6);
+        this.next = new int[n];
+    }
+
+    /**
+     * Finds the distance from a source vertex to every vertex.
+     *
+     * @param graph the graph to search
+     * @param source the id of the source vertex
+     * @param pool the pool whose threads run the search
+     * @return the distance to each vertex id, or -1 for ids that are
+     * unreachable or not vertices
+     */
+    static int[] distances(IndexedGraph graph, int source, ForkJoinPool pool)
+    {
+        return new ParallelBreadthFirstSearch(graph).run(source, pool);
+    }
+
+    private boolean claim(int v)
+    {
+        int word = v >>> 6;
+        long bit = 1L << v;
+        long old;
+        do {
+            old = visited.get(word);
+            if ((old & bit) != 0) {
+                return false;
+            }
+        } while (!visited.compareAndSet(word, old, old | bit));
+        return true;
+    }
+
+    private int[] run(int source, ForkJoinPool pool)
+    {
+        Arrays.fill(distance, -1);
+        boolean bottomUpAllowed = graph.hasPredecessors();
+        long unexploredEdges = 0;
+        for (int v = 0; v < n; v++) {
+            if (graph.isVertex(v)) {
+                unexploredEdges += graph.degree(v);
+            }
+        }
+
+        int[] frontier = new int[] { source };
+        int frontierSize = 1;
+        long frontierEdges = graph.degree(source);
+        distance[source] = 0;
+        claim(source);
+        unexploredEdges -= frontierEdges;
+        boolean bottomUp = false;
+
+        for (int level = 0; frontierSize > 0; level++) {
+            if (!bottomUp && bottomUpAllowed && frontierEdges > unexploredEdges / ALPHA) {
+                bottomUp = true;
+            }
+            else if (bottomUp && frontierSize < n / BETA) {
+                bottomUp = false;
+                frontier = collectLevel(level);
+            }
+
+            found.reset();
+            foundEdges.reset();
+            if (bottomUp) {
+                pool.invoke(new BottomUp(0, n, level));
+            }
+            else {
+                nextSize.set(0);
+                pool.invoke(new TopDown(frontier, 0, frontierSize, level));
+                int[] swap = frontier.length == n ? frontier : new int[n];
+                frontier = next;
+                next = swap;
+            }
+            frontierSize = (int) found.sum();
+            frontierEdges = foundEdges.sum();
+            unexploredEdges -= frontierEdges;
+        }
+        return distance;
+    }
+
+    //Returns the vertices at the given distance from the source
+    private int[] collectLevel(int level)
+    {
+        int[] frontier = new int[n];
+        int size = 0;
+        for (int v = 0; v < n; v++) {
+            if (distance[v] == level) {
+                frontier[size++] = v;
+            }
+        }
+        return frontier;
+    }
+
+    /**
+     * Expands frontier[lo] .. frontier[hi - 1] into the next frontier.
+     */
+    private final class TopDown extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] frontier;
+        private final int lo;
+        private final int hi;
+        private final int level;
+
+        TopDown(int[] frontier, int lo, int hi, int level)
+        {
+            this.frontier = frontier;
+            this.lo = lo;
+            this.hi = hi;
+            this.level = level;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new TopDown(frontier, lo, mid, level),
+                          new TopDown(frontier, mid, hi, level));
+                return;
+            }
+            int[] local = new int[64];
+            int count = 0;
+            long edges = 0;
+            for (int j = lo; j < hi; j++) {
+                int v = frontier[j];
+                int degree = graph.degree(v);
+                for (int i = 0; i < degree; i++) {
+                    int w = graph.neighbor(v, i);
+                    if (distance[w] < 0 && claim(w)) {
+                        distance[w] = level + 1;
+                        edges += graph.degree(w);
+                        if (count == local.length) {
+                            local = Arrays.copyOf(local, count * 2);
+                        }
+                        local[count++] = w;
+                    }
+                }
+            }
+            if (count > 0) {
+                int at = nextSize.getAndAdd(count);
+                System.arraycopy(local, 0, next, at, count);
+                found.add(count);
+                foundEdges.add(edges);
+            }
+        }
+    }
+
+    /**
+     * Gives each unvisited vertex in lo .. hi - 1 a parent in the
+     * frontier, if it has one.
+     */
+    private final class BottomUp extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int lo;
+        private final int hi;
+        private final int level;
+
+        BottomUp(int lo, int hi, int level)
+        {
+            this.lo = lo;
+            this.hi = hi;
+            this.level = level;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new BottomUp(lo, mid, level), new BottomUp(mid, hi, level));
+                return;
+            }
+            int count = 0;
+            long edges = 0;
+            for (int v = lo; v < hi; v++) {
+                if (distance[v] >= 0 || !graph.isVertex(v)) {
+                    continue;
+                }
+                int degree = graph.inDegree(v);
+                for (int i = 0; i < degree; i++) {
+                    if (distance[graph.predecessor(v, i)] == level) {
+                        distance[v] = level + 1;
+                        claim(v);
+                        count++;
+                        edges += graph.degree(v);
+                        break;
+                    }
+                }
+            }
+            found.add(count);
+            foundEdges.add(edges);
+        }
+    }
+}
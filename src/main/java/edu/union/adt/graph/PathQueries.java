@@ -0,0 +1,205 @@
+package edu.union.adt.graph;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Answers many path-length queries at once.  Queries are grouped by
+ * source vertex, and each distinct source is searched only once: a
+ * single breadth-first search finds the distances to all of that
+ * source's destinations, stopping as soon as the last one is reached.
+ * The searches for different sources can run in parallel.
+ *
+ * The answers are exactly those of Graph.pathLength.
+ */
+public final class PathQueries
+{
+    // the fewest sources worth handing to a separate task
+    private static final int SOURCES_PER_TASK = 8;
+
+    private PathQueries()
+    {
+    }
+
+    /**
+     * Finds the length of the shortest path for each of a collection of
+     * (from, to) pairs, one source at a time on the calling thread.
+     *
+     * @param graph the graph to search
+     * @param pairs the queries; each key is a source vertex and each
+     * value a destination vertex
+     * @return the path lengths, in the order 'pairs' iterates, as
+     * Graph.pathLength would give them: Integer.MAX_VALUE for pairs
+     * with no path or with a vertex that is not in the graph.
+     */
+    public static <V> int[] pathLengths(Graph<V> graph,
+                                        Collection<? extends Map.Entry<? extends V, ? extends V>> pairs)
+    {
+        return pathLengths(graph, pairs, null);
+    }
+
+    /**
+     * Finds the length of the shortest path for each of a collection of
+     * (from, to) pairs, spreading the sources across the threads of a
+     * pool.  The graph must not be changed while the queries run.
+     *
+     * @param graph the graph to search
+     * @param pairs the queries; each key is a source vertex and each
+     * value a destination vertex
+     * @param pool the pool whose threads run the searches, or null to
+     * run them all on the calling thread
+     * @return the path lengths, in the order 'pairs' iterates
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> int[] pathLengths(Graph<V> graph,
+                                        Collection<? extends Map.Entry<? extends V, ? extends V>> pairs,
+                                        ForkJoinPool pool)
+    {
+        if (graph == null || pairs == null) {
+            throw new IllegalArgumentException();
+        }
+        IndexedGraph indexed;
+        IdLookup<V> ids;
+        if (graph instanceof HashGraph) {
+            final HashGraph<V> hash = (HashGraph<V>) graph;
+            indexed = hash.indexed();
+            ids = new IdLookup<V>() {
+                public int idOf(V vertex)
+                {
+                    return hash.idOf(vertex);
+                }
+            };
+        }
+        else {
+            final CsrGraph<V> csr = GraphFactory.freeze(graph);
+            indexed = csr.indexed();
+            ids = new IdLookup<V>() {
+                public int idOf(V vertex)
+                {
+                    return csr.idOf(vertex);
+                }
+            };
+        }
+
+        int count = pairs.size();
+        int[] sources = new int[count];
+        int[] targets = new int[count];
+        int i = 0;
+        for (Map.Entry<? extends V, ? extends V> pair : pairs) {
+            sources[i] = ids.idOf(pair.getKey());
+            targets[i] = ids.idOf(pair.getValue());
+            i++;
+        }
+
+        // order the queries by source with a counting sort, leaving out
+        // the ones with a missing vertex; one search costs as much as
+        // the count array, so this never dominates
+        int[] first = new int[indexed.idLimit() + 1];
+        int valid = 0;
+        for (i = 0; i < count; i++) {
+            if (sources[i] >= 0 && targets[i] >= 0) {
+                first[sources[i] + 1]++;
+                valid++;
+            }
+        }
+        for (int id = 1; id < first.length; id++) {
+            first[id] += first[id - 1];
+        }
+        int[] order = new int[valid];
+        for (i = 0; i < count; i++) {
+            if (sources[i] >= 0 && targets[i] >= 0) {
+                order[first[sources[i]]++] = i;
+            }
+        }
+
+        Batch batch = new Batch(indexed, valid);
+        int groups = 0;
+        for (i = 0; i < valid; i++) {
+            int q = order[i];
+            batch.targets[i] = targets[q];
+            if (i == 0 || sources[q] != batch.sources[groups - 1]) {
+                batch.sources[groups] = sources[q];
+                batch.starts[groups] = i;
+                groups++;
+            }
+        }
+        batch.starts[groups] = valid;
+
+        if (pool == null) {
+            batch.run(0, groups);
+        }
+        else {
+            pool.invoke(new SearchTask(batch, 0, groups));
+        }
+
+        int[] result = new int[count];
+        Arrays.fill(result, Integer.MAX_VALUE);
+        for (i = 0; i < valid; i++) {
+            int length = batch.lengths[i];
+            result[order[i]] = length < 0 ? Integer.MAX_VALUE : length;
+        }
+        return result;
+    }
+
+    private interface IdLookup<V>
+    {
+        int idOf(V vertex);
+    }
+
+    /**
+     * The queries, grouped by source: the destinations of group g are
+     * targets[starts[g]] .. targets[starts[g + 1] - 1].
+     */
+    private static final class Batch
+    {
+        final IndexedGraph graph;
+        final int[] sources;
+        final int[] starts;
+        final int[] targets;
+        final int[] lengths;
+
+        Batch(IndexedGraph graph, int queries)
+        {
+            this.graph = graph;
+            this.sources = new int[queries];
+            this.starts = new int[queries + 1];
+            this.targets = new int[queries];
+            this.lengths = new int[queries];
+        }
+
+        void run(int fromGroup, int toGroup)
+        {
+            BreadthFirstSearch search = BreadthFirstSearch.forThread();
+            for (int g = fromGroup; g < toGroup; g++) {
+                search.searchAll(graph, sources[g], targets, starts[g],
+                                 starts[g + 1] - starts[g], lengths);
+            }
+        }
+    }
+
+    private static final class SearchTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final Batch batch;
+        private final int lo;
+        private final int hi;
+
+        SearchTask(Batch batch, int lo, int hi)
+        {
+            this.batch = batch;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (hi - lo <= SOURCES_PER_TASK) {
+                batch.run(lo, hi);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new SearchTask(batch, lo, mid), new SearchTask(batch, mid, hi));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package edu.union.adt.graph;
+import java.util.*;
+
+/**
+ * The outcome of a path search such as Graph.aStar: the path itself,
+ * which iterates exactly as Graph.getPath's result would, along with
+ * its cost and statistics about the search that found it.
+ */
+public final class PathResult<V> implements Iterable<V>
+{
+    private final List<V> path;
+    private final double cost;
+    private final int expanded;
+
+    PathResult(List<V> path, double cost, int expanded)
+    {
+        this.path = Collections.unmodifiableList(path);
+        this.cost = cost;
+        this.expanded = expanded;
+    }
+
+    /**
+     * @return an iterator over the vertices along the path, from the
+     * source to the destination.  There are none if there is no path,
+     * or if the source is the destination.
+     */
+    @Override
+    public Iterator<V> iterator()
+    {
+        return path.iterator();
+    }
+
+    /**
+     * @return the vertices along the path, as a list.
+     */
+    public List<V> vertices()
+    {
+        return path;
+    }
+
+    /**
+     * @return true iff a path was found; a vertex has a path to
+     * itself.
+     */
+    public boolean found()
+    {
+        return cost != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @return the cost of the path: the sum of its weights on a
+     * WeightedGraph, the number of its edges on any other graph, or
+     * Double.POSITIVE_INFINITY if there is no path.
+     */
+    public double cost()
+    {
+        return cost;
+    }
+
+    /**
+     * @return the number of vertices the search expanded, that is,
+     * took from its queue and looked at the edges of.  A vertex is
+     * counted each time it is expanded.
+     */
+    public int expanded()
+    {
+        return expanded;
+    }
+
+    @Override
+    public String toString()
+    {
+        return path + " (cost " + cost + ", " + expanded + " expanded)";
+    }
+}
@@ -0,0 +1,661 @@
+package edu.union.adt.graph;
+import java.util.*;
+import java.io.IOException;
+
+/**
+ * A graph whose snapshot method is O(1).  The graph is kept in
+ * persistent (immutable, structurally shared) hash tries: a map from
+ * each vertex to its out-edges and in-edges, each of which is itself
+ * a persistent set.  A change builds a new version of the graph that
+ * shares everything but the handful of trie nodes on the path to the
+ * changed entries, and then publishes it.
+ *
+ * A snapshot is a read-only PersistentGraph over the version current
+ * when it was taken; the live graph keeps accepting changes, which
+ * never affect the snapshot.  Old versions cost nothing to keep
+ * track of: once no snapshot refers to a version, the parts it does
+ * not share with newer versions are garbage collected.
+ *
+ * Changes are serialized by the graph's lock, but reads take no
+ * locks, and every read (including each path query) sees a single
+ * version of the graph, so one thread can change the graph while
+ * others read it or its snapshots.  Vertices and adjacent vertices
+ * are returned in hash order, not insertion order.
+ *
+ * Each vertex also has a small int id, kept in its version, so that
+ * path queries can run on the shared BreadthFirstSearch (see
+ * IndexedGraph); the ids of removed vertices are reused by later
+ * versions.
+ */
+public class PersistentGraph<V> implements Graph<V>
+{
+    private volatile Version<V> current;
+    private final boolean readOnly;
+
+    // vertex ids; changed only under the lock
+    private int nextId;
+    private int[] freeIds = new int[0];
+    private int freeCount;
+
+    /**
+     * Create an empty graph.
+     */
+    public PersistentGraph()
+    {
+        this(new Version<V>(PersistentMap.<V, Adjacency<V>>empty(), 0, 0, 0), false);
+    }
+
+    private PersistentGraph(Version<V> version, boolean readOnly)
+    {
+        this.current = version;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * One version of the graph.
+     */
+    private static final class Version<V>
+    {
+        final PersistentMap<V, Adjacency<V>> vertices;
+        final int edgeCount;
+        final long number;
+        // one more than the largest vertex id in this version
+        final int idLimit;
+
+        Version(PersistentMap<V, Adjacency<V>> vertices, int edgeCount, long number, int idLimit)
+        {
+            this.vertices = vertices;
+            this.edgeCount = edgeCount;
+            this.number = number;
+            this.idLimit = idLimit;
+        }
+    }
+
+    /**
+     * The id of a vertex, the vertices it has edges to, and the
+     * vertices that have edges to it.  Each edge map holds the id of
+     * the vertex at the other end, so a search can follow an edge
+     * without looking that vertex up; a vertex's id is boxed once, and
+     * every edge to or from it shares the box.
+     */
+    private static final class Adjacency<V>
+    {
+        final Integer id;
+        final PersistentMap<V, Integer> out;
+        final PersistentMap<V, Integer> in;
+
+        Adjacency(Integer id, PersistentMap<V, Integer> out, PersistentMap<V, Integer> in)
+        {
+            this.id = id;
+            this.out = out;
+            this.in = in;
+        }
+
+        //Returns an adjacency like this one with different edges
+        Adjacency<V> with(PersistentMap<V, Integer> out, PersistentMap<V, Integer> in)
+        {
+            return new Adjacency<V>(id, out, in);
+        }
+    }
+
+    /**
+     * The IndexedGraph a path query searches: one version of the graph,
+     * seen through the ids of its vertices.  Only the vertices the
+     * search meets are given to it, in a per-thread table (like the
+     * arrays of BreadthFirstSearch), so a search allocates nothing
+     * once the tables have grown.
+     */
+    private static final class Search implements IndexedGraph
+    {
+        private static final ThreadLocal<Search> SCRATCH = new ThreadLocal<Search>() {
+            @Override
+            protected Search initialValue()
+            {
+                return new Search();
+            }
+        };
+
+        private PersistentMap<Object, Adjacency<Object>> vertices;
+        private int limit;
+        // values[id] is the vertex with id 'id' iff stamps[id] == stamp
+        private int stamp;
+        private int[] stamps = new int[0];
+        private Object[] values = new Object[0];
+        private int[] met = new int[0];
+        private int metCount;
+        // the edges of the vertex last asked for its degree, as
+        // (vertex, id) pairs, and the ids alone
+        private Object[] entries = new Object[0];
+        private int entriesUsed;
+        private int[] neighbors = new int[0];
+
+        static Search forThread()
+        {
+            return SCRATCH.get();
+        }
+
+        //Prepares for a search of 'vertices' from 'source'
+        @SuppressWarnings("unchecked")
+        void begin(PersistentMap<?, ?> vertices, int limit, Object source, int sourceId)
+        {
+            this.vertices = (PersistentMap<Object, Adjacency<Object>>) vertices;
+            this.limit = limit;
+            if (stamps.length < limit) {
+                int size = Math.max(limit, stamps.length + (stamps.length >> 1));
+                stamps = Arrays.copyOf(stamps, size);
+                values = Arrays.copyOf(values, size);
+                met = Arrays.copyOf(met, size);
+            }
+            if (++stamp == 0) {
+                Arrays.fill(stamps, 0);
+                stamp = 1;
+            }
+            meet(source, sourceId);
+        }
+
+        //Forgets the vertices met, so this thread does not keep them alive
+        void end()
+        {
+            for (int i = 0; i < metCount; i++) {
+                values[met[i]] = null;
+            }
+            metCount = 0;
+            Arrays.fill(entries, 0, entriesUsed, null);
+            entriesUsed = 0;
+            vertices = null;
+        }
+
+        private void meet(Object vertex, int id)
+        {
+            stamps[id] = stamp;
+            values[id] = vertex;
+            met[metCount++] = id;
+        }
+
+        //Returns the vertex the search met under 'id'
+        Object value(int id)
+        {
+            return stamps[id] == stamp ? values[id] : null;
+        }
+
+        public int idLimit()
+        {
+            return limit;
+        }
+
+        public boolean isVertex(int id)
+        {
+            return value(id) != null;
+        }
+
+        public int degree(int id)
+        {
+            PersistentMap<Object, Integer> out = vertices.get(values[id]).out;
+            int degree = out.size();
+            if (neighbors.length < degree) {
+                neighbors = new int[Math.max(degree, 2 * neighbors.length)];
+                entries = new Object[2 * neighbors.length];
+            }
+            out.entriesInto(entries);
+            entriesUsed = Math.max(entriesUsed, 2 * degree);
+            for (int i = 0; i < degree; i++) {
+                int next = (Integer) entries[2 * i + 1];
+                if (stamps[next] != stamp) {
+                    meet(entries[2 * i], next);
+                }
+                neighbors[i] = next;
+            }
+            return degree;
+        }
+
+        public int neighbor(int id, int index)
+        {
+            return neighbors[index];
+        }
+
+        public boolean hasPredecessors()
+        {
+            return false;
+        }
+
+        public int inDegree(int id)
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        public int predecessor(int id, int index)
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    //Returns a new vertex's adjacency, with no edges and an unused id
+    private Adjacency<V> fresh()
+    {
+        int id = freeCount > 0 ? freeIds[--freeCount] : nextId++;
+        return new Adjacency<V>(id, PersistentMap.<V, Integer>empty(), PersistentMap.<V, Integer>empty());
+    }
+
+    //Throws if this graph is a snapshot
+    private void checkWritable()
+    {
+        if (readOnly) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    //Returns the adjacency of a vertex in 'version', or null if it is
+    //not in the graph
+    private static <V> Adjacency<V> find(Version<V> version, V vertex)
+    {
+        if (vertex == null) {
+            throw new IllegalArgumentException();
+        }
+        return version.vertices.get(vertex);
+    }
+
+    /**
+     * Takes a read-only view of the graph as it is now.  This takes
+     * constant time and memory; later changes to this graph do not
+     * affect the snapshot.
+     *
+     * @return an immutable graph holding the current version
+     */
+    @Override
+    public PersistentGraph<V> snapshot()
+    {
+        return readOnly ? this : new PersistentGraph<V>(current, true);
+    }
+
+    /**
+     * @return the version of the graph this graph currently shows,
+     * which increases with every change.
+     */
+    public long version()
+    {
+        return current.number;
+    }
+
+    /**
+     * @return the number of vertices in the graph.
+     */
+    @Override
+    public int numVertices()
+    {
+        return current.vertices.size();
+    }
+
+    /**
+     * @return the number of edges in the graph.
+     */
+    @Override
+    public int numEdges()
+    {
+        return current.edgeCount;
+    }
+
+    /**
+     * Gets the number of vertices connected by edges from a given
+     * vertex.  If the given vertex is not in the graph, throws a
+     * RuntimeException.
+     *
+     * @param vertex the vertex whose degree we want.
+     * @return the degree of vertex 'vertex'
+     */
+    @Override
+    public int degree(V vertex)
+    {
+        Adjacency<V> a = find(current, vertex);
+        if (a == null) {
+            throw new RuntimeException();
+        }
+        return a.out.size();
+    }
+
+    /**
+     * Gets the number of vertices that have an edge to a given
+     * vertex.  If the given vertex is not in the graph, throws a
+     * RuntimeException.
+     *
+     * @param vertex the vertex whose in-degree we want.
+     * @return the number of edges for which 'vertex' is the destination
+     */
+    public int inDegree(V vertex)
+    {
+        Adjacency<V> a = find(current, vertex);
+        if (a == null) {
+            throw new RuntimeException();
+        }
+        return a.in.size();
+    }
+
+    /**
+     * Adds a directed edge between two vertices.  If there is already
+     * an edge between the given vertices, does nothing.  If either
+     * (or both) of the given vertices does not exist, it is added to
+     * the graph before the edge is created between them.
+     *
+     * @param from the source vertex for the added edge
+     * @param to the destination vertex for the added edge
+     */
+    @Override
+    public synchronized void addEdge(V from, V to)
+    {
+        checkWritable();
+        Version<V> version = current;
+        Adjacency<V> source = find(version, from);
+        Adjacency<V> dest = find(version, to);
+        if (source != null && source.out.containsKey(to)) {
+            return;
+        }
+        if (source == null) {
+            source = fresh();
+        }
+        PersistentMap<V, Adjacency<V>> vertices;
+        if (from.equals(to)) {
+            vertices = version.vertices.plus(from, source.with(source.out.plus(to, source.id),
+                                                               source.in.plus(from, source.id)));
+        }
+        else {
+            if (dest == null) {
+                dest = fresh();
+            }
+            vertices = version.vertices
+                .plus(from, source.with(source.out.plus(to, dest.id), source.in))
+                .plus(to, dest.with(dest.out, dest.in.plus(from, source.id)));
+        }
+        current = new Version<V>(vertices, version.edgeCount + 1, version.number + 1, nextId);
+    }
+
+    /**
+     * Adds a vertex to the graph.  If the vertex already exists in
+     * the graph, does nothing.  If the vertex does not exist, it is
+     * added to the graph, with no edges connected to it.
+     *
+     * @param vertex the vertex to add
+     */
+    @Override
+    public synchronized void addVertex(V vertex)
+    {
+        checkWritable();
+        Version<V> version = current;
+        if (find(version, vertex) == null) {
+            current = new Version<V>(version.vertices.plus(vertex, fresh()),
+                                     version.edgeCount, version.number + 1, nextId);
+        }
+    }
+
+    /**
+     * @return an iterable collection for the set of vertices of the
+     * graph, as they were when this method was called.
+     */
+    @Override
+    public Iterable<V> getVertices()
+    {
+        return current.vertices.keys();
+    }
+
+    /**
+     * Gets the vertices adjacent to a given vertex, as they were when
+     * this method was called.  Later changes to the graph do not
+     * affect the returned collection.
+     *
+     * @param from the source vertex
+     * @return an iterable collection for the set of vertices that are
+     * the destinations of edges for which 'from' is the source
+     * vertex.  If 'from' is not a vertex in the graph, returns an
+     * empty iterator.
+     */
+    @Override
+    public Iterable<V> adjacentTo(V from)
+    {
+        Adjacency<V> a = find(current, from);
+        return a == null ? Collections.<V>emptySet() : a.out.keys();
+    }
+
+    /**
+     * Gets the vertices that have an edge to a given vertex, as they
+     * were when this method was called.
+     *
+     * @param to the destination vertex
+     * @return an iterable collection for the set of vertices that are
+     * the sources of edges for which 'to' is the destination vertex.
+     * If 'to' is not a vertex in the graph, returns an empty iterator.
+     */
+    public Iterable<V> predecessors(V to)
+    {
+        Adjacency<V> a = find(current, to);
+        return a == null ? Collections.<V>emptySet() : a.in.keys();
+    }
+
+    /**
+     * Tells whether or not a vertex is in the graph.
+     *
+     * @param vertex a vertex
+     * @return true iff 'vertex' is a vertex in the graph.
+     */
+    @Override
+    public boolean contains(V vertex)
+    {
+        return find(current, vertex) != null;
+    }
+
+    /**
+     * Tells whether an edge exists in the graph.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     *
+     * @return true iff there is an edge from the source vertex to the
+     * destination vertex in the graph.  If either of the given
+     * vertices are not vertices in the graph, then there is no edge
+     * between them.
+     */
+    @Override
+    public boolean hasEdge(V from, V to)
+    {
+        if (to == null) {
+            throw new IllegalArgumentException();
+        }
+        Adjacency<V> a = find(current, from);
+        return a != null && a.out.containsKey(to);
+    }
+
+    /**
+     * Gives a string representation of the graph, one line per
+     * vertex, in the format described by HashGraph.toString.
+     *
+     * @return the string representation of the graph
+     */
+    @Override
+    public String toString()
+    {
+        return GraphExport.toString(this);
+    }
+
+    /**
+     * Writes the string representation of the graph to 'out'.  A
+     * graph that can change writes a snapshot of itself, so the text
+     * shows one version even if the graph changes meanwhile.
+     *
+     * @param out where to write
+     * @throws IOException if 'out' throws one
+     */
+    @Override
+    public void writeTo(Appendable out) throws IOException
+    {
+        if (readOnly) {
+            Graph.super.writeTo(out);
+        }
+        else {
+            snapshot().writeTo(out);
+        }
+    }
+
+    /**
+     * Tells whether the graph is empty.
+     *
+     * @return true iff the graph is empty. A graph is empty if it has
+     * no vertices and no edges.
+     */
+    @Override
+    public boolean isEmpty()
+    {
+        return current.vertices.size() == 0;
+    }
+
+    /**
+     * Removes a vertex from the graph.  Also removes any edges
+     * connecting from the edge or to the edge.
+     *
+     * <p>Postconditions:
+     *
+     * <p>If toRemove was in the graph:
+     * <ul>
+     * <li>numVertices = numVertices' - 1
+     * <li>toRemove is no longer a vertex in the graph
+     * <li>for all vertices v: toRemove is not in adjacentTo(v)
+     * </ul>
+     *
+     * @param toRemove the vertex to remove.
+     */
+    @Override
+    public synchronized void removeVertex(V toRemove)
+    {
+        checkWritable();
+        Version<V> version = current;
+        Adjacency<V> removed = find(version, toRemove);
+        if (removed == null) {
+            return;
+        }
+        PersistentMap<V, Adjacency<V>> vertices = version.vertices.minus(toRemove);
+        int edges = version.edgeCount - removed.out.size();
+        for (V next : removed.out.keys()) {
+            Adjacency<V> a = vertices.get(next);
+            if (a != null) {
+                vertices = vertices.plus(next, a.with(a.out, a.in.minus(toRemove)));
+            }
+        }
+        for (V previous : removed.in.keys()) {
+            Adjacency<V> a = vertices.get(previous);
+            if (a != null) {
+                vertices = vertices.plus(previous, a.with(a.out.minus(toRemove), a.in));
+                edges--;
+            }
+        }
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, Math.max(8, freeCount * 2));
+        }
+        freeIds[freeCount++] = removed.id;
+        current = new Version<V>(vertices, edges, version.number + 1, nextId);
+    }
+
+    /**
+     * Removes an edge from the graph.
+     *
+     * <p>Postcondition: If from and to were in the graph and (from,
+     * to) was an edge in the graph, then numEdges = numEdges' - 1
+     */
+    @Override
+    public synchronized void removeEdge(V from, V to)
+    {
+        checkWritable();
+        Version<V> version = current;
+        Adjacency<V> source = find(version, from);
+        if (source == null || !source.out.containsKey(to)) {
+            return;
+        }
+        PersistentMap<V, Adjacency<V>> vertices =
+            version.vertices.plus(from, source.with(source.out.minus(to), source.in));
+        Adjacency<V> dest = vertices.get(to);
+        vertices = vertices.plus(to, dest.with(dest.out, dest.in.minus(from)));
+        current = new Version<V>(vertices, version.edgeCount - 1, version.number + 1, nextId);
+    }
+
+    /**
+     * Tells whether there is a path connecting two given vertices.  A
+     * path exists from vertex A to vertex B iff A and B are in the
+     * graph and there is a sequence of edges leading from A to B; in
+     * particular, if A is in the graph there is a path from A to A.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return true iff there is a path from 'from' to 'to' in the graph.
+     */
+    @Override
+    public boolean hasPath(V from, V to)
+    {
+        return search(from, to, null) >= 0;
+    }
+
+    /**
+     * Gets the length of the shortest path connecting two given
+     * vertices.  The length of a path is the number of edges in the
+     * path; the path from a vertex to itself has length 0.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return the length of the shortest path from 'from' to 'to' in
+     * the graph.  If there is no path, returns Integer.MAX_VALUE
+     */
+    @Override
+    public int pathLength(V from, V to)
+    {
+        int length = search(from, to, null);
+        return length < 0 ? Integer.MAX_VALUE : length;
+    }
+
+    /**
+     * Returns the vertices along the shortest path connecting two
+     * given vertices, including the source and destination.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return an Iterable collection of vertices along the shortest
+     * path from 'from' to 'to'.  If there is no path, or if from =
+     * to, returns an empty Iterable collection of vertices.
+     */
+    @Override
+    public Iterable<V> getPath(V from, V to)
+    {
+        ArrayList<V> path = new ArrayList<>();
+        if (search(from, to, path) <= 0) {
+            path.clear();
+        }
+        return path;
+    }
+
+    /**
+     * Runs a breadth-first search from 'from' to 'to' over a single
+     * version of the graph.
+     *
+     * @param path if not null, the vertices of the shortest path,
+     * including both ends, are added to it
+     * @return the length of the shortest path, or -1 if there is none
+     */
+    @SuppressWarnings("unchecked")
+    private int search(V from, V to, List<V> path)
+    {
+        Version<V> version = current;
+        Adjacency<V> source = find(version, from);
+        Adjacency<V> target = find(version, to);
+        if (source == null || target == null) {
+            return -1;
+        }
+        Search view = Search.forThread();
+        view.begin(version.vertices, version.idLimit, from, source.id);
+        try {
+            BreadthFirstSearch search = BreadthFirstSearch.forThread();
+            int length = search.search(view, source.id, target.id, false);
+            if (length >= 0 && path != null) {
+                for (int id : search.path()) {
+                    path.add((V) view.value(id));
+                }
+            }
+            return length;
+        }
+        finally {
+            view.end();
+        }
+    }
+}
@@ -0,0 +1,446 @@
+package edu.union.adt.graph;
+import java.util.*;
+
+/**
+ * An immutable hash map.  Changing it (plus, minus) returns a new map
+ * and leaves the old one as it was, but the two share all of their
+ * structure except the path to the changed entry, so a change costs
+ * O(log n) time and space rather than a copy of the map.
+ *
+ * The map is a hash array mapped trie (Bagwell, "Ideal Hash Trees",
+ * 2001).  Each trie node covers five bits of the key's hash: a bitmap
+ * says which of the 32 possible children are present, and an array
+ * holds just those children, two slots each.  A child is either an
+ * entry (key, value), or (null, subnode) for a subtrie.  Keys whose
+ * hashes are equal in every bit share a collision node, a plain list
+ * of entries.
+ *
+ * Null keys and values are not allowed.
+ */
+final class PersistentMap<K, T>
+{
+    private static final PersistentMap<?, ?> EMPTY =
+        new PersistentMap<Object, Object>(new BitmapNode(0, new Object[0]), 0);
+
+    private final BitmapNode root;
+    private final int size;
+
+    private PersistentMap(BitmapNode root, int size)
+    {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @return the empty map.
+     */
+    @SuppressWarnings("unchecked")
+    static <K, T> PersistentMap<K, T> empty()
+    {
+        return (PersistentMap<K, T>) EMPTY;
+    }
+
+    /**
+     * A trie node: the children present among the 32 that five bits
+     * of hash can select.
+     */
+    private static final class BitmapNode
+    {
+        final int bitmap;
+        final Object[] slots;
+
+        BitmapNode(int bitmap, Object[] slots)
+        {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+    }
+
+    /**
+     * The entries whose keys all have the same hash.
+     */
+    private static final class CollisionNode
+    {
+        final int hash;
+        final Object[] slots;
+
+        CollisionNode(int hash, Object[] slots)
+        {
+            this.hash = hash;
+            this.slots = slots;
+        }
+    }
+
+    private static int hash(Object key)
+    {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bit(int hash, int shift)
+    {
+        return 1 << ((hash >>> shift) & 31);
+    }
+
+    /**
+     * @return the number of entries in the map.
+     */
+    int size()
+    {
+        return size;
+    }
+
+    /**
+     * @return the value for 'key', or null if it has none.
+     */
+    @SuppressWarnings("unchecked")
+    T get(Object key)
+    {
+        int hash = hash(key);
+        Object node = root;
+        for (int shift = 0; ; shift += 5) {
+            if (node instanceof CollisionNode) {
+                CollisionNode c = (CollisionNode) node;
+                if (c.hash == hash) {
+                    for (int i = 0; i < c.slots.length; i += 2) {
+                        if (key.equals(c.slots[i])) {
+                            return (T) c.slots[i + 1];
+                        }
+                    }
+                }
+                return null;
+            }
+            BitmapNode b = (BitmapNode) node;
+            int bit = bit(hash, shift);
+            if ((b.bitmap & bit) == 0) {
+                return null;
+            }
+            int i = 2 * Integer.bitCount(b.bitmap & (bit - 1));
+            Object k = b.slots[i];
+            if (k == null) {
+                node = b.slots[i + 1];
+            }
+            else {
+                return key.equals(k) ? (T) b.slots[i + 1] : null;
+            }
+        }
+    }
+
+    /**
+     * @return true iff 'key' has a value in the map.
+     */
+    boolean containsKey(Object key)
+    {
+        return get(key) != null;
+    }
+
+    /**
+     * @return a map like this one, except that 'key' maps to 'value'.
+     * If it already did, returns this map.
+     */
+    PersistentMap<K, T> plus(K key, T value)
+    {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException();
+        }
+        int[] grew = new int[1];
+        BitmapNode changed = (BitmapNode) put(root, 0, hash(key), key, value, grew);
+        return changed == root ? this : new PersistentMap<K, T>(changed, size + grew[0]);
+    }
+
+    /**
+     * @return a map like this one, except that 'key' has no value.  If
+     * it already had none, returns this map.
+     */
+    PersistentMap<K, T> minus(Object key)
+    {
+        Object changed = remove(root, 0, hash(key), key);
+        if (changed == root) {
+            return this;
+        }
+        if (changed == null) {
+            return empty();
+        }
+        return new PersistentMap<K, T>((BitmapNode) changed, size - 1);
+    }
+
+    /**
+     * Puts an entry into the subtrie 'node', whose level looks at the
+     * hash bits from 'shift' up.  Sets grew[0] to 1 if the key is new.
+     *
+     * @return the changed subtrie, or 'node' if nothing changed
+     */
+    private static Object put(Object node, int shift, int hash, Object key, Object value,
+                              int[] grew)
+    {
+        if (node instanceof CollisionNode) {
+            CollisionNode c = (CollisionNode) node;
+            if (c.hash != hash) {
+                // push the collision node one level down, next to the new key
+                BitmapNode parent = new BitmapNode(bit(c.hash, shift), new Object[] { null, c });
+                return put(parent, shift, hash, key, value, grew);
+            }
+            for (int i = 0; i < c.slots.length; i += 2) {
+                if (key.equals(c.slots[i])) {
+                    if (c.slots[i + 1] == value) {
+                        return c;
+                    }
+                    Object[] slots = c.slots.clone();
+                    slots[i + 1] = value;
+                    return new CollisionNode(hash, slots);
+                }
+            }
+            Object[] slots = Arrays.copyOf(c.slots, c.slots.length + 2);
+            slots[c.slots.length] = key;
+            slots[c.slots.length + 1] = value;
+            grew[0] = 1;
+            return new CollisionNode(hash, slots);
+        }
+
+        BitmapNode b = (BitmapNode) node;
+        int bit = bit(hash, shift);
+        int i = 2 * Integer.bitCount(b.bitmap & (bit - 1));
+        if ((b.bitmap & bit) == 0) {
+            Object[] slots = new Object[b.slots.length + 2];
+            System.arraycopy(b.slots, 0, slots, 0, i);
+            slots[i] = key;
+            slots[i + 1] = value;
+            System.arraycopy(b.slots, i, slots, i + 2, b.slots.length - i);
+            grew[0] = 1;
+            return new BitmapNode(b.bitmap | bit, slots);
+        }
+
+        Object k = b.slots[i];
+        Object v = b.slots[i + 1];
+        Object replacement;
+        if (k == null) {
+            replacement = put(v, shift + 5, hash, key, value, grew);
+            if (replacement == v) {
+                return b;
+            }
+        }
+        else if (key.equals(k)) {
+            if (v == value) {
+                return b;
+            }
+            Object[] slots = b.slots.clone();
+            slots[i + 1] = value;
+            return new BitmapNode(b.bitmap, slots);
+        }
+        else {
+            replacement = pair(shift + 5, k, v, hash(k), key, value, hash);
+            grew[0] = 1;
+        }
+        Object[] slots = b.slots.clone();
+        slots[i] = null;
+        slots[i + 1] = replacement;
+        return new BitmapNode(b.bitmap, slots);
+    }
+
+    //Returns a subtrie at level 'shift' holding just two entries
+    private static Object pair(int shift, Object k1, Object v1, int h1,
+                               Object k2, Object v2, int h2)
+    {
+        if (h1 == h2) {
+            return new CollisionNode(h1, new Object[] { k1, v1, k2, v2 });
+        }
+        int b1 = bit(h1, shift);
+        int b2 = bit(h2, shift);
+        if (b1 == b2) {
+            return new BitmapNode(b1, new Object[] { null, pair(shift + 5, k1, v1, h1, k2, v2, h2) });
+        }
+        if (Integer.compareUnsigned(b1, b2) < 0) {
+            return new BitmapNode(b1 | b2, new Object[] { k1, v1, k2, v2 });
+        }
+        return new BitmapNode(b1 | b2, new Object[] { k2, v2, k1, v1 });
+    }
+
+    /**
+     * Removes a key from the subtrie 'node'.
+     *
+     * @return the changed subtrie, null if it became empty, or 'node'
+     * if the key was not there
+     */
+    private static Object remove(Object node, int shift, int hash, Object key)
+    {
+        if (node instanceof CollisionNode) {
+            CollisionNode c = (CollisionNode) node;
+            if (c.hash != hash) {
+                return c;
+            }
+            for (int i = 0; i < c.slots.length; i += 2) {
+                if (key.equals(c.slots[i])) {
+                    if (c.slots.length == 4) {
+                        // one entry left: hand it back as a leaf
+                        int other = 2 - i;
+                        return new BitmapNode(bit(hash, shift),
+                                              new Object[] { c.slots[other], c.slots[other + 1] });
+                    }
+                    return new CollisionNode(hash, without(c.slots, i));
+                }
+            }
+            return c;
+        }
+
+        BitmapNode b = (BitmapNode) node;
+        int bit = bit(hash, shift);
+        if ((b.bitmap & bit) == 0) {
+            return b;
+        }
+        int i = 2 * Integer.bitCount(b.bitmap & (bit - 1));
+        Object k = b.slots[i];
+        Object v = b.slots[i + 1];
+        if (k == null) {
+            Object sub = remove(v, shift + 5, hash, key);
+            if (sub == v) {
+                return b;
+            }
+            if (sub == null) {
+                return b.bitmap == bit ? null : new BitmapNode(b.bitmap ^ bit, without(b.slots, i));
+            }
+            Object[] slots = b.slots.clone();
+            BitmapNode leaf = sub instanceof BitmapNode ? (BitmapNode) sub : null;
+            if (leaf != null && leaf.slots.length == 2 && leaf.slots[0] != null) {
+                // a single entry needs no subtrie of its own
+                slots[i] = leaf.slots[0];
+                slots[i + 1] = leaf.slots[1];
+            }
+            else {
+                slots[i + 1] = sub;
+            }
+            return new BitmapNode(b.bitmap, slots);
+        }
+        if (!key.equals(k)) {
+            return b;
+        }
+        return b.bitmap == bit ? null : new BitmapNode(b.bitmap ^ bit, without(b.slots, i));
+    }
+
+    //Returns a copy of 'slots' without the entry at i
+    private static Object[] without(Object[] slots, int i)
+    {
+        Object[] copy = new Object[slots.length - 2];
+        System.arraycopy(slots, 0, copy, 0, i);
+        System.arraycopy(slots, i + 2, copy, i, slots.length - i - 2);
+        return copy;
+    }
+
+    /**
+     * @return the keys of the map, in no particular order.
+     */
+    Iterable<K> keys()
+    {
+        return new Iterable<K>() {
+            public Iterator<K> iterator()
+            {
+                return new Entries<K>(root, 0);
+            }
+        };
+    }
+
+    /**
+     * Copies the entries of the map into an array, in the same order
+     * as keys(), without allocating: the key of each entry, then its
+     * value.
+     *
+     * @param into an array with room for 2 * size() elements
+     */
+    void entriesInto(Object[] into)
+    {
+        copyEntries(root.slots, into, 0);
+    }
+
+    private static int copyEntries(Object[] slots, Object[] into, int count)
+    {
+        for (int i = 0; i < slots.length; i += 2) {
+            if (slots[i] != null) {
+                into[count++] = slots[i];
+                into[count++] = slots[i + 1];
+            }
+            else {
+                Object sub = slots[i + 1];
+                count = copyEntries(sub instanceof CollisionNode
+                                    ? ((CollisionNode) sub).slots : ((BitmapNode) sub).slots,
+                                    into, count);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the values of the map, in the same order as keys().
+     */
+    Iterable<T> values()
+    {
+        return new Iterable<T>() {
+            public Iterator<T> iterator()
+            {
+                return new Entries<T>(root, 1);
+            }
+        };
+    }
+
+    /**
+     * Walks the trie depth first, returning either the key or the
+     * value of each entry.
+     */
+    private static final class Entries<E> implements Iterator<E>
+    {
+        private final int part;
+        private Object[][] stack = new Object[8][];
+        private int[] positions = new int[8];
+        private int depth;
+
+        Entries(BitmapNode root, int part)
+        {
+            this.part = part;
+            stack[0] = root.slots;
+            advance();
+        }
+
+        //Moves to the next entry, descending into subtries as needed
+        private void advance()
+        {
+            while (depth >= 0) {
+                Object[] slots = stack[depth];
+                int i = positions[depth];
+                if (i >= slots.length) {
+                    depth--;
+                    if (depth >= 0) {
+                        positions[depth] += 2;
+                    }
+                    continue;
+                }
+                if (slots[i] != null) {
+                    return;
+                }
+                Object sub = slots[i + 1];
+                depth++;
+                if (depth == stack.length) {
+                    stack = Arrays.copyOf(stack, depth * 2);
+                    positions = Arrays.copyOf(positions, depth * 2);
+                }
+                stack[depth] = sub instanceof CollisionNode
+                    ? ((CollisionNode) sub).slots : ((BitmapNode) sub).slots;
+                positions[depth] = 0;
+            }
+        }
+
+        public boolean hasNext()
+        {
+            return depth >= 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        public E next()
+        {
+            if (depth < 0) {
+                throw new NoSuchElementException();
+            }
+            E result = (E) stack[depth][positions[depth] + part];
+            positions[depth] += 2;
+            advance();
+            return result;
+        }
+    }
+}
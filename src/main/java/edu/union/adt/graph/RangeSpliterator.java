@@ -0,0 +1,86 @@
+package edu.union.adt.graph;
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * A Spliterator over the elements at indexes from .. to - 1 of some
+ * array-like structure, which it reads through get.  It splits in
+ * half by index, so a parallel stream over it divides the work
+ * evenly, and it knows its exact size at every split.
+ *
+ * The structure must not change while the spliterator is in use.
+ */
+abstract class RangeSpliterator<T> implements Spliterator<T>
+{
+    private int next;
+    private final int end;
+    private final int characteristics;
+
+    /**
+     * @param from the first index
+     * @param to one past the last index
+     * @param characteristics characteristics besides SIZED, SUBSIZED
+     * and ORDERED, which every RangeSpliterator has
+     */
+    RangeSpliterator(int from, int to, int characteristics)
+    {
+        this.next = from;
+        this.end = to;
+        this.characteristics = characteristics | SIZED | SUBSIZED | ORDERED;
+    }
+
+    /**
+     * @return the element at an index
+     */
+    abstract T get(int index);
+
+    /**
+     * @return a spliterator over the indexes from .. to - 1 of the
+     * same structure, with the same characteristics
+     */
+    abstract RangeSpliterator<T> slice(int from, int to);
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action)
+    {
+        if (next >= end) {
+            return false;
+        }
+        action.accept(get(next++));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action)
+    {
+        int i = next;
+        next = end;
+        for (; i < end; i++) {
+            action.accept(get(i));
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit()
+    {
+        int middle = (next + end) >>> 1;
+        if (middle <= next) {
+            return null;
+        }
+        Spliterator<T> prefix = slice(next, middle);
+        next = middle;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize()
+    {
+        return end - next;
+    }
+
+    @Override
+    public int characteristics()
+    {
+        return characteristics;
+    }
+}
@@ -0,0 +1,116 @@
+package edu.union.adt.graph;
+import java.util.*;
+
+/**
+ * The outcome of a PageRank computation: the rank of every vertex,
+ * along with how the iterations went.  The ranks add up to 1.
+ */
+public final class RankResult<V>
+{
+    private final CsrGraph<V> graph;
+    private final double[] ranks;
+    private final boolean converged;
+    private final long[] iterationNanos;
+    private final double[] residuals;
+
+    RankResult(CsrGraph<V> graph, double[] ranks, boolean converged,
+               long[] iterationNanos, double[] residuals)
+    {
+        this.graph = graph;
+        this.ranks = ranks;
+        this.converged = converged;
+        this.iterationNanos = iterationNanos;
+        this.residuals = residuals;
+    }
+
+    /**
+     * @param vertex a vertex
+     * @return the rank of 'vertex', or 0 if it is not in the graph
+     */
+    public double rank(V vertex)
+    {
+        int id = graph.idOf(vertex);
+        return id < 0 ? 0 : ranks[id];
+    }
+
+    /**
+     * @return a map from every vertex to its rank.
+     */
+    public Map<V, Double> toMap()
+    {
+        HashMap<V, Double> map = new HashMap<>(ranks.length * 4 / 3 + 1);
+        for (int id = 0; id < ranks.length; id++) {
+            map.put(graph.vertex(id), ranks[id]);
+        }
+        return map;
+    }
+
+    /**
+     * @param k how many vertices to return
+     * @return the 'k' vertices of highest rank (or all of them, if
+     * there are fewer), highest first
+     */
+    public List<V> top(int k)
+    {
+        if (k < 0) {
+            throw new IllegalArgumentException();
+        }
+        k = Math.min(k, ranks.length);
+        // a min-heap of the best k ids seen so far
+        PriorityQueue<Integer> best = new PriorityQueue<>(Math.max(k, 1), new Comparator<Integer>() {
+            public int compare(Integer a, Integer b)
+            {
+                return Double.compare(ranks[a], ranks[b]);
+            }
+        });
+        for (int id = 0; id < ranks.length && k > 0; id++) {
+            if (best.size() < k) {
+                best.add(id);
+            }
+            else if (ranks[id] > ranks[best.peek()]) {
+                best.poll();
+                best.add(id);
+            }
+        }
+        ArrayList<V> list = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            list.add(graph.vertex(best.poll()));
+        }
+        Collections.reverse(list);
+        return list;
+    }
+
+    /**
+     * @return true iff the ranks changed by less than the tolerance in
+     * the last iteration, rather than the iterations running out.
+     */
+    public boolean converged()
+    {
+        return converged;
+    }
+
+    /**
+     * @return the number of iterations run.
+     */
+    public int iterations()
+    {
+        return iterationNanos.length;
+    }
+
+    /**
+     * @return how long each iteration took, in nanoseconds.
+     */
+    public long[] iterationNanos()
+    {
+        return iterationNanos.clone();
+    }
+
+    /**
+     * @return for each iteration, the sum over all vertices of how
+     * much their rank changed.
+     */
+    public double[] residuals()
+    {
+        return residuals.clone();
+    }
+}
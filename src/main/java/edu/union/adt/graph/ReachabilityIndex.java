@@ -0,0 +1,276 @@
+package edu.union.adt.graph;
+import java.util.*;
+
+/**
+ * An index that answers "is there a path from x to y?" in constant
+ * time.  The strongly connected components of the graph are collapsed
+ * into single nodes, and each component stores, as a bitset, the set
+ * of components it can reach.  Because components are numbered in
+ * reverse topological order (see StronglyConnectedComponents),
+ * component c can only reach components 0 to c, so its bitset has
+ * c + 1 bits and the whole index takes about C * C / 16 bytes for C
+ * components.  That makes it best suited to graphs with many cycles
+ * or fewer than a few hundred thousand components.
+ *
+ * So that a large acyclic graph (where C is close to the number of
+ * vertices) cannot exhaust the heap, the size of the bitsets is
+ * worked out before they are built.  If it is over the memory budget
+ * (see setMaxBytes), only the components are kept.  They still answer
+ * queries within one component, and queries from a lower component to
+ * a higher one, which cannot have a path; the graph has to search for
+ * the rest.  isOverBudget and searches report when that happens.
+ *
+ * The index is rebuilt lazily: changes to the graph mark it stale,
+ * and the next query rebuilds it.  Adding an edge between vertices
+ * that were already connected does not change reachability, so it
+ * leaves the index current.
+ */
+public final class ReachabilityIndex
+{
+    /**
+     * The default memory budget for the bitsets, in bytes.
+     */
+    public static final long DEFAULT_MAX_BYTES = 256L << 20;
+
+    private final IndexedGraph graph;
+    private long maxBytes = DEFAULT_MAX_BYTES;
+    private boolean overBudget;
+    private long projectedBytes;
+    private long searches;
+    private int[] component = new int[0];
+    private long[][] closure = new long[0][];
+    private int components;
+    private boolean current;
+    private int builds;
+    private long buildTimeNanos;
+
+    ReachabilityIndex(IndexedGraph graph)
+    {
+        this.graph = graph;
+    }
+
+    /**
+     * Tells whether the index can answer a query, rebuilding it first
+     * if it is stale.  If not, the caller must search the graph, and
+     * the search is counted in searches.
+     *
+     * @param from the id of the source vertex
+     * @param to the id of the destination vertex
+     * @return true iff reaches(from, to) is the answer
+     */
+    boolean decides(int from, int to)
+    {
+        if (!current) {
+            build();
+        }
+        int a = component[from];
+        int b = component[to];
+        if (!overBudget || a <= b) {
+            return true;
+        }
+        searches++;
+        return false;
+    }
+
+    /**
+     * Tells whether one vertex can reach another.  Only valid after
+     * decides(from, to) has returned true.
+     *
+     * @param from the id of the source vertex
+     * @param to the id of the destination vertex
+     * @return true iff there is a path from 'from' to 'to'
+     */
+    boolean reaches(int from, int to)
+    {
+        int a = component[from];
+        int b = component[to];
+        return a == b || (b < a && (closure[a][b >>> 6] & (1L << b)) != 0);
+    }
+
+    /**
+     * Records that edge (from, to) was added to the graph.
+     */
+    void edgeAdded(int from, int to)
+    {
+        if (current && !reaches(from, to)) {
+            current = false;
+        }
+    }
+
+    /**
+     * Records a change to the graph that may change reachability.
+     */
+    void invalidate()
+    {
+        current = false;
+    }
+
+    private void build()
+    {
+        long start = System.nanoTime();
+        int n = graph.idLimit();
+        if (component.length < n) {
+            component = new int[n];
+        }
+        components = StronglyConnectedComponents.label(graph, component);
+        projectedBytes = bytesFor(components);
+        overBudget = projectedBytes > maxBytes;
+        if (overBudget) {
+            closure = new long[0][];
+            finish(start);
+            return;
+        }
+
+        // group vertex ids by component so each component's edges can
+        // be visited together
+        int[] first = new int[components + 1];
+        for (int v = 0; v < n; v++) {
+            if (component[v] >= 0) {
+                first[component[v] + 1]++;
+            }
+        }
+        for (int c = 0; c < components; c++) {
+            first[c + 1] += first[c];
+        }
+        int[] members = new int[first[components]];
+        int[] fill = Arrays.copyOf(first, components);
+        for (int v = 0; v < n; v++) {
+            if (component[v] >= 0) {
+                members[fill[component[v]]++] = v;
+            }
+        }
+
+        closure = new long[components][];
+        for (int c = 0; c < components; c++) {
+            long[] bits = new long[(c >>> 6) + 1];
+            bits[c >>> 6] |= 1L << c;
+            for (int m = first[c]; m < first[c + 1]; m++) {
+                int v = members[m];
+                for (int i = 0; i < graph.degree(v); i++) {
+                    int d = component[graph.neighbor(v, i)];
+                    if (d != c && (bits[d >>> 6] & (1L << d)) == 0) {
+                        long[] reached = closure[d];
+                        for (int w = 0; w < reached.length; w++) {
+                            bits[w] |= reached[w];
+                        }
+                    }
+                }
+            }
+            closure[c] = bits;
+        }
+        finish(start);
+    }
+
+    private void finish(long start)
+    {
+        current = true;
+        builds++;
+        buildTimeNanos = System.nanoTime() - start;
+    }
+
+    //Returns the memory the index needs for the given number of
+    //components: a bitset of c / 64 + 1 longs for each component c
+    private long bytesFor(int components)
+    {
+        long full = components >>> 6;
+        long words = 32 * full * (full + 1) + (components & 63) * (full + 1);
+        return 4L * component.length + 8 * words + 32L * components;
+    }
+
+    /**
+     * Sets the most memory the bitsets may take.  If a build would
+     * need more, the index keeps only the components, and hasPath
+     * searches the graph for what they cannot answer.  Changing the
+     * budget makes the next query rebuild the index.
+     *
+     * @param maxBytes the memory budget, in bytes
+     */
+    public void setMaxBytes(long maxBytes)
+    {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.maxBytes = maxBytes;
+        current = false;
+    }
+
+    /**
+     * @return the memory budget for the index, in bytes.
+     */
+    public long getMaxBytes()
+    {
+        return maxBytes;
+    }
+
+    /**
+     * @return true iff the last build needed more memory than the
+     * budget, so only the components were kept.
+     */
+    public boolean isOverBudget()
+    {
+        return overBudget;
+    }
+
+    /**
+     * @return the memory the last build needed for the whole index,
+     * in bytes, whether or not it was over the budget.
+     */
+    public long projectedBytes()
+    {
+        return projectedBytes;
+    }
+
+    /**
+     * @return the number of queries the index could not answer, for
+     * which the graph searched instead.
+     */
+    public long searches()
+    {
+        return searches;
+    }
+
+    /**
+     * @return true iff the index reflects the graph as it is now.
+     */
+    public boolean isCurrent()
+    {
+        return current;
+    }
+
+    /**
+     * @return the number of strongly connected components found by the
+     * last build.
+     */
+    public int components()
+    {
+        return components;
+    }
+
+    /**
+     * @return the number of times the index has been built.
+     */
+    public int builds()
+    {
+        return builds;
+    }
+
+    /**
+     * @return how long the last build took, in nanoseconds.
+     */
+    public long buildTimeNanos()
+    {
+        return buildTimeNanos;
+    }
+
+    /**
+     * @return an estimate of the memory used by the index, in bytes.
+     */
+    public long memoryBytes()
+    {
+        long bytes = 4L * component.length;
+        for (long[] bits : closure) {
+            bytes += 32 + 8L * bits.length;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,23 @@
+package edu.union.adt.graph;
+
+/**
+ * How a graph searches for the shortest path between two vertices.
+ * Both strategies find paths of the same length.
+ */
+public enum SearchStrategy
+{
+  /**
+   * Breadth-first search outward from the source vertex.
+   */
+  FORWARD,
+
+  /**
+   * Breadth-first search from both ends at once: forward from the
+   * source and backward from the destination, always growing the
+   * smaller frontier, until the two searches meet.  On large graphs
+   * with short paths this visits far fewer vertices than a forward
+   * search.  It needs the edges into each vertex, so graphs that do
+   * not index their predecessors search forward instead.
+   */
+  BIDIRECTIONAL
+}
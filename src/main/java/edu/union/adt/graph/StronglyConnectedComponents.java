@@ -0,0 +1,321 @@
+package edu.union.adt.graph;
+import java.util.*;
+
+/**
+ * The strongly connected components of a graph: the largest sets of
+ * vertices in which every vertex has a path to every other.  They are
+ * found with Tarjan's algorithm.  The depth-first search is iterative,
+ * driven by int arrays instead of the call stack, so deep graphs
+ * cannot overflow the stack.  It runs in time proportional to the size
+ * of the graph.
+ *
+ * Components are numbered in the order Tarjan's algorithm completes
+ * them, which is a reverse topological order: if there is an edge
+ * from component a to a different component b, then b &lt; a.
+ *
+ * HashGraph, CsrGraph and HashWeightedGraph are searched through
+ * their vertex ids directly; any other graph is first copied into a
+ * CsrGraph.  The result describes the graph as it was when it was
+ * analyzed: later changes to the graph are not reflected, and a
+ * vertex added since is in no component.
+ */
+public final class StronglyConnectedComponents<V>
+{
+    /**
+     * Maps the vertices of the analyzed graph to the ids its
+     * IndexedGraph numbers them by.
+     */
+    private interface Ids<V>
+    {
+        int idOf(V vertex);
+    }
+
+    private final Ids<V> ids;
+    // the vertex with each id, or null for ids that were not vertices
+    private final Object[] vertices;
+    // the component of each id, or -1
+    private final int[] component;
+    private final int count;
+    // the ids in component c are members[first[c]] .. members[first[c + 1] - 1]
+    private final int[] first;
+    private final int[] members;
+    private final CsrGraph<Integer> condensation;
+
+    private StronglyConnectedComponents(IndexedGraph graph, Ids<V> ids, Object[] vertices)
+    {
+        int n = graph.idLimit();
+        this.ids = ids;
+        this.vertices = vertices;
+        component = new int[n];
+        count = label(graph, component);
+
+        first = new int[count + 1];
+        for (int v = 0; v < n; v++) {
+            if (component[v] >= 0) {
+                first[component[v] + 1]++;
+            }
+        }
+        for (int c = 0; c < count; c++) {
+            first[c + 1] += first[c];
+        }
+        members = new int[first[count]];
+        int[] fill = Arrays.copyOf(first, count);
+        for (int v = 0; v < n; v++) {
+            if (component[v] >= 0) {
+                members[fill[component[v]]++] = v;
+            }
+        }
+
+        condensation = condense(graph);
+    }
+
+    /**
+     * Finds the strongly connected components of a graph.
+     *
+     * @param graph the graph to analyze
+     * @return the components of 'graph' as it is now
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> StronglyConnectedComponents<V> of(Graph<V> graph)
+    {
+        if (graph == null) {
+            throw new IllegalArgumentException();
+        }
+        if (graph instanceof HashGraph) {
+            final HashGraph<V> hash = (HashGraph<V>) graph;
+            IndexedGraph indexed = hash.indexed();
+            Object[] vertices = new Object[indexed.idLimit()];
+            for (int id = 0; id < vertices.length; id++) {
+                if (indexed.isVertex(id)) {
+                    vertices[id] = hash.vertex(id);
+                }
+            }
+            return new StronglyConnectedComponents<V>(indexed, new Ids<V>() {
+                public int idOf(V vertex)
+                {
+                    return hash.idOf(vertex);
+                }
+            }, vertices);
+        }
+        if (graph instanceof HashWeightedGraph) {
+            final HashWeightedGraph<V> weighted = (HashWeightedGraph<V>) graph;
+            IndexedGraph indexed = weighted.indexed();
+            Object[] vertices = new Object[indexed.idLimit()];
+            for (int id = 0; id < vertices.length; id++) {
+                if (indexed.isVertex(id)) {
+                    vertices[id] = weighted.vertex(id);
+                }
+            }
+            return new StronglyConnectedComponents<V>(indexed, new Ids<V>() {
+                public int idOf(V vertex)
+                {
+                    return weighted.idOf(vertex);
+                }
+            }, vertices);
+        }
+        final CsrGraph<V> csr =
+            graph instanceof CsrGraph ? (CsrGraph<V>) graph : new CsrGraph<V>(graph);
+        IndexedGraph indexed = csr.indexed();
+        Object[] vertices = new Object[indexed.idLimit()];
+        for (int id = 0; id < vertices.length; id++) {
+            vertices[id] = csr.vertex(id);
+        }
+        return new StronglyConnectedComponents<V>(indexed, new Ids<V>() {
+            public int idOf(V vertex)
+            {
+                return csr.idOf(vertex);
+            }
+        }, vertices);
+    }
+
+    /**
+     * @return the number of components.
+     */
+    public int count()
+    {
+        return count;
+    }
+
+    /**
+     * Gets the component a vertex is in.
+     *
+     * @param vertex a vertex
+     * @return the number of the component, from 0 to count() - 1, or
+     * -1 if 'vertex' was not in the graph
+     */
+    public int componentOf(V vertex)
+    {
+        if (vertex == null) {
+            throw new IllegalArgumentException();
+        }
+        int id = ids.idOf(vertex);
+        if (id < 0 || id >= vertices.length || vertices[id] == null
+            || !vertices[id].equals(vertex)) {
+            return -1;
+        }
+        return component[id];
+    }
+
+    /**
+     * Tells whether two vertices are in the same component, that is,
+     * whether each has a path to the other.
+     *
+     * @param u a vertex
+     * @param v a vertex
+     * @return true iff both vertices were in the graph and in the same
+     * component
+     */
+    public boolean connected(V u, V v)
+    {
+        int c = componentOf(u);
+        return c >= 0 && c == componentOf(v);
+    }
+
+    /**
+     * @param c the number of a component
+     * @return the number of vertices in component 'c'
+     */
+    public int size(int c)
+    {
+        check(c);
+        return first[c + 1] - first[c];
+    }
+
+    /**
+     * @param c the number of a component
+     * @return the vertices in component 'c', in no particular order
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> members(int c)
+    {
+        check(c);
+        ArrayList<V> list = new ArrayList<>(first[c + 1] - first[c]);
+        for (int m = first[c]; m < first[c + 1]; m++) {
+            list.add((V) vertices[members[m]]);
+        }
+        return list;
+    }
+
+    /**
+     * Gets the condensation of the graph: the graph with one vertex
+     * per component, numbered as the components are, and an edge from
+     * component a to component b whenever a != b and the graph has an
+     * edge from a vertex in a to a vertex in b.  The condensation has
+     * no cycles, and each of its edges goes from a higher number to a
+     * lower one.
+     *
+     * @return the condensation, a read-only CsrGraph
+     */
+    public Graph<Integer> condensation()
+    {
+        return condensation;
+    }
+
+    private void check(int c)
+    {
+        if (c < 0 || c >= count) {
+            throw new IndexOutOfBoundsException("No component " + c);
+        }
+    }
+
+    //Builds the condensation, with each pair of components joined at most once
+    private CsrGraph<Integer> condense(IndexedGraph graph)
+    {
+        int[] offsets = new int[count + 1];
+        int[] targets = new int[16];
+        int edges = 0;
+        // the last component that recorded an edge to each component
+        int[] seen = new int[count];
+        Arrays.fill(seen, -1);
+        for (int c = 0; c < count; c++) {
+            for (int m = first[c]; m < first[c + 1]; m++) {
+                int v = members[m];
+                int degree = graph.degree(v);
+                for (int i = 0; i < degree; i++) {
+                    int d = component[graph.neighbor(v, i)];
+                    if (d != c && seen[d] != c) {
+                        seen[d] = c;
+                        if (edges == targets.length) {
+                            targets = Arrays.copyOf(targets, 2 * edges);
+                        }
+                        targets[edges++] = d;
+                    }
+                }
+            }
+            offsets[c + 1] = edges;
+        }
+        Object[] numbers = new Object[count];
+        for (int c = 0; c < count; c++) {
+            numbers[c] = c;
+        }
+        return new CsrGraph<Integer>(numbers, offsets, Arrays.copyOf(targets, edges));
+    }
+
+    /**
+     * Labels every vertex with its component.
+     *
+     * @param graph the graph to analyze
+     * @param component filled with the component of each vertex id,
+     * or -1 for ids that are not vertices; must have at least
+     * graph.idLimit() elements
+     * @return the number of components
+     */
+    static int label(IndexedGraph graph, int[] component)
+    {
+        int n = graph.idLimit();
+        int[] index = new int[n];
+        int[] low = new int[n];
+        int[] nextEdge = new int[n];
+        int[] stack = new int[n];
+        int[] calls = new int[n];
+        int stackSize = 0;
+        int callDepth = 0;
+        int counter = 0;
+        int components = 0;
+        Arrays.fill(component, 0, n, -1);
+
+        for (int root = 0; root < n; root++) {
+            if (index[root] != 0 || !graph.isVertex(root)) {
+                continue;
+            }
+            index[root] = low[root] = ++counter;
+            nextEdge[root] = 0;
+            stack[stackSize++] = root;
+            calls[callDepth++] = root;
+
+            while (callDepth > 0) {
+                int v = calls[callDepth - 1];
+                if (nextEdge[v] < graph.degree(v)) {
+                    int w = graph.neighbor(v, nextEdge[v]++);
+                    if (index[w] == 0) {
+                        index[w] = low[w] = ++counter;
+                        nextEdge[w] = 0;
+                        stack[stackSize++] = w;
+                        calls[callDepth++] = w;
+                    }
+                    else if (component[w] < 0 && index[w] < low[v]) {
+                        low[v] = index[w];
+                    }
+                    continue;
+                }
+
+                callDepth--;
+                if (low[v] == index[v]) {
+                    int w;
+                    do {
+                        w = stack[--stackSize];
+                        component[w] = components;
+                    } while (w != v);
+                    components++;
+                }
+                if (callDepth > 0) {
+                    int parent = calls[callDepth - 1];
+                    if (low[v] < low[parent]) {
+                        low[parent] = low[v];
+                    }
+                }
+            }
+        }
+        return components;
+    }
+}
@@ -0,0 +1,685 @@
+package edu.union.adt.graph;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * A graph whose edges are undirected: an edge joins two vertices both
+ * ways, so addEdge(u, v) makes u adjacent to v and v adjacent to u,
+ * and hasEdge(u, v) == hasEdge(v, u).  Each edge is stored once, as
+ * an entry in the adjacency set of each of its ends, and counted once
+ * by numEdges; simulating it in a directed graph takes two edges, and
+ * in a HashGraph that indexes predecessors, four entries.  A loop (an
+ * edge from a vertex to itself) is one entry.
+ *
+ * Vertices are numbered by small int ids, as in HashGraph, and the
+ * path methods run the same breadth-first search over them.  Because
+ * the neighbors of a vertex are also its predecessors, searches are
+ * always bidirectional.
+ *
+ * The graph can keep a connectivity index, a ConcurrentUnionFind of
+ * its vertex ids, under which connected and hasPath take nearly
+ * constant time.  Adding an edge joins two sets in the index at once.
+ * Removing an edge or a vertex may split a set, which a union-find
+ * cannot do, so it marks the index stale; the next query rebuilds it,
+ * joining the ends of every edge in parallel on the common
+ * ForkJoinPool.  This class is not thread-safe.
+ */
+public class UndirectedGraph<V> implements Graph<V>
+{
+    // the most vertices one task handles without splitting
+    private static final int GRAIN = 2048;
+
+    private final HashMap<V, Vertex<V>> graph = new HashMap<>();
+    private final int hashThreshold;
+    private int edgeCount;
+
+    // vertex records by id; ids of removed vertices are reused
+    private final ArrayList<Vertex<V>> byId = new ArrayList<>();
+    private int[] freeIds = new int[0];
+    private int freeCount;
+
+    // null unless the graph keeps a connectivity index
+    private ConcurrentUnionFind components;
+    private boolean componentsCurrent;
+    private int componentBuilds;
+
+    private final IndexedGraph indexed = new IndexedGraph() {
+        public int idLimit()
+        {
+            return byId.size();
+        }
+
+        public boolean isVertex(int id)
+        {
+            return byId.get(id) != null;
+        }
+
+        public int degree(int id)
+        {
+            return byId.get(id).adjacent.size();
+        }
+
+        public int neighbor(int id, int index)
+        {
+            return byId.get(id).adjacent.get(index).id;
+        }
+
+        public boolean hasPredecessors()
+        {
+            return true;
+        }
+
+        public int inDegree(int id)
+        {
+            return degree(id);
+        }
+
+        public int predecessor(int id, int index)
+        {
+            return neighbor(id, index);
+        }
+    };
+
+    /**
+     * Create an empty graph.
+     */
+    public UndirectedGraph()
+    {
+        this(HashGraph.DEFAULT_HASH_THRESHOLD);
+    }
+
+    /**
+     * Create an empty graph.  The neighbors of a vertex are kept in a
+     * compact array; once there are more than 'hashThreshold' of them,
+     * they are also indexed by a hash table.
+     *
+     * @param hashThreshold the degree above which neighbors are hashed
+     */
+    public UndirectedGraph(int hashThreshold)
+    {
+        if (hashThreshold < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.hashThreshold = hashThreshold;
+    }
+
+    /**
+     * A vertex of the graph, with its id and its neighbors.  Vertex
+     * records are compared by identity.
+     */
+    private static final class Vertex<V>
+    {
+        final V value;
+        final int id;
+        final AdjacencySet<Vertex<V>> adjacent;
+
+        Vertex(V value, int id, int hashThreshold)
+        {
+            this.value = value;
+            this.id = id;
+            this.adjacent = new AdjacencySet<>(hashThreshold);
+        }
+    }
+
+    /**
+     * A read-only view of a vertex's neighbors.
+     */
+    private final class NeighborView extends AbstractSet<V>
+    {
+        private final AdjacencySet<Vertex<V>> neighbors;
+
+        NeighborView(AdjacencySet<Vertex<V>> neighbors)
+        {
+            this.neighbors = neighbors;
+        }
+
+        @Override
+        public int size()
+        {
+            return neighbors.size();
+        }
+
+        @Override
+        public boolean contains(Object o)
+        {
+            Vertex<V> vertex = graph.get(o);
+            return vertex != null && neighbors.contains(vertex);
+        }
+
+        @Override
+        public Iterator<V> iterator()
+        {
+            return new Iterator<V>() {
+                private int next = 0;
+
+                public boolean hasNext()
+                {
+                    return next < neighbors.size();
+                }
+
+                public V next()
+                {
+                    if (next >= neighbors.size()) {
+                        throw new NoSuchElementException();
+                    }
+                    return neighbors.get(next++).value;
+                }
+            };
+        }
+
+        @Override
+        public Spliterator<V> spliterator()
+        {
+            return new NeighborSpliterator(neighbors, 0, neighbors.size());
+        }
+    }
+
+    /**
+     * Splits a NeighborView by index, for parallel streams.
+     */
+    private final class NeighborSpliterator extends RangeSpliterator<V>
+    {
+        private final AdjacencySet<Vertex<V>> neighbors;
+
+        NeighborSpliterator(AdjacencySet<Vertex<V>> neighbors, int from, int to)
+        {
+            super(from, to, Spliterator.DISTINCT | Spliterator.NONNULL);
+            this.neighbors = neighbors;
+        }
+
+        @Override
+        V get(int index)
+        {
+            return neighbors.get(index).value;
+        }
+
+        @Override
+        RangeSpliterator<V> slice(int from, int to)
+        {
+            return new NeighborSpliterator(neighbors, from, to);
+        }
+    }
+
+    //Returns the record for a vertex, adding the vertex if it is missing
+    private Vertex<V> vertexFor(V vertex)
+    {
+        Vertex<V> v = graph.get(vertex);
+        if (v == null) {
+            if (freeCount > 0) {
+                v = new Vertex<>(vertex, freeIds[--freeCount], hashThreshold);
+                byId.set(v.id, v);
+            }
+            else {
+                v = new Vertex<>(vertex, byId.size(), hashThreshold);
+                byId.add(v);
+                if (components != null && componentsCurrent
+                    && v.id >= components.capacity()) {
+                    components = new ConcurrentUnionFind(components, 2 * byId.size());
+                }
+            }
+            graph.put(vertex, v);
+        }
+        return v;
+    }
+
+    //Returns the record for a vertex, which must not be null
+    private Vertex<V> lookup(V vertex)
+    {
+        if (vertex == null) {
+            throw new IllegalArgumentException();
+        }
+        return graph.get(vertex);
+    }
+
+    /**
+     * @return the number of vertices in the graph.
+     */
+    @Override
+    public int numVertices()
+    {
+        return graph.size();
+    }
+
+    /**
+     * @return the number of edges in the graph, counting each
+     * undirected edge once.
+     */
+    @Override
+    public int numEdges()
+    {
+        return edgeCount;
+    }
+
+    /**
+     * Gets the number of neighbors of a vertex.  If the given vertex
+     * is not in the graph, throws a RuntimeException.
+     *
+     * @param vertex the vertex whose degree we want.
+     * @return the number of vertices joined to 'vertex' by an edge
+     */
+    @Override
+    public int degree(V vertex)
+    {
+        Vertex<V> v = lookup(vertex);
+        if (v == null) {
+            throw new RuntimeException();
+        }
+        return v.adjacent.size();
+    }
+
+    /**
+     * Adds an undirected edge between two vertices.  If there is
+     * already an edge between them, does nothing.  If either (or
+     * both) of the given vertices does not exist, it is added to the
+     * graph before the edge is created between them.
+     *
+     * @param from one end of the edge
+     * @param to the other end of the edge
+     */
+    @Override
+    public void addEdge(V from, V to)
+    {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException();
+        }
+        Vertex<V> u = vertexFor(from);
+        Vertex<V> v = vertexFor(to);
+        if (u.adjacent.add(v)) {
+            if (u != v) {
+                v.adjacent.add(u);
+            }
+            edgeCount++;
+            if (components != null && componentsCurrent) {
+                components.union(u.id, v.id);
+            }
+        }
+    }
+
+    /**
+     * Adds a vertex to the graph.  If the vertex already exists in
+     * the graph, does nothing.  If the vertex does not exist, it is
+     * added to the graph, with no edges connected to it.
+     *
+     * @param vertex the vertex to add
+     */
+    @Override
+    public void addVertex(V vertex)
+    {
+        if (vertex == null) {
+            throw new IllegalArgumentException();
+        }
+        vertexFor(vertex);
+    }
+
+    /**
+     * @return a read-only view of the set of vertices of the graph,
+     * which follows later changes to the graph.  The graph must not
+     * change while the view is being iterated.
+     */
+    @Override
+    public Iterable<V> getVertices()
+    {
+        return Collections.unmodifiableSet(graph.keySet());
+    }
+
+    /**
+     * Gets the neighbors of a vertex: the vertices joined to it by an
+     * edge.
+     *
+     * @param from the vertex
+     * @return a read-only view of the neighbors of 'from'.  If 'from'
+     * is not a vertex in the graph, returns an empty iterator.
+     */
+    @Override
+    public Iterable<V> adjacentTo(V from)
+    {
+        Vertex<V> v = lookup(from);
+        if (v == null) {
+            return Collections.<V>emptySet();
+        }
+        return new NeighborView(v.adjacent);
+    }
+
+    /**
+     * Streams the edges of the graph, each once, as pairs whose key is
+     * the end that was added to the graph first (the lower id).
+     *
+     * @return a stream of the edges of the graph
+     */
+    @Override
+    public Stream<Map.Entry<V, V>> edges()
+    {
+        return StreamSupport.stream(graph.values().spliterator(), false)
+            .flatMap(new Function<Vertex<V>, Stream<Map.Entry<V, V>>>() {
+                public Stream<Map.Entry<V, V>> apply(final Vertex<V> from)
+                {
+                    return StreamSupport.stream(from.adjacent.spliterator(), false)
+                        .filter(new Predicate<Vertex<V>>() {
+                            public boolean test(Vertex<V> to)
+                            {
+                                return to.id >= from.id;
+                            }
+                        })
+                        .map(new Function<Vertex<V>, Map.Entry<V, V>>() {
+                            public Map.Entry<V, V> apply(Vertex<V> to)
+                            {
+                                return new AbstractMap.SimpleImmutableEntry<V, V>(
+                                    from.value, to.value);
+                            }
+                        });
+                }
+            });
+    }
+
+    /**
+     * Tells whether or not a vertex is in the graph.
+     *
+     * @param vertex a vertex
+     * @return true iff 'vertex' is a vertex in the graph.
+     */
+    @Override
+    public boolean contains(V vertex)
+    {
+        return lookup(vertex) != null;
+    }
+
+    /**
+     * Tells whether an edge joins two vertices.
+     *
+     * @param from one vertex
+     * @param to another vertex
+     * @return true iff there is an edge between 'from' and 'to', in
+     * either order
+     */
+    @Override
+    public boolean hasEdge(V from, V to)
+    {
+        Vertex<V> u = lookup(from);
+        Vertex<V> v = lookup(to);
+        if (u == null || v == null) {
+            return false;
+        }
+        // look in the smaller of the two sets
+        return u.adjacent.size() <= v.adjacent.size()
+            ? u.adjacent.contains(v) : v.adjacent.contains(u);
+    }
+
+    /**
+     * Gives a string representation of the graph, in the format
+     * described by Graph.toString.  Each edge appears on the lines of
+     * both of its ends.
+     *
+     * @return the string representation of the graph
+     */
+    @Override
+    public String toString()
+    {
+        return GraphExport.toString(this);
+    }
+
+    /**
+     * Two undirected graphs are equal if they have the same vertices
+     * and the same edges.
+     */
+    @Override
+    public boolean equals(Object o)
+    {
+        if (o == this) {
+            return true;
+        }
+        if (o == null || o.getClass() != getClass()) {
+            return false;
+        }
+        return ((UndirectedGraph<?>) o).adjacencyMap().equals(adjacencyMap());
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return adjacencyMap().hashCode();
+    }
+
+    //Maps each vertex to the set of its neighbors
+    private Map<V, Set<V>> adjacencyMap()
+    {
+        HashMap<V, Set<V>> map = new HashMap<>();
+        for (Vertex<V> v : graph.values()) {
+            map.put(v.value, new NeighborView(v.adjacent));
+        }
+        return map;
+    }
+
+    /**
+     * @return true iff the graph has no vertices and no edges.
+     */
+    @Override
+    public boolean isEmpty()
+    {
+        return graph.isEmpty();
+    }
+
+    /**
+     * Removes a vertex from the graph, along with every edge that
+     * touches it.
+     *
+     * @param toRemove the vertex to remove.
+     */
+    @Override
+    public void removeVertex(V toRemove)
+    {
+        if (toRemove == null) {
+            throw new IllegalArgumentException();
+        }
+        Vertex<V> removed = graph.remove(toRemove);
+        if (removed == null) {
+            return;
+        }
+        for (Vertex<V> next : removed.adjacent) {
+            if (next != removed) {
+                next.adjacent.remove(removed);
+            }
+        }
+        edgeCount -= removed.adjacent.size();
+        byId.set(removed.id, null);
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, Math.max(8, freeCount * 2));
+        }
+        freeIds[freeCount++] = removed.id;
+        componentsCurrent = false;
+    }
+
+    /**
+     * Removes the edge between two vertices, if there is one.
+     *
+     * @param from one end of the edge
+     * @param to the other end of the edge
+     */
+    @Override
+    public void removeEdge(V from, V to)
+    {
+        Vertex<V> u = lookup(from);
+        Vertex<V> v = lookup(to);
+        if (u != null && v != null && u.adjacent.remove(v)) {
+            v.adjacent.remove(u);
+            edgeCount--;
+            componentsCurrent = false;
+        }
+    }
+
+    /**
+     * Turns the connectivity index on or off.  While it is on,
+     * connected and hasPath answer from the index instead of searching
+     * the graph.
+     *
+     * @param indexed whether to keep a connectivity index
+     */
+    public void setConnectivityIndexed(boolean indexed)
+    {
+        if (!indexed) {
+            components = null;
+        }
+        else if (components == null) {
+            components = new ConcurrentUnionFind(0);
+            componentsCurrent = false;
+        }
+    }
+
+    /**
+     * @return the number of times the connectivity index has been
+     * built from scratch, after a removal or when it was turned on.
+     */
+    public int connectivityBuilds()
+    {
+        return componentBuilds;
+    }
+
+    /**
+     * Tells whether two vertices are connected, that is, whether there
+     * is a path between them.  With the connectivity index on, this
+     * takes nearly constant time unless the index is stale.
+     *
+     * @param u a vertex
+     * @param v a vertex
+     * @return true iff both are in the graph and there is a path
+     * between them
+     */
+    public boolean connected(V u, V v)
+    {
+        Vertex<V> a = lookup(u);
+        Vertex<V> b = lookup(v);
+        if (a == null || b == null) {
+            return false;
+        }
+        if (components == null) {
+            return BreadthFirstSearch.forThread().search(indexed, a.id, b.id, true) >= 0;
+        }
+        if (!componentsCurrent) {
+            rebuildComponents();
+        }
+        return components.connected(a.id, b.id);
+    }
+
+    //Joins the ends of every edge in a fresh index, in parallel
+    private void rebuildComponents()
+    {
+        final ConcurrentUnionFind fresh = new ConcurrentUnionFind(Math.max(16, 2 * byId.size()));
+        ForkJoinPool.commonPool().invoke(new Join(fresh, 0, byId.size()));
+        components = fresh;
+        componentsCurrent = true;
+        componentBuilds++;
+    }
+
+    /**
+     * Joins, in the index, the ends of the edges of the vertices with
+     * ids lo .. hi - 1.
+     */
+    private final class Join extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final ConcurrentUnionFind index;
+        private final int lo;
+        private final int hi;
+
+        Join(ConcurrentUnionFind index, int lo, int hi)
+        {
+            this.index = index;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (hi - lo > GRAIN) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Join(index, lo, mid), new Join(index, mid, hi));
+                return;
+            }
+            for (int id = lo; id < hi; id++) {
+                Vertex<V> v = byId.get(id);
+                if (v == null) {
+                    continue;
+                }
+                for (int i = 0; i < v.adjacent.size(); i++) {
+                    int w = v.adjacent.get(i).id;
+                    if (w > id) {
+                        index.union(id, w);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Tells whether there is a path connecting two given vertices.
+     * A vertex in the graph has a path to itself.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return true iff there is a path between 'from' and 'to'.
+     */
+    @Override
+    public boolean hasPath(V from, V to)
+    {
+        return connected(from, to);
+    }
+
+    /**
+     * Gets the length of the shortest path connecting two given
+     * vertices: 0 if from = to, otherwise the fewest edges on a path
+     * between them.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return the length of the shortest path, or Integer.MAX_VALUE if
+     * there is none
+     */
+    @Override
+    public int pathLength(V from, V to)
+    {
+        int length = search(from, to);
+        return length < 0 ? Integer.MAX_VALUE : length;
+    }
+
+    /**
+     * Returns the vertices along a shortest path connecting two given
+     * vertices, from 'from' to 'to'.
+     *
+     * @param from the source vertex
+     * @param to the destination vertex
+     * @return the vertices along the path, including both ends; empty
+     * if there is no path or if from = to
+     */
+    @Override
+    public Iterable<V> getPath(V from, V to)
+    {
+        if (search(from, to) <= 0) {
+            return new ArrayList<V>();
+        }
+        int[] ids = BreadthFirstSearch.forThread().path();
+        ArrayList<V> path = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            path.add(byId.get(id).value);
+        }
+        return path;
+    }
+
+    //Returns the length of the shortest path, or -1 if there is none;
+    //getPath then reads the path from the calling thread's search
+    private int search(V from, V to)
+    {
+        Vertex<V> source = lookup(from);
+        Vertex<V> target = lookup(to);
+        if (source == null || target == null) {
+            return -1;
+        }
+        if (components != null && componentsCurrent
+            && !components.connected(source.id, target.id)) {
+            return -1;
+        }
+        return BreadthFirstSearch.forThread().search(indexed, source.id, target.id, true);
+    }
+}
@@ -0,0 +1,58 @@
+package edu.union.adt.graph;
+
+/**
+ * A graph whose edges have costs.  Every edge has a weight, a
+ * non-negative double; edges added with the two-argument addEdge of
+ * Graph weigh 1.  The Graph methods are unchanged, so pathLength and
+ * getPath still count edges; pathCost and getCheapestPath find the
+ * path whose weights add up to the least.
+ */
+public interface WeightedGraph<V> extends Graph<V>
+{
+  /**
+   * Adds a directed edge with a given weight between two vertices.
+   * If there is already an edge between the given vertices, its
+   * weight is changed to 'weight'.  If either (or both) of the given
+   * vertices does not exist, it is added to the graph before the edge
+   * is created between them.
+   *
+   * @param from the source vertex for the added edge
+   * @param to the destination vertex for the added edge
+   * @param weight the cost of the edge; must not be negative or NaN
+   */
+  public void addEdge(V from, V to, double weight);
+
+  /**
+   * Gets the weight of an edge.
+   *
+   * @param from the source vertex
+   * @param to the destination vertex
+   * @return the weight of the edge from 'from' to 'to', or
+   * Double.POSITIVE_INFINITY if there is no such edge
+   */
+  public double weight(V from, V to);
+
+  /**
+   * Gets the cost of the cheapest path connecting two given vertices:
+   * the least sum of the weights of the edges of a path from one to
+   * the other.  The path from a vertex to itself costs 0.
+   *
+   * @param from the source vertex
+   * @param to the destination vertex
+   * @return the cost of the cheapest path from 'from' to 'to' in the
+   * graph.  If there is no path, returns Double.POSITIVE_INFINITY
+   */
+  public double pathCost(V from, V to);
+
+  /**
+   * Returns the vertices along the cheapest path connecting two given
+   * vertices, in the same form as getPath.
+   *
+   * @param from the source vertex
+   * @param to the destination vertex
+   * @return an Iterable collection of vertices along the cheapest
+   * path from 'from' to 'to', including both.  If there is no path,
+   * or if from = to, returns an empty Iterable collection.
+   */
+  public Iterable<V> getCheapestPath(V from, V to);
+}
@@ -0,0 +1,13 @@
+package edu.union.adt.graph;
+
+/**
+ * An IndexedGraph whose edges have weights, for the searches that
+ * look for cheapest paths.
+ */
+interface WeightedIndexedGraph extends IndexedGraph
+{
+  /**
+   * @return the weight of the index'th edge leaving vertex 'id'.
+   */
+  double weight(int id, int index);
+}
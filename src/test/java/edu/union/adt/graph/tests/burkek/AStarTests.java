@@ -0,0 +1,117 @@
+package edu.union.adt.graph.tests.burkek;
+import java.util.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.Heuristic;
+import edu.union.adt.graph.PathResult;
+import edu.union.adt.graph.WeightedGraph;
+
+@RunWith(JUnit4.class)
+public class AStarTests
+{
+    private static final int SIDE = 30;
+
+    // vertex v of a grid is at (v % SIDE, v / SIDE)
+    private static final Heuristic<Integer> MANHATTAN = new Heuristic<Integer>() {
+        public double estimate(Integer v, Integer target){
+          return Math.abs(v % SIDE - target % SIDE) + Math.abs(v / SIDE - target / SIDE);
+        }
+    };
+
+    private static final Heuristic<Integer> NONE = new Heuristic<Integer>() {
+        public double estimate(Integer v, Integer target){
+          return 0;
+        }
+    };
+
+    private static void addGrid(Graph<Integer> g){
+      for (int v = 0; v < SIDE * SIDE; v++){
+        if (v % SIDE + 1 < SIDE){
+          g.addEdge(v, v + 1);
+          g.addEdge(v + 1, v);
+        }
+        if (v + SIDE < SIDE * SIDE){
+          g.addEdge(v, v + SIDE);
+          g.addEdge(v + SIDE, v);
+        }
+      }
+    }
+
+    @Test
+    public void grid_expandsFewerVertices(){
+      Graph<Integer> g = GraphFactory.<Integer>createGraph();
+      addGrid(g);
+      PathResult<Integer> guided = g.aStar(0, SIDE * SIDE - 1, MANHATTAN);
+      PathResult<Integer> blind = g.aStar(0, SIDE * SIDE - 1, NONE);
+
+      assertEquals("Shortest length", g.pathLength(0, SIDE * SIDE - 1), (int) guided.cost());
+      assertEquals("Path has every vertex", 2 * (SIDE - 1) + 1, guided.vertices().size());
+      assertEquals("Same cost either way", blind.cost(), guided.cost(), 0);
+      assertTrue("Heuristic saves work: " + guided.expanded() + " vs " + blind.expanded(),
+                 guided.expanded() < blind.expanded() / 4);
+    }
+
+    @Test
+    public void everyGraphKind_findsTheSameCost(){
+      Graph<Integer> hash = GraphFactory.<Integer>createGraph();
+      Graph<Integer> concurrent = GraphFactory.<Integer>createConcurrentGraph();
+      addGrid(hash);
+      addGrid(concurrent);
+      hash.removeVertex(SIDE + 1);
+      concurrent.removeVertex(SIDE + 1);
+      Random random = new Random(20);
+      for (int i = 0; i < 50; i++){
+        int from = random.nextInt(SIDE * SIDE);
+        int to = random.nextInt(SIDE * SIDE);
+        double expected = hash.contains(from) && hash.contains(to)
+          ? hash.pathLength(from, to) : Double.POSITIVE_INFINITY;
+        for (Graph<Integer> g : Arrays.asList(hash, concurrent, GraphFactory.freeze(hash))){
+          PathResult<Integer> result = g.aStar(from, to, MANHATTAN);
+          assertEquals("Cost " + from + " " + to, expected, result.cost(), 0);
+          assertEquals("Path " + from + " " + to, from == to || !result.found() ? 0 : (int) expected + 1,
+                       result.vertices().size());
+        }
+      }
+    }
+
+    @Test
+    public void weighted_usesWeights(){
+      WeightedGraph<Integer> g = GraphFactory.<Integer>createWeightedGraph();
+      addGrid(g);
+      // a detour along the top row is cheap
+      for (int v = 0; v + 1 < SIDE; v++){
+        g.addEdge(v, v + 1, 0.5);
+      }
+      PathResult<Integer> result = g.aStar(0, SIDE - 1, new Heuristic<Integer>() {
+          public double estimate(Integer v, Integer target){
+            return 0.5 * MANHATTAN.estimate(v, target);
+          }
+        });
+
+      assertEquals("Cheapest cost", g.pathCost(0, SIDE - 1), result.cost(), 0);
+      assertEquals("Same path as Dijkstra", g.getCheapestPath(0, SIDE - 1), result.vertices());
+    }
+
+    @Test
+    public void noPath_isNotFound(){
+      Graph<Integer> g = GraphFactory.<Integer>createGraph();
+      g.addEdge(1, 2);
+      g.addVertex(3);
+
+      assertFalse("Unreachable", g.aStar(1, 3, NONE).found());
+      assertFalse("Missing vertex", g.aStar(1, 4, NONE).found());
+      assertFalse("Empty path", g.aStar(1, 3, NONE).iterator().hasNext());
+      PathResult<Integer> self = g.aStar(1, 1, NONE);
+      assertTrue("Path to itself", self.found());
+      assertEquals("Costs nothing", 0.0, self.cost(), 0);
+      assertFalse("Empty, like getPath", self.iterator().hasNext());
+    }
+}
@@ -0,0 +1,93 @@
+package edu.union.adt.graph.tests.burkek;
+import java.util.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.After;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.CachingGraph;
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+
+@RunWith(JUnit4.class)
+public class CachingGraphTests
+{
+    private Graph<String> plain;
+    private CachingGraph<String> g;
+
+    @Before
+    public void setUp()
+    {
+        plain = GraphFactory.<String>createGraph();
+        g = GraphFactory.cache(GraphFactory.<String>createGraph(), 2);
+        for (Graph<String> h : Arrays.asList(plain, g)){
+          h.addEdge("A", "B");
+          h.addEdge("B", "C");
+          h.addEdge("C", "D");
+          h.addEdge("C", "A");
+          h.addEdge("D", "G");
+          h.addEdge("G", "H");
+          h.addVertex("X");
+        }
+    }
+
+    @After
+    public void tearDown()
+    {
+        g = null;
+        plain = null;
+    }
+
+    @Test
+    public void sameAnswers(){
+      for (String from : plain.getVertices()){
+        for (String to : plain.getVertices()){
+          assertEquals("hasPath " + from + " " + to, plain.hasPath(from, to), g.hasPath(from, to));
+          assertEquals("pathLength " + from + " " + to, plain.pathLength(from, to), g.pathLength(from, to));
+          assertEquals("getPath " + from + " " + to, plain.getPath(from, to), g.getPath(from, to));
+        }
+      }
+    }
+
+    @Test
+    public void hitsAndMisses(){
+      g.pathLength("A", "H");
+      g.pathLength("A", "D");
+      g.getPath("A", "G");
+
+      assertEquals("First query from A builds a tree", 1, g.misses());
+      assertEquals("Later queries from A use it", 2, g.hits());
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed(){
+      g.hasPath("A", "H");
+      g.hasPath("B", "H");
+      g.hasPath("A", "H");
+      g.hasPath("C", "H");
+      g.hasPath("A", "H");
+
+      assertEquals("Adding a third source evicts one tree", 1, g.evictions());
+      assertEquals("A was used most recently, so B was evicted", 2, g.hits());
+    }
+
+    @Test
+    public void mutationDropsTrees(){
+      assertEquals("Path length before the change", 5, g.pathLength("A", "H"));
+      g.addEdge("A", "G");
+
+      assertEquals("Path length after the change", 2, g.pathLength("A", "H"));
+      assertEquals("Both queries had to search", 2, g.misses());
+      assertFalse("Removing a vertex is seen by the cache", removeAndCheck());
+    }
+
+    private boolean removeAndCheck(){
+      g.removeVertex("G");
+      return g.hasPath("A", "H");
+    }
+}
@@ -0,0 +1,192 @@
+package edu.union.adt.graph.tests.burkek;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.After;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.ConcurrentGraph;
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+
+@RunWith(JUnit4.class)
+public class ConcurrentGraphTests
+{
+    private static final int THREADS = 8;
+
+    private Graph<String> plain;
+    private ConcurrentGraph<String> g;
+
+    @Before
+    public void setUp()
+    {
+        plain = GraphFactory.<String>createGraph();
+        g = GraphFactory.<String>createConcurrentGraph();
+        for (Graph<String> h : Arrays.<Graph<String>>asList(plain, g)){
+          h.addEdge("A", "B");
+          h.addEdge("B", "C");
+          h.addEdge("C", "D");
+          h.addEdge("C", "A");
+          h.addEdge("D", "G");
+          h.addEdge("G", "H");
+          h.addEdge("H", "H");
+          h.addVertex("X");
+        }
+    }
+
+    @After
+    public void tearDown()
+    {
+        g = null;
+        plain = null;
+    }
+
+    @Test
+    public void sameAnswersAsHashGraph(){
+      assertEquals("numVertices", plain.numVertices(), g.numVertices());
+      assertEquals("numEdges", plain.numEdges(), g.numEdges());
+      for (String from : plain.getVertices()){
+        assertEquals("degree " + from, plain.degree(from), g.degree(from));
+        for (String to : plain.getVertices()){
+          assertEquals("hasEdge " + from + " " + to, plain.hasEdge(from, to), g.hasEdge(from, to));
+          assertEquals("hasPath " + from + " " + to, plain.hasPath(from, to), g.hasPath(from, to));
+          assertEquals("pathLength " + from + " " + to, plain.pathLength(from, to), g.pathLength(from, to));
+          assertEquals("getPath " + from + " " + to, plain.getPath(from, to), g.getPath(from, to));
+        }
+      }
+    }
+
+    @Test
+    public void removeVertex_removesEdges(){
+      g.removeVertex("H");
+      g.removeVertex("C");
+
+      assertEquals("Two vertices left the graph", 5, g.numVertices());
+      assertEquals("Only A->B and D->G are left", 2, g.numEdges());
+      assertFalse("C is gone", g.contains("C"));
+      assertFalse("No edge into C is left", g.adjacentTo("B").iterator().hasNext());
+      assertEquals("Nothing has an edge to A", 0, g.inDegree("A"));
+
+      g.addEdge("C", "A");
+      assertTrue("C can be added again", g.hasEdge("C", "A"));
+      assertEquals("It starts with no other edges", 1, g.degree("C"));
+    }
+
+    @Test
+    public void adjacentTo_isASnapshot(){
+      Iterable<String> before = g.adjacentTo("C");
+      g.addEdge("C", "X");
+      g.removeEdge("C", "D");
+
+      assertEquals("Earlier snapshot is unchanged", Arrays.asList("D", "A"), toList(before));
+      assertEquals("New snapshot sees the changes", Arrays.asList("A", "X"), toList(g.adjacentTo("C")));
+    }
+
+    /**
+     * Threads add and remove random edges and vertices while readers
+     * walk the graph; afterwards every out-edge must have a matching
+     * in-edge and the edge count must match.
+     */
+    @Test
+    public void stress_staysConsistent() throws Exception{
+      final ConcurrentGraph<Integer> graph = new ConcurrentGraph<>();
+      final int vertices = 200;
+      final AtomicBoolean failed = new AtomicBoolean();
+      ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+      List<Future<?>> done = new ArrayList<>();
+      for (int t = 0; t < THREADS; t++){
+        final int seed = t;
+        done.add(pool.submit(new Runnable() {
+          public void run()
+          {
+            Random random = new Random(seed);
+            for (int i = 0; i < 20000; i++){
+              int a = random.nextInt(vertices);
+              int b = random.nextInt(vertices);
+              int op = random.nextInt(100);
+              if (seed % 2 == 0 && op < 60){
+                graph.addEdge(a, b);
+              }
+              else if (seed % 2 == 0 && op < 90){
+                graph.removeEdge(a, b);
+              }
+              else if (seed % 2 == 0){
+                graph.removeVertex(a);
+              }
+              else{
+                for (Integer next : graph.adjacentTo(a)){
+                  if (next == null){
+                    failed.set(true);
+                  }
+                }
+                graph.hasEdge(a, b);
+                graph.pathLength(a, b);
+              }
+            }
+          }
+        }));
+      }
+      for (Future<?> f : done){
+        f.get();
+      }
+      pool.shutdown();
+
+      assertFalse("Readers saw a null neighbor", failed.get());
+      int edges = 0;
+      for (Integer v : graph.getVertices()){
+        for (Integer w : graph.adjacentTo(v)){
+          assertTrue("Edge " + v + "->" + w + " has a live destination", graph.contains(w));
+          assertTrue("Edge " + v + "->" + w + " is indexed at " + w, toList(graph.predecessors(w)).contains(v));
+          edges++;
+        }
+        for (Integer u : graph.predecessors(v)){
+          assertTrue("In-edge " + u + "->" + v + " is a real edge", graph.hasEdge(u, v));
+        }
+      }
+      assertEquals("numEdges matches the edges", edges, graph.numEdges());
+    }
+
+    @Test
+    public void stress_disjointAddsAllLand() throws Exception{
+      final ConcurrentGraph<Integer> graph = new ConcurrentGraph<>();
+      final int perThread = 5000;
+      Thread[] threads = new Thread[THREADS];
+      for (int t = 0; t < THREADS; t++){
+        final int base = t * perThread;
+        threads[t] = new Thread(new Runnable() {
+          public void run()
+          {
+            // every thread links into vertex -1, so they all contend on it
+            for (int i = 0; i < perThread; i++){
+              graph.addEdge(base + i, -1);
+              graph.addEdge(-1, base + i);
+            }
+          }
+        });
+        threads[t].start();
+      }
+      for (Thread thread : threads){
+        thread.join();
+      }
+
+      assertEquals("Every vertex was added", THREADS * perThread + 1, graph.numVertices());
+      assertEquals("Every edge was added", 2 * THREADS * perThread, graph.numEdges());
+      assertEquals("The hub's in-edges were all kept", THREADS * perThread, graph.inDegree(-1));
+      assertEquals("The hub's out-edges were all kept", THREADS * perThread, graph.degree(-1));
+    }
+
+    private static <T> List<T> toList(Iterable<T> items){
+      List<T> list = new ArrayList<>();
+      for (T item : items){
+        list.add(item);
+      }
+      return list;
+    }
+}
@@ -0,0 +1,96 @@
+package edu.union.adt.graph.tests.burkek;
+import java.util.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.After;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.CsrGraph;
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+
+@RunWith(JUnit4.class)
+public class CsrGraphTests
+{
+    private Graph<String> g;
+
+    @Before
+    public void setUp()
+    {
+        g = GraphFactory.<String>createGraph();
+        g.addEdge("A", "B");
+        g.addEdge("B", "C");
+        g.addEdge("C", "D");
+        g.addEdge("C", "A");
+        g.addEdge("D", "G");
+        g.addEdge("G", "H");
+        g.addVertex("X");
+    }
+
+    @After
+    public void tearDown()
+    {
+        g = null;
+    }
+
+    @Test
+    public void freeze_sameCounts(){
+      Graph<String> frozen = GraphFactory.freeze(g);
+
+      assertEquals("Frozen graph has the same vertices", g.numVertices(), frozen.numVertices());
+      assertEquals("Frozen graph has the same edges", g.numEdges(), frozen.numEdges());
+      assertEquals("Frozen graph has the same degree", g.degree("C"), frozen.degree("C"));
+    }
+
+    @Test
+    public void freeze_sameEdges(){
+      Graph<String> frozen = GraphFactory.freeze(g);
+
+      for (String from : g.getVertices()){
+        for (String to : g.getVertices()){
+          assertEquals("Edge (" + from + ", " + to + ") matches", g.hasEdge(from, to), frozen.hasEdge(from, to));
+        }
+      }
+    }
+
+    @Test
+    public void freeze_samePaths(){
+      Graph<String> frozen = GraphFactory.freeze(g);
+
+      assertTrue("Path from A to H", frozen.hasPath("A", "H"));
+      assertFalse("No path from A to X", frozen.hasPath("A", "X"));
+      assertEquals("Path length from A to H", g.pathLength("A", "H"), frozen.pathLength("A", "H"));
+      assertEquals("Unreachable path length", Integer.MAX_VALUE, frozen.pathLength("H", "A"));
+      assertEquals("Path from A to H", g.getPath("A", "H"), frozen.getPath("A", "H"));
+    }
+
+    @Test
+    public void freeze_isSnapshot(){
+      Graph<String> frozen = GraphFactory.freeze(g);
+      g.addEdge("H", "X");
+
+      assertFalse("Later edges are not in the snapshot", frozen.hasEdge("H", "X"));
+    }
+
+    @Test
+    public void distancesFrom_matchesPathLength(){
+      CsrGraph<String> frozen = GraphFactory.freeze(g);
+      Map<String, Integer> distances = frozen.distancesFrom("A");
+
+      assertEquals("Every vertex but X is reachable from A", 6, distances.size());
+      for (String to : distances.keySet()){
+        assertEquals("Distance to " + to, g.pathLength("A", to), (int) distances.get(to));
+      }
+      assertFalse("X is not reachable", distances.containsKey("X"));
+    }
+
+    @Test(expected=UnsupportedOperationException.class)
+    public void freeze_readOnly(){
+      GraphFactory.freeze(g).addEdge("A", "X");
+    }
+}
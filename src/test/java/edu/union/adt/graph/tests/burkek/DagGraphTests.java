@@ -0,0 +1,142 @@
+package edu.union.adt.graph.tests.burkek;
+import java.util.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.DagGraph;
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+
+@RunWith(JUnit4.class)
+public class DagGraphTests
+{
+    private static <V> void checkOrder(DagGraph<V> g){
+      List<V> order = g.topologicalOrder();
+      assertEquals("Order has every vertex", g.numVertices(), order.size());
+      Map<V, Integer> position = new HashMap<>();
+      for (V v : order){
+        position.put(v, position.size());
+      }
+      for (V v : g.getVertices()){
+        for (V w : g.adjacentTo(v)){
+          assertTrue("Edge " + v + "->" + w + " goes forward", position.get(v) < position.get(w));
+        }
+      }
+    }
+
+    @Test
+    public void cycle_isRefused(){
+      DagGraph<String> g = GraphFactory.<String>createDagGraph();
+      g.addEdge("A", "B");
+      g.addEdge("B", "C");
+      try {
+        g.addEdge("C", "A");
+        fail("C -> A closes a cycle");
+      }
+      catch (IllegalArgumentException expected){
+      }
+      assertFalse("Self loop", g.tryAddEdge("B", "B"));
+      assertFalse("Graph is unchanged", g.hasEdge("C", "A"));
+      assertEquals("Two edges", 2, g.numEdges());
+      assertEquals(Arrays.asList("A", "B", "C"), g.topologicalOrder());
+    }
+
+    @Test
+    public void backwardEdge_reorders(){
+      DagGraph<String> g = GraphFactory.<String>createDagGraph();
+      g.addVertex("A");
+      g.addVertex("B");
+      g.addVertex("C");
+      g.addVertex("D");
+      g.addEdge("C", "D");
+      g.addEdge("D", "A");
+      g.addEdge("B", "C");
+
+      assertEquals(Arrays.asList("B", "C", "D", "A"), g.topologicalOrder());
+      assertTrue("B reaches A", g.hasPath("B", "A"));
+      assertFalse("A reaches nothing", g.hasPath("A", "B"));
+      assertEquals("No path length", Integer.MAX_VALUE, g.pathLength("A", "C"));
+      assertFalse("No path", g.getPath("A", "D").iterator().hasNext());
+      assertEquals("Path length", 3, g.pathLength("B", "A"));
+    }
+
+    @Test
+    public void newSource_goesFirst(){
+      DagGraph<Integer> g = GraphFactory.<Integer>createDagGraph();
+      for (int i = 0; i < 1000; i++){
+        g.addEdge(i, i + 1);
+      }
+      long before = g.visited();
+      g.addEdge(-1, 500);
+      assertEquals("A new source vertex needs no search", before, g.visited());
+      checkOrder(g);
+    }
+
+    @Test
+    public void randomEdges_matchPathSearch(){
+      Random random = new Random(23);
+      DagGraph<Integer> dag = GraphFactory.<Integer>createDagGraph();
+      Graph<Integer> plain = GraphFactory.<Integer>createGraph();
+      for (int i = 0; i < 4000; i++){
+        int from = random.nextInt(300);
+        int to = random.nextInt(300);
+        boolean cycle = from == to || plain.hasPath(to, from);
+        assertEquals("Edge " + from + "->" + to, !cycle, dag.tryAddEdge(from, to));
+        if (!cycle){
+          plain.addEdge(from, to);
+        }
+        if (i % 500 == 0){
+          Integer victim = random.nextInt(300);
+          dag.removeVertex(victim);
+          plain.removeVertex(victim);
+          dag.removeEdge(random.nextInt(300), random.nextInt(300));
+        }
+      }
+      checkOrder(dag);
+      assertEquals("Same edges", plain.numEdges(), dag.numEdges());
+      for (int i = 0; i < 200; i++){
+        int from = random.nextInt(300);
+        int to = random.nextInt(300);
+        assertEquals("hasPath " + from + "->" + to, plain.hasPath(from, to), dag.hasPath(from, to));
+      }
+    }
+
+    @Test
+    public void copy_refusesCycles(){
+      Graph<String> source = GraphFactory.<String>createGraph();
+      source.addEdge("B", "A");
+      source.addEdge("C", "B");
+      source.addVertex("D");
+      DagGraph<String> copy = new DagGraph<String>(source);
+      checkOrder(copy);
+      assertEquals("Same toString", source.toString().length(), copy.toString().length());
+
+      source.addEdge("A", "C");
+      try {
+        new DagGraph<String>(source);
+        fail("Source has a cycle");
+      }
+      catch (IllegalArgumentException expected){
+      }
+    }
+
+    @Test
+    public void manyRemovals_keepOrder(){
+      DagGraph<Integer> g = GraphFactory.<Integer>createDagGraph();
+      for (int round = 0; round < 50; round++){
+        for (int i = 0; i < 100; i++){
+          g.addEdge(round * 100 + i, round * 100 + i + 1);
+        }
+        for (int i = 0; i < 90; i++){
+          g.removeVertex(round * 100 + i);
+        }
+      }
+      checkOrder(g);
+    }
+}
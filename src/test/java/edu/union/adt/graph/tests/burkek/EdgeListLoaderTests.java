@@ -0,0 +1,104 @@
+package edu.union.adt.graph.tests.burkek;
+import java.util.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.EdgeListLoader;
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.HashGraph;
+import edu.union.adt.graph.IntGraph;
+
+@RunWith(JUnit4.class)
+public class EdgeListLoaderTests
+{
+    private static final String EDGES =
+        "# a comment\n"
+        + "1 2\n"
+        + "2\t3 0.5\n"
+        + "\n"
+        + "% another comment\n"
+        + "  3 1\r\n"
+        + "1 2\n"
+        + "3 3\n"
+        + "-4 1";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path write(String text) throws IOException{
+      Path file = folder.newFile().toPath();
+      Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+      return file;
+    }
+
+    @Test
+    public void loadIntegers_matchesAddEdge() throws IOException{
+      HashGraph<Integer> g = EdgeListLoader.loadIntegers(write(EDGES));
+      Graph<Integer> expected = GraphFactory.<Integer>createGraph();
+      expected.addEdge(1, 2);
+      expected.addEdge(2, 3);
+      expected.addEdge(3, 1);
+      expected.addEdge(3, 3);
+      expected.addEdge(-4, 1);
+
+      assertEquals("Same graph", expected, g);
+      assertEquals("Duplicate edge is dropped", 5, g.numEdges());
+    }
+
+    @Test
+    public void loadStrings_sharesNames() throws IOException{
+      HashGraph<String> g = EdgeListLoader.loadStrings(write("alpha beta\nbeta gamma\ngamma alpha\n"));
+
+      assertEquals("Three vertices", 3, g.numVertices());
+      assertTrue("Edges are there", g.hasEdge("beta", "gamma") && g.hasEdge("gamma", "alpha"));
+      String fromEdge = g.adjacentTo("alpha").iterator().next();
+      String fromVertices = null;
+      for (String v : g.getVertices()){
+        if (v.equals("beta")){
+          fromVertices = v;
+        }
+      }
+      assertTrue("One String per vertex", fromEdge == fromVertices);
+    }
+
+    @Test
+    public void loadIntGraph_isCompact() throws IOException{
+      IntGraph g = EdgeListLoader.loadIntGraph(write("0 1\n1 2\n2 0\n5 0\n"));
+
+      assertEquals("Four vertices", 4, g.numVertices());
+      assertEquals("Path through the cycle", 3, g.pathLength(5, 2));
+      assertFalse("Gaps are not vertices", g.contains(3));
+    }
+
+    @Test
+    public void loadIntGraph_dropsRepeatedEdges() throws IOException{
+      IntGraph g = EdgeListLoader.loadIntGraph(write("0 1\n0 2\n0 1\n2 0\n0 2\n0 0\n"));
+
+      assertEquals("Four edges", 4, g.numEdges());
+      assertEquals("Three edges leave 0", 3, g.degree(0));
+      assertTrue("Loop is kept", g.hasEdge(0, 0));
+      g.addEdge(0, 1);
+      assertEquals("Still four edges", 4, g.numEdges());
+    }
+
+    @Test(expected=IOException.class)
+    public void malformedLine() throws IOException{
+      EdgeListLoader.loadIntegers(write("1 2\n3\n"));
+    }
+
+    @Test(expected=IOException.class)
+    public void notANumber() throws IOException{
+      EdgeListLoader.loadIntegers(write("1 2x\n"));
+    }
+}
@@ -0,0 +1,95 @@
+package edu.union.adt.graph.tests.burkek;
+import java.util.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.EdgeListLoader;
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphExport;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.HashGraph;
+
+@RunWith(JUnit4.class)
+public class GraphExportTests
+{
+    private Graph<String> g;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setUp()
+    {
+        g = GraphFactory.<String>createGraph();
+        g.addEdge("A", "A");
+        g.addEdge("A", "B");
+        g.addEdge("C", "A");
+        g.addEdge("C", "B");
+    }
+
+    private static Set<String> lines(String text){
+      return new HashSet<>(Arrays.asList(text.split("\n")));
+    }
+
+    @Test
+    public void toString_matchesFormat(){
+      Set<String> actual = lines(g.toString());
+
+      assertEquals("One line per vertex", 3, actual.size());
+      assertTrue("Vertex with no edges has a bare colon", actual.contains("B:"));
+      assertTrue("A's edges", actual.contains("A: A, B") || actual.contains("A: B, A"));
+      assertTrue("C's edges", actual.contains("C: A, B") || actual.contains("C: B, A"));
+    }
+
+    @Test
+    public void writeTo_matchesToString() throws IOException{
+      StringWriter out = new StringWriter();
+      g.writeTo(out);
+
+      assertEquals("Same text", g.toString(), out.toString());
+      for (Graph<String> h : Arrays.<Graph<String>>asList(g.snapshot(),
+                                                           GraphFactory.freeze(g))){
+        assertEquals("Same lines for " + h.getClass().getSimpleName(),
+                     lines(g.toString()), lines(h.toString()));
+      }
+    }
+
+    @Test
+    public void writeDot_quotesNames() throws IOException{
+      Graph<String> h = GraphFactory.<String>createGraph();
+      h.addEdge("say \"hi\"", "B");
+      h.addVertex("lone");
+      StringBuilder out = new StringBuilder();
+      GraphExport.writeDot(h, out);
+      String dot = out.toString();
+
+      assertTrue("Starts a digraph", dot.startsWith("digraph {\n"));
+      assertTrue("Ends it", dot.endsWith("}\n"));
+      assertTrue("Edge is quoted", dot.contains("  \"say \\\"hi\\\"\" -> \"B\";\n"));
+      assertTrue("Lone vertex is listed", dot.contains("  \"lone\";\n"));
+    }
+
+    @Test
+    public void writeEdgeList_roundTrips() throws IOException{
+      Path file = folder.newFile().toPath();
+      try (OutputStream out = Files.newOutputStream(file)){
+        GraphExport.writeEdgeList(g, out);
+      }
+      HashGraph<String> read = EdgeListLoader.loadStrings(file);
+
+      assertEquals("Same edges", g.numEdges(), read.numEdges());
+      assertEquals("Same text", lines(new String(Files.readAllBytes(file), StandardCharsets.UTF_8)),
+                   new HashSet<>(Arrays.asList("A A", "A B", "C A", "C B")));
+      assertTrue("Edges survive", read.hasEdge("C", "B") && read.hasEdge("A", "A"));
+    }
+}
@@ -0,0 +1,127 @@
+package edu.union.adt.graph.tests.burkek;
+import java.util.*;
+import java.io.*;
+import java.nio.file.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.GraphIO;
+import edu.union.adt.graph.MappedGraph;
+
+@RunWith(JUnit4.class)
+public class GraphIOTests
+{
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private <V> MappedGraph<V> roundTrip(Graph<V> g) throws IOException{
+      Path file = folder.newFile().toPath();
+      GraphIO.write(g, file);
+      return GraphIO.<V>openMapped(file, true);
+    }
+
+    @Test
+    public void integers_sameAnswers() throws IOException{
+      Graph<Integer> g = GraphFactory.<Integer>createGraph();
+      Random random = new Random(15);
+      for (int i = 0; i < 400; i++){
+        g.addEdge(random.nextInt(150) - 20, random.nextInt(150) - 20);
+      }
+      g.addVertex(1000);
+      MappedGraph<Integer> m = roundTrip(g);
+
+      assertEquals("Same vertex count", g.numVertices(), m.numVertices());
+      assertEquals("Same edge count", g.numEdges(), m.numEdges());
+      assertTrue("Lone vertex is there", m.contains(1000) && m.degree(1000) == 0);
+      assertFalse("Missing vertex is not", m.contains(2000));
+      for (Integer from : g.getVertices()){
+        assertEquals("Same degree", g.degree(from), m.degree(from));
+        assertEquals("Same adjacent vertices", toSet(g.adjacentTo(from)), toSet(m.adjacentTo(from)));
+        for (Integer to : g.getVertices()){
+          assertEquals("Same edges", g.hasEdge(from, to), m.hasEdge(from, to));
+          assertEquals("Same path lengths", g.pathLength(from, to), m.pathLength(from, to));
+        }
+      }
+    }
+
+    @Test
+    public void strings_sameAnswers() throws IOException{
+      Graph<String> g = GraphFactory.<String>createGraph();
+      g.addEdge("A", "B");
+      g.addEdge("B", "C");
+      g.addEdge("C", "D");
+      g.addEdge("A", "\u00e9t\u00e9");
+      g.addVertex("");
+      MappedGraph<String> m = roundTrip(g);
+
+      assertEquals("Same vertices", toSet(g.getVertices()), toSet(m.getVertices()));
+      assertTrue("Non-ASCII names survive", m.hasEdge("A", "\u00e9t\u00e9"));
+      assertTrue("Empty name survives", m.contains(""));
+      assertEquals("Path is found", 3, m.pathLength("A", "D"));
+      assertEquals("Path goes through each vertex",
+                   Arrays.asList("A", "B", "C", "D"), m.getPath("A", "D"));
+      assertEquals("No path back", Integer.MAX_VALUE, m.pathLength("D", "A"));
+      @SuppressWarnings("unchecked")
+      Graph<Object> any = (Graph<Object>) (Graph<?>) m;
+      assertFalse("Integers are not vertices", any.contains(1));
+    }
+
+    private static <T> Set<T> toSet(Iterable<T> items){
+      Set<T> set = new HashSet<>();
+      for (T item : items){
+        set.add(item);
+      }
+      return set;
+    }
+
+    @Test
+    public void empty_roundTrips() throws IOException{
+      MappedGraph<Integer> m = roundTrip(GraphFactory.<Integer>createGraph());
+
+      assertTrue("Still empty", m.isEmpty());
+      assertEquals("No edges", 0, m.numEdges());
+    }
+
+    @Test(expected=UnsupportedOperationException.class)
+    public void mapped_isReadOnly() throws IOException{
+      Graph<Integer> g = GraphFactory.<Integer>createGraph();
+      g.addEdge(1, 2);
+      roundTrip(g).addEdge(2, 1);
+    }
+
+    @Test(expected=IOException.class)
+    public void open_rejectsOtherFiles() throws IOException{
+      Path file = folder.newFile().toPath();
+      Files.write(file, new byte[100]);
+      GraphIO.openMapped(file);
+    }
+
+    @Test
+    public void open_checksCorruption() throws IOException{
+      Graph<Integer> g = GraphFactory.<Integer>createGraph();
+      g.addEdge(1, 2);
+      g.addEdge(2, 3);
+      Path file = folder.newFile().toPath();
+      GraphIO.write(g, file);
+      byte[] bytes = Files.readAllBytes(file);
+      bytes[bytes.length - 1] ^= 1;
+      Files.write(file, bytes);
+
+      GraphIO.openMapped(file);
+      try {
+        GraphIO.openMapped(file, true);
+        assertTrue("Corrupted file is rejected", false);
+      }
+      catch (IOException expected){
+      }
+    }
+}
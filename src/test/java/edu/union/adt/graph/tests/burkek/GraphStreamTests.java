@@ -0,0 +1,130 @@
+package edu.union.adt.graph.tests.burkek;
+import java.util.*;
+import java.util.stream.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.WeightedGraph;
+
+@RunWith(JUnit4.class)
+public class GraphStreamTests
+{
+    // a few hubs with many edges each, and many vertices with few
+    private static <G extends Graph<Integer>> G skewed(G g){
+      Random random = new Random(21);
+      for (int v = 0; v < 2000; v++){
+        g.addVertex(v);
+        int degree = v < 5 ? 500 : random.nextInt(4);
+        for (int i = 0; i < degree; i++){
+          g.addEdge(v, random.nextInt(2000));
+        }
+      }
+      return g;
+    }
+
+    private static Set<String> edgeSet(Stream<Map.Entry<Integer, Integer>> edges){
+      return edges.map(e -> e.getKey() + ">" + e.getValue()).collect(Collectors.toSet());
+    }
+
+    private static Set<String> edgeSet(Graph<Integer> g){
+      Set<String> edges = new HashSet<>();
+      for (Integer v : g.getVertices()){
+        for (Integer w : g.adjacentTo(v)){
+          edges.add(v + ">" + w);
+        }
+      }
+      return edges;
+    }
+
+    @Test
+    public void getVertices_isLiveAndReadOnly(){
+      Graph<String> g = GraphFactory.<String>createGraph();
+      g.addEdge("A", "B");
+      Collection<String> vertices = (Collection<String>) g.getVertices();
+      Collection<String> adjacent = (Collection<String>) g.adjacentTo("A");
+      g.addEdge("A", "C");
+      g.removeVertex("B");
+
+      assertEquals("View sees the added vertex", new HashSet<>(Arrays.asList("A", "C")),
+                   new HashSet<>(vertices));
+      assertEquals("Adjacency sees the change", Collections.singleton("C"),
+                   new HashSet<>(adjacent));
+      try {
+        vertices.remove("A");
+        assertTrue("Vertex view is read-only", false);
+      }
+      catch (UnsupportedOperationException expected){
+      }
+      assertTrue("Nothing was removed", g.contains("A"));
+    }
+
+    @Test
+    public void streams_matchIteration(){
+      List<Graph<Integer>> graphs = new ArrayList<>();
+      Graph<Integer> hash = skewed(GraphFactory.<Integer>createGraph());
+      graphs.add(hash);
+      graphs.add(GraphFactory.freeze(hash));
+      graphs.add(skewed(GraphFactory.<Integer>createWeightedGraph()));
+      graphs.add(skewed(GraphFactory.<Integer>createPersistentGraph()));
+      for (Graph<Integer> g : graphs){
+        String kind = g.getClass().getSimpleName();
+        assertEquals(kind + " vertices", g.numVertices(), g.vertices().count());
+        assertEquals(kind + " parallel vertices", g.numVertices(), g.vertices().parallel().count());
+        assertEquals(kind + " edges", g.numEdges(), g.edges().count());
+        assertEquals(kind + " edge set", edgeSet(g), edgeSet(g.edges()));
+        assertEquals(kind + " parallel edge set", edgeSet(g), edgeSet(g.edges().parallel()));
+      }
+    }
+
+    @Test
+    public void csrEdges_splitEvenly(){
+      Graph<Integer> csr = GraphFactory.freeze(skewed(GraphFactory.<Integer>createGraph()));
+      Spliterator<Map.Entry<Integer, Integer>> rest = csr.edges().spliterator();
+      long total = rest.estimateSize();
+      Spliterator<Map.Entry<Integer, Integer>> prefix = rest.trySplit();
+
+      assertNotNull("Edges split", prefix);
+      assertEquals("Sizes are exact", total, prefix.estimateSize() + rest.estimateSize());
+      assertTrue("Halves are even despite the hubs",
+                 Math.abs(prefix.estimateSize() - rest.estimateSize()) <= 1);
+      assertTrue("Spliterator is SUBSIZED", rest.hasCharacteristics(Spliterator.SUBSIZED));
+
+      List<Map.Entry<Integer, Integer>> ordered = new ArrayList<>();
+      prefix.forEachRemaining(ordered::add);
+      rest.forEachRemaining(ordered::add);
+      assertEquals("Split keeps encounter order", csr.edges().collect(Collectors.toList()), ordered);
+    }
+
+    @Test
+    public void adjacencySpliterator_splitsBySize(){
+      Graph<Integer> g = skewed(GraphFactory.<Integer>createGraph());
+      Spliterator<Integer> hub = g.adjacentTo(0).spliterator();
+
+      assertEquals("Exact size", g.degree(0), hub.getExactSizeIfKnown());
+      Spliterator<Integer> half = hub.trySplit();
+      assertNotNull("Adjacency splits", half);
+      assertEquals("Split sizes add up", g.degree(0), half.estimateSize() + hub.estimateSize());
+    }
+
+    @Test
+    public void weightedAdjacency_isLive(){
+      WeightedGraph<String> g = GraphFactory.<String>createWeightedGraph();
+      g.addEdge("A", "B", 1);
+      Iterable<String> adjacent = g.adjacentTo("A");
+      g.addEdge("A", "C", 2);
+
+      assertEquals("View sees the new edge", 2, ((Collection<String>) adjacent).size());
+      assertTrue("contains", ((Collection<String>) adjacent).contains("C"));
+      g.removeVertex("A");
+      g.addEdge("D", "B", 1);
+      assertFalse("View of a removed vertex is empty", adjacent.iterator().hasNext());
+    }
+}
@@ -0,0 +1,92 @@
+package edu.union.adt.graph.tests.burkek;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertArrayEquals;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.After;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.IntCursor;
+import edu.union.adt.graph.IntGraph;
+import edu.union.adt.graph.GraphFactory;
+
+@RunWith(JUnit4.class)
+public class IntGraphTests
+{
+    private IntGraph g;
+
+    @Before
+    public void setUp()
+    {
+        g = GraphFactory.createIntGraph();
+    }
+
+    @After
+    public void tearDown()
+    {
+        g = null;
+    }
+
+    @Test
+    public void addEdge_noRepeats(){
+      g.addEdge(1, 2);
+      g.addEdge(1, 2);
+
+      assertEquals("Degree should not increase when adding duplicate edge", 1, g.degree(1));
+      assertEquals("Both vertices are added", 2, g.numVertices());
+      assertEquals("Only one edge is added", 1, g.numEdges());
+    }
+
+    @Test
+    public void adjacentTo_cursor(){
+      g.addEdge(0, 5);
+      g.addEdge(0, 7);
+
+      IntCursor c = g.adjacentTo(0);
+      int sum = 0;
+      while (c.hasNext()){
+        sum += c.next();
+      }
+      assertEquals("Cursor returns every neighbor", 12, sum);
+      assertFalse("Missing vertex has no neighbors", g.adjacentTo(40).hasNext());
+    }
+
+    @Test
+    public void removeVertex_edgeToandFrom(){
+      g.addEdge(1, 2);
+      g.addEdge(2, 3);
+      g.removeVertex(2);
+
+      assertFalse("Vertex is no longer in the graph", g.contains(2));
+      assertEquals("Removing a vertex decreases the vertex count", 2, g.numVertices());
+      assertEquals("Removing this vertex removes two edges", 0, g.numEdges());
+      assertFalse("Graph should no longer contain the edge to it", g.hasEdge(1, 2));
+    }
+
+    @Test
+    public void paths(){
+      g.addEdge(0, 1);
+      g.addEdge(1, 2);
+      g.addEdge(2, 3);
+      g.addEdge(2, 0);
+      g.addEdge(3, 6);
+      g.addEdge(6, 7);
+      g.addVertex(9);
+
+      assertTrue("Path from 0 to 7", g.hasPath(0, 7));
+      assertFalse("No path to an isolated vertex", g.hasPath(0, 9));
+      assertEquals("Path length from 0 to 7", 5, g.pathLength(0, 7));
+      assertEquals("No path length", Integer.MAX_VALUE, g.pathLength(7, 0));
+      assertEquals("Path from a vertex to itself", 0, g.pathLength(9, 9));
+      assertArrayEquals("Path from 0 to 7", new int[] {0, 1, 2, 3, 6, 7}, g.getPath(0, 7));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void addVertex_negative(){
+      g.addVertex(-1);
+    }
+}
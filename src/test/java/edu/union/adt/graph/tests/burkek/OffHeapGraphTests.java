@@ -0,0 +1,124 @@
+package edu.union.adt.graph.tests.burkek;
+import java.util.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.After;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.OffHeapGraph;
+
+@RunWith(JUnit4.class)
+public class OffHeapGraphTests
+{
+    private Graph<Integer> plain;
+    private OffHeapGraph<Integer> g;
+
+    @Before
+    public void setUp()
+    {
+        plain = GraphFactory.<Integer>createGraph();
+        g = GraphFactory.<Integer>createOffHeapGraph();
+    }
+
+    @After
+    public void tearDown()
+    {
+        g.close();
+        g = null;
+        plain = null;
+    }
+
+    private void assertSameGraph(){
+      assertEquals("numVertices", plain.numVertices(), g.numVertices());
+      assertEquals("numEdges", plain.numEdges(), g.numEdges());
+      assertEquals("vertices", toSet(plain.getVertices()), toSet(g.getVertices()));
+      for (Integer from : plain.getVertices()){
+        assertEquals("degree " + from, plain.degree(from), g.degree(from));
+        assertEquals("adjacentTo " + from, toSet(plain.adjacentTo(from)), toSet(g.adjacentTo(from)));
+        for (Integer to : plain.getVertices()){
+          assertEquals("hasEdge " + from + " " + to, plain.hasEdge(from, to), g.hasEdge(from, to));
+          assertEquals("pathLength " + from + " " + to, plain.pathLength(from, to), g.pathLength(from, to));
+        }
+      }
+    }
+
+    private static <T> Set<T> toSet(Iterable<T> items){
+      Set<T> set = new HashSet<>();
+      for (T item : items){
+        set.add(item);
+      }
+      return set;
+    }
+
+    @Test
+    public void randomChanges_matchHashGraph(){
+      Random random = new Random(16);
+      for (int round = 0; round < 5; round++){
+        for (int i = 0; i < 300; i++){
+          int from = random.nextInt(60);
+          int to = random.nextInt(60);
+          int action = random.nextInt(10);
+          for (Graph<Integer> h : Arrays.<Graph<Integer>>asList(plain, g)){
+            if (action < 6){
+              h.addEdge(from, to);
+            }
+            else if (action < 9){
+              h.removeEdge(from, to);
+            }
+            else {
+              h.removeVertex(from);
+            }
+          }
+        }
+        assertSameGraph();
+      }
+    }
+
+    @Test
+    public void highDegree_growsLists(){
+      for (int i = 0; i < 5000; i++){
+        g.addEdge(0, i);
+        g.addEdge(i, 0);
+      }
+      assertEquals("Out-degree", 5000, g.degree(0));
+      assertEquals("Edges", 9999, g.numEdges());
+      assertTrue("Edge is there", g.hasEdge(4999, 0));
+      assertEquals("Path through the hub", 2, g.pathLength(17, 4000));
+      assertEquals("Path is found", Arrays.asList(17, 0, 4000), g.getPath(17, 4000));
+    }
+
+    @Test
+    public void selfLoop_removedWithVertex(){
+      g.addEdge(1, 1);
+      g.addEdge(1, 2);
+      g.addEdge(3, 1);
+      g.removeVertex(1);
+
+      assertEquals("No edges left", 0, g.numEdges());
+      assertFalse("Vertex is gone", g.contains(1));
+      assertEquals("Others stay", 2, g.numVertices());
+    }
+
+    @Test
+    public void close_freesMemory(){
+      g.addEdge(1, 2);
+      assertTrue("Holds memory", g.offHeapBytes() > 0);
+      g.close();
+      assertEquals("Holds nothing", 0, g.offHeapBytes());
+      g.close();
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void closed_cannotBeUsed(){
+      g.addEdge(1, 2);
+      g.close();
+      g.hasEdge(1, 2);
+    }
+}
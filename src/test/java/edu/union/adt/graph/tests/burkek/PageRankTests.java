@@ -0,0 +1,168 @@
+package edu.union.adt.graph.tests.burkek;
+import java.util.*;
+import java.util.concurrent.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.PageRank;
+import edu.union.adt.graph.RankResult;
+
+@RunWith(JUnit4.class)
+public class PageRankTests
+{
+    private static Graph<Integer> randomGraph(){
+      Graph<Integer> g = GraphFactory.<Integer>createGraph();
+      Random random = new Random(24);
+      for (int v = 0; v < 5000; v++){
+        g.addVertex(v);
+        // every tenth vertex has no edges out
+        for (int i = 0; v % 10 != 0 && i < 1 + random.nextInt(6); i++){
+          g.addEdge(v, random.nextInt(5000));
+        }
+      }
+      return g;
+    }
+
+    // plain power iteration over the Graph methods, for comparison
+    private static Map<Integer, Double> reference(Graph<Integer> g, double d){
+      int n = g.numVertices();
+      Map<Integer, Double> rank = new HashMap<>();
+      for (Integer v : g.getVertices()){
+        rank.put(v, 1.0 / n);
+      }
+      for (int iteration = 0; iteration < 200; iteration++){
+        double dangling = 0;
+        Map<Integer, Double> next = new HashMap<>();
+        for (Integer v : g.getVertices()){
+          next.put(v, 0.0);
+        }
+        for (Integer v : g.getVertices()){
+          if (g.degree(v) == 0){
+            dangling += rank.get(v);
+          }
+          for (Integer w : g.adjacentTo(v)){
+            next.put(w, next.get(w) + d * rank.get(v) / g.degree(v));
+          }
+        }
+        for (Integer v : g.getVertices()){
+          next.put(v, next.get(v) + (1 - d + d * dangling) / n);
+        }
+        rank = next;
+      }
+      return rank;
+    }
+
+    @Test
+    public void cycle_ranksEvenly(){
+      Graph<String> g = GraphFactory.<String>createGraph();
+      g.addEdge("A", "B");
+      g.addEdge("B", "C");
+      g.addEdge("C", "A");
+      RankResult<String> ranks = new PageRank<String>(g).run();
+
+      assertTrue("Converged", ranks.converged());
+      for (String v : g.getVertices()){
+        assertEquals("Rank of " + v, 1.0 / 3, ranks.rank(v), 1e-12);
+      }
+      assertEquals("Missing vertex", 0, ranks.rank("Z"), 0);
+    }
+
+    @Test
+    public void randomGraph_matchesPowerIteration(){
+      Graph<Integer> g = randomGraph();
+      Map<Integer, Double> expected = reference(g, PageRank.DEFAULT_DAMPING);
+      RankResult<Integer> ranks = new PageRank<Integer>(g).run();
+
+      double total = 0;
+      for (Map.Entry<Integer, Double> entry : ranks.toMap().entrySet()){
+        assertEquals("Rank of " + entry.getKey(), expected.get(entry.getKey()), entry.getValue(), 1e-9);
+        total += entry.getValue();
+      }
+      assertEquals("Ranks add up to 1", 1, total, 1e-9);
+      assertEquals("A time per iteration", ranks.iterations(), ranks.iterationNanos().length);
+      assertEquals("A residual per iteration", ranks.iterations(), ranks.residuals().length);
+      assertTrue("Converged", ranks.converged());
+    }
+
+    @Test
+    public void pools_agree(){
+      Graph<Integer> g = randomGraph();
+      PageRank<Integer> pageRank = new PageRank<Integer>(g);
+      ForkJoinPool pool = new ForkJoinPool(4);
+      try {
+        RankResult<Integer> parallel = pageRank.run(pool);
+        RankResult<Integer> common = pageRank.run();
+        for (Integer v : g.getVertices()){
+          assertEquals("Rank of " + v, common.rank(v), parallel.rank(v), 1e-12);
+        }
+      }
+      finally {
+        pool.shutdown();
+      }
+    }
+
+    @Test
+    public void star_hubIsTop(){
+      Graph<Integer> g = GraphFactory.<Integer>createGraph();
+      for (int v = 1; v <= 20; v++){
+        g.addEdge(v, 0);
+      }
+      g.addEdge(0, 1);
+      RankResult<Integer> ranks = new PageRank<Integer>(g).run();
+
+      assertEquals("Hub, then the vertex it links to", Arrays.asList(0, 1), ranks.top(2));
+      assertEquals("Top of everything", 21, ranks.top(100).size());
+    }
+
+    @Test
+    public void personalized_staysNearSource(){
+      Graph<String> g = GraphFactory.<String>createGraph();
+      g.addEdge("A", "B");
+      g.addEdge("B", "C");
+      g.addEdge("X", "Y");
+      g.addEdge("Y", "X");
+      PageRank<String> pageRank = new PageRank<String>(g);
+      RankResult<String> ranks = pageRank.personalized("A");
+
+      assertEquals("Unreachable from A", 0, ranks.rank("X"), 0);
+      assertTrue("A is at least the jump", ranks.rank("A") >= 1 - PageRank.DEFAULT_DAMPING);
+      assertTrue("B above C", ranks.rank("B") > ranks.rank("C"));
+
+      Map<String, Double> split = new HashMap<>();
+      split.put("A", 1.0);
+      split.put("X", 1.0);
+      RankResult<String> both = pageRank.personalized(split, ForkJoinPool.commonPool());
+      assertTrue("X and Y keep their half, plus some of dangling C's rank",
+                 both.rank("X") + both.rank("Y") > 0.5);
+      assertEquals("Ranks add up to 1", 1, both.rank("A") + both.rank("B") + both.rank("C")
+                   + both.rank("X") + both.rank("Y"), 1e-9);
+    }
+
+    @Test
+    public void settings_limitIterations(){
+      PageRank<Integer> pageRank = new PageRank<Integer>(randomGraph());
+      pageRank.setMaxIterations(3);
+      RankResult<Integer> ranks = pageRank.run();
+      assertEquals("Three iterations", 3, ranks.iterations());
+      assertTrue("Not converged yet", !ranks.converged());
+      try {
+        pageRank.setDamping(1);
+        fail("Damping must be below 1");
+      }
+      catch (IllegalArgumentException expected){
+      }
+      try {
+        pageRank.personalized(-1);
+        fail("Source is not a vertex");
+      }
+      catch (IllegalArgumentException expected){
+      }
+    }
+}
@@ -0,0 +1,116 @@
+package edu.union.adt.graph.tests.burkek;
+import java.util.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.After;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.PersistentGraph;
+
+@RunWith(JUnit4.class)
+public class PersistentGraphTests
+{
+    private Graph<String> plain;
+    private PersistentGraph<String> g;
+
+    @Before
+    public void setUp()
+    {
+        plain = GraphFactory.<String>createGraph();
+        g = GraphFactory.<String>createPersistentGraph();
+        for (Graph<String> h : Arrays.<Graph<String>>asList(plain, g)){
+          h.addEdge("A", "B");
+          h.addEdge("B", "C");
+          h.addEdge("C", "D");
+          h.addEdge("C", "A");
+          h.addEdge("D", "G");
+          h.addEdge("G", "H");
+          h.addEdge("H", "H");
+          h.addVertex("X");
+        }
+    }
+
+    @After
+    public void tearDown()
+    {
+        g = null;
+        plain = null;
+    }
+
+    @Test
+    public void sameAnswersAsHashGraph(){
+      assertEquals("numVertices", plain.numVertices(), g.numVertices());
+      assertEquals("numEdges", plain.numEdges(), g.numEdges());
+      for (String from : plain.getVertices()){
+        assertEquals("degree " + from, plain.degree(from), g.degree(from));
+        assertEquals("adjacentTo " + from, toSet(plain.adjacentTo(from)), toSet(g.adjacentTo(from)));
+        for (String to : plain.getVertices()){
+          assertEquals("hasEdge " + from + " " + to, plain.hasEdge(from, to), g.hasEdge(from, to));
+          assertEquals("hasPath " + from + " " + to, plain.hasPath(from, to), g.hasPath(from, to));
+          assertEquals("pathLength " + from + " " + to, plain.pathLength(from, to), g.pathLength(from, to));
+        }
+      }
+    }
+
+    @Test
+    public void snapshot_ignoresLaterChanges(){
+      Graph<String> before = g.snapshot();
+      long version = g.version();
+      g.removeVertex("C");
+      g.addEdge("A", "H");
+      g.removeEdge("G", "H");
+
+      assertTrue("The graph moved on", g.version() > version);
+      assertEquals("Snapshot keeps its edges", 7, before.numEdges());
+      assertEquals("Snapshot keeps its vertices", 7, before.numVertices());
+      assertTrue("Snapshot still has C", before.hasEdge("B", "C"));
+      assertEquals("Snapshot still routes through C", 5, before.pathLength("A", "H"));
+      assertEquals("The graph has the new edge", 1, g.pathLength("A", "H"));
+      assertEquals("The graph lost C's edges", 4, g.numEdges());
+      assertFalse("Nothing points at C", toSet(g.predecessors("D")).contains("C"));
+    }
+
+    @Test
+    public void snapshot_matchesCopy(){
+      Graph<String> copy = plain.snapshot();
+      Graph<String> view = g.snapshot();
+      for (String from : plain.getVertices()){
+        assertEquals("adjacentTo " + from, toSet(copy.adjacentTo(from)), toSet(view.adjacentTo(from)));
+      }
+      assertTrue("A snapshot of a snapshot is itself", view.snapshot() == view);
+    }
+
+    @Test(expected=UnsupportedOperationException.class)
+    public void snapshot_isReadOnly(){
+      g.snapshot().addEdge("X", "A");
+    }
+
+    @Test
+    public void collidingVertices(){
+      // "Aa" and "BB" have the same hashCode
+      PersistentGraph<String> h = new PersistentGraph<>();
+      h.addEdge("Aa", "BB");
+      h.addEdge("BB", "Aa");
+      h.addEdge("AaAa", "BBBB");
+      assertTrue("Both colliding edges are there", h.hasEdge("Aa", "BB") && h.hasEdge("BB", "Aa"));
+      h.removeVertex("Aa");
+      assertFalse("Aa is gone", h.contains("Aa"));
+      assertTrue("BB is not", h.contains("BB"));
+      assertEquals("Only one edge is left", 1, h.numEdges());
+    }
+
+    private static <T> Set<T> toSet(Iterable<T> items){
+      Set<T> set = new HashSet<>();
+      for (T item : items){
+        set.add(item);
+      }
+      return set;
+    }
+}
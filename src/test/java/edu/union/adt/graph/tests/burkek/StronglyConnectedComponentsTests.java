@@ -0,0 +1,122 @@
+package edu.union.adt.graph.tests.burkek;
+import java.util.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.StronglyConnectedComponents;
+
+@RunWith(JUnit4.class)
+public class StronglyConnectedComponentsTests
+{
+    // A <-> B -> C -> D -> E -> C, and F alone
+    private static void addTwoCycles(Graph<String> g){
+      g.addEdge("A", "B");
+      g.addEdge("B", "A");
+      g.addEdge("B", "C");
+      g.addEdge("C", "D");
+      g.addEdge("D", "E");
+      g.addEdge("E", "C");
+      g.addVertex("F");
+    }
+
+    private static void checkTwoCycles(Graph<String> g){
+      StronglyConnectedComponents<String> scc = StronglyConnectedComponents.of(g);
+      String kind = g.getClass().getSimpleName();
+
+      assertEquals(kind + " has three components", 3, scc.count());
+      assertTrue(kind + " A and B", scc.connected("A", "B"));
+      assertTrue(kind + " C and E", scc.connected("C", "E"));
+      assertFalse(kind + " B and C", scc.connected("B", "C"));
+      assertEquals(kind + " size", 3, scc.size(scc.componentOf("D")));
+      assertEquals(kind + " members", new HashSet<>(Arrays.asList("C", "D", "E")),
+                   new HashSet<>(scc.members(scc.componentOf("C"))));
+      assertEquals(kind + " missing vertex", -1, scc.componentOf("Z"));
+
+      Graph<Integer> dag = scc.condensation();
+      int ab = scc.componentOf("A");
+      int cde = scc.componentOf("C");
+      assertEquals(kind + " condensation vertices", 3, dag.numVertices());
+      assertEquals(kind + " condensation edges", 1, dag.numEdges());
+      assertTrue(kind + " AB -> CDE", dag.hasEdge(ab, cde));
+      assertTrue(kind + " reverse topological numbering", cde < ab);
+    }
+
+    @Test
+    public void twoCycles_everyKindOfGraph(){
+      Graph<String> hash = GraphFactory.<String>createGraph();
+      addTwoCycles(hash);
+      checkTwoCycles(hash);
+      checkTwoCycles(GraphFactory.freeze(hash));
+
+      Graph<String> persistent = GraphFactory.<String>createPersistentGraph();
+      addTwoCycles(persistent);
+      checkTwoCycles(persistent);
+
+      Graph<String> weighted = GraphFactory.<String>createWeightedGraph();
+      addTwoCycles(weighted);
+      checkTwoCycles(weighted);
+    }
+
+    @Test
+    public void deepGraph_doesNotOverflow(){
+      int n = 300000;
+      Graph<Integer> g = GraphFactory.<Integer>createGraph();
+      for (int v = 0; v + 1 < n; v++){
+        g.addEdge(v, v + 1);
+      }
+      assertEquals("A path is all singletons", n, StronglyConnectedComponents.of(g).count());
+
+      g.addEdge(n - 1, 0);
+      StronglyConnectedComponents<Integer> scc = StronglyConnectedComponents.of(g);
+      assertEquals("A ring is one component", 1, scc.count());
+      assertEquals("Condensation has no edges", 0, scc.condensation().numEdges());
+    }
+
+    @Test
+    public void randomGraph_edgesRespectNumbering(){
+      Graph<Integer> g = GraphFactory.<Integer>createGraph();
+      Random random = new Random(22);
+      for (int i = 0; i < 3000; i++){
+        g.addEdge(random.nextInt(2000), random.nextInt(2000));
+      }
+      g.removeVertex(7);
+      StronglyConnectedComponents<Integer> scc = StronglyConnectedComponents.of(g);
+      Graph<Integer> dag = scc.condensation();
+
+      int members = 0;
+      for (int c = 0; c < scc.count(); c++){
+        members += scc.size(c);
+      }
+      assertEquals("Every vertex in one component", g.numVertices(), members);
+      assertEquals("Removed vertex", -1, scc.componentOf(7));
+      for (Integer v : g.getVertices()){
+        for (Integer w : g.adjacentTo(v)){
+          int a = scc.componentOf(v);
+          int b = scc.componentOf(w);
+          assertTrue("Edge goes down the numbering", b <= a);
+          assertEquals("Edge is condensed", a != b, dag.hasEdge(a, b));
+          assertEquals("Same component iff mutually reachable",
+                       g.hasPath(w, v), a == b);
+        }
+      }
+    }
+
+    @Test
+    public void result_isASnapshot(){
+      Graph<String> g = GraphFactory.<String>createGraph();
+      addTwoCycles(g);
+      StronglyConnectedComponents<String> scc = StronglyConnectedComponents.of(g);
+      g.addEdge("C", "B");
+      g.addVertex("G");
+
+      assertFalse("Later edges are not seen", scc.connected("B", "C"));
+      assertEquals("Later vertices are in no component", -1, scc.componentOf("G"));
+    }
+}
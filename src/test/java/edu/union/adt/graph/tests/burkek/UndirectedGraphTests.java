@@ -0,0 +1,154 @@
+package edu.union.adt.graph.tests.burkek;
+import java.util.*;
+import java.util.concurrent.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.ConcurrentUnionFind;
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.UndirectedGraph;
+
+@RunWith(JUnit4.class)
+public class UndirectedGraphTests
+{
+    @Test
+    public void edge_goesBothWaysAndCountsOnce(){
+      UndirectedGraph<String> g = GraphFactory.<String>createUndirectedGraph();
+      g.addEdge("A", "B");
+      g.addEdge("B", "A");
+      g.addEdge("B", "B");
+
+      assertEquals("Two edges", 2, g.numEdges());
+      assertTrue("A-B", g.hasEdge("A", "B"));
+      assertTrue("B-A", g.hasEdge("B", "A"));
+      assertEquals("A's neighbors", Collections.singleton("B"), new HashSet<>(toList(g.adjacentTo("A"))));
+      assertEquals("B's degree counts the loop once", 2, g.degree("B"));
+      assertEquals("Edges stream once each", 2, g.edges().count());
+
+      g.removeEdge("B", "A");
+      assertFalse("Removed both ways", g.hasEdge("A", "B"));
+      assertEquals("One edge left", 1, g.numEdges());
+      g.removeVertex("B");
+      assertEquals("No edges left", 0, g.numEdges());
+      assertEquals("A has no neighbors", 0, g.degree("A"));
+    }
+
+    private static <V> List<V> toList(Iterable<V> items){
+      List<V> list = new ArrayList<>();
+      for (V item : items){
+        list.add(item);
+      }
+      return list;
+    }
+
+    @Test
+    public void paths_matchDoubledDirectedGraph(){
+      UndirectedGraph<Integer> undirected = GraphFactory.<Integer>createUndirectedGraph();
+      Graph<Integer> doubled = GraphFactory.<Integer>createGraph();
+      Random random = new Random(25);
+      for (int i = 0; i < 600; i++){
+        int u = random.nextInt(500);
+        int v = random.nextInt(500);
+        undirected.addEdge(u, v);
+        doubled.addEdge(u, v);
+        doubled.addEdge(v, u);
+      }
+      for (int i = 0; i < 300; i++){
+        int u = random.nextInt(500);
+        int v = random.nextInt(500);
+        if (!undirected.contains(u) || !undirected.contains(v)){
+          continue;
+        }
+        assertEquals("hasPath " + u + " " + v, doubled.hasPath(u, v), undirected.hasPath(u, v));
+        assertEquals("pathLength " + u + " " + v, doubled.pathLength(u, v), undirected.pathLength(u, v));
+        List<Integer> path = toList(undirected.getPath(u, v));
+        int length = undirected.pathLength(u, v);
+        if (length != Integer.MAX_VALUE && length > 0){
+          assertEquals("Path has length + 1 vertices", length + 1, path.size());
+          for (int j = 0; j + 1 < path.size(); j++){
+            assertTrue("Path follows edges", undirected.hasEdge(path.get(j), path.get(j + 1)));
+          }
+        }
+      }
+    }
+
+    @Test
+    public void connectivityIndex_followsChanges(){
+      UndirectedGraph<Integer> g = GraphFactory.<Integer>createUndirectedGraph();
+      g.setConnectivityIndexed(true);
+      for (int v = 0; v < 100; v++){
+        g.addEdge(v, v + 1);
+      }
+      g.addEdge(200, 201);
+      assertTrue("Ends of the chain", g.connected(0, 100));
+      assertFalse("Separate pieces", g.connected(0, 200));
+      int builds = g.connectivityBuilds();
+
+      for (int v = 1000; v < 3000; v++){
+        g.addEdge(v, v - 1000);
+      }
+      assertTrue("Joined as edges are added", g.connected(2100, 0));
+      assertEquals("Adding edges never rebuilds", builds, g.connectivityBuilds());
+
+      g.removeEdge(50, 51);
+      assertFalse("Chain is cut", g.connected(0, 100));
+      assertFalse("hasPath agrees", g.hasPath(0, 100));
+      assertEquals("No path", Integer.MAX_VALUE, g.pathLength(0, 100));
+      assertTrue("Rebuilt once", g.connectivityBuilds() == builds + 1);
+      g.removeVertex(200);
+      g.addEdge(201, 0);
+      assertTrue("New edge after a removal", g.connected(201, 50));
+    }
+
+    @Test
+    public void unionFind_manyThreads(){
+      final int n = 200000;
+      final ConcurrentUnionFind sets = new ConcurrentUnionFind(n);
+      final int[] pairs = new int[2 * n];
+      Random random = new Random(25);
+      for (int i = 0; i < pairs.length; i++){
+        pairs[i] = random.nextInt(n);
+      }
+      ExecutorService pool = Executors.newFixedThreadPool(4);
+      try {
+        List<Future<?>> done = new ArrayList<>();
+        for (int t = 0; t < 4; t++){
+          final int part = t;
+          done.add(pool.submit(new Runnable() {
+            public void run(){
+              for (int i = part; i < n; i += 4){
+                sets.union(pairs[2 * i], pairs[2 * i + 1]);
+              }
+            }
+          }));
+        }
+        for (Future<?> f : done){
+          f.get();
+        }
+      }
+      catch (Exception e){
+        throw new AssertionError(e);
+      }
+      finally {
+        pool.shutdown();
+      }
+
+      // the same unions, one at a time
+      ConcurrentUnionFind expected = new ConcurrentUnionFind(n);
+      for (int i = 0; i < n; i++){
+        expected.union(pairs[2 * i], pairs[2 * i + 1]);
+      }
+      assertEquals("Same number of sets", expected.sets(), sets.sets());
+      for (int i = 0; i < 1000; i++){
+        int a = random.nextInt(n);
+        int b = pairs[2 * random.nextInt(n)];
+        assertEquals("connected " + a + " " + b, expected.connected(a, b), sets.connected(a, b));
+      }
+    }
+}
@@ -0,0 +1,165 @@
+package edu.union.adt.graph.tests.burkek;
+import java.util.*;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+import org.junit.Before;
+import org.junit.After;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import edu.union.adt.graph.Graph;
+import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.WeightedGraph;
+
+@RunWith(JUnit4.class)
+public class WeightedGraphTests
+{
+    private WeightedGraph<String> g;
+
+    @Before
+    public void setUp()
+    {
+        g = GraphFactory.<String>createWeightedGraph();
+        g.addEdge("A", "B", 10);
+        g.addEdge("A", "C", 1);
+        g.addEdge("C", "D", 2);
+        g.addEdge("D", "B", 3);
+        g.addEdge("B", "E", 1);
+    }
+
+    @After
+    public void tearDown()
+    {
+        g = null;
+    }
+
+    @Test
+    public void cheapestPath_isNotShortest(){
+      assertEquals("Fewest edges", 2, g.pathLength("A", "E"));
+      assertEquals("Cheapest cost", 7.0, g.pathCost("A", "E"), 0);
+      assertEquals("Cheapest path", Arrays.asList("A", "C", "D", "B", "E"),
+                   g.getCheapestPath("A", "E"));
+    }
+
+    @Test
+    public void addEdge_changesWeight(){
+      g.addEdge("A", "B", 2);
+
+      assertEquals("New weight", 2.0, g.weight("A", "B"), 0);
+      assertEquals("Still five edges", 5, g.numEdges());
+      assertEquals("Cheaper path", 3.0, g.pathCost("A", "E"), 0);
+      g.addEdge("A", "B");
+      assertEquals("Unweighted addEdge keeps the weight", 2.0, g.weight("A", "B"), 0);
+    }
+
+    @Test
+    public void noPath_isInfinite(){
+      assertEquals("No path back", Double.POSITIVE_INFINITY, g.pathCost("E", "A"), 0);
+      assertFalse("Empty path", g.getCheapestPath("E", "A").iterator().hasNext());
+      assertEquals("Path to itself is free", 0.0, g.pathCost("A", "A"), 0);
+      assertEquals("No edge", Double.POSITIVE_INFINITY, g.weight("B", "A"), 0);
+    }
+
+    @Test
+    public void removeVertex_removesItsEdges(){
+      g.addEdge("D", "D", 5);
+      g.removeVertex("D");
+
+      assertEquals("Edges left", 3, g.numEdges());
+      assertEquals("Only the direct route", 11.0, g.pathCost("A", "E"), 0);
+      g.addEdge("F", "E", 4);
+      assertEquals("Reused id starts clean", 0, g.degree("E"));
+      assertEquals("New edge", 4.0, g.pathCost("F", "E"), 0);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void negativeWeight_isRejected(){
+      g.addEdge("A", "B", -1);
+    }
+
+    @Test
+    public void highDegree_keepsWeightsThroughRemovals(){
+      WeightedGraph<Integer> h = GraphFactory.<Integer>createWeightedGraph();
+      for (int i = 1; i <= 200; i++){
+        h.addEdge(0, i, i);
+      }
+      for (int i = 2; i <= 200; i += 2){
+        h.removeEdge(0, i);
+      }
+      h.removeVertex(51);
+
+      assertEquals("Edges left", 99, h.degree(0));
+      for (int i = 1; i <= 200; i++){
+        boolean kept = i % 2 == 1 && i != 51;
+        assertEquals("Edge to " + i, kept, h.hasEdge(0, i));
+        if (kept){
+          assertEquals("Weight to " + i, (double) i, h.weight(0, i), 0);
+        }
+      }
+      h.addEdge(0, 51, 5);
+      assertEquals("Re-added edge", 5.0, h.weight(0, 51), 0);
+    }
+
+    @Test
+    public void randomGraphs_matchBellmanFord(){
+      Random random = new Random(19);
+      for (int round = 0; round < 20; round++){
+        int n = 30;
+        WeightedGraph<Integer> h = GraphFactory.<Integer>createWeightedGraph();
+        for (int i = 0; i < 90; i++){
+          h.addEdge(random.nextInt(n), random.nextInt(n), random.nextInt(20));
+        }
+        for (int i = 0; i < 10; i++){
+          h.removeEdge(random.nextInt(n), random.nextInt(n));
+        }
+        h.removeVertex(random.nextInt(n));
+        for (Integer from : h.getVertices()){
+          Map<Integer, Double> expected = bellmanFord(h, from);
+          for (Integer to : h.getVertices()){
+            double cost = expected.containsKey(to) ? expected.get(to) : Double.POSITIVE_INFINITY;
+            assertEquals("Cost " + from + " " + to, cost, h.pathCost(from, to), 1e-9);
+            if (!from.equals(to)){
+              assertEquals("Path cost " + from + " " + to, cost,
+                           costOf(h, h.getCheapestPath(from, to)), 1e-9);
+            }
+          }
+        }
+      }
+    }
+
+    private static Map<Integer, Double> bellmanFord(WeightedGraph<Integer> h, Integer source){
+      Map<Integer, Double> distance = new HashMap<>();
+      distance.put(source, 0.0);
+      for (int pass = 0; pass < h.numVertices(); pass++){
+        for (Integer u : h.getVertices()){
+          if (!distance.containsKey(u)){
+            continue;
+          }
+          for (Integer v : h.adjacentTo(u)){
+            double through = distance.get(u) + h.weight(u, v);
+            if (!distance.containsKey(v) || through < distance.get(v)){
+              distance.put(v, through);
+            }
+          }
+        }
+      }
+      return distance;
+    }
+
+    private static double costOf(WeightedGraph<Integer> h, Iterable<Integer> path){
+      double cost = 0;
+      Integer previous = null;
+      boolean any = false;
+      for (Integer v : path){
+        if (previous != null){
+          cost += h.weight(previous, v);
+        }
+        previous = v;
+        any = true;
+      }
+      return any ? cost : Double.POSITIVE_INFINITY;
+    }
+}
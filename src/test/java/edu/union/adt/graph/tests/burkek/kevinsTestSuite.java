@@ -6,7 +6,23 @@ import org.junit.runners.Suite;
 @RunWith(Suite.class)
 @Suite.SuiteClasses
 ({
-    kevinsTests.class
+    kevinsTests.class,
+    CsrGraphTests.class,
+    IntGraphTests.class,
+    CachingGraphTests.class,
+    ConcurrentGraphTests.class,
+    PersistentGraphTests.class,
+    EdgeListLoaderTests.class,
+    GraphIOTests.class,
+    OffHeapGraphTests.class,
+    GraphExportTests.class,
+    WeightedGraphTests.class,
+    AStarTests.class,
+    GraphStreamTests.class,
+    StronglyConnectedComponentsTests.class,
+    DagGraphTests.class,
+    PageRankTests.class,
+    UndirectedGraphTests.class
 })
 public class kevinsTestSuite
 { // no implementation needed; above annotations do the work.
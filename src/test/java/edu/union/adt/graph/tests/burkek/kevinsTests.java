@@ -15,6 +15,10 @@ import org.junit.runners.JUnit4;
 
 import edu.union.adt.graph.Graph;
 import edu.union.adt.graph.GraphFactory;
+import edu.union.adt.graph.HashGraph;
+import edu.union.adt.graph.PathQueries;
+import edu.union.adt.graph.ReachabilityIndex;
+import edu.union.adt.graph.SearchStrategy;
 
 @RunWith(JUnit4.class)
 public class kevinsTests
@@ -166,4 +170,196 @@ public class kevinsTests
     }
 
 
+    //addEdge, hasEdge and removeEdge on a vertex whose degree is above
+    //the hash threshold
+    @Test
+    public void highDegree_hashedEdges(){
+      Graph<Integer> hub = new HashGraph<Integer>(2);
+      for (int i = 0; i < 1000; i++){
+        hub.addEdge(0, i);
+        hub.addEdge(0, i);
+      }
+      for (int i = 0; i < 1000; i += 2){
+        hub.removeEdge(0, i);
+      }
+
+      assertEquals("Duplicate edges are not added to a hub", 500, hub.degree(0));
+      assertTrue("Remaining edge is still there", hub.hasEdge(0, 999));
+      assertFalse("Removed edge is gone", hub.hasEdge(0, 998));
+      assertEquals("Number of edges after removals", 500, hub.numEdges());
+    }
+
+    //predecessors and removeVertex with and without the in-edge index
+    @Test
+    public void predecessors_indexedAndScanned(){
+      HashGraph<String> indexed = new HashGraph<String>(HashGraph.DEFAULT_HASH_THRESHOLD, true);
+      HashGraph<String> scanned = new HashGraph<String>(HashGraph.DEFAULT_HASH_THRESHOLD, false);
+      for (HashGraph<String> h : Arrays.asList(indexed, scanned)){
+        h.addEdge("A", "C");
+        h.addEdge("B", "C");
+        h.addEdge("C", "C");
+        h.addEdge("C", "D");
+
+        assertEquals("C has three predecessors", 3, h.inDegree("C"));
+        assertEquals("A has no predecessors", 0, h.inDegree("A"));
+        assertEquals("Predecessors of D", Arrays.asList("C"), toList(h.predecessors("D")));
+
+        h.removeVertex("C");
+
+        assertEquals("Removing C removes all four edges", 0, h.numEdges());
+        assertEquals("D has no predecessors left", 0, h.inDegree("D"));
+        assertFalse("A no longer has an edge to C", h.hasEdge("A", "C"));
+      }
+      assertEquals("Graphs are equal with or without the index", indexed, scanned);
+    }
+
+    @Test
+    public void bidirectional_matchesForward(){
+      HashGraph<String> h = new HashGraph<String>();
+      h.addEdge("A", "B");
+      h.addEdge("B", "C");
+      h.addEdge("C", "D");
+      h.addEdge("C", "A");
+      h.addEdge("D", "G");
+      h.addEdge("G", "H");
+      h.addVertex("X");
+      h.setSearchStrategy(SearchStrategy.BIDIRECTIONAL);
+
+      assertTrue("hasPath when a later node points to start node", h.hasPath("A", "H"));
+      assertFalse("No path to an isolated vertex", h.hasPath("A", "X"));
+      assertEquals("Same length as a forward search",
+                   h.pathLength("A", "H", SearchStrategy.FORWARD), h.pathLength("A", "H"));
+      assertEquals("Unreachable path length", Integer.MAX_VALUE, h.pathLength("H", "A"));
+      assertEquals("Same path as a forward search",
+                   toList(h.getPath("A", "H", SearchStrategy.FORWARD)), toList(h.getPath("A", "H")));
+    }
+
+    @Test
+    public void reachabilityIndex_followsChanges(){
+      HashGraph<String> h = new HashGraph<String>();
+      h.setReachabilityIndexed(true);
+      h.addEdge("A", "B");
+      h.addEdge("B", "C");
+      h.addEdge("C", "A");
+      h.addEdge("C", "D");
+
+      assertTrue("hasPath through a cycle", h.hasPath("B", "D"));
+      assertFalse("No path back out of D", h.hasPath("D", "A"));
+      assertEquals("A, B and C collapse into one component", 2,
+                   h.getReachabilityIndex().components());
+
+      h.addEdge("A", "C");
+      assertTrue("Adding an edge inside a cycle keeps the index current",
+                 h.getReachabilityIndex().isCurrent());
+
+      h.removeEdge("C", "D");
+      assertFalse("Removing an edge is seen by the index", h.hasPath("B", "D"));
+      h.addEdge("D", "A");
+      assertTrue("Adding an edge is seen by the index", h.hasPath("D", "B"));
+    }
+
+    @Test
+    public void reachabilityIndex_searchesWhenOverBudget(){
+      HashGraph<Integer> h = new HashGraph<Integer>();
+      h.setReachabilityIndexed(true);
+      for (int v = 0; v < 500; v++){
+        h.addEdge(v, v + 1);
+      }
+      h.addEdge(1000, 0);
+      ReachabilityIndex index = h.getReachabilityIndex();
+      index.setMaxBytes(4096);
+
+      assertTrue("Down the chain", h.hasPath(0, 500));
+      assertTrue("Into the chain from outside", h.hasPath(1000, 250));
+      assertFalse("Not back up the chain", h.hasPath(500, 0));
+      assertFalse("Not out of the chain", h.hasPath(250, 1000));
+      assertTrue("A vertex reaches itself", h.hasPath(7, 7));
+      assertTrue("A DAG of 502 vertices is over a 4 KB budget", index.isOverBudget());
+      assertTrue("Bitsets were projected, not built",
+                 index.projectedBytes() > 4096 && index.memoryBytes() < 4096);
+      assertEquals("Only the two forward queries searched", 2, index.searches());
+
+      index.setMaxBytes(ReachabilityIndex.DEFAULT_MAX_BYTES);
+      assertTrue("Same answer from the bitsets", h.hasPath(1000, 250));
+      assertFalse("Fits the default budget", index.isOverBudget());
+      assertEquals("No more searches", 2, index.searches());
+    }
+
+    @Test
+    public void pathLengths_batchMatchesSingleCalls(){
+      g.addEdge("A", "B");
+      g.addEdge("B", "C");
+      g.addEdge("C", "D");
+      g.addEdge("C", "A");
+      g.addEdge("D", "G");
+      g.addEdge("G", "H");
+      g.addVertex("X");
+
+      List<Map.Entry<String, String>> pairs = new ArrayList<>();
+      String[] names = {"A", "C", "H", "X", "Q"};
+      for (String from : names){
+        for (String to : names){
+          pairs.add(new AbstractMap.SimpleEntry<String, String>(from, to));
+        }
+      }
+      int[] lengths = PathQueries.pathLengths(g, pairs);
+      int[] frozenLengths = PathQueries.pathLengths(GraphFactory.freeze(g), pairs,
+                                                    java.util.concurrent.ForkJoinPool.commonPool());
+      for (int i = 0; i < pairs.size(); i++){
+        Map.Entry<String, String> pair = pairs.get(i);
+        assertEquals("pathLength " + pair, g.pathLength(pair.getKey(), pair.getValue()), lengths[i]);
+        assertEquals("pathLength " + pair, lengths[i], frozenLengths[i]);
+      }
+    }
+
+    @Test
+    public void addEdges_matchesAddEdge(){
+      HashGraph<String> bulk = new HashGraph<>(2);
+      HashGraph<String> single = new HashGraph<>(2);
+      bulk.addEdge("A", "B");
+      single.addEdge("A", "B");
+      String[][] edges = {{"A", "C"}, {"A", "B"}, {"C", "D"}, {"C", "A"}, {"C", "D"},
+                          {"D", "D"}, {"E", "A"}, {"C", "E"}, {"C", "F"}, {"A", "G"}};
+      List<Map.Entry<String, String>> pairs = new ArrayList<>();
+      for (String[] edge : edges){
+        pairs.add(new AbstractMap.SimpleEntry<String, String>(edge[0], edge[1]));
+        single.addEdge(edge[0], edge[1]);
+      }
+      bulk.addEdges(pairs);
+
+      assertEquals("Same graph", single, bulk);
+      assertEquals("Duplicates are dropped", single.numEdges(), bulk.numEdges());
+      for (String v : single.getVertices()){
+        assertEquals("Same order from " + v, toList(single.adjacentTo(v)), toList(bulk.adjacentTo(v)));
+        assertEquals("Same in-degree of " + v, single.inDegree(v), bulk.inDegree(v));
+      }
+    }
+
+    @Test
+    public void addEdges_nullLeavesGraphUnchanged(){
+      HashGraph<String> h = new HashGraph<>();
+      h.addEdge("A", "B");
+      List<Map.Entry<String, String>> pairs = new ArrayList<>();
+      pairs.add(new AbstractMap.SimpleEntry<String, String>("C", "D"));
+      pairs.add(new AbstractMap.SimpleEntry<String, String>("A", "E"));
+      pairs.add(new AbstractMap.SimpleEntry<String, String>("F", null));
+      try {
+        h.addEdges(pairs);
+        fail("A null vertex is rejected");
+      }
+      catch (IllegalArgumentException expected){
+      }
+      assertEquals("No vertices added", 2, h.numVertices());
+      assertEquals("No edges added", 1, h.numEdges());
+      assertFalse("C was not added", h.contains("C"));
+    }
+
+    private static List<String> toList(Iterable<String> it){
+      List<String> l = new ArrayList<>();
+      for (String s : it){
+        l.add(s);
+      }
+      return l;
+    }
+
 }